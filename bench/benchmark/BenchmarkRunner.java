@@ -0,0 +1,178 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * マイクロベンチマークを実行し、1秒あたりの処理回数とメモリ割り当て量を計測するクラス<br>
+ * ウォームアップの後、一定時間ごとの計測を繰り返し、処理回数の平均・標準偏差を求める。
+ * メモリ割り当て量は、計測するスレッドが割り当てたバイト数（{@code com.sun.management.ThreadMXBean}）から求める。
+ * @author komoto
+ */
+public class BenchmarkRunner {
+
+    /**
+     * 計測する処理を表すインタフェース
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * 処理を1回実行する
+         * @param count 実行した回数（入力データを順番に切り替えるために使用する）
+         * @return 処理の結果。JIT コンパイラによる処理の削除を防ぐため、結果に応じた値を返すこと。
+         */
+        long run(long count);
+    }
+
+    /** ウォームアップの回数 */
+    private final int warmupIterations;
+
+    /** 計測の回数 */
+    private final int measureIterations;
+
+    /** 1回のウォームアップ・計測の時間（ミリ秒） */
+    private final long iterationMillis;
+
+    /** スレッドごとのメモリ割り当て量を取得する。取得できない環境の場合は {@code null} */
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    /** 計測結果の一覧 */
+    private final List<String> results;
+
+    /** 処理の結果を集める変数（JIT コンパイラによる処理の削除を防ぐ） */
+    private volatile long sink;
+
+    /**
+     * 初期化を行う
+     * @param warmupIterations ウォームアップの回数
+     * @param measureIterations 計測の回数（{@code 1} 以上）
+     * @param iterationMillis 1回のウォームアップ・計測の時間（ミリ秒）
+     */
+    public BenchmarkRunner(int warmupIterations, int measureIterations, long iterationMillis) {
+        this.warmupIterations = Math.max(warmupIterations, 0);
+        this.measureIterations = Math.max(measureIterations, 1);
+        this.iterationMillis = Math.max(iterationMillis, 1);
+        this.results = new ArrayList<>();
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.allocationBean = (com.sun.management.ThreadMXBean) bean;
+            this.allocationBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.allocationBean = null;
+        }
+    }
+
+    /**
+     * 計測結果の見出しを取得する
+     * @return 見出しの文字列
+     */
+    public static String getHeader() {
+        return String.format("%-40s %16s %12s %14s %12s", "Benchmark", "ops/s", "error(±)", "alloc B/op",
+                "alloc MB/s");
+    }
+
+    /**
+     * ベンチマークを実行し、結果を標準出力に表示する
+     * @param name ベンチマークの名前
+     * @param operation 計測する処理
+     * @return 結果の文字列
+     */
+    public String run(String name, Operation operation) {
+        long count = 0;
+
+        // ウォームアップ（JIT コンパイルを済ませる）
+        for (int i = 0; i < warmupIterations; i++) {
+            count = runIteration(operation, count, null);
+        }
+
+        // 計測
+        double[] opsPerSec = new double[measureIterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        long totalNanos = 0;
+        long[] measured = new long[3];
+        for (int i = 0; i < measureIterations; i++) {
+            count = runIteration(operation, count, measured);
+            opsPerSec[i] = measured[0] * 1e9 / measured[1];
+            totalOps += measured[0];
+            totalNanos += measured[1];
+            totalBytes += measured[2];
+        }
+
+        double mean = 0;
+        for (double value : opsPerSec) {
+            mean += value;
+        }
+        mean /= measureIterations;
+        double variance = 0;
+        for (double value : opsPerSec) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = (measureIterations > 1) ? Math.sqrt(variance / (measureIterations - 1)) : 0;
+
+        String result;
+        if (allocationBean != null) {
+            result = String.format("%-40s %16.3f %12.3f %14.1f %12.3f", name, mean, error,
+                    (double) totalBytes / totalOps, totalBytes / 1048576.0 / (totalNanos / 1e9));
+        } else {
+            result = String.format("%-40s %16.3f %12.3f %14s %12s", name, mean, error, "N/A", "N/A");
+        }
+        System.out.println(result);
+        results.add(result);
+        return result;
+    }
+
+    /**
+     * これまでの計測結果を取得する
+     * @return 計測結果の文字列の一覧
+     */
+    public List<String> getResults() {
+        return results;
+    }
+
+    /**
+     * 決められた時間だけ処理を繰り返す
+     * @param operation 計測する処理
+     * @param count これまでに実行した回数
+     * @param measured 計測結果を格納する配列（処理回数, 経過時間(ナノ秒), 割り当てたバイト数）。計測しない場合は {@code null}
+     * @return 実行後の回数
+     */
+    private long runIteration(Operation operation, long count, long[] measured) {
+        final long threadId = Thread.currentThread().getId();
+        final long startBytes = (allocationBean != null) ? allocationBean.getThreadAllocatedBytes(threadId) : 0;
+        final long start = System.nanoTime();
+        final long end = start + iterationMillis * 1000000L;
+
+        long result = 0;
+        long ops = 0;
+        long batch = 1;
+        long now = start;
+        do {
+            final long batchStart = now;
+            for (long i = 0; i < batch; i++) {
+                result += operation.run(count++);
+            }
+            ops += batch;
+            now = System.nanoTime();
+
+            // 時刻の取得による誤差を減らすため、短い処理はまとめて実行する（1回のまとまりが約1ミリ秒になるまで増やす）
+            if (now - batchStart < 1000000L && batch < (1L << 24)) {
+                batch <<= 1;
+            }
+        } while (now - end < 0);
+
+        final long endBytes = (allocationBean != null) ? allocationBean.getThreadAllocatedBytes(threadId) : 0;
+        sink += result;
+
+        if (measured != null) {
+            measured[0] = ops;
+            measured[1] = now - start;
+            measured[2] = endBytes - startBytes;
+        }
+        return count;
+    }
+}
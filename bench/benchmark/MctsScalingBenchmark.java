@@ -0,0 +1,88 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import algorithm.Mcts01;
+
+/**
+ * モンテカルロ木探索の並列探索で、スレッド数ごとの1秒あたりのプレイアウトの回数と競合の回数を計測するツール<br>
+ * 中盤の局面（{@link PositionCorpus}）をそれぞれ指定した時間だけ探索し、逐次探索に対する倍率と、
+ * プレイアウト1回あたりの CAS のやり直し・展開の競合の回数を表示する。
+ * スレッド数は {@code 1} から指定した最大数まで2倍ずつ増やす（最大数は必ず計測する）。
+ * <p>
+ * 使用方法: {@code java -cp <クラスパス> benchmark.MctsScalingBenchmark [最大スレッド数] [1局面あたりの探索時間(ミリ秒)]}<br>
+ * 最大スレッド数を省略した場合は CPU のコア数、探索時間を省略した場合は {@code 1000} とする。
+ * @author komoto
+ */
+public class MctsScalingBenchmark {
+
+    /** 探索時間を省略した場合の時間（ミリ秒） */
+    private static final long DEFAULT_TIME_LIMIT = 1000;
+
+    /**
+     * 計測を行い、結果を表示する
+     * @param args [0] 最大スレッド数（省略可）, [1] 1局面あたりの探索時間(ミリ秒)（省略可）
+     */
+    public static void main(String[] args) {
+        final int maxThreadNum = (args.length > 0) ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+        final long timeLimit = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_TIME_LIMIT;
+        final PositionCorpus corpus = new PositionCorpus(PositionCorpus.Phase.MIDGAME);
+
+        System.out.println(String.format("%-10s %14s %8s %14s %14s", "threads", "playouts/s", "speedup",
+                "cas-retry/po", "collision/po"));
+        final double sequentialRate = measure(corpus, 0, timeLimit, 0.0);
+        for (int threadNum = 1;; threadNum = Math.min(threadNum * 2, maxThreadNum)) {
+            measure(corpus, threadNum, timeLimit, sequentialRate);
+            if (threadNum >= maxThreadNum) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 全ての局面を探索し、結果を1行表示する
+     * @param corpus 探索する局面
+     * @param threadNum スレッド数（{@code 0} の場合は逐次探索）
+     * @param timeLimit 1局面あたりの探索時間（ミリ秒）
+     * @param sequentialRate 逐次探索の1秒あたりのプレイアウトの回数（逐次探索を計測する場合は使用しない）
+     * @return 1秒あたりのプレイアウトの回数
+     */
+    private static double measure(PositionCorpus corpus, int threadNum, long timeLimit, double sequentialRate) {
+        ForkJoinPool pool = (threadNum > 0) ? new ForkJoinPool(threadNum) : null;
+        long playouts = 0;
+        long casRetries = 0;
+        long collisions = 0;
+        long elapsed = 0;
+        try {
+            for (int i = 0; i < corpus.size(); i++) {
+                Mcts01 algorithm = new Mcts01(corpus.getBoard(i), corpus.getTurnDisc(i));
+                algorithm.setEndgameEmpties(0);
+                algorithm.setTimeLimit(timeLimit);
+                if (pool != null) {
+                    algorithm.setParallel(true);
+                    algorithm.setPool(pool);
+                } else {
+                    algorithm.setParallel(false);
+                }
+
+                long start = System.nanoTime();
+                algorithm.run();
+                elapsed += System.nanoTime() - start;
+                playouts += algorithm.getPlayoutCount();
+                casRetries += algorithm.getCasRetryCount();
+                collisions += algorithm.getExpansionCollisionCount();
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        final double rate = playouts / (elapsed / 1e9);
+        final double speedup = (threadNum == 0) ? 1.0 : rate / sequentialRate;
+        System.out.println(String.format("%-10s %,14.0f %8.2f %14.4f %14.4f", (threadNum == 0) ? "seq" : threadNum,
+                rate, speedup, (double) casRetries / playouts, (double) collisions / playouts));
+        return rate;
+    }
+}
@@ -0,0 +1,82 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import algorithm.MiniMax01;
+import reversi.Dimension;
+
+/**
+ * Mini_Max法の逐次探索と並列探索で、探索時間と逐次探索に対する倍率を計測するツール<br>
+ * 序盤・中盤の局面（{@link PositionCorpus}）をそれぞれ逐次探索・並列探索で1回ずつ探索し、合計の探索時間を表示する。
+ * 1回目の探索はウォームアップとして計測しない。また、逐次探索と並列探索で選んだ座標が異なる局面の数も表示する
+ * （評価値に乱数を加算する設定の場合は、異なる座標を選ぶことがある）。
+ * <p>
+ * 使用方法: {@code java -cp <クラスパス> benchmark.MiniMaxParallelBenchmark [スレッド数]}<br>
+ * スレッド数を省略した場合は CPU のコア数とする。
+ * @author komoto
+ */
+public class MiniMaxParallelBenchmark {
+
+    /**
+     * 計測を行い、結果を表示する
+     * @param args [0] 並列探索のスレッド数（省略可）
+     */
+    public static void main(String[] args) {
+        final int threadNum = (args.length > 0) ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+
+        System.out.println(String.format("%-10s %8s %14s %14s %8s %10s", "phase", "threads", "sequential ms",
+                "parallel ms", "speedup", "mismatch"));
+        ForkJoinPool pool = new ForkJoinPool(threadNum);
+        try {
+            // ウォームアップ
+            measure(PositionCorpus.Phase.OPENING, pool, threadNum, false);
+
+            for (PositionCorpus.Phase phase : new PositionCorpus.Phase[] { PositionCorpus.Phase.OPENING,
+                    PositionCorpus.Phase.MIDGAME }) {
+                measure(phase, pool, threadNum, true);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 全ての局面を逐次探索・並列探索で探索し、結果を1行表示する
+     * @param phase 探索する局面の進行度
+     * @param pool 並列探索に使用するスレッドプール
+     * @param threadNum 並列探索のスレッド数（表示のみに使用する）
+     * @param isPrint 結果を表示する場合は真 {@code true}
+     */
+    private static void measure(PositionCorpus.Phase phase, ForkJoinPool pool, int threadNum, boolean isPrint) {
+        final PositionCorpus corpus = new PositionCorpus(phase);
+        long sequentialTime = 0;
+        long parallelTime = 0;
+        int mismatch = 0;
+        for (int i = 0; i < corpus.size(); i++) {
+            MiniMax01 sequential = new MiniMax01(corpus.getBoard(i), corpus.getTurnDisc(i));
+            sequential.setEndgameEmpties(0);
+            sequential.setParallel(false);
+            long start = System.nanoTime();
+            Dimension expected = sequential.run();
+            sequentialTime += System.nanoTime() - start;
+
+            MiniMax01 parallel = new MiniMax01(corpus.getBoard(i), corpus.getTurnDisc(i));
+            parallel.setEndgameEmpties(0);
+            parallel.setParallel(true);
+            parallel.setPool(pool);
+            start = System.nanoTime();
+            Dimension actual = parallel.run();
+            parallelTime += System.nanoTime() - start;
+
+            if (expected != null && actual != null && !expected.getString().equals(actual.getString())) {
+                mismatch++;
+            }
+        }
+
+        if (isPrint) {
+            System.out.println(String.format("%-10s %8d %,14.1f %,14.1f %8.2f %10d", phase, threadNum,
+                    sequentialTime / 1e6, parallelTime / 1e6, (double) sequentialTime / parallelTime, mismatch));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark;
+
+import algorithm.AlphaBeta01;
+import algorithm.MoveOrdering;
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 手の並び替え（{@link MoveOrdering}）の効果を確認するツール<br>
+ * 序盤・中盤の局面（{@link PositionCorpus}）を {@link AlphaBeta01} で指定した深さまで探索し、
+ * キラー手・ヒストリーを使用する場合・使用しない場合（ハッシュ手の後は行・列の昇順）のそれぞれで、
+ * 探索したノード数・最初に評価した手が最善手だった割合・探索時間を表示する。
+ * <p>
+ * 使用方法: {@code java -cp <クラスパス> benchmark.MoveOrderingBenchmark [探索の深さ]}<br>
+ * 探索の深さを省略した場合は {@code 6} とする。
+ * @author komoto
+ */
+public class MoveOrderingBenchmark {
+
+    /** 探索の深さを省略した場合の深さ */
+    private static final int DEFAULT_DEPTH = 6;
+
+    /**
+     * 探索を行い、結果を表示する
+     * @param args [0] 探索の深さ（省略可）
+     */
+    public static void main(String[] args) {
+        final int depth = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+
+        System.out.println(String.format("%-8s %-10s %14s %10s %10s", "phase", "heuristics", "nodes", "first best",
+                "time(ms)"));
+        for (PositionCorpus.Phase phase : new PositionCorpus.Phase[] { PositionCorpus.Phase.OPENING,
+                PositionCorpus.Phase.MIDGAME }) {
+            PositionCorpus corpus = new PositionCorpus(phase);
+            for (boolean isEnabled : new boolean[] { false, true }) {
+                long nodes = 0;
+                long bestFound = 0;
+                long firstBest = 0;
+                final long start = System.nanoTime();
+
+                for (int i = 0; i < corpus.size(); i++) {
+                    Board board = corpus.getBoard(i);
+                    Disc turnDisc = corpus.getTurnDisc(i);
+
+                    // 終局まで読み切らず、評価関数で探索させる
+                    AlphaBeta01 algorithm = new AlphaBeta01(board, turnDisc, depth);
+                    algorithm.setEndgameEmpties(0);
+                    algorithm.getMoveOrdering().setHeuristicsEnabled(isEnabled);
+                    algorithm.run();
+
+                    MoveOrdering ordering = algorithm.getMoveOrdering();
+                    nodes += algorithm.getNodeCount();
+                    bestFound += ordering.getBestFoundCount();
+                    firstBest += ordering.getFirstBestCount();
+                }
+
+                final long elapsed = System.nanoTime() - start;
+                final double rate = (bestFound == 0) ? 0.0 : 100.0 * firstBest / bestFound;
+                System.out.println(String.format("%-8s %-10s %,14d %9.1f%% %10.1f", phase, isEnabled, nodes, rate,
+                        elapsed / 1e6));
+            }
+        }
+    }
+}
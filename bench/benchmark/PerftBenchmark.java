@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import common.Global;
+import reversi.Perft;
+
+/**
+ * 石を置ける位置の算出・石を置く処理の正しさと速さを、局面数（{@link Perft}）を数えて確認するツール<br>
+ * 1手先から指定した手数先まで、1つのスレッド・並列のそれぞれで局面数を数え、1秒あたりに数えた局面数を表示する。
+ * 初期局面から数える場合は既知の値と比較し、一致しない場合は異常終了する。
+ * <p>
+ * 使用方法: {@code java -cp <クラスパス> benchmark.PerftBenchmark [手数] [局面を表す文字列]}<br>
+ * 手数を省略した場合は {@code 9}、局面を省略した場合は初期局面（{@link Perft#START_POSITION}）とする。
+ * 並列で数えるスレッド数はシステムプロパティ {@code perft.threads} で変更できる（省略した場合は CPU のコア数）。
+ * @author komoto
+ */
+public class PerftBenchmark {
+
+    /** 手数を省略した場合の手数 */
+    private static final int DEFAULT_DEPTH = 9;
+
+    /**
+     * 局面数を数え、結果を表示する
+     * @param args [0] 手数（省略可）, [1] 局面を表す文字列（省略可）
+     */
+    public static void main(String[] args) {
+        final int maxDepth = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        final String position = (args.length > 1) ? args[1] : Perft.START_POSITION;
+        final boolean isStartPosition = Perft.START_POSITION.replaceAll("\\s", "")
+                .equals(position.replaceAll("\\s", ""));
+        final int threads = Integer.getInteger("perft.threads", Runtime.getRuntime().availableProcessors());
+
+        Perft perft = Perft.parse(position);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        boolean isMatched = true;
+
+        System.out.println(String.format("%5s %16s %16s %16s %16s %s", "depth", "nodes", "nodes/s",
+                "parallel nodes", "parallel nodes/s", "reference"));
+        try {
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.count(depth);
+                long elapsed = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                long parallelNodes = perft.countParallel(depth, pool);
+                long parallelElapsed = System.nanoTime() - start;
+
+                // 初期局面の場合は既知の値と比較する
+                String reference = "-";
+                long referenceCount = Perft.getReferenceCount(depth);
+                if (isStartPosition && referenceCount != Perft.UNKNOWN_COUNT) {
+                    reference = (nodes == referenceCount) ? "OK" : "NG (expected " + referenceCount + ")";
+                    isMatched &= (nodes == referenceCount);
+                }
+                if (nodes != parallelNodes) {
+                    reference += " NG (parallel count differs)";
+                    isMatched = false;
+                }
+
+                System.out.println(String.format("%5d %16d %16.0f %16d %16.0f %s", depth, nodes,
+                        nodes * 1e9 / Math.max(elapsed, 1), parallelNodes,
+                        parallelNodes * 1e9 / Math.max(parallelElapsed, 1), reference));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        if (!isMatched) {
+            System.err.println("局面数が一致しませんでした");
+            System.exit(Global.EXIT_FAILURE);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+import reversi.Player;
+import reversi.Reversi;
+
+/**
+ * ベンチマークに使用する局面の集合を定義するクラス<br>
+ * 固定のシードでランダムに石を置いて局面を生成するため、実行ごとに同じ局面となる。
+ * @author komoto
+ */
+public class PositionCorpus {
+
+    /**
+     * 局面の進行度
+     */
+    public enum Phase {
+        /** 序盤（空きマスが {@code 54} 個） */
+        OPENING(54),
+        /** 中盤（空きマスが {@code 34} 個） */
+        MIDGAME(34),
+        /** 終盤（空きマスが {@code 14} 個、終局までの読み切りの対象） */
+        ENDGAME(14);
+
+        /** 局面の空きマスの数 */
+        private final int empties;
+
+        /**
+         * 進行度を定義する
+         * @param empties 局面の空きマスの数
+         */
+        private Phase(int empties) {
+            this.empties = empties;
+        }
+
+        /**
+         * 局面の空きマスの数を取得する
+         * @return 空きマスの数
+         */
+        public int getEmpties() {
+            return empties;
+        }
+    }
+
+    /** 局面を生成する乱数のシード */
+    private static final long SEED = 20240101L;
+
+    /** 進行度ごとの局面の数 */
+    public static final int POSITION_NUM = 8;
+
+    /** 局面のリバーシ盤 */
+    private final Board[] boards;
+
+    /** 局面で次に石を置くプレイヤーの石 */
+    private final Disc[] turnDiscs;
+
+    /** 局面に至るまでに石を置いたマスのビット位置 */
+    private final List<int[]> moveLists;
+
+    /** 局面に至るまでに石を置いたプレイヤーの石 */
+    private final List<Disc[]> discLists;
+
+    /**
+     * 進行度に応じた局面を生成する
+     * @param phase 局面の進行度
+     */
+    public PositionCorpus(Phase phase) {
+        this.boards = new Board[POSITION_NUM];
+        this.turnDiscs = new Disc[POSITION_NUM];
+        this.moveLists = new ArrayList<>();
+        this.discLists = new ArrayList<>();
+
+        Random random = new Random(SEED + phase.ordinal());
+        for (int i = 0; i < POSITION_NUM; i++) {
+            generate(i, phase.getEmpties(), random);
+        }
+    }
+
+    /**
+     * 局面の数を取得する
+     * @return 局面の数
+     */
+    public int size() {
+        return boards.length;
+    }
+
+    /**
+     * 局面のリバーシ盤を取得する
+     * @param index 局面の番号
+     * @return リバーシ盤（ベンチマークで変更しないこと）
+     */
+    public Board getBoard(int index) {
+        return boards[index];
+    }
+
+    /**
+     * 局面で次に石を置くプレイヤーの石を取得する
+     * @param index 局面の番号
+     * @return 次に石を置くプレイヤーの石
+     */
+    public Disc getTurnDisc(int index) {
+        return turnDiscs[index];
+    }
+
+    /**
+     * 局面に至るまで石を置いた {@link Reversi} を生成する
+     * @param index 局面の番号
+     * @param playerBlack 先手・黒のプレイヤー
+     * @param playerWhite 後手・白のプレイヤー
+     * @return 局面と同じ状態で、次に石を置くプレイヤーが手番となっているゲーム
+     */
+    public Reversi createReversi(int index, Player playerBlack, Player playerWhite) {
+        Reversi reversi = new Reversi(playerBlack, playerWhite);
+        int[] moves = moveLists.get(index);
+        Disc[] discs = discLists.get(index);
+
+        for (int i = 0; i < moves.length; i++) {
+            // 石を置けずにスキップした場合は、手番を進めて合わせる
+            if (reversi.getCurrentPlayer().getUseDisc() != discs[i]) {
+                reversi.next();
+            }
+            reversi.put(BitBoard.toDimension(moves[i]));
+            reversi.next();
+        }
+        if (reversi.getCurrentPlayer().getUseDisc() != turnDiscs[index]) {
+            reversi.next();
+        }
+        return reversi;
+    }
+
+    /**
+     * 全てのマスの座標の一覧を取得する
+     * @return 全てのマスの座標
+     */
+    public Dimension[] getAllDimensions() {
+        Dimension[] dimensions = new Dimension[BitBoard.CELL_NUM];
+        for (int i = 0; i < BitBoard.CELL_NUM; i++) {
+            dimensions[i] = BitBoard.toDimension(i);
+        }
+        return dimensions;
+    }
+
+    /**
+     * 空きマスが指定した数になるまでランダムに石を置き、局面を生成する<br>
+     * 指定した数になる前に終局した場合や、次に石を置くプレイヤーがいない場合はやり直す。
+     * @param index 局面の番号
+     * @param empties 空きマスの数
+     * @param random 乱数
+     */
+    private void generate(int index, int empties, Random random) {
+        while (true) {
+            Board board = new Board(8, 8);
+            int[] moves = new int[BitBoard.CELL_NUM];
+            Disc[] discs = new Disc[BitBoard.CELL_NUM];
+            int moveNum = 0;
+            Disc disc = Disc.BLACK;
+
+            while (board.getEmptyDiscNum() > empties
+                    && (board.canPutAll(Disc.BLACK) || board.canPutAll(Disc.WHITE))) {
+                long movable = board.getMovableBits(disc);
+                if (movable != 0) {
+                    int skip = random.nextInt(Long.bitCount(movable));
+                    for (int i = 0; i < skip; i++) {
+                        movable &= movable - 1;
+                    }
+                    int move = Long.numberOfTrailingZeros(movable);
+                    board.doMove(move, disc);
+                    moves[moveNum] = move;
+                    discs[moveNum] = disc;
+                    moveNum++;
+                }
+                disc = disc.next();
+            }
+
+            if (board.getEmptyDiscNum() != empties) {
+                continue;
+            }
+            if (!board.canPutAll(disc)) {
+                disc = disc.next();
+                if (!board.canPutAll(disc)) {
+                    continue;
+                }
+            }
+
+            boards[index] = board;
+            turnDiscs[index] = disc;
+            moveLists.add(Arrays.copyOf(moves, moveNum));
+            discLists.add(Arrays.copyOf(discs, moveNum));
+            return;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import algorithm.AlgorithmType;
+import algorithm.AlphaBeta01;
+import algorithm.Mcts01;
+import algorithm.MiniMax01;
+import algorithm.MobilityEvaluator;
+import algorithm.NegaScout01;
+import algorithm.PatternEvaluator;
+import benchmark.PositionCorpus.Phase;
+import book.OpeningBook;
+import book.OpeningBookBuilder;
+import gamerecord.GameRecordFile;
+import match.MatchRunner;
+import model.ReversiData;
+import model.ReversiModel;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+import reversi.Player;
+import reversi.Reversi;
+
+/**
+ * リバーシ盤・アルゴリズムの主要な処理の性能を計測するベンチマーク<br>
+ * 序盤・中盤・終盤の固定の局面（{@link PositionCorpus}）に対して各処理の1秒あたりの処理回数と、1回あたりのメモリ割り当て量を計測する。
+ * また、COM 同士の対局を最後まで行い、1秒あたりの対局数を計測する。
+ * <p>
+ * 使用方法: {@code java -cp <クラスパス> benchmark.ReversiBenchmark [名前のフィルタ] [結果の出力先ファイル]}<br>
+ * 名前のフィルタを指定した場合は、名前にその文字列を含むベンチマークのみ実行する。
+ * 計測時間はシステムプロパティ {@code bench.warmup}（ウォームアップ回数）, {@code bench.iterations}（計測回数）,
+ * {@code bench.time}（1回の時間(ミリ秒)）で変更できる。
+ * @author komoto
+ */
+public class ReversiBenchmark {
+
+    /** {@code Mcts01.run} の計測で、1手あたりに行うプレイアウトの回数 */
+    private static final int MCTS_PLAYOUT_NUM = 1000;
+
+    /** {@code Mcts01.run} の計測で使用する、木のノードの数の上限 */
+    private static final int MCTS_NODE_CAPACITY = 1 << 16;
+
+    /** {@code OpeningBook.chooseMove} の計測で、定石の作成に使用する対局の数 */
+    private static final int BOOK_GAME_NUM = 200;
+
+    /** 実行するベンチマークの名前のフィルタ */
+    private final String filter;
+
+    /** ベンチマークを実行するインスタンス */
+    private final BenchmarkRunner runner;
+
+    /**
+     * 初期化を行う
+     * @param filter 実行するベンチマークの名前のフィルタ（全て実行する場合は空文字列）
+     * @param runner ベンチマークを実行するインスタンス
+     */
+    public ReversiBenchmark(String filter, BenchmarkRunner runner) {
+        this.filter = filter;
+        this.runner = runner;
+    }
+
+    /**
+     * ベンチマークを実行する
+     * @param args [0] 名前のフィルタ（省略可）, [1] 結果の出力先ファイル（省略可）
+     * @throws IOException 結果の出力に失敗した
+     */
+    public static void main(String[] args) throws IOException {
+        String filter = (args.length > 0) ? args[0] : "";
+        BenchmarkRunner runner = new BenchmarkRunner(Integer.getInteger("bench.warmup", 3),
+                Integer.getInteger("bench.iterations", 5), Long.getLong("bench.time", 1000L));
+
+        System.out.println(BenchmarkRunner.getHeader());
+        ReversiBenchmark benchmark = new ReversiBenchmark(filter, runner);
+        for (Phase phase : Phase.values()) {
+            benchmark.runBoard(phase);
+        }
+        for (Phase phase : Phase.values()) {
+            benchmark.runAlgorithm(phase);
+        }
+        benchmark.runOpeningBook();
+        benchmark.runGame();
+
+        if (args.length > 1) {
+            List<String> lines = new ArrayList<>();
+            lines.add(BenchmarkRunner.getHeader());
+            lines.addAll(runner.getResults());
+            Files.write(Paths.get(args[1]), lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * リバーシ盤の処理を計測する
+     * @param phase 局面の進行度
+     */
+    private void runBoard(Phase phase) {
+        final PositionCorpus corpus = new PositionCorpus(phase);
+        final int size = corpus.size();
+        final Dimension[] dimensions = corpus.getAllDimensions();
+
+        // 石を置ける座標と、置いた時に反転する石（元に戻すため）を事前に求める
+        List<Integer> putPositions = new ArrayList<>();
+        List<Dimension> putTargets = new ArrayList<>();
+        List<Long> putFlips = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Board board = corpus.getBoard(i);
+            long movable = board.getMovableBits(corpus.getTurnDisc(i));
+            while (movable != 0) {
+                int index = Long.numberOfTrailingZeros(movable);
+                movable &= movable - 1;
+
+                long flip = board.doMove(index, corpus.getTurnDisc(i));
+                board.undoMove(index, corpus.getTurnDisc(i), flip);
+                putPositions.add(i);
+                putTargets.add(dimensions[index]);
+                putFlips.add(flip);
+            }
+        }
+
+        // 局面ごとのゲーム（スキップ判定用）
+        Reversi[] reversis = new Reversi[size];
+        for (int i = 0; i < size; i++) {
+            reversis[i] = corpus.createReversi(i, new Player("黒", Disc.BLACK, AlgorithmType.RANDOM),
+                    new Player("白", Disc.WHITE, AlgorithmType.RANDOM));
+        }
+
+        run("Board.canPut:" + phase, count -> {
+            int i = (int) (count % (size * dimensions.length));
+            Board board = corpus.getBoard(i / dimensions.length);
+            return board.canPut(dimensions[i % dimensions.length], corpus.getTurnDisc(i / dimensions.length)) ? 1 : 0;
+        });
+        run("Board.getMovableBits:" + phase, count -> {
+            int i = (int) (count % size);
+            return corpus.getBoard(i).getMovableBits(corpus.getTurnDisc(i));
+        });
+        run("Board.put(+undoMove):" + phase, count -> {
+            int i = (int) (count % putTargets.size());
+            int position = putPositions.get(i);
+            Board board = corpus.getBoard(position);
+            Dimension target = putTargets.get(i);
+            Disc disc = corpus.getTurnDisc(position);
+
+            Boolean isPut = board.put(target, disc);
+            board.undoMove(BitBoard.toIndex(target.getRow(), target.getColumn()), disc, putFlips.get(i));
+            return isPut ? 1 : 0;
+        });
+        run("Board.clone:" + phase, count -> {
+            try {
+                return corpus.getBoard((int) (count % size)).clone().getEmptyDiscNum();
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        run("Reversi.isSkip:" + phase, count -> reversis[(int) (count % size)].isSkip() ? 1 : 0);
+    }
+
+    /**
+     * アルゴリズムの処理を計測する
+     * @param phase 局面の進行度
+     */
+    private void runAlgorithm(Phase phase) {
+        final PositionCorpus corpus = new PositionCorpus(phase);
+        final int size = corpus.size();
+
+        final PatternEvaluator evaluator = PatternEvaluator.getDefault();
+        run("PatternEvaluator.evaluate:" + phase, count -> {
+            int i = (int) (count % size);
+            Board board = corpus.getBoard(i);
+            Disc disc = corpus.getTurnDisc(i);
+            return evaluator.evaluate(board.getDiscBits(disc), board.getDiscBits(disc.next()));
+        });
+
+        final MobilityEvaluator mobilityEvaluator = MobilityEvaluator.getDefault();
+        run("MobilityEvaluator.evaluate:" + phase, count -> {
+            int i = (int) (count % size);
+            return mobilityEvaluator.evaluate(corpus.getBoard(i), corpus.getTurnDisc(i));
+        });
+
+        // パターンの番号を保持するリバーシ盤（差分更新した番号による評価用）
+        Board[] patternBoards = new Board[size];
+        for (int i = 0; i < size; i++) {
+            try {
+                patternBoards[i] = corpus.getBoard(i).clone();
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException(e);
+            }
+            evaluator.prepare(patternBoards[i]);
+        }
+        run("PatternEvaluator.evaluate(incremental):" + phase, count -> {
+            int i = (int) (count % size);
+            return evaluator.evaluate(patternBoards[i], corpus.getTurnDisc(i));
+        });
+        run("Board.doMove(+undoMove, pattern):" + phase, count -> {
+            int i = (int) (count % size);
+            Board board = patternBoards[i];
+            Disc disc = corpus.getTurnDisc(i);
+            long movable = board.getMovableBits(disc);
+            if (movable == 0) {
+                return 0;
+            }
+            int index = Long.numberOfTrailingZeros(movable);
+            long flip = board.doMove(index, disc);
+            board.undoMove(index, disc, flip);
+            return flip;
+        });
+        run("MiniMax01.run:" + phase, count -> {
+            int i = (int) (count % size);
+            Dimension result = new MiniMax01(corpus.getBoard(i), corpus.getTurnDisc(i)).run();
+            return (result == null) ? -1 : BitBoard.toIndex(result.getRow(), result.getColumn());
+        });
+        run("AlphaBeta01.run:" + phase, count -> {
+            int i = (int) (count % size);
+            Dimension result = new AlphaBeta01(corpus.getBoard(i), corpus.getTurnDisc(i)).run();
+            return (result == null) ? -1 : BitBoard.toIndex(result.getRow(), result.getColumn());
+        });
+        run("NegaScout01.run:" + phase, count -> {
+            int i = (int) (count % size);
+            Dimension result = new NegaScout01(corpus.getBoard(i), corpus.getTurnDisc(i)).run();
+            return (result == null) ? -1 : BitBoard.toIndex(result.getRow(), result.getColumn());
+        });
+
+        // 木の配列は生成時に確保するため、局面ごとのインスタンスを使い回し、探索中の割り当て量のみ計測する
+        final Mcts01[] mctsAlgorithms = new Mcts01[size];
+        for (int i = 0; i < size; i++) {
+            mctsAlgorithms[i] = new Mcts01(corpus.getBoard(i), corpus.getTurnDisc(i), MCTS_PLAYOUT_NUM,
+                    MCTS_NODE_CAPACITY);
+            mctsAlgorithms[i].setEndgameEmpties(0);
+        }
+        run("Mcts01.run(" + MCTS_PLAYOUT_NUM + " playouts):" + phase, count -> {
+            Dimension result = mctsAlgorithms[(int) (count % size)].run();
+            return (result == null) ? -1 : BitBoard.toIndex(result.getRow(), result.getColumn());
+        });
+    }
+
+    /**
+     * 定石の参照を計測する<br>
+     * ランダム同士の対局の棋譜から一時ファイルに定石を作成し、棋譜の序盤の局面で手を選ぶ。
+     * @throws IOException 定石のファイルの作成に失敗した
+     */
+    private void runOpeningBook() throws IOException {
+        final String name = "OpeningBook.chooseMove";
+        if (!name.contains(filter)) {
+            return;
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+        List<long[]> positions = new ArrayList<>();
+        for (long seed = 0; seed < BOOK_GAME_NUM; seed++) {
+            int[] moves = GameRecordFile.parseMoves(
+                    MatchRunner.playRecordedGame(AlgorithmType.RANDOM, AlgorithmType.RANDOM, 0, seed).getMoveString());
+            builder.addGame(moves);
+
+            Board board = new Board(BitBoard.MAX_SIZE, BitBoard.MAX_SIZE);
+            Disc disc = Disc.BLACK;
+            for (int ply = 0; ply < Math.min(moves.length, builder.getMaxPly()); ply++) {
+                positions.add(new long[] { board.getDiscBits(disc), board.getDiscBits(disc.next()) });
+                if (moves[ply] != GameRecordFile.SKIP) {
+                    board.doMove(moves[ply], disc);
+                }
+                disc = disc.next();
+            }
+        }
+        Path path = Files.createTempFile("book", ".bin");
+        try {
+            builder.write(path);
+            final OpeningBook book = OpeningBook.open(path);
+            final long[][] positionArray = positions.toArray(new long[0][]);
+            final SplittableRandom random = new SplittableRandom(0);
+            run(name, count -> {
+                long[] position = positionArray[(int) (count % positionArray.length)];
+                return book.chooseMove(position[0], position[1], random);
+            });
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * COM 同士の対局を最後まで行う処理を計測する
+     */
+    private void runGame() {
+        run("Game:RANDOM-vs-RANDOM", count -> playGame(AlgorithmType.RANDOM, AlgorithmType.RANDOM));
+        run("Game:ALPHA_BETA_01-vs-ALPHA_BETA_01", count -> playGame(AlgorithmType.ALPHA_BETA_01,
+                AlgorithmType.ALPHA_BETA_01));
+    }
+
+    /**
+     * COM 同士の対局を1回行う
+     * @param typeBlack 先手・黒のアルゴリズム
+     * @param typeWhite 後手・白のアルゴリズム
+     * @return 終局時の黒石の数
+     */
+    private static long playGame(AlgorithmType typeBlack, AlgorithmType typeWhite) {
+        Player playerBlack = new Player("黒", Disc.BLACK, typeBlack);
+        Player playerWhite = new Player("白", Disc.WHITE, typeWhite);
+        Reversi reversi = new Reversi(playerBlack, playerWhite);
+        ReversiModel model = new ReversiModel(new ReversiData(reversi, playerBlack, playerWhite, false), false);
+
+        do {
+            model.run();
+        } while (!model.isGameFinish());
+
+        return reversi.getBoard().getDiscNum(Disc.BLACK);
+    }
+
+    /**
+     * 名前がフィルタに一致する場合のみ、ベンチマークを実行する
+     * @param name ベンチマークの名前
+     * @param operation 計測する処理
+     */
+    private void run(String name, BenchmarkRunner.Operation operation) {
+        if (name.contains(filter)) {
+            runner.run(name, operation);
+        }
+    }
+}
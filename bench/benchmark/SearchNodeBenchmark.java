@@ -0,0 +1,103 @@
+package benchmark;
+
+import algorithm.AlphaBeta01;
+import algorithm.MtdF01;
+import algorithm.NegaScout01;
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 探索アルゴリズムごとに、同じ深さ・同じ探索の進め方で探索したノード数を比較するツール<br>
+ * 序盤・中盤の局面（{@link PositionCorpus}）を各アルゴリズムで指定した深さまで探索し、
+ * 探索したノード数の合計と探索時間を表示する。終局までの読み切りは行わず、全て評価関数で探索する。
+ * {@link AlphaBeta01} と {@link NegaScout01} は、指定した深さを1回だけ探索する場合（{@code fixed}）と、
+ * 深さ {@code 0} から反復深化で探索する場合（{@code iterative}、全ての深さのノード数の合計）の両方で比較する。
+ * {@link MtdF01} は常に反復深化で探索するため、{@code iterative} のみ表示する。
+ * <p>
+ * 使用方法: {@code java -cp <クラスパス> benchmark.SearchNodeBenchmark [探索の深さ]}<br>
+ * 探索の深さを省略した場合は、各アルゴリズムのデフォルトの深さ（{@value AlphaBeta01#DEFAULT_DEPTH}）とする。
+ * @author komoto
+ */
+public class SearchNodeBenchmark {
+
+    /**
+     * 探索を行い、結果を表示する
+     * @param args [0] 探索の深さ（省略可）
+     */
+    public static void main(String[] args) {
+        final int depth = (args.length > 0) ? Integer.parseInt(args[0]) : AlphaBeta01.DEFAULT_DEPTH;
+
+        System.out.println(String.format("%-8s %-10s %-12s %14s %10s %s", "phase", "schedule", "algorithm", "nodes",
+                "time(ms)", "note"));
+        for (PositionCorpus.Phase phase : new PositionCorpus.Phase[] { PositionCorpus.Phase.OPENING,
+                PositionCorpus.Phase.MIDGAME }) {
+            PositionCorpus corpus = new PositionCorpus(phase);
+            for (boolean isIterative : new boolean[] { false, true }) {
+                final String schedule = isIterative ? "iterative" : "fixed";
+
+                // Alpha-Beta 法
+                long nodes = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < corpus.size(); i++) {
+                    AlphaBeta01 algorithm = new AlphaBeta01(corpus.getBoard(i), corpus.getTurnDisc(i), depth);
+                    algorithm.setEndgameEmpties(0);
+                    algorithm.setIterativeDeepening(isIterative);
+                    algorithm.run();
+                    nodes += algorithm.getNodeCount();
+                }
+                print(phase, schedule, "AlphaBeta01", nodes, System.nanoTime() - start, "");
+
+                // NegaScout 法
+                nodes = 0;
+                long reSearches = 0;
+                long aspirationFails = 0;
+                start = System.nanoTime();
+                for (int i = 0; i < corpus.size(); i++) {
+                    Board board = corpus.getBoard(i);
+                    Disc turnDisc = corpus.getTurnDisc(i);
+                    NegaScout01 algorithm = new NegaScout01(board, turnDisc, depth);
+                    algorithm.setEndgameEmpties(0);
+                    algorithm.setIterativeDeepening(isIterative);
+                    algorithm.run();
+                    nodes += algorithm.getNodeCount();
+                    reSearches += algorithm.getReSearchCount();
+                    aspirationFails += algorithm.getAspirationFailCount();
+                }
+                print(phase, schedule, "NegaScout01", nodes, System.nanoTime() - start,
+                        String.format("re-search=%,d aspiration-fail=%,d", reSearches, aspirationFails));
+            }
+
+            // MTD(f) 法
+            long nodes = 0;
+            long iterations = 0;
+            long lastIterations = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < corpus.size(); i++) {
+                MtdF01 algorithm = new MtdF01(corpus.getBoard(i), corpus.getTurnDisc(i), depth);
+                algorithm.setEndgameEmpties(0);
+                algorithm.run();
+                nodes += algorithm.getNodeCount();
+                iterations += algorithm.getIterationCount();
+                lastIterations += algorithm.getLastIterationCount();
+            }
+            print(phase, "iterative", "MtdF01", nodes, System.nanoTime() - start,
+                    String.format("iterations/move=%.1f (passes at last depth=%.1f)",
+                            (double) iterations / corpus.size(), (double) lastIterations / corpus.size()));
+        }
+    }
+
+    /**
+     * 1つのアルゴリズムの結果を表示する
+     * @param phase 局面の進行度
+     * @param schedule 探索の進め方（{@code fixed} または {@code iterative}）
+     * @param name アルゴリズムの名前
+     * @param nodes 探索したノード数の合計
+     * @param elapsed 探索時間（ナノ秒）
+     * @param note 補足
+     */
+    private static void print(PositionCorpus.Phase phase, String schedule, String name, long nodes, long elapsed,
+            String note) {
+        System.out.println(String.format("%-8s %-10s %-12s %,14d %10.1f %s", phase, schedule, name, nodes,
+                elapsed / 1e6, note));
+    }
+}
@@ -1,13 +1,23 @@
 package algorithm;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
+import common.Global;
+import reversi.BitBoard;
 import reversi.Board;
 import reversi.Dimension;
 import reversi.Disc;
 
 /**
- * アルゴリズムの処理を定義する抽象クラス
+ * アルゴリズムの処理を定義する抽象クラス<br>
+ * インスタンスは対局中はプレイヤーごとに保持して使い回す（置換表などの情報を次の手の思考に引き継ぐ）。
+ * 対局の進行に応じて、以下の順にメソッドが呼び出される。
+ * <ol>
+ * <li>{@link #newGame()}: 対局の開始時</li>
+ * <li>{@link #setBoard(Board)}, {@link #run()}: 自分の手番ごと</li>
+ * <li>{@link #opponentMoved(Dimension)}: 相手が石を置いた（またはパスした）時</li>
+ * <li>{@link #gameOver()}: 対局の終了時</li>
+ * </ol>
  * @author komoto
  */
 public abstract class Algorithm {
@@ -27,11 +37,28 @@ public abstract class Algorithm {
     /** 使用するプレイヤーの石 */
     protected Disc playerDisc;
 
+    /** 各スレッドの乱数列の分割元となる乱数（スレッドごとに1回だけ分割するため、同期による競合はほぼ発生しない） */
+    private static final SplittableRandom MASTER_RANDOM = new SplittableRandom(System.currentTimeMillis());
+
+    /** スレッドごとの乱数列。スレッド間で共有しないため、並列に対戦しても競合しない */
+    private static final ThreadLocal<SplittableRandom> THREAD_RANDOM = ThreadLocal
+            .withInitial(Algorithm::splitMasterRandom);
+
     /**
-     * ランダム値を扱う静的変数
-     * アルゴリズムが都度呼び出し、かつPlayer毎に異なるため、乱数がばらつくように静的変数としている
+     * ランダム値を扱う変数<br>
+     * 設定しない場合は、実行中のスレッドの乱数列から分割した乱数を使用する。
+     * 対戦を再現する場合は、{@link #setRandom(SplittableRandom)} でシードを固定した乱数を設定する。
      */
-    protected static final Random random = new Random(System.currentTimeMillis());
+    protected SplittableRandom random;
+
+    /** 1手あたりに思考する時間の上限（ミリ秒）。{@code 0} 以下の場合は時間制限なし */
+    protected long timeLimit;
+
+    /** 思考を打ち切る時刻（{@link System#nanoTime()} の値） */
+    private long deadline;
+
+    /** 終局まで読み切る空きマスの数の上限。{@code 0} 以下の場合は読み切りを行わない */
+    protected int endgameEmpties;
 
     /**
      * アルゴリズム動作に必要な初期設定を行う
@@ -41,6 +68,127 @@ public abstract class Algorithm {
     public Algorithm(Board board, Disc playerDisc) {
         this.board = board;
         this.playerDisc = playerDisc;
+        this.timeLimit = 0;
+        this.deadline = Long.MAX_VALUE;
+        this.endgameEmpties = Global.ENDGAME_SOLVE_EMPTIES;
+        this.random = THREAD_RANDOM.get().split();
+    }
+
+    /**
+     * 各スレッドの乱数列を分割元の乱数から分割する
+     * @return 分割した乱数
+     */
+    private static synchronized SplittableRandom splitMasterRandom() {
+        return MASTER_RANDOM.split();
+    }
+
+    /**
+     * アルゴリズムが使用する乱数を設定する<br>
+     * 同じシードの乱数を設定すると、時間制限なしの場合は同じ座標を選ぶ。乱数は複数のスレッドで共有しないこと。
+     * @param random 使用する乱数
+     * @throws IllegalArgumentException 引数が {@code NULL} の場合はエラーとする。
+     */
+    public void setRandom(SplittableRandom random) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (random == null) {
+            throw new IllegalArgumentException("変数 \"random\" が NULL です。");
+        }
+        this.random = random;
+    }
+
+    /**
+     * 思考の対象となるリバーシ盤を設定する（インスタンスを使い回して次の手を思考する場合に使用する）
+     * @param board リバーシ盤の状態
+     * @throws IllegalArgumentException 引数が {@code NULL} の場合はエラーとする。
+     */
+    public void setBoard(Board board) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (board == null) {
+            throw new IllegalArgumentException("変数 \"board\" が NULL です。");
+        }
+        this.board = board;
+    }
+
+    /**
+     * 新しい対局を開始する。対局をまたいで引き継がない情報を初期化する。<br>
+     * 引き継ぐ情報がないアルゴリズムでは、何もしない。
+     */
+    public void newGame() {
+    }
+
+    /**
+     * 相手が石を置いた（またはパスした）ことを通知する<br>
+     * 相手の手を使用しないアルゴリズムでは、何もしない。
+     * @param target 相手が石を置いた座標。パスの場合は {@code null}
+     */
+    public void opponentMoved(Dimension target) {
+    }
+
+    /**
+     * 対局が終了したことを通知する<br>
+     * 対局の終了時に行う処理がないアルゴリズムでは、何もしない。
+     */
+    public void gameOver() {
+    }
+
+    /**
+     * 1手あたりに思考する時間の上限を設定する<br>
+     * 時間制限に対応していないアルゴリズムでは、設定しても動作は変わらない。
+     * @param millisec 思考時間の上限（ミリ秒）。{@code 0} 以下の場合は時間制限なし
+     */
+    public void setTimeLimit(long millisec) {
+        this.timeLimit = millisec;
+    }
+
+    /**
+     * 終局まで読み切る空きマスの数の上限を設定する<br>
+     * 読み切りに対応していないアルゴリズムでは、設定しても動作は変わらない。
+     * @param empties 空きマスの数の上限。{@code 0} 以下の場合は読み切りを行わない
+     */
+    public void setEndgameEmpties(int empties) {
+        this.endgameEmpties = empties;
+    }
+
+    /**
+     * 空きマスの数が上限以下の場合、終局まで読み切って石数の差が最大となる座標を求める<br>
+     * 時間制限がある場合は、{@link #startTimer()} の後に呼び出すこと。読み切りには思考時間の半分までを使用し、
+     * 読み切れなかった場合は残りの時間で評価関数による探索を行えるよう {@code null} を返す。
+     * @return 石を置く座標。空きマスの数が上限より多い場合、石を置けるマスがない場合、時間内に読み切れなかった場合は {@code null}
+     */
+    protected Dimension solveEndgame() {
+        if (board.getEmptyDiscNum() > endgameEmpties) {
+            return null;
+        }
+
+        EndgameSolver solver = new EndgameSolver();
+        if (deadline != Long.MAX_VALUE) {
+            solver.setDeadline(deadline - timeLimit * 1000000L / 2);
+        }
+        solver.solveExact(board, playerDisc);
+        if (solver.isAborted()) {
+            return null;
+        }
+        final int bestMove = solver.getBestMove();
+        return (bestMove == TranspositionTable.NO_MOVE) ? null : BitBoard.toDimension(bestMove);
+    }
+
+    /**
+     * 思考時間の計測を開始する。時間制限がない場合は、時間切れにならない。
+     */
+    protected void startTimer() {
+        if (timeLimit > 0) {
+            deadline = System.nanoTime() + timeLimit * 1000000L;
+        } else {
+            deadline = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 思考時間の上限を過ぎたかを判定する
+     * @return 上限を過ぎた場合は真 {@code true}, 過ぎていない（または時間制限なし）場合は偽 {@code false}
+     */
+    protected boolean isTimeOver() {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0;
     }
 
     /**
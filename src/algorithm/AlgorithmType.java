@@ -9,6 +9,12 @@ public enum AlgorithmType {
     RANDOM ("COM: ランダム"),
     ORIGINAL_01 ("COM: 端取り優先"),
     MINI_MAX_01 ("COM: Mini-Max"),
+    ALPHA_BETA_01 ("COM: Alpha-Beta"),
+    NEGA_SCOUT_01 ("COM: NegaScout"),
+    MTD_F_01 ("COM: MTD(f)"),
+    MCTS_01 ("COM: モンテカルロ木探索"),
+    PATTERN_01 ("COM: パターン評価"),
+    MOBILITY_01 ("COM: 着手可能数・確定石評価"),
     ;
     
     /** アルゴリズムの名前 */
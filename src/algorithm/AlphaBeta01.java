@@ -0,0 +1,61 @@
+package algorithm;
+
+import common.Global;
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * Alpha-Beta法（ネガマックス法）のアルゴリズムで石を置く位置を決める<br>
+ * 評価関数・探索の深さの数え方は {@link MiniMax01} と同じであり、乱数を加算しない場合は同じ深さで同じ座標を選ぶ。
+ * 結果に影響しない枝を刈り込むため、同じ時間でより深く探索できる。<br>
+ * 全ての手を通常の探索範囲で探索する。置換表・手の並び替え・反復深化・終局までの読み切りは {@link NegaMaxSearch} の処理を使用する。
+ * 時間制限がない場合は、デフォルトでは指定された深さを1回だけ探索する（{@link #setIterativeDeepening(boolean)} で変更できる）。
+ * @author komoto
+ */
+public class AlphaBeta01 extends NegaMaxSearch {
+
+    /** 探索する深さのデフォルト値 */
+    public static final int DEFAULT_DEPTH = 6;
+
+    /**
+     * 初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     */
+    public AlphaBeta01(Board board, Disc playerDisc) {
+        this(board, playerDisc, DEFAULT_DEPTH);
+    }
+
+    /**
+     * 探索する深さを指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param depth 探索する深さ（{@code 0} 以上）
+     */
+    public AlphaBeta01(Board board, Disc playerDisc, int depth) {
+        this(board, playerDisc, depth, new TranspositionTable(Global.TRANSPOSITION_TABLE_SIZE_MB));
+    }
+
+    /**
+     * 探索する深さと使用する置換表を指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param depth 探索する深さ（{@code 0} 以上）
+     * @param table 探索した局面を記録する置換表
+     */
+    public AlphaBeta01(Board board, Disc playerDisc, int depth, TranspositionTable table) {
+        this(board, playerDisc, depth, table, null);
+    }
+
+    /**
+     * 探索する深さ・使用する置換表・評価関数を指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param depth 探索する深さ（{@code 0} 以上）
+     * @param table 探索した局面を記録する置換表
+     * @param evaluator 探索の末端の局面を評価する評価関数。{@code null} の場合は石の個数で評価する
+     */
+    public AlphaBeta01(Board board, Disc playerDisc, int depth, TranspositionTable table, Evaluator evaluator) {
+        super(board, playerDisc, depth, table, evaluator, false);
+    }
+}
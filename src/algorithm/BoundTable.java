@@ -0,0 +1,237 @@
+package algorithm;
+
+import java.util.Arrays;
+
+/**
+ * 探索済みの局面の評価値の上限・下限を両方とも保持する置換表<br>
+ * {@link TranspositionTable} は1つの局面に1つの評価値（正確な値・上限・下限のいずれか）のみ記録するため、
+ * 同じ局面を異なる探索範囲で繰り返し探索する MTD(f) 法では、上限と下限が交互に上書きされ情報が失われる。
+ * この置換表は、同じ探索・同じ深さの結果であれば上限・下限を合わせて記録し、探索の度に評価値の範囲を狭める。
+ * <p>
+ * 局面のハッシュ値をキーとし、生成時に指定した容量の配列を確保する。探索中はインスタンスを生成しない。
+ * 同じ位置に別の局面を記録する場合の扱いは {@link TranspositionTable} と同じとする。
+ * 評価値はどのプレイヤーから見た値かを区別しないため、呼び出し元で統一すること。
+ * スレッドセーフではないため、1つの探索（スレッド）でのみ使用すること。
+ * @author komoto
+ */
+public class BoundTable {
+
+    /** 1エントリあたりのサイズ（バイト）。キー・上限と下限の {@code long} 2つと、その他の値の {@code int} 1つ分 */
+    private static final int ENTRY_BYTES = 2 * Long.BYTES + Integer.BYTES;
+
+    /* その他の値の各値のビット位置・マスク */
+    private static final int DEPTH_MASK = 0xff;
+    private static final int MOVE_SHIFT = 8;
+    private static final int MOVE_MASK = 0x7f;
+    private static final int AGE_SHIFT = 15;
+    private static final int AGE_MASK = 0xff;
+    private static final int VALID_BIT = 1 << 30;
+
+    /** 上限・下限が不明であることを表す値 */
+    private static final int UNKNOWN_BOUND = Integer.MAX_VALUE;
+
+    /** 局面のハッシュ値を格納する配列 */
+    private final long[] keys;
+
+    /** 評価値の下限（上位32ビット）と上限（下位32ビット）をまとめて格納する配列 */
+    private final long[] bounds;
+
+    /** 深さ・最善手・世代をまとめて格納する配列 */
+    private final int[] info;
+
+    /** ハッシュ値から格納位置を求めるマスク */
+    private final int indexMask;
+
+    /** 現在の探索の世代。探索を開始する度に更新する */
+    private int age;
+
+    /** 局面が見つかった回数 */
+    private long hitCount;
+
+    /** 局面が見つからなかった回数 */
+    private long missCount;
+
+    /** 局面を記録した回数 */
+    private long storeCount;
+
+    /**
+     * 置換表の初期化を行う<br>
+     * エントリ数は指定した容量に収まる最大の2の累乗とする。
+     * @param sizeMegaBytes 置換表の容量（MB）
+     * @throws IllegalArgumentException 容量が {@code 0} 以下、または配列として確保できない大きさである
+     */
+    public BoundTable(int sizeMegaBytes) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (sizeMegaBytes <= 0) {
+            throw new IllegalArgumentException("置換表の容量は0より大きい値を指定してください: " + sizeMegaBytes);
+        }
+        final long entryNum = Long.highestOneBit((long) sizeMegaBytes * 1024 * 1024 / ENTRY_BYTES);
+        if (entryNum > (1 << 30)) {
+            throw new IllegalArgumentException("置換表の容量が大きすぎます: " + sizeMegaBytes + "MB");
+        }
+
+        // フィールドの初期化
+        this.keys = new long[(int) entryNum];
+        this.bounds = new long[(int) entryNum];
+        this.info = new int[(int) entryNum];
+        this.indexMask = (int) entryNum - 1;
+        this.age = 0;
+    }
+
+    /**
+     * 新しい探索を開始する。これより前に記録した局面は、深さに関わらず上書きの対象となり、上限・下限も合わせない。
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * 全ての記録と回数を消去する
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(bounds, 0L);
+        Arrays.fill(info, 0);
+        hitCount = 0;
+        missCount = 0;
+        storeCount = 0;
+    }
+
+    /**
+     * 局面を探し、見つかった場合は格納位置を返す<br>
+     * 格納位置は {@link #getLower(int)} などで値を取得するために使用する。次に記録を行うまで有効である。
+     * @param key 置換表のキー（{@link TranspositionTable#calcKey(reversi.Board, reversi.Disc)} で算出する）
+     * @return 格納位置。見つからなかった場合は {@link TranspositionTable#NOT_FOUND}
+     */
+    public int find(long key) {
+        final int slot = (int) key & indexMask;
+        if ((info[slot] & VALID_BIT) != 0 && keys[slot] == key) {
+            hitCount++;
+            return slot;
+        }
+        missCount++;
+        return TranspositionTable.NOT_FOUND;
+    }
+
+    /**
+     * 局面の探索結果を、探索範囲に応じて上限・下限として記録する<br>
+     * 現在の探索で同じ深さの結果が記録されている場合は、記録済みの上限・下限と合わせて範囲を狭める。
+     * @param key 置換表のキー
+     * @param depth 探索した深さ（{@code 0}～{@code 255}）
+     * @param alpha 探索範囲の下限
+     * @param beta 探索範囲の上限
+     * @param score 探索で求めた評価値（{@code alpha} 以下の場合は上限、{@code beta} 以上の場合は下限として記録する）
+     * @param bestMove 最善手のビット位置。ない場合は {@link TranspositionTable#NO_MOVE}
+     */
+    public void store(long key, int depth, int alpha, int beta, int score, int bestMove) {
+        final int slot = (int) key & indexMask;
+        final int old = info[slot];
+        final boolean isValid = (old & VALID_BIT) != 0;
+        final boolean isCurrent = isValid && ((old >>> AGE_SHIFT) & AGE_MASK) == age;
+        final int oldDepth = old & DEPTH_MASK;
+
+        // 現在の探索で記録した、別の局面のより深い探索の結果は残す
+        if (isCurrent && keys[slot] != key && oldDepth > depth) {
+            return;
+        }
+
+        int lower = -UNKNOWN_BOUND;
+        int upper = UNKNOWN_BOUND;
+        if (isCurrent && keys[slot] == key && oldDepth == depth) {
+            lower = (int) (bounds[slot] >> 32);
+            upper = (int) bounds[slot];
+        }
+
+        if (score <= alpha) {
+            upper = Math.min(upper, score);
+        } else if (score >= beta) {
+            lower = Math.max(lower, score);
+        } else {
+            lower = score;
+            upper = score;
+        }
+
+        // 評価値の乱数などにより上限・下限が矛盾した場合は、今回の結果のみ記録する
+        if (lower > upper) {
+            lower = (score > alpha) ? score : -UNKNOWN_BOUND;
+            upper = (score < beta) ? score : UNKNOWN_BOUND;
+        }
+
+        keys[slot] = key;
+        bounds[slot] = ((long) lower << 32) | (upper & 0xffffffffL);
+        info[slot] = VALID_BIT | (age << AGE_SHIFT) | (((bestMove + 1) & MOVE_MASK) << MOVE_SHIFT)
+                | (depth & DEPTH_MASK);
+        storeCount++;
+    }
+
+    /**
+     * 格納位置の評価値の下限を取得する
+     * @param slot {@link #find(long)} で取得した格納位置
+     * @return 評価値の下限。不明の場合は {@code -Integer.MAX_VALUE}
+     */
+    public int getLower(int slot) {
+        return (int) (bounds[slot] >> 32);
+    }
+
+    /**
+     * 格納位置の評価値の上限を取得する
+     * @param slot {@link #find(long)} で取得した格納位置
+     * @return 評価値の上限。不明の場合は {@code Integer.MAX_VALUE}
+     */
+    public int getUpper(int slot) {
+        return (int) bounds[slot];
+    }
+
+    /**
+     * 格納位置の探索の深さを取得する
+     * @param slot {@link #find(long)} で取得した格納位置
+     * @return 探索の深さ
+     */
+    public int getDepth(int slot) {
+        return info[slot] & DEPTH_MASK;
+    }
+
+    /**
+     * 格納位置の最善手を取得する
+     * @param slot {@link #find(long)} で取得した格納位置
+     * @return 最善手のビット位置。ない場合は {@link TranspositionTable#NO_MOVE}
+     */
+    public int getBestMove(int slot) {
+        return ((info[slot] >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+    }
+
+    /**
+     * 置換表のエントリ数を取得する
+     * @return エントリ数
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * 局面が見つかった回数を取得する
+     * @return 局面が見つかった回数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 局面を記録した回数を取得する
+     * @return 局面を記録した回数
+     */
+    public long getStoreCount() {
+        return storeCount;
+    }
+
+    /**
+     * 置換表の容量と各回数を文字列で返す
+     */
+    @Override
+    public String toString() {
+        final long probeCount = hitCount + missCount;
+        final double hitRate = (probeCount == 0) ? 0.0 : 100.0 * hitCount / probeCount;
+        return String.format("BoundTable[%,d entries] hit=%,d miss=%,d (%.1f%%) store=%,d", keys.length, hitCount,
+                missCount, hitRate, storeCount);
+    }
+}
@@ -0,0 +1,393 @@
+package algorithm;
+
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 終盤の局面を終局まで読み切り、最善手と最終的な石数の差を求めるクラス<br>
+ * 評価関数を使用せず、両プレイヤーが最善を尽くした場合の結果（勝ち・負け・引き分け、または正確な石数の差）を求める。
+ * 探索中はビットボード（{@code long}）のみを扱い、インスタンスを生成しない。
+ * <ul>
+ * <li>空きマスが {@link #SHALLOW_EMPTIES} 以下の場合は、合法手の一覧を求めず空きマスを直接調べる</li>
+ * <li>空きマスが {@link #FASTEST_FIRST_EMPTIES} 以上の場合は、相手の合法手が少なくなる手から先に探索する（速さ優先）</li>
+ * <li>空きマスが奇数個ある領域（盤を4分割した領域）の手から先に探索する（偶数理論）</li>
+ * </ul>
+ * 探索を打ち切る時刻（{@link #setDeadline(long)}）を設定した場合は、その時刻を過ぎた時点で探索を打ち切る。
+ * 打ち切った場合（{@link #isAborted()}）の結果は正確ではないため、使用しないこと。<br>
+ * スレッドセーフではないため、1つの探索（スレッド）でのみ使用すること。
+ * @author komoto
+ */
+public class EndgameSolver {
+
+    /** 合法手の一覧を求めずに、空きマスを直接調べて探索する空きマスの数の上限 */
+    private static final int SHALLOW_EMPTIES = 4;
+
+    /** 相手の合法手が少なくなる手から先に探索する空きマスの数の下限 */
+    private static final int FASTEST_FIRST_EMPTIES = 8;
+
+    /** 盤を4分割した各領域（左上, 右上, 左下, 右下）を表すマスク */
+    private static final long[] QUADRANT_MASKS = {
+            0x000000000f0f0f0fL, 0x00000000f0f0f0f0L, 0x0f0f0f0f00000000L, 0xf0f0f0f000000000L };
+
+    /** 時間切れを判定する間隔（調べた局面の数のマスク。局面ごとに時刻を取得しないようにする） */
+    private static final int TIME_CHECK_MASK = 0x3ff;
+
+    /** 石数の差の絶対値の上限より大きい値 */
+    private static final int INFINITY = BitBoard.CELL_NUM + 1;
+
+    /** リバーシ盤の範囲内のマスを表すマスク */
+    private long boardMask;
+
+    /** 直前の探索での最善手のビット位置 */
+    private int bestMove;
+
+    /** 直前の探索で調べた局面の数 */
+    private long nodeCount;
+
+    /** 探索を打ち切る時刻（{@link System#nanoTime()} の値）。{@link Long#MAX_VALUE} の場合は打ち切らない */
+    private long deadline;
+
+    /** 直前の探索を時間切れで打ち切ったかを表すフラグ */
+    private boolean isAborted;
+
+    /** 空きマスの数ごとの、手を並べ替えるための作業領域（手のビット位置） */
+    private final int[][] moveBuffers;
+
+    /** 空きマスの数ごとの、手を並べ替えるための作業領域（並べ替えの基準値） */
+    private final int[][] keyBuffers;
+
+    /**
+     * 初期化を行う
+     */
+    public EndgameSolver() {
+        this.boardMask = -1L;
+        this.bestMove = TranspositionTable.NO_MOVE;
+        this.nodeCount = 0;
+        this.deadline = Long.MAX_VALUE;
+        this.isAborted = false;
+
+        // 探索中にインスタンスを生成しないよう、作業領域をまとめて確保する
+        this.moveBuffers = new int[BitBoard.CELL_NUM + 1][BitBoard.CELL_NUM];
+        this.keyBuffers = new int[BitBoard.CELL_NUM + 1][BitBoard.CELL_NUM];
+    }
+
+    /**
+     * 探索を打ち切る時刻を設定する
+     * @param deadline 探索を打ち切る時刻（{@link System#nanoTime()} の値）。{@link Long#MAX_VALUE} の場合は打ち切らない
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * 終局まで読み切り、正確な石数の差を求める
+     * @param board 現在のリバーシ盤の状態
+     * @param turnDisc 次に石を置くプレイヤーの石
+     * @return 両プレイヤーが最善を尽くした場合の、終局時の {@code turnDisc} のプレイヤーから見た石数の差
+     */
+    public int solveExact(Board board, Disc turnDisc) {
+        return solveRoot(board, turnDisc, -INFINITY, INFINITY);
+    }
+
+    /**
+     * 終局まで読み切り、勝ち・負け・引き分けのみを求める<br>
+     * 石数の差を区別しないため、{@link #solveExact(Board, Disc)} より少ない局面の探索で求まる。
+     * @param board 現在のリバーシ盤の状態
+     * @param turnDisc 次に石を置くプレイヤーの石
+     * @return {@code turnDisc} のプレイヤーが勝つ場合は {@code 1}, 負ける場合は {@code -1}, 引き分けの場合は {@code 0}
+     */
+    public int solveWinLossDraw(Board board, Disc turnDisc) {
+        return Integer.signum(solveRoot(board, turnDisc, -1, 1));
+    }
+
+    /**
+     * 直前の探索での最善手を取得する
+     * @return 最善手のビット位置。石を置けるマスがなかった場合は {@link TranspositionTable#NO_MOVE}
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * 直前の探索を時間切れで打ち切ったかを取得する
+     * @return 打ち切った場合は真 {@code true}（評価値・最善手は正確ではない）, 最後まで読み切った場合は偽 {@code false}
+     */
+    public boolean isAborted() {
+        return isAborted;
+    }
+
+    /**
+     * 直前の探索で調べた局面の数を取得する
+     * @return 調べた局面の数
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 石を置ける全てのマスを探索し、最善手と評価値を求める
+     * @param board 現在のリバーシ盤の状態
+     * @param turnDisc 次に石を置くプレイヤーの石
+     * @param alpha 評価値の下限
+     * @param beta 評価値の上限
+     * @return {@code turnDisc} のプレイヤーから見た石数の差（探索範囲外の場合は上限・下限）
+     */
+    private int solveRoot(Board board, Disc turnDisc, int alpha, int beta) {
+        final long player = board.getDiscBits(turnDisc);
+        final long opponent = board.getDiscBits(turnDisc.next());
+        boardMask = board.getBoardMask();
+        bestMove = TranspositionTable.NO_MOVE;
+        nodeCount = 1;
+        isAborted = false;
+
+        final long empty = boardMask & ~(player | opponent);
+        final long moves = BitBoard.calcMobility(player, opponent) & boardMask;
+        if (moves == 0) {
+            // 石を置けない場合はスキップする
+            return -search(opponent, player, -beta, -alpha, empty);
+        }
+
+        // 評価値が同じ場合は、偶数理論で先に探索した手を優先する
+        final long oddMask = calcOddMask(empty);
+        int maxPoint = -INFINITY;
+        long group = moves & oddMask;
+        for (int g = 0; g < 2; g++) {
+            for (long m = group; m != 0; m &= m - 1) {
+                final int index = Long.numberOfTrailingZeros(m);
+                final long move = 1L << index;
+                final long flip = BitBoard.calcFlip(player, opponent, index);
+
+                int point = -search(opponent & ~flip, player | flip | move, -beta, -alpha, empty & ~move);
+                if (point > maxPoint) {
+                    maxPoint = point;
+                    bestMove = index;
+                    if (point > alpha) {
+                        alpha = point;
+                    }
+                    if (alpha >= beta) {
+                        return maxPoint;
+                    }
+                }
+            }
+            group = moves & ~oddMask;
+        }
+        return maxPoint;
+    }
+
+    /**
+     * 終局まで Alpha-Beta 法（ネガマックス法）で探索する
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param alpha 評価値の下限
+     * @param beta 評価値の上限
+     * @param empty 空きマスのビットボード
+     * @return 手番のプレイヤーから見た石数の差（探索範囲外の場合は上限・下限）
+     */
+    private int search(long player, long opponent, int alpha, int beta, long empty) {
+        // 時間切れの場合は、残りの局面を探索せずに打ち切る
+        if (isAborted) {
+            return 0;
+        }
+
+        final int emptyNum = Long.bitCount(empty);
+        if (emptyNum <= SHALLOW_EMPTIES) {
+            return searchShallow(player, opponent, alpha, beta, empty);
+        }
+        if ((++nodeCount & TIME_CHECK_MASK) == 0 && isTimeOver()) {
+            isAborted = true;
+            return 0;
+        }
+
+        final long moves = BitBoard.calcMobility(player, opponent) & boardMask;
+        if (moves == 0) {
+            // 相手も石を置けない場合は終局、置ける場合はスキップする
+            if ((BitBoard.calcMobility(opponent, player) & boardMask) == 0) {
+                return calcFinalPoint(player, opponent);
+            }
+            return -search(opponent, player, -beta, -alpha, empty);
+        }
+        if (emptyNum >= FASTEST_FIRST_EMPTIES) {
+            return searchFastestFirst(player, opponent, alpha, beta, empty, moves);
+        }
+
+        // 空きマスが奇数個の領域の手を先に、偶数個の領域の手を後に探索する
+        final long oddMask = calcOddMask(empty);
+        int maxPoint = -INFINITY;
+        long group = moves & oddMask;
+        for (int g = 0; g < 2; g++) {
+            for (long m = group; m != 0; m &= m - 1) {
+                final int index = Long.numberOfTrailingZeros(m);
+                final long move = 1L << index;
+                final long flip = BitBoard.calcFlip(player, opponent, index);
+
+                int point = -search(opponent & ~flip, player | flip | move, -beta, -alpha, empty & ~move);
+                if (point > maxPoint) {
+                    maxPoint = point;
+                    if (point > alpha) {
+                        alpha = point;
+                    }
+                    // 相手がこの局面を選ばないことが確定したため、残りの手は評価しない
+                    if (alpha >= beta) {
+                        return maxPoint;
+                    }
+                }
+            }
+            group = moves & ~oddMask;
+        }
+        return maxPoint;
+    }
+
+    /**
+     * 石を置いた後の相手の合法手が少ない順に手を並べ替えて探索する<br>
+     * 合法手の数が同じ場合は、空きマスが奇数個の領域の手を優先する。
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param alpha 評価値の下限
+     * @param beta 評価値の上限
+     * @param empty 空きマスのビットボード
+     * @param moves 手番のプレイヤーの合法手のビットボード
+     * @return 手番のプレイヤーから見た石数の差（探索範囲外の場合は上限・下限）
+     */
+    private int searchFastestFirst(long player, long opponent, int alpha, int beta, long empty, long moves) {
+        final int emptyNum = Long.bitCount(empty);
+        final int[] moveBuffer = moveBuffers[emptyNum];
+        final int[] keyBuffer = keyBuffers[emptyNum];
+        final long oddMask = calcOddMask(empty);
+
+        // 並べ替えの基準値を求め、挿入ソートで昇順に並べる
+        int moveNum = 0;
+        for (long m = moves; m != 0; m &= m - 1) {
+            final int index = Long.numberOfTrailingZeros(m);
+            final long move = 1L << index;
+            final long flip = BitBoard.calcFlip(player, opponent, index);
+            final int mobility = Long.bitCount(
+                    BitBoard.calcMobility(opponent & ~flip, player | flip | move) & boardMask);
+            final int key = mobility * 2 + (((oddMask & move) != 0) ? 0 : 1);
+
+            int i = moveNum++;
+            while (i > 0 && keyBuffer[i - 1] > key) {
+                keyBuffer[i] = keyBuffer[i - 1];
+                moveBuffer[i] = moveBuffer[i - 1];
+                i--;
+            }
+            keyBuffer[i] = key;
+            moveBuffer[i] = index;
+        }
+
+        int maxPoint = -INFINITY;
+        for (int i = 0; i < moveNum; i++) {
+            final int index = moveBuffer[i];
+            final long move = 1L << index;
+            final long flip = BitBoard.calcFlip(player, opponent, index);
+
+            int point = -search(opponent & ~flip, player | flip | move, -beta, -alpha, empty & ~move);
+            if (point > maxPoint) {
+                maxPoint = point;
+                if (point > alpha) {
+                    alpha = point;
+                }
+                // 相手がこの局面を選ばないことが確定したため、残りの手は評価しない
+                if (alpha >= beta) {
+                    return maxPoint;
+                }
+            }
+        }
+        return maxPoint;
+    }
+
+    /**
+     * 空きマスが少ない局面を、合法手の一覧を求めずに探索する
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param alpha 評価値の下限
+     * @param beta 評価値の上限
+     * @param empty 空きマスのビットボード
+     * @return 手番のプレイヤーから見た石数の差（探索範囲外の場合は上限・下限）
+     */
+    private int searchShallow(long player, long opponent, int alpha, int beta, long empty) {
+        // 空きマスが少ないため時間切れでも最後まで探索し、打ち切りは呼び出し元で行う
+        if ((++nodeCount & TIME_CHECK_MASK) == 0 && isTimeOver()) {
+            isAborted = true;
+        }
+
+        // 空きマスが1つの場合は、どちらが置けるかのみ調べる
+        if (Long.bitCount(empty) == 1) {
+            final int index = Long.numberOfTrailingZeros(empty);
+            long flip = BitBoard.calcFlip(player, opponent, index);
+            if (flip != 0) {
+                return calcFinalPoint(player | flip | empty, opponent & ~flip);
+            }
+            flip = BitBoard.calcFlip(opponent, player, index);
+            if (flip != 0) {
+                return calcFinalPoint(player & ~flip, opponent | flip | empty);
+            }
+            return calcFinalPoint(player, opponent);
+        }
+
+        int maxPoint = -INFINITY;
+        for (long e = empty; e != 0; e &= e - 1) {
+            final int index = Long.numberOfTrailingZeros(e);
+            final long flip = BitBoard.calcFlip(player, opponent, index);
+            if (flip == 0) {
+                continue;
+            }
+            final long move = 1L << index;
+
+            int point = -searchShallow(opponent & ~flip, player | flip | move, -beta, -alpha, empty & ~move);
+            if (point > maxPoint) {
+                maxPoint = point;
+                if (point > alpha) {
+                    alpha = point;
+                }
+                if (alpha >= beta) {
+                    return maxPoint;
+                }
+            }
+        }
+
+        if (maxPoint == -INFINITY) {
+            // 石を置けるマスがない場合、相手も置けなければ終局、置ければスキップする
+            for (long e = empty; e != 0; e &= e - 1) {
+                if (BitBoard.calcFlip(opponent, player, Long.numberOfTrailingZeros(e)) != 0) {
+                    return -searchShallow(opponent, player, -beta, -alpha, empty);
+                }
+            }
+            return calcFinalPoint(player, opponent);
+        }
+        return maxPoint;
+    }
+
+    /**
+     * 探索を打ち切る時刻を過ぎたかを判定する
+     * @return 過ぎた場合は真 {@code true}, 過ぎていない（または打ち切らない）場合は偽 {@code false}
+     */
+    private boolean isTimeOver() {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * 空きマスが奇数個ある領域を表すマスクを求める
+     * @param empty 空きマスのビットボード
+     * @return 空きマスが奇数個ある領域のマスのビットが立ったマスク
+     */
+    private static long calcOddMask(long empty) {
+        long oddMask = 0L;
+        for (long quadrant : QUADRANT_MASKS) {
+            if ((Long.bitCount(empty & quadrant) & 1) != 0) {
+                oddMask |= quadrant;
+            }
+        }
+        return oddMask;
+    }
+
+    /**
+     * 終局時の石数の差を求める（空きマスはどちらの石にも数えない）
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return 手番のプレイヤーから見た石数の差
+     */
+    private static int calcFinalPoint(long player, long opponent) {
+        return Long.bitCount(player) - Long.bitCount(opponent);
+    }
+}
@@ -0,0 +1,41 @@
+package algorithm;
+
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 探索の末端の局面を評価する評価関数を定義する<br>
+ * 探索中の全ての末端で呼び出されるため、実装はインスタンスを生成せず、ビットボードの演算と配列の参照のみで評価すること。
+ * 1つのインスタンスを複数の探索（スレッド）で共有できるよう、評価中に状態を変更しないこと。
+ * @author komoto
+ */
+public interface Evaluator {
+
+    /**
+     * 手番のプレイヤーから見た盤面の評価値を算出する
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return 手番のプレイヤーから見た評価値（石数の差 {@code 1} を {@code 100} 程度とする）
+     */
+    int evaluate(long player, long opponent);
+
+    /**
+     * 探索に使用するリバーシ盤に、評価に必要な情報を保持するよう設定する<br>
+     * 探索を開始する前に、探索用のリバーシ盤（複製した盤面）に対して1回呼び出す。デフォルトでは何もしない。
+     * @param searchBoard 探索用のリバーシ盤
+     */
+    default void prepare(Board searchBoard) {
+    }
+
+    /**
+     * 手番のプレイヤーから見たリバーシ盤の評価値を算出する<br>
+     * デフォルトでは石の配置のビットボードから {@link #evaluate(long, long)} で評価する。
+     * {@link #prepare(Board)} でリバーシ盤に保持した情報を使用する場合は、この処理を上書きすること。
+     * @param currentBoard 現在のリバーシ盤の状態
+     * @param playerDisc 手番のプレイヤーの石
+     * @return 手番のプレイヤーから見た評価値
+     */
+    default int evaluate(Board currentBoard, Disc playerDisc) {
+        return evaluate(currentBoard.getDiscBits(playerDisc), currentBoard.getDiscBits(playerDisc.next()));
+    }
+}
@@ -0,0 +1,594 @@
+package algorithm;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import common.Global;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+
+/**
+ * モンテカルロ木探索（UCT）のアルゴリズムで石を置く位置を決める<br>
+ * 以下を決められた回数（または思考時間の上限まで）繰り返し、最も多く選ばれた手を選ぶ。
+ * <ol>
+ * <li>選択: 木の根から、勝率と選ばれた回数から求める値（UCB1）が最大の子を、葉までたどる</li>
+ * <li>展開: 2回目に選ばれた葉は、石を置ける全ての手（置けない場合はパス）を子として追加する</li>
+ * <li>プレイアウト: 葉の局面から終局まで、ランダムに石を置く</li>
+ * <li>逆伝播: 終局時の勝敗を、たどった全てのノードに加算する</li>
+ * </ol>
+ * 木のノードはインスタンスごとに1つずつ生成せず、生成時に確保した配列（ノードの番号を要素番号とする）に格納する。
+ * ノードの数が上限に達した場合は展開を行わず、葉からのプレイアウトのみ続ける。
+ * プレイアウトは {@link RandomAlgorithm} と同じく石を置けるマスから等確率に選ぶが、
+ * リバーシ盤を使用せずビットボードのみで行うため、インスタンスを生成しない。<br>
+ * 並列探索（{@link #setParallel(Boolean)}）が有効な場合は、スレッドプールの並列度と同じ数のスレッドで1つの木を共有して探索する。
+ * 各スレッドは選択したノードに仮の負け（バーチャルロス）を加算して他のスレッドが別の手を選ぶようにし、
+ * 選ばれた回数・勝ち点の更新とノードの展開はロックを使用せず CAS（Compare-And-Swap）で行う。<br>
+ * 残りの空きマスが少ない場合は、{@link EndgameSolver} で終局まで読み切る。
+ * @author komoto
+ */
+public class Mcts01 extends Algorithm {
+
+    /** 1手あたりのプレイアウトの回数のデフォルト値 */
+    public static final int DEFAULT_PLAYOUT_NUM = 20000;
+
+    /** 木のノードの数の上限のデフォルト値 */
+    public static final int DEFAULT_NODE_CAPACITY = 1 << 20;
+
+    /** パスを表す手 */
+    static final int PASS_MOVE = BitBoard.CELL_NUM;
+
+    /** UCB1 の探索の度合いを表す係数 */
+    private static final double EXPLORATION = 1.0;
+
+    /** 並列探索で、選択したノードに仮に加算する負けの回数 */
+    private static final int VIRTUAL_LOSS = 3;
+
+    /** 時間切れを判定する間隔（プレイアウトの回数）を表すマスク */
+    private static final int TIME_CHECK_MASK = 0x3f;
+
+    /** 木をたどる最大の深さ（全てのマスに石を置く手と、その間のパスを含む） */
+    private static final int MAX_PATH_LENGTH = BitBoard.CELL_NUM * 2 + 1;
+
+    /** 勝った場合に加算する値（引き分けは {@code 1}、負けは {@code 0}） */
+    private static final int WIN_POINT = 2;
+
+    /** 展開していないノードの最初の子のノード番号 */
+    private static final int UNEXPANDED = -1;
+
+    /** いずれかのスレッドが展開中のノードの最初の子のノード番号 */
+    private static final int EXPANDING = -2;
+
+    /** 配列 {@link #firstChild} の要素を不可分に操作するハンドル */
+    private static final VarHandle FIRST_CHILD = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /** 配列 {@link #stats} の要素を不可分に操作するハンドル */
+    private static final VarHandle STATS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** 1手あたりのプレイアウトの回数（思考時間の上限が設定されている場合は使用しない） */
+    private final int playoutNum;
+
+    /** 並列探索を行うかを表すフラグ */
+    private Boolean isParallel;
+
+    /** 並列探索に使用するスレッドプール */
+    private ForkJoinPool pool;
+
+    /**
+     * ノードの最初の子のノード番号。展開していない場合は {@link #UNEXPANDED}、展開中の場合は {@link #EXPANDING}<br>
+     * 子の情報を書き込んでから更新するため、この値を読んだ後は子の情報を参照できる。
+     */
+    private final int[] firstChild;
+
+    /** ノードの子の数（展開して子がない場合は終局を表す） */
+    private final byte[] childNum;
+
+    /** ノードに至る手（マスのビット位置、またはパス {@link #PASS_MOVE}） */
+    private final byte[] moves;
+
+    /**
+     * ノードが選ばれた回数（上位32ビット）と、ノードに至る手を選んだプレイヤーの勝ち点の合計（下位32ビット）<br>
+     * 勝ち点は勝ち {@code 2}、引き分け {@code 1}、負け {@code 0} とする。2つの値を1回の CAS でまとめて更新する。
+     */
+    private final long[] stats;
+
+    /** 使用しているノードの数 */
+    private final AtomicInteger nodeCount;
+
+    /** 直前の {@link #run()} でプレイアウトを行った回数 */
+    private long playoutCount;
+
+    /** 直前の {@link #run()} で、他のスレッドとの競合により CAS をやり直した回数 */
+    private long casRetryCount;
+
+    /** 直前の {@link #run()} で、他のスレッドが展開中のため展開できなかった回数 */
+    private long expansionCollisionCount;
+
+    /**
+     * 初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     */
+    public Mcts01(Board board, Disc playerDisc) {
+        this(board, playerDisc, DEFAULT_PLAYOUT_NUM, DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * プレイアウトの回数を指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param playoutNum 1手あたりのプレイアウトの回数（思考時間の上限が設定されている場合は使用しない）
+     */
+    public Mcts01(Board board, Disc playerDisc, int playoutNum) {
+        this(board, playerDisc, playoutNum, DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * プレイアウトの回数と木のノードの数の上限を指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param playoutNum 1手あたりのプレイアウトの回数（思考時間の上限が設定されている場合は使用しない）
+     * @param nodeCapacity 木のノードの数の上限
+     * @throws IllegalArgumentException プレイアウトの回数が {@code 0} 以下、またはノードの数の上限が
+     *             1手分の子を格納できない値である
+     */
+    public Mcts01(Board board, Disc playerDisc, int playoutNum, int nodeCapacity) throws IllegalArgumentException {
+        super(board, playerDisc);
+
+        // 引数の正常性確認
+        if (playoutNum <= 0) {
+            throw new IllegalArgumentException("プレイアウトの回数は0より大きい値を指定してください: " + playoutNum);
+        }
+        if (nodeCapacity <= BitBoard.CELL_NUM) {
+            throw new IllegalArgumentException("ノードの数の上限は" + BitBoard.CELL_NUM + "より大きい値を指定してください: " + nodeCapacity);
+        }
+
+        this.playoutNum = playoutNum;
+        this.isParallel = Global.IS_PARALLEL_SEARCH;
+        this.pool = ForkJoinPool.commonPool();
+        this.firstChild = new int[nodeCapacity];
+        this.childNum = new byte[nodeCapacity];
+        this.moves = new byte[nodeCapacity];
+        this.stats = new long[nodeCapacity];
+        this.nodeCount = new AtomicInteger();
+    }
+
+    /**
+     * 並列探索を行うかを設定する
+     * @param isParallel 並列探索を行う場合は真 {@code true}, 1つのスレッドで逐次探索する場合は偽 {@code false}
+     */
+    public void setParallel(Boolean isParallel) {
+        this.isParallel = isParallel;
+    }
+
+    /**
+     * 並列探索に使用するスレッドプールを設定する。設定しない場合は共通のプール（{@link ForkJoinPool#commonPool()}）を使用する。<br>
+     * 探索するスレッドの数は、スレッドプールの並列度（{@link ForkJoinPool#getParallelism()}）とする。
+     * @param pool 並列探索に使用するスレッドプール
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 直前の {@link #run()} でプレイアウトを行った回数を取得する
+     * @return プレイアウトの回数
+     */
+    public long getPlayoutCount() {
+        return playoutCount;
+    }
+
+    /**
+     * 直前の {@link #run()} で使用した木のノードの数を取得する
+     * @return ノードの数
+     */
+    public int getNodeCount() {
+        return nodeCount.get();
+    }
+
+    /**
+     * 直前の {@link #run()} で、他のスレッドとの競合により CAS をやり直した回数を取得する
+     * @return CAS をやり直した回数（逐次探索の場合は {@code 0}）
+     */
+    public long getCasRetryCount() {
+        return casRetryCount;
+    }
+
+    /**
+     * 直前の {@link #run()} で、他のスレッドが同じノードを展開中のため展開できなかった回数を取得する<br>
+     * 展開できなかったスレッドは、そのノードからプレイアウトを行う。
+     * @return 展開できなかった回数（逐次探索の場合は {@code 0}）
+     */
+    public long getExpansionCollisionCount() {
+        return expansionCollisionCount;
+    }
+
+    /**
+     * 直前の {@link #run()} で、木の根の子（石を置けるマス）が選ばれた回数を取得する
+     * @param index マスのビット位置
+     * @return 選ばれた回数。子でない場合は {@code 0}
+     */
+    public int getRootVisits(int index) {
+        if (nodeCount.get() == 0 || firstChild[0] < 0) {
+            return 0;
+        }
+        for (int child = firstChild[0]; child < firstChild[0] + childNum[0]; child++) {
+            if (moves[child] == index) {
+                return getVisits(stats[child]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 木を探索し、最も多く選ばれた手の座標を算出する
+     */
+    @Override
+    public Dimension run() {
+        // 残りの空きマスが少ない場合は、プレイアウトを行わず終局まで読み切る（思考時間は読み切りを含めて計測する）
+        startTimer();
+        Dimension endgameMove = solveEndgame();
+        if (endgameMove != null) {
+            return endgameMove;
+        }
+
+        final long rootPlayer = board.getDiscBits(playerDisc);
+        final long rootOpponent = board.getDiscBits(playerDisc.next());
+        final long mask = board.getBoardMask();
+        if ((BitBoard.calcMobility(rootPlayer, rootOpponent) & mask) == 0) {
+            return null;
+        }
+
+        nodeCount.set(1);
+        firstChild[0] = UNEXPANDED;
+        childNum[0] = 0;
+        stats[0] = 0L;
+        expand(0, rootPlayer, rootOpponent, mask);
+
+        // 各スレッドでプレイアウトを行う（逐次探索の場合は、呼び出し元のスレッドのみで行う）
+        final AtomicLong playoutClaim = new AtomicLong();
+        List<Worker> workers = new ArrayList<>();
+        if (isParallel) {
+            final int threadNum = pool.getParallelism();
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < threadNum; i++) {
+                Worker worker = new Worker(rootPlayer, rootOpponent, mask, random.split(), VIRTUAL_LOSS,
+                        playoutClaim);
+                workers.add(worker);
+                tasks.add(pool.submit(worker));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } else {
+            Worker worker = new Worker(rootPlayer, rootOpponent, mask, random, 0, playoutClaim);
+            workers.add(worker);
+            worker.run();
+        }
+
+        playoutCount = 0;
+        casRetryCount = 0;
+        expansionCollisionCount = 0;
+        for (Worker worker : workers) {
+            playoutCount += worker.playoutCount;
+            casRetryCount += worker.casRetryCount;
+            expansionCollisionCount += worker.expansionCollisionCount;
+        }
+
+        // 最も多く選ばれた手を選ぶ（同じ回数の場合は行・列の昇順で先のマス）
+        int bestChild = firstChild[0];
+        for (int child = firstChild[0] + 1; child < firstChild[0] + childNum[0]; child++) {
+            if (getVisits(stats[child]) > getVisits(stats[bestChild])) {
+                bestChild = child;
+            }
+        }
+        return BitBoard.toDimension(moves[bestChild]);
+    }
+
+    /**
+     * 1つのスレッドで、選択・展開・プレイアウト・逆伝播を繰り返す処理<br>
+     * スレッドごとに乱数と、木をたどったノード番号・競合の回数を保持する。
+     */
+    private class Worker implements Runnable {
+
+        /** 木の根の局面で、石を置くプレイヤーの石のビットボード */
+        private final long rootPlayer;
+
+        /** 木の根の局面で、相手の石のビットボード */
+        private final long rootOpponent;
+
+        /** リバーシ盤の範囲内のマスを表すビットマスク */
+        private final long mask;
+
+        /** 石を置くマスを選ぶ乱数 */
+        private final SplittableRandom random;
+
+        /** 選択したノードに仮に加算する負けの回数（逐次探索の場合は {@code 0}） */
+        private final int virtualLoss;
+
+        /** 全てのスレッドで共有する、プレイアウトを行う権利を取得した回数 */
+        private final AtomicLong playoutClaim;
+
+        /** 木をたどったノード番号を格納する配列 */
+        private final int[] path;
+
+        /** このスレッドでプレイアウトを行った回数 */
+        private long playoutCount;
+
+        /** このスレッドで CAS をやり直した回数 */
+        private long casRetryCount;
+
+        /** このスレッドで、他のスレッドが展開中のため展開できなかった回数 */
+        private long expansionCollisionCount;
+
+        /**
+         * 初期化を行う
+         * @param rootPlayer 木の根の局面で、石を置くプレイヤーの石のビットボード
+         * @param rootOpponent 木の根の局面で、相手の石のビットボード
+         * @param mask リバーシ盤の範囲内のマスを表すビットマスク
+         * @param random 石を置くマスを選ぶ乱数（他のスレッドと共有しないこと）
+         * @param virtualLoss 選択したノードに仮に加算する負けの回数
+         * @param playoutClaim 全てのスレッドで共有する、プレイアウトを行う権利を取得した回数
+         */
+        Worker(long rootPlayer, long rootOpponent, long mask, SplittableRandom random, int virtualLoss,
+                AtomicLong playoutClaim) {
+            this.rootPlayer = rootPlayer;
+            this.rootOpponent = rootOpponent;
+            this.mask = mask;
+            this.random = random;
+            this.virtualLoss = virtualLoss;
+            this.playoutClaim = playoutClaim;
+            this.path = new int[MAX_PATH_LENGTH];
+        }
+
+        /**
+         * 決められた回数（または思考時間の上限まで）、探索を繰り返す
+         */
+        @Override
+        public void run() {
+            if (timeLimit > 0) {
+                while ((playoutCount & TIME_CHECK_MASK) != 0 || !isTimeOver()) {
+                    searchOnce();
+                    playoutCount++;
+                }
+            } else {
+                while (playoutClaim.getAndIncrement() < playoutNum) {
+                    searchOnce();
+                    playoutCount++;
+                }
+            }
+        }
+
+        /**
+         * 選択・展開・プレイアウト・逆伝播を1回行う
+         */
+        private void searchOnce() {
+            long player = rootPlayer;
+            long opponent = rootOpponent;
+            int node = 0;
+            int depth = 0;
+            path[0] = 0;
+            addStats(0, virtualLoss, 0);
+
+            // 選択: 展開済みのノードは、UCB1 が最大の子をたどる
+            int first = (int) FIRST_CHILD.getAcquire(firstChild, node);
+            while (first >= 0 && childNum[node] > 0) {
+                node = selectChild(node, first);
+                addStats(node, virtualLoss, 0);
+                final int move = moves[node];
+                if (move != PASS_MOVE) {
+                    final long flip = BitBoard.calcFlip(player, opponent, move);
+                    player |= (1L << move) | flip;
+                    opponent &= ~flip;
+                }
+                final long temp = player;
+                player = opponent;
+                opponent = temp;
+                path[++depth] = node;
+                first = (int) FIRST_CHILD.getAcquire(firstChild, node);
+            }
+
+            // 展開: 2回目に選ばれた葉は子を追加し、最初の子からプレイアウトを行う
+            // （選ばれた回数には、このスレッドが加算したバーチャルロスを含む）
+            if (first == UNEXPANDED && getVisits((long) STATS.getOpaque(stats, node)) > virtualLoss
+                    && tryExpand(node, player, opponent) && childNum[node] > 0) {
+                node = firstChild[node];
+                addStats(node, virtualLoss, 0);
+                final int move = moves[node];
+                if (move != PASS_MOVE) {
+                    final long flip = BitBoard.calcFlip(player, opponent, move);
+                    player |= (1L << move) | flip;
+                    opponent &= ~flip;
+                }
+                final long temp = player;
+                player = opponent;
+                opponent = temp;
+                path[++depth] = node;
+            } else if (first == EXPANDING) {
+                expansionCollisionCount++;
+            }
+
+            // プレイアウト: 葉の局面で石を置くプレイヤーから見た勝敗を、木の根のプレイヤーから見た勝敗に変換する
+            final int result = Integer.signum(playout(player, opponent, mask, random));
+            final int rootResult = (depth % 2 == 0) ? result : -result;
+
+            // 逆伝播: 各ノードには、そのノードに至る手を選んだプレイヤー（深さが奇数の場合は木の根のプレイヤー）の勝ち点を加算し、
+            // 選択時に加算したバーチャルロスを取り消す
+            for (int i = depth; i >= 0; i--) {
+                final int moverResult = (i % 2 == 1) ? rootResult : -rootResult;
+                addStats(path[i], 1 - virtualLoss, moverResult + 1);
+            }
+        }
+
+        /**
+         * UCB1 が最大の子を選ぶ。一度も選ばれていない子がある場合は、その子を優先する。
+         * @param node 親のノード番号
+         * @param first 親の最初の子のノード番号
+         * @return 選んだ子のノード番号
+         */
+        private int selectChild(int node, int first) {
+            final int last = first + childNum[node];
+            final double logVisits = Math.log(getVisits((long) STATS.getOpaque(stats, node)));
+
+            int bestChild = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = first; child < last; child++) {
+                final long childStats = (long) STATS.getOpaque(stats, child);
+                final int childVisits = getVisits(childStats);
+                if (childVisits == 0) {
+                    return child;
+                }
+                final double value = (double) getWins(childStats) / (WIN_POINT * childVisits)
+                        + EXPLORATION * Math.sqrt(logVisits / childVisits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestChild = child;
+                }
+            }
+            return bestChild;
+        }
+
+        /**
+         * 他のスレッドが展開していなければ、ノードを展開する
+         * @param node 展開するノード番号
+         * @param player ノードの局面で、石を置くプレイヤーの石のビットボード
+         * @param opponent ノードの局面で、相手の石のビットボード
+         * @return 展開した場合は {@code true}、他のスレッドが展開中、またはノードの数が上限に達した場合は {@code false}
+         */
+        private boolean tryExpand(int node, long player, long opponent) {
+            if (!FIRST_CHILD.compareAndSet(firstChild, node, UNEXPANDED, EXPANDING)) {
+                expansionCollisionCount++;
+                return false;
+            }
+            if (!expand(node, player, opponent, mask)) {
+                FIRST_CHILD.setRelease(firstChild, node, UNEXPANDED);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * ノードの選ばれた回数と勝ち点を、CAS で不可分に加算する
+         * @param node ノード番号
+         * @param visits 選ばれた回数に加算する値
+         * @param wins 勝ち点に加算する値
+         */
+        private void addStats(int node, int visits, int wins) {
+            if (visits == 0 && wins == 0) {
+                return;
+            }
+            final long delta = ((long) visits << 32) + wins;
+            long current = (long) STATS.getOpaque(stats, node);
+            while (!STATS.compareAndSet(stats, node, current, current + delta)) {
+                casRetryCount++;
+                current = (long) STATS.getOpaque(stats, node);
+            }
+        }
+    }
+
+    /**
+     * ノードを展開し、石を置ける全ての手（置けない場合はパス）を子として追加する<br>
+     * 子の情報を書き込んだ後に最初の子のノード番号を設定するため、他のスレッドは展開中の子を参照しない。
+     * @param node 展開するノード番号
+     * @param player ノードの局面で、石を置くプレイヤーの石のビットボード
+     * @param opponent ノードの局面で、相手の石のビットボード
+     * @param mask リバーシ盤の範囲内のマスを表すビットマスク
+     * @return 展開した場合は {@code true}、ノードの数が上限に達したため展開しなかった場合は {@code false}
+     */
+    private boolean expand(int node, long player, long opponent, long mask) {
+        long movable = BitBoard.calcMobility(player, opponent) & mask;
+        int num = Long.bitCount(movable);
+        if (num == 0 && (BitBoard.calcMobility(opponent, player) & mask) != 0) {
+            num = 1;
+        }
+
+        // 子を格納する範囲を確保する
+        int first;
+        do {
+            first = nodeCount.get();
+            if (first + num > firstChild.length) {
+                return false;
+            }
+        } while (!nodeCount.compareAndSet(first, first + num));
+
+        for (int i = 0; i < num; i++) {
+            final int child = first + i;
+            if (movable != 0) {
+                moves[child] = (byte) Long.numberOfTrailingZeros(movable);
+                movable &= movable - 1;
+            } else {
+                moves[child] = (byte) PASS_MOVE;
+            }
+            firstChild[child] = UNEXPANDED;
+            childNum[child] = 0;
+            stats[child] = 0L;
+        }
+        childNum[node] = (byte) num;
+        FIRST_CHILD.setRelease(firstChild, node, first);
+        return true;
+    }
+
+    /**
+     * 選ばれた回数を取り出す
+     * @param stats 選ばれた回数と勝ち点をまとめた値
+     * @return 選ばれた回数
+     */
+    private static int getVisits(long stats) {
+        return (int) (stats >>> 32);
+    }
+
+    /**
+     * 勝ち点の合計を取り出す
+     * @param stats 選ばれた回数と勝ち点をまとめた値
+     * @return 勝ち点の合計
+     */
+    private static int getWins(long stats) {
+        return (int) stats;
+    }
+
+    /**
+     * 指定した局面から終局まで、ランダムに石を置く
+     * @param player 石を置くプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param mask リバーシ盤の範囲内のマスを表すビットマスク
+     * @param random 石を置くマスを選ぶ乱数
+     * @return 終局時の石数の差（最初に石を置くプレイヤーの石数 - 相手の石数）
+     */
+    static int playout(long player, long opponent, long mask, SplittableRandom random) {
+        boolean isFirstPlayer = true;
+        while (true) {
+            long movable = BitBoard.calcMobility(player, opponent) & mask;
+            if (movable == 0) {
+                // 両方のプレイヤーが石を置けない場合は終局
+                if ((BitBoard.calcMobility(opponent, player) & mask) == 0) {
+                    break;
+                }
+            } else {
+                // 石を置けるマスから等確率に選ぶ
+                for (int skip = random.nextInt(Long.bitCount(movable)); skip > 0; skip--) {
+                    movable &= movable - 1;
+                }
+                final int index = Long.numberOfTrailingZeros(movable);
+                final long flip = BitBoard.calcFlip(player, opponent, index);
+                player |= (1L << index) | flip;
+                opponent &= ~flip;
+            }
+
+            final long temp = player;
+            player = opponent;
+            opponent = temp;
+            isFirstPlayer = !isFirstPlayer;
+        }
+
+        final int diff = Long.bitCount(player) - Long.bitCount(opponent);
+        return isFirstPlayer ? diff : -diff;
+    }
+}
@@ -1,25 +1,110 @@
 package algorithm;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 import common.Global;
+import reversi.BitBoard;
 import reversi.Board;
 import reversi.Dimension;
 import reversi.Disc;
 
 /**
- * Mini_Max法のアルゴリズムで石を置く位置を決める
+ * Mini_Max法のアルゴリズムで石を置く位置を決める<br>
+ * 手順が異なっても同じ局面になる場合があるため、評価済みの局面は置換表に記録して再利用する。<br>
+ * 並列探索（{@link #setParallel(Boolean)}）が有効な場合は、石を置ける各マスとその先の手を {@link ForkJoinPool} のタスクに分割して評価する。
+ * 分割したタスクは、実行中は他のタスクと共有しない置換表を使用する（置換表は実行を終えたタスクから次のタスクに引き継ぐ）。
+ * 評価値はプレイヤー自身から見た値で順序に依存しないため、乱数を加算しない場合は逐次探索と同じ座標を選ぶ。<br>
+ * 残りの空きマスが少ない場合は、{@link EndgameSolver} で終局まで読み切る。
  * @author komoto
  */
 public class MiniMax01 extends Algorithm {
     /** 探索する深さ */
     private final int DEPTH = 4;
 
+    /** 並列探索で、子の手をさらにタスクに分割する残りの深さの下限（これより浅い部分は1つのタスク内で置換表を使用して逐次評価する） */
+    private static final int PARALLEL_SPLIT_DEPTH = 4;
+
+    /** 並列探索のタスクが専有する置換表の大きさ（MB）。タスクは残りの深さが浅い部分のみ探索するため、小さい置換表とする */
+    private static final int TASK_TABLE_SIZE_MB = 1;
+
+    /** 並列探索を行うかを表すフラグ */
+    private Boolean isParallel;
+
+    /** 並列探索に使用するスレッドプール */
+    private ForkJoinPool pool;
+
+    /** 評価済みの局面を記録する置換表（評価値はプレイヤー自身から見た値で記録する） */
+    private final TranspositionTable table;
+
+    /**
+     * 並列探索のタスクが使用する置換表のうち、使用中でないもの<br>
+     * タスクは実行中は置換表を取り出して専有し、実行を終えたら戻す。置換表の数は同時に実行するタスクの数までとなる。
+     */
+    private final ConcurrentLinkedQueue<TranspositionTable> taskTables;
+
     /**
      * 初期化を行う
      * @param board 現在のリバーシ盤の状態
      * @param playerDisc プレイヤーが使用する石
      */
     public MiniMax01(Board board, Disc playerDisc) {
+        this(board, playerDisc, new TranspositionTable(Global.TRANSPOSITION_TABLE_SIZE_MB));
+    }
+
+    /**
+     * 使用する置換表を指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param table 評価済みの局面を記録する置換表。評価値の向きが異なるため、他のアルゴリズムや相手のプレイヤーと共有しないこと。
+     */
+    public MiniMax01(Board board, Disc playerDisc, TranspositionTable table) {
         super(board, playerDisc);
+        this.table = table;
+        this.taskTables = new ConcurrentLinkedQueue<>();
+        this.isParallel = Global.IS_PARALLEL_SEARCH;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * 並列探索を行うかを設定する<br>
+     * 置換表はスレッドセーフではないため、並列探索ではタスクごとに専有する置換表を使用する
+     * （同時に実行するタスクの数だけ置換表を確保する）。
+     * @param isParallel 並列探索を行う場合は真 {@code true}, 1つのスレッドで逐次探索する場合は偽 {@code false}
+     */
+    public void setParallel(Boolean isParallel) {
+        this.isParallel = isParallel;
+    }
+
+    /**
+     * 並列探索に使用するスレッドプールを設定する。設定しない場合は共通のプール（{@link ForkJoinPool#commonPool()}）を使用する。
+     * @param pool 並列探索に使用するスレッドプール
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 使用している置換表を取得する
+     * @return 置換表
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * 新しい対局を開始する。前の対局で置換表（並列探索のタスクが使用する置換表を含む）に記録した局面を消去する。
+     */
+    @Override
+    public void newGame() {
+        table.clear();
+        for (TranspositionTable taskTable : taskTables) {
+            taskTable.clear();
+        }
     }
 
     /**
@@ -27,115 +112,285 @@ public class MiniMax01 extends Algorithm {
      */
     @Override
     public Dimension run() {
+        // 残りの空きマスが少ない場合は、評価関数を使用せず終局まで読み切る（思考時間は読み切りを含めて計測する）
+        startTimer();
+        Dimension endgameMove = solveEndgame();
+        if (endgameMove != null) {
+            return endgameMove;
+        }
+
         final Dimension boardSize = board.getSize();
         Evaluate evaluate = new Evaluate(boardSize);
 
-        for (int i = 0; i < boardSize.getRow(); i++) {
-            for (int j = 0; j < boardSize.getColumn(); j++) {
-                Dimension target = new Dimension(i, j);
-
-                if (board.canPut(target, playerDisc)) {
-                    // 石を置けない場合は評価点を設定する
-                    try {
-                        int point = evaluateMax(DEPTH, board, target);
-                        evaluate.set(target, point);
-                    } catch (CloneNotSupportedException e) {
-                        e.printStackTrace();
-                        System.err.println("対象マスでの評価に失敗したため、評価値の加算はありません: " + target.getString());
-                    }
-                } else {
-                    // 石を置けない場合は最小値を設定する
-                    evaluate.set(target, MIN_POINT);
-                }
-            }
+        // 探索用のリバーシ盤を複製する。探索中はこの盤面に石を置き・取り消しながら使い回す。
+        Board searchBoard;
+        try {
+            searchBoard = board.clone();
+        } catch (CloneNotSupportedException e) {
+            e.printStackTrace();
+            System.err.println("探索用のリバーシ盤の複製に失敗したため、評価を行いません");
+            return null;
+        }
+        table.newSearch();
+
+        if (isParallel) {
+            return runParallel(searchBoard, evaluate);
+        }
+
+        // 石を置けるマスのみ評価する（石を置けないマスは評価の対象外とする）
+        long movable = searchBoard.getMovableBits(playerDisc);
+        while (movable != 0) {
+            int index = Long.numberOfTrailingZeros(movable);
+            movable &= movable - 1;
+
+            int point = evaluateMax(DEPTH, searchBoard, index, table, random);
+            evaluate.set(BitBoard.toDimension(index), point);
+        }
+
+        return evaluate.getMaxPointDimension();
+    }
+
+    /**
+     * 石を置ける全てのマスをタスクに分割して並列に評価し、評価値が最大となる座標を算出する<br>
+     * 評価結果は逐次探索と同じく行・列の昇順に反映するため、評価値が同じ場合に選ぶ座標も逐次探索と同じになる。
+     * @param searchBoard 探索用のリバーシ盤
+     * @param evaluate 評価値を格納する評価関数
+     * @return 評価値が最大となる座標
+     */
+    private Dimension runParallel(Board searchBoard, Evaluate evaluate) {
+        for (TranspositionTable taskTable : taskTables) {
+            taskTable.newSearch();
+        }
+
+        List<EvaluateTask> tasks = new ArrayList<>();
+        long movable = searchBoard.getMovableBits(playerDisc);
+        while (movable != 0) {
+            int index = Long.numberOfTrailingZeros(movable);
+            movable &= movable - 1;
+
+            EvaluateTask task = EvaluateTask.create(this, DEPTH, searchBoard, index, true, random.split());
+            tasks.add(task);
+            pool.execute(task);
+        }
+
+        for (EvaluateTask task : tasks) {
+            evaluate.set(BitBoard.toDimension(task.index), task.join());
         }
 
         return evaluate.getMaxPointDimension();
     }
 
+    /**
+     * 並列探索のタスクが専有する置換表を取り出す。使用中でない置換表がない場合は新しく生成する。
+     * @return 取り出した置換表
+     */
+    private TranspositionTable acquireTaskTable() {
+        TranspositionTable taskTable = taskTables.poll();
+        if (taskTable == null) {
+            taskTable = new TranspositionTable(TASK_TABLE_SIZE_MB);
+        }
+        return taskTable;
+    }
+
+    /**
+     * 並列探索のタスクが使用を終えた置換表を戻す
+     * @param taskTable 使用を終えた置換表
+     */
+    private void releaseTaskTable(TranspositionTable taskTable) {
+        taskTables.offer(taskTable);
+    }
+
     /**
      * 盤面にある自分と相手の石の個数に応じて、評価する（自分のターン）
      * @param depth 手を読む深さ
-     * @param currnetBoard 現在のリバーシ盤の状態
+     * @param currnetBoard 現在のリバーシ盤の状態。評価後は評価前の状態に戻る。
+     * @param target 石を置く予定の座標。この座標に石をおいた場合について評価する。
+     * @return この盤面での評価値
+     * @throws RuntimeException 石を設置できない座標が指定された
+     */
+    private int evaluateMax(int depth, Board currnetBoard, Dimension target) throws RuntimeException {
+        return evaluateMax(depth, currnetBoard, BitBoard.toIndex(target.getRow(), target.getColumn()), table, random);
+    }
+
+    /**
+     * 盤面にある自分と相手の石の個数に応じて、評価する（相手のターン）
+     * @param depth 手を読む深さ
+     * @param currnetBoard 現在のリバーシ盤の状態。評価後は評価前の状態に戻る。
      * @param target 石を置く予定の座標。この座標に石をおいた場合について評価する。
+     * @return この盤面での評価値を返す
+     * @throws RuntimeException 石を設置できない座標が指定された
+     */
+    private int evaluateMini(int depth, Board currnetBoard, Dimension target) throws RuntimeException {
+        return evaluateMini(depth, currnetBoard, BitBoard.toIndex(target.getRow(), target.getColumn()), table, random);
+    }
+
+    /**
+     * 盤面にある自分と相手の石の個数に応じて、評価する（自分のターン）<br>
+     * 自分が石を置いた後は相手の手番となるため、相手は自分の評価値が最小となる手を選ぶものとして評価する。
+     * リバーシ盤を複製せず、石を置いて評価した後に取り消すことで元の状態に戻す。
+     * @param depth 手を読む深さ
+     * @param currnetBoard 現在のリバーシ盤の状態。評価後は評価前の状態に戻る。
+     * @param index 石を置く予定のマスのビット位置。このマスに石をおいた場合について評価する。
+     * @param table 評価済みの局面を記録する置換表。使用しない場合は {@code null}
+     * @param random 評価値に加算する乱数
      * @return この盤面での評価値
-     * @throws CloneNotSupportedException 評価用にリバーシ盤を複製するのに失敗した
      * @throws RuntimeException 石を設置できない座標が指定された
      */
-    private int evaluateMax(int depth, Board currnetBoard, Dimension target)
-            throws CloneNotSupportedException, RuntimeException {
-        // 次の手の状態を表すリバーシ盤を作成する
-        Board nextBoard = currnetBoard.clone();
-        if (nextBoard.put(target, playerDisc) == false) {
-            throw new RuntimeException("石を置けない座標が指定されました" + target.getString());
+    private int evaluateMax(int depth, Board currnetBoard, int index, TranspositionTable table,
+            SplittableRandom random) throws RuntimeException {
+        // 次の手の状態にリバーシ盤を進める
+        final long flip = currnetBoard.doMove(index, playerDisc);
+        if (flip == 0) {
+            throw new RuntimeException("石を置けない座標が指定されました" + BitBoard.toDimension(index).getString());
         }
 
-        // 深さ0の場合、探索を終えて評価する
+        int minPoint;
         if (depth == 0) {
-            return calcPoint(nextBoard);
-        }
+            // 深さ0の場合、探索を終えて評価する
+            minPoint = calcPoint(currnetBoard, random);
+        } else {
+            // 同じ深さ以上で評価済みの局面であれば、記録した評価値を使用する
+            final long key = TranspositionTable.calcKey(currnetBoard, playerDisc.next());
+            final int slot = (table == null) ? TranspositionTable.NOT_FOUND : table.find(key);
+            if (slot != TranspositionTable.NOT_FOUND && table.getDepth(slot) >= depth) {
+                currnetBoard.undoMove(index, playerDisc, flip);
+                return table.getScore(slot);
+            }
 
-        // 次の相手の手を評価する
-        int maxPoint = MIN_POINT;
-        for (int i = 0; i < nextBoard.getSize().getRow(); i++) {
-            for (int j = 0; j < nextBoard.getSize().getColumn(); j++) {
-                Dimension nextTarget = new Dimension(i, j);
+            int bestIndex = TranspositionTable.NO_MOVE;
+            long movable = currnetBoard.getMovableBits(playerDisc.next());
+            if (movable != 0) {
+                // 次の相手の手を評価する
+                minPoint = MAX_POINT;
 
                 // 相手の石が置けるマスのみ評価する
-                if (nextBoard.canPut(nextTarget, playerDisc.next())) {
-                    int point = evaluateMini(depth - 1, nextBoard, nextTarget);
+                while (movable != 0) {
+                    int nextIndex = Long.numberOfTrailingZeros(movable);
+                    movable &= movable - 1;
 
-                    // 自分にとって良い手（自分の評価値が高い手）か判定する
-                    if (point > maxPoint) {
-                        maxPoint = point;
+                    int point = evaluateMini(depth - 1, currnetBoard, nextIndex, table, random);
+
+                    // 相手にとって良い手（自分の評価値が低い手）か判定する
+                    if (point < minPoint) {
+                        minPoint = point;
+                        bestIndex = nextIndex;
+                    }
+                }
+            } else if (currnetBoard.canPutAll(playerDisc)) {
+                // 相手は石を置けないためパスし、続けて自分の手を評価する
+                minPoint = MIN_POINT;
+                movable = currnetBoard.getMovableBits(playerDisc);
+                while (movable != 0) {
+                    int nextIndex = Long.numberOfTrailingZeros(movable);
+                    movable &= movable - 1;
+
+                    int point = evaluateMax(depth - 1, currnetBoard, nextIndex, table, random);
+                    if (point > minPoint) {
+                        minPoint = point;
+                        bestIndex = nextIndex;
                     }
                 }
+            } else {
+                // 両者とも石を置けないため終局とし、石の個数の差で評価する
+                minPoint = calcFinalPoint(currnetBoard);
+            }
+            if (table != null) {
+                table.store(key, depth, TranspositionTable.BOUND_EXACT, minPoint, bestIndex);
             }
         }
-        return maxPoint;
+
+        // リバーシ盤を評価前の状態に戻す
+        currnetBoard.undoMove(index, playerDisc, flip);
+        return minPoint;
     }
 
     /**
-     * 盤面にある自分と相手の石の個数に応じて、評価する（自分のターン）
+     * 盤面にある自分と相手の石の個数に応じて、評価する（相手のターン）<br>
+     * 相手が石を置いた後は自分の手番となるため、自分は評価値が最大となる手を選ぶものとして評価する。
+     * リバーシ盤を複製せず、石を置いて評価した後に取り消すことで元の状態に戻す。
      * @param depth 手を読む深さ
-     * @param currnetBoard 現在のリバーシ盤の状態
-     * @param target 石を置く予定の座標。この座標に石をおいた場合について評価する。
+     * @param currnetBoard 現在のリバーシ盤の状態。評価後は評価前の状態に戻る。
+     * @param index 石を置く予定のマスのビット位置。このマスに石をおいた場合について評価する。
+     * @param table 評価済みの局面を記録する置換表。使用しない場合は {@code null}
+     * @param random 評価値に加算する乱数
      * @return この盤面での評価値を返す
-     * @throws CloneNotSupportedException 評価用にリバーシ盤を複製するのに失敗した
      * @throws RuntimeException 石を設置できない座標が指定された
      */
-    private int evaluateMini(int depth, Board currnetBoard, Dimension target)
-            throws CloneNotSupportedException, RuntimeException {
-
-        // 次の手の状態を表すリバーシ盤を作成する
-        Board nextBoard = currnetBoard.clone();
-        if (nextBoard.put(target, playerDisc.next()) == false) {
-            throw new RuntimeException("石を置けない座標が指定されました" + target.getString());
+    private int evaluateMini(int depth, Board currnetBoard, int index, TranspositionTable table,
+            SplittableRandom random) throws RuntimeException {
+        // 次の手の状態にリバーシ盤を進める
+        final long flip = currnetBoard.doMove(index, playerDisc.next());
+        if (flip == 0) {
+            throw new RuntimeException("石を置けない座標が指定されました" + BitBoard.toDimension(index).getString());
         }
 
-        // 深さ0の場合、探索を終えて評価する
+        int maxPoint;
         if (depth == 0) {
-            return calcPoint(nextBoard);
-        }
+            // 深さ0の場合、探索を終えて評価する
+            maxPoint = calcPoint(currnetBoard, random);
+        } else {
+            // 同じ深さ以上で評価済みの局面であれば、記録した評価値を使用する
+            final long key = TranspositionTable.calcKey(currnetBoard, playerDisc);
+            final int slot = (table == null) ? TranspositionTable.NOT_FOUND : table.find(key);
+            if (slot != TranspositionTable.NOT_FOUND && table.getDepth(slot) >= depth) {
+                currnetBoard.undoMove(index, playerDisc.next(), flip);
+                return table.getScore(slot);
+            }
 
-        // 次の自分の手を評価する
-        int minPoint = MAX_POINT;
-        for (int i = 0; i < nextBoard.getSize().getRow(); i++) {
-            for (int j = 0; j < nextBoard.getSize().getColumn(); j++) {
-                Dimension nextTarget = new Dimension(i, j);
+            int bestIndex = TranspositionTable.NO_MOVE;
+            long movable = currnetBoard.getMovableBits(playerDisc);
+            if (movable != 0) {
+                // 次の自分の手を評価する
+                maxPoint = MIN_POINT;
 
                 // 自分の石が置けるマスのみ評価する
-                if (nextBoard.canPut(nextTarget, playerDisc)) {
-                    int point = evaluateMax(depth - 1, nextBoard, nextTarget);
+                while (movable != 0) {
+                    int nextIndex = Long.numberOfTrailingZeros(movable);
+                    movable &= movable - 1;
 
-                    // 相手にとって良い手（自分の評価値が低い手）か判定する
-                    if (point < minPoint) {
-                        minPoint = point;
+                    int point = evaluateMax(depth - 1, currnetBoard, nextIndex, table, random);
+
+                    // 自分にとって良い手（自分の評価値が高い手）か判定する
+                    if (point > maxPoint) {
+                        maxPoint = point;
+                        bestIndex = nextIndex;
                     }
                 }
+            } else if (currnetBoard.canPutAll(playerDisc.next())) {
+                // 自分は石を置けないためパスし、続けて相手の手を評価する
+                maxPoint = MAX_POINT;
+                movable = currnetBoard.getMovableBits(playerDisc.next());
+                while (movable != 0) {
+                    int nextIndex = Long.numberOfTrailingZeros(movable);
+                    movable &= movable - 1;
+
+                    int point = evaluateMini(depth - 1, currnetBoard, nextIndex, table, random);
+                    if (point < maxPoint) {
+                        maxPoint = point;
+                        bestIndex = nextIndex;
+                    }
+                }
+            } else {
+                // 両者とも石を置けないため終局とし、石の個数の差で評価する
+                maxPoint = calcFinalPoint(currnetBoard);
+            }
+            if (table != null) {
+                table.store(key, depth, TranspositionTable.BOUND_EXACT, maxPoint, bestIndex);
             }
         }
-        return minPoint;
+
+        // リバーシ盤を評価前の状態に戻す
+        currnetBoard.undoMove(index, playerDisc.next(), flip);
+        return maxPoint;
+    }
+
+    /**
+     * 終局した盤面の自分と相手の石の個数から、プレイヤー自身に対する評価値を算出する（乱数は加算しない）
+     * @param currnetBoard 終局したリバーシ盤の状態
+     * @return プレイヤー自身に対する盤面の評価値
+     */
+    private int calcFinalPoint(Board currnetBoard) {
+        return (currnetBoard.getDiscNum(playerDisc) - currnetBoard.getDiscNum(playerDisc.next())) * 100;
     }
 
     /**
@@ -144,6 +399,16 @@ public class MiniMax01 extends Algorithm {
      * @return プレイヤー自身に対する盤面の評価値
      */
     private int calcPoint(Board currnetBoard) {
+        return calcPoint(currnetBoard, random);
+    }
+
+    /**
+     * 自分と相手の石の個数から、プレイヤー自身に対する盤面の評価値を算出する
+     * @param currnetBoard 現在のリバーシ盤の状態
+     * @param random 評価値に加算する乱数
+     * @return プレイヤー自身に対する盤面の評価値
+     */
+    private int calcPoint(Board currnetBoard, SplittableRandom random) {
         // 現在の盤面での、自分の石と相手の石の個数で評価する
         int playerDiscNum = currnetBoard.getDiscNum(playerDisc);
         int enemyDiscNum = currnetBoard.getDiscNum(playerDisc.next());
@@ -155,4 +420,129 @@ public class MiniMax01 extends Algorithm {
 
         return point;
     }
+
+    /**
+     * 石を置く予定のマスを1つ評価する並列探索のタスク<br>
+     * タスクごとにリバーシ盤の複製と乱数を持ち、残りの深さが {@link #PARALLEL_SPLIT_DEPTH} 以上の場合は次の手をさらにタスクに分割する。
+     * 乱数はタスクの生成時に親のタスクから分割するため、スレッドの実行順に関わらず同じ評価値となる。
+     */
+    private static class EvaluateTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        /** 評価を行うアルゴリズム */
+        private final MiniMax01 algorithm;
+
+        /** 手を読む深さ */
+        private final int depth;
+
+        /** このタスク専用のリバーシ盤 */
+        private final Board taskBoard;
+
+        /** 石を置く予定のマスのビット位置 */
+        private final int index;
+
+        /** 石を置くのがプレイヤー自身であるか */
+        private final boolean isPlayerTurn;
+
+        /** このタスク専用の乱数 */
+        private final SplittableRandom taskRandom;
+
+        /**
+         * タスクの初期化を行う
+         * @param algorithm 評価を行うアルゴリズム
+         * @param depth 手を読む深さ
+         * @param taskBoard このタスク専用のリバーシ盤
+         * @param index 石を置く予定のマスのビット位置
+         * @param isPlayerTurn 石を置くのがプレイヤー自身であるか
+         * @param taskRandom このタスク専用の乱数
+         */
+        private EvaluateTask(MiniMax01 algorithm, int depth, Board taskBoard, int index, boolean isPlayerTurn,
+                SplittableRandom taskRandom) {
+            this.algorithm = algorithm;
+            this.depth = depth;
+            this.taskBoard = taskBoard;
+            this.index = index;
+            this.isPlayerTurn = isPlayerTurn;
+            this.taskRandom = taskRandom;
+        }
+
+        /**
+         * リバーシ盤を複製してタスクを生成する
+         * @param algorithm 評価を行うアルゴリズム
+         * @param depth 手を読む深さ
+         * @param currentBoard 現在のリバーシ盤の状態
+         * @param index 石を置く予定のマスのビット位置
+         * @param isPlayerTurn 石を置くのがプレイヤー自身であるか
+         * @param taskRandom このタスク専用の乱数
+         * @return 生成したタスク
+         * @throws RuntimeException リバーシ盤の複製に失敗した
+         */
+        private static EvaluateTask create(MiniMax01 algorithm, int depth, Board currentBoard, int index,
+                boolean isPlayerTurn, SplittableRandom taskRandom) throws RuntimeException {
+            try {
+                return new EvaluateTask(algorithm, depth, currentBoard.clone(), index, isPlayerTurn, taskRandom);
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException("探索用のリバーシ盤の複製に失敗しました", e);
+            }
+        }
+
+        /**
+         * マスを評価する
+         */
+        @Override
+        protected Integer compute() {
+            // 浅い部分はタスクを分割せず、このタスク内で専有する置換表を使用して逐次評価する
+            if (depth < PARALLEL_SPLIT_DEPTH) {
+                TranspositionTable taskTable = algorithm.acquireTaskTable();
+                try {
+                    if (isPlayerTurn) {
+                        return algorithm.evaluateMax(depth, taskBoard, index, taskTable, taskRandom);
+                    } else {
+                        return algorithm.evaluateMini(depth, taskBoard, index, taskTable, taskRandom);
+                    }
+                } finally {
+                    algorithm.releaseTaskTable(taskTable);
+                }
+            }
+
+            final Disc turnDisc = isPlayerTurn ? algorithm.playerDisc : algorithm.playerDisc.next();
+            final long flip = taskBoard.doMove(index, turnDisc);
+            if (flip == 0) {
+                throw new RuntimeException("石を置けない座標が指定されました" + BitBoard.toDimension(index).getString());
+            }
+
+            // 次の手番のプレイヤーが石を置けない場合はパスし、続けて同じプレイヤーの手を評価する
+            boolean isNextPlayerTurn = !isPlayerTurn;
+            long movable = taskBoard.getMovableBits(turnDisc.next());
+            if (movable == 0) {
+                isNextPlayerTurn = isPlayerTurn;
+                movable = taskBoard.getMovableBits(turnDisc);
+            }
+            if (movable == 0) {
+                // 両者とも石を置けないため終局とし、石の個数の差で評価する
+                int point = algorithm.calcFinalPoint(taskBoard);
+                taskBoard.undoMove(index, turnDisc, flip);
+                return point;
+            }
+
+            // 次の手を全てタスクに分割して評価する
+            List<EvaluateTask> subTasks = new ArrayList<>();
+            while (movable != 0) {
+                int nextIndex = Long.numberOfTrailingZeros(movable);
+                movable &= movable - 1;
+                subTasks.add(create(algorithm, depth - 1, taskBoard, nextIndex, isNextPlayerTurn, taskRandom.split()));
+            }
+            invokeAll(subTasks);
+
+            // 相手が置く場合は自分の評価値が最小の手を、自分が置く場合は最大の手を選ぶ
+            int point = isNextPlayerTurn ? algorithm.MIN_POINT : algorithm.MAX_POINT;
+            for (EvaluateTask subTask : subTasks) {
+                int subPoint = subTask.join();
+                point = isNextPlayerTurn ? Math.max(point, subPoint) : Math.min(point, subPoint);
+            }
+
+            taskBoard.undoMove(index, turnDisc, flip);
+            return point;
+        }
+    }
 }
@@ -0,0 +1,278 @@
+package algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import common.Global;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 着手可能数・潜在的な着手可能数・開放度（フロンティア）・確定石の数で盤面を評価する評価関数<br>
+ * 各特徴（{@link Feature}）について手番のプレイヤーの値から相手の値を引いた差を求め、特徴ごとの重みを掛けた合計を評価値とする。
+ * 特徴はビットボードの演算（{@link BitBoard#calcMobility(long, long)}, {@link BitBoard#calcNeighbors(long)},
+ * {@link BitBoard#calcStable(long, long, long)}）とビット数の計数のみで求め、マスごとの走査やインスタンスの生成は行わない。
+ * <p>
+ * 石を多く返す手を優先する評価（{@link Original01}）と異なり、自分の着手の選択肢を広げ、相手の選択肢を狭める手を優先する。
+ * 8×8 より小さいリバーシ盤では、{@link #evaluate(Board, Disc)} で盤の範囲外のマスを除いて評価する。
+ * 共有のインスタンス（{@link #getDefault()}）は、重みのファイル（{@link Global#MOBILITY_WEIGHTS_FILE}）が存在する場合はその重みを使用する。
+ * @author komoto
+ */
+public class MobilityEvaluator implements Evaluator {
+
+    /**
+     * 評価に使用する特徴を定義する<br>
+     * 特徴の値は、手番のプレイヤーの値から相手の値を引いた差とする。
+     */
+    public enum Feature {
+        /** 着手可能数（石を置けるマスの数） */
+        MOBILITY (80),
+        /** 潜在的な着手可能数（相手の石に隣接する空きマスの数） */
+        POTENTIAL_MOBILITY (20),
+        /** 開放度（空きマスに隣接する自分の石の数）。少ないほど有利なため、重みは負の値とする */
+        FRONTIER (-30),
+        /** 確定石の数 */
+        STABLE (150),
+        ;
+
+        /** 初期の重み */
+        private final int defaultWeight;
+
+        /**
+         * 値を設定する
+         * @param defaultWeight 初期の重み
+         */
+        private Feature(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        /**
+         * 初期の重みを取得する
+         * @return 初期の重み
+         */
+        public int getDefaultWeight() {
+            return defaultWeight;
+        }
+    }
+
+    /** 特徴の数 */
+    public static final int FEATURE_NUM = Feature.values().length;
+
+    /** 重みのファイルの先頭に書き込む識別子（"RVMB"） */
+    private static final int FILE_MAGIC = 0x52564d42;
+
+    /** 8×8 のリバーシ盤の全てのマスを表すビットボード */
+    private static final long FULL_MASK = -1L;
+
+    /** 特徴ごとの重み（{@link Feature#ordinal()} を要素番号とする） */
+    private final int[] weights;
+
+    /** 着手可能数の重み */
+    private final int mobilityWeight;
+
+    /** 潜在的な着手可能数の重み */
+    private final int potentialMobilityWeight;
+
+    /** 開放度の重み */
+    private final int frontierWeight;
+
+    /** 確定石の数の重み */
+    private final int stableWeight;
+
+    /**
+     * 初期の重み（{@link Feature#getDefaultWeight()}）で初期化を行う
+     */
+    public MobilityEvaluator() {
+        this(createDefaultWeights());
+    }
+
+    /**
+     * 重みを指定して初期化を行う<br>
+     * 指定した配列は複製して保持する。
+     * @param weights 特徴ごとの重み（{@link Feature#ordinal()} を要素番号とする）
+     * @throws IllegalArgumentException 重みの数が異なる
+     */
+    public MobilityEvaluator(int[] weights) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (weights == null || weights.length != FEATURE_NUM) {
+            throw new IllegalArgumentException("重みの数が異なります。");
+        }
+
+        this.weights = weights.clone();
+        this.mobilityWeight = weights[Feature.MOBILITY.ordinal()];
+        this.potentialMobilityWeight = weights[Feature.POTENTIAL_MOBILITY.ordinal()];
+        this.frontierWeight = weights[Feature.FRONTIER.ordinal()];
+        this.stableWeight = weights[Feature.STABLE.ordinal()];
+    }
+
+    /**
+     * 初期の重みを特徴の順番に並べる
+     * @return 特徴ごとの初期の重み
+     */
+    private static int[] createDefaultWeights() {
+        int[] weights = new int[FEATURE_NUM];
+        for (Feature feature : Feature.values()) {
+            weights[feature.ordinal()] = feature.getDefaultWeight();
+        }
+        return weights;
+    }
+
+    /**
+     * 共有のインスタンスを取得する<br>
+     * 重みのファイル（{@link Global#MOBILITY_WEIGHTS_FILE}）が存在する場合はその重み、存在しない場合は初期の重みとする。
+     * @return 共有のインスタンス
+     */
+    public static MobilityEvaluator getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 共有のインスタンスを、最初に使用する時に生成するためのクラス
+     */
+    private static class DefaultHolder {
+        /** 共有のインスタンス */
+        private static final MobilityEvaluator INSTANCE = loadDefault();
+
+        /**
+         * 重みのファイルが存在する場合は読み込み、存在しない・読み込めない場合は初期の重みで生成する
+         * @return 生成したインスタンス
+         */
+        private static MobilityEvaluator loadDefault() {
+            final Path path = Paths.get(Global.MOBILITY_WEIGHTS_FILE);
+            if (Files.exists(path)) {
+                try {
+                    return load(path);
+                } catch (IOException | IllegalArgumentException e) {
+                    e.printStackTrace();
+                    System.err.println("重みのファイルを読み込めなかったため、初期の重みを使用します: " + path);
+                }
+            }
+            return new MobilityEvaluator();
+        }
+    }
+
+    /**
+     * 重みをファイルに保存する<br>
+     * 識別子・特徴の数に続き、特徴の順番に重みを書き込む（ビッグエンディアン）。
+     * @param path 出力先のファイル
+     * @throws IOException ファイルに書き込めなかった
+     */
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(weights.length);
+            for (int weight : weights) {
+                out.writeInt(weight);
+            }
+        }
+    }
+
+    /**
+     * ファイルに保存した重み（{@link #save(Path)}）を読み込んで生成する
+     * @param path 読み込むファイル
+     * @return 読み込んだ重みのインスタンス
+     * @throws IOException ファイルを読み込めなかった
+     * @throws IllegalArgumentException ファイルの形式、または重みの数が異なる
+     */
+    public static MobilityEvaluator load(Path path) throws IOException, IllegalArgumentException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IllegalArgumentException("着手可能数・確定石の重みのファイルではありません: " + path);
+            }
+            final int weightNum = in.readInt();
+            if (weightNum != FEATURE_NUM) {
+                throw new IllegalArgumentException("重みの数が異なります: " + weightNum);
+            }
+            int[] weights = new int[weightNum];
+            for (int i = 0; i < weightNum; i++) {
+                weights[i] = in.readInt();
+            }
+            return new MobilityEvaluator(weights);
+        }
+    }
+
+    /**
+     * 重みを取得する
+     * @param feature 特徴
+     * @return 重み
+     */
+    public int getWeight(Feature feature) {
+        return weights[feature.ordinal()];
+    }
+
+    /**
+     * 全ての重みの複製を取得する
+     * @return 特徴ごとの重み（{@link Feature#ordinal()} を要素番号とする）
+     */
+    public int[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * 手番のプレイヤーから見た盤面の評価値を、8×8 のリバーシ盤として算出する
+     */
+    @Override
+    public int evaluate(long player, long opponent) {
+        return evaluate(player, opponent, FULL_MASK);
+    }
+
+    /**
+     * 手番のプレイヤーから見たリバーシ盤の評価値を、盤の範囲内のマスのみで算出する
+     */
+    @Override
+    public int evaluate(Board currentBoard, Disc playerDisc) {
+        return evaluate(currentBoard.getDiscBits(playerDisc), currentBoard.getDiscBits(playerDisc.next()),
+                currentBoard.getBoardMask());
+    }
+
+    /**
+     * 手番のプレイヤーから見た盤面の評価値を、特徴ごとの重みの合計で算出する
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param mask 盤の範囲内のマスを表すビットボード
+     * @return 手番のプレイヤーから見た評価値
+     */
+    public int evaluate(long player, long opponent, long mask) {
+        final long empty = ~(player | opponent) & mask;
+        final long emptyNeighbors = BitBoard.calcNeighbors(empty);
+
+        final int mobility = Long.bitCount(BitBoard.calcMobility(player, opponent) & mask)
+                - Long.bitCount(BitBoard.calcMobility(opponent, player) & mask);
+        final int potentialMobility = Long.bitCount(BitBoard.calcNeighbors(opponent) & empty)
+                - Long.bitCount(BitBoard.calcNeighbors(player) & empty);
+        final int frontier = Long.bitCount(player & emptyNeighbors) - Long.bitCount(opponent & emptyNeighbors);
+        final int stable = Long.bitCount(BitBoard.calcStable(player, opponent, mask))
+                - Long.bitCount(BitBoard.calcStable(opponent, player, mask));
+
+        return mobilityWeight * mobility + potentialMobilityWeight * potentialMobility + frontierWeight * frontier
+                + stableWeight * stable;
+    }
+
+    /**
+     * 盤面の全ての特徴の値（手番のプレイヤーの値から相手の値を引いた差）を求める
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param mask 盤の範囲内のマスを表すビットボード
+     * @param features 特徴の値を格納する配列（{@link Feature#ordinal()} を要素番号とし、大きさは {@link #FEATURE_NUM} 以上）
+     */
+    public static void calcFeatures(long player, long opponent, long mask, int[] features) {
+        final long empty = ~(player | opponent) & mask;
+        final long emptyNeighbors = BitBoard.calcNeighbors(empty);
+
+        features[Feature.MOBILITY.ordinal()] = Long.bitCount(BitBoard.calcMobility(player, opponent) & mask)
+                - Long.bitCount(BitBoard.calcMobility(opponent, player) & mask);
+        features[Feature.POTENTIAL_MOBILITY.ordinal()] = Long.bitCount(BitBoard.calcNeighbors(opponent) & empty)
+                - Long.bitCount(BitBoard.calcNeighbors(player) & empty);
+        features[Feature.FRONTIER.ordinal()] = Long.bitCount(player & emptyNeighbors)
+                - Long.bitCount(opponent & emptyNeighbors);
+        features[Feature.STABLE.ordinal()] = Long.bitCount(BitBoard.calcStable(player, opponent, mask))
+                - Long.bitCount(BitBoard.calcStable(opponent, player, mask));
+    }
+}
@@ -0,0 +1,252 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import reversi.BitBoard;
+import reversi.Disc;
+
+/**
+ * 探索で石を置くマスを評価する順番（手の並び替え）を決めるクラス<br>
+ * 最善手を先に評価するほど Alpha-Beta 法で刈り込める枝が増えるため、以下の優先順で手を並べる。
+ * <ol>
+ * <li>置換表に記録された最善手（ハッシュ手）</li>
+ * <li>同じ深さ（手数）の別の局面で枝刈りを起こした手（キラー手、手数ごとに2つ）</li>
+ * <li>それ以外の手は、これまでの探索で最善手となった実績（ヒストリー）とマスの位置の評価値の合計が大きい順</li>
+ * </ol>
+ * マスの位置の評価値は、{@link Original01} の角・端を高く評価する考え方に、
+ * 角に隣接するマス（相手に角を取られやすいマス）を低く評価する値を加えたものとする。<br>
+ * 並び替えの効果を確認するため、最善手が見つかった局面の数と、そのうち最初に評価した手が最善手だった局面の数を数える。
+ * <p>
+ * 並び替えの結果は手数ごとの配列に格納し、探索中はインスタンスを生成しない。
+ * スレッドセーフではないため、1つの探索（スレッド）でのみ使用すること。
+ * @author komoto
+ */
+public class MoveOrdering {
+
+    /** 並び替えを行う最大の手数（探索の開始局面を {@code 0} とする。パスは連続しないため、石を置く手の2倍までとなる） */
+    public static final int MAX_PLY = BitBoard.CELL_NUM * 2 + 1;
+
+    /** 手数ごとに記録するキラー手の数 */
+    private static final int KILLER_NUM = 2;
+
+    /** ハッシュ手の優先度 */
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+
+    /** キラー手の優先度（1つ目のキラー手は、これに1を加える） */
+    private static final int KILLER_SCORE = 1 << 28;
+
+    /** ヒストリーの上限。超えた場合は全ての値を半分にする */
+    private static final int HISTORY_LIMIT = 1 << 24;
+
+    /** マスの位置の評価値（行・列の順） */
+    private static final int[] SQUARE_VALUES = {
+            100, -20, 10, 5, 5, 10, -20, 100,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            10, -2, -1, -1, -1, -1, -2, 10,
+            5, -2, -1, -1, -1, -1, -2, 5,
+            5, -2, -1, -1, -1, -1, -2, 5,
+            10, -2, -1, -1, -1, -1, -2, 10,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            100, -20, 10, 5, 5, 10, -20, 100,
+    };
+
+    /** 手数ごとのキラー手（未記録の場合は {@link TranspositionTable#NO_MOVE}） */
+    private final int[][] killers;
+
+    /** 石の種類・マスごとのヒストリー */
+    private final int[][] history;
+
+    /** 手数ごとの並び替えた手（マスのビット位置） */
+    private final int[][] moveBuffers;
+
+    /** 手数ごとの並び替えた手の優先度 */
+    private final int[][] scoreBuffers;
+
+    /** キラー手・ヒストリーを使用するかを表すフラグ。使用しない場合はハッシュ手の後は行・列の昇順とする */
+    private boolean isHeuristicsEnabled;
+
+    /** 最善手が見つかった局面の数 */
+    private long bestFoundCount;
+
+    /** 最初に評価した手が最善手だった局面の数 */
+    private long firstBestCount;
+
+    /**
+     * 初期化を行う
+     */
+    public MoveOrdering() {
+        this.killers = new int[MAX_PLY][KILLER_NUM];
+        this.history = new int[Disc.values().length][BitBoard.CELL_NUM];
+        this.moveBuffers = new int[MAX_PLY][BitBoard.CELL_NUM];
+        this.scoreBuffers = new int[MAX_PLY][BitBoard.CELL_NUM];
+        this.isHeuristicsEnabled = true;
+        clear();
+    }
+
+    /**
+     * キラー手・ヒストリーを使用するかを設定する（効果の比較に使用する）
+     * @param isEnabled 使用する場合は {@code true}
+     */
+    public void setHeuristicsEnabled(Boolean isEnabled) {
+        this.isHeuristicsEnabled = isEnabled;
+    }
+
+    /**
+     * マスの位置の評価値を取得する
+     * @param index マスのビット位置
+     * @return マスの位置の評価値
+     */
+    public static int getSquareValue(int index) {
+        return SQUARE_VALUES[index];
+    }
+
+    /**
+     * 新しい探索を開始する。キラー手を消去し、ヒストリーを半分にして古い探索の影響を小さくする。
+     */
+    public void newSearch() {
+        for (int[] killer : killers) {
+            Arrays.fill(killer, TranspositionTable.NO_MOVE);
+        }
+        ageHistory();
+    }
+
+    /**
+     * キラー手・ヒストリーと各回数を消去する
+     */
+    public void clear() {
+        for (int[] killer : killers) {
+            Arrays.fill(killer, TranspositionTable.NO_MOVE);
+        }
+        for (int[] values : history) {
+            Arrays.fill(values, 0);
+        }
+        resetCounters();
+    }
+
+    /**
+     * 石を置けるマスを、評価する順番に並び替える
+     * @param movable 石を置けるマスを表すビット列
+     * @param turnDisc 石を置くプレイヤーの石
+     * @param ply 探索の開始局面からの手数（{@code 0} ～ {@link #MAX_PLY} - 1）
+     * @param hashMove 置換表に記録された最善手。ない場合は {@link TranspositionTable#NO_MOVE}
+     * @return 並び替えたマスのビット位置の配列。先頭から石を置けるマスの数（{@link Long#bitCount(long)}）までが有効であり、
+     *         同じ手数で次に並び替えるまで有効である。
+     */
+    public int[] orderMoves(long movable, Disc turnDisc, int ply, int hashMove) {
+        final int[] moves = moveBuffers[ply];
+        final int[] scores = scoreBuffers[ply];
+        final int[] killer = killers[ply];
+        final int[] discHistory = history[turnDisc.ordinal()];
+
+        // 行・列の昇順に取り出し、優先度の降順に挿入する（同じ優先度の場合は行・列の昇順を保つ）
+        int moveNum = 0;
+        while (movable != 0) {
+            final int index = Long.numberOfTrailingZeros(movable);
+            movable &= movable - 1;
+
+            int score;
+            if (index == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if (!isHeuristicsEnabled) {
+                score = 0;
+            } else if (index == killer[0]) {
+                score = KILLER_SCORE + 1;
+            } else if (index == killer[1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = discHistory[index] + SQUARE_VALUES[index];
+            }
+
+            int i = moveNum++;
+            while (i > 0 && scores[i - 1] < score) {
+                moves[i] = moves[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            moves[i] = index;
+            scores[i] = score;
+        }
+        return moves;
+    }
+
+    /**
+     * 局面の探索結果を記録する<br>
+     * 最善手のヒストリーを残りの深さに応じて加算し、枝刈りを起こした場合はキラー手として記録する。
+     * @param turnDisc 石を置いたプレイヤーの石
+     * @param ply 探索の開始局面からの手数
+     * @param bestMove 最善手のマスのビット位置
+     * @param bestOrder 最善手を評価した順番（{@code 0} が最初）
+     * @param remainDepth 局面の残りの探索の深さ
+     * @param isCutoff 最善手により枝刈りを行った場合は {@code true}
+     */
+    public void update(Disc turnDisc, int ply, int bestMove, int bestOrder, int remainDepth, boolean isCutoff) {
+        bestFoundCount++;
+        if (bestOrder == 0) {
+            firstBestCount++;
+        }
+
+        final int[] discHistory = history[turnDisc.ordinal()];
+        discHistory[bestMove] += remainDepth * remainDepth;
+        if (discHistory[bestMove] > HISTORY_LIMIT) {
+            ageHistory();
+        }
+
+        final int[] killer = killers[ply];
+        if (isCutoff && killer[0] != bestMove) {
+            killer[1] = killer[0];
+            killer[0] = bestMove;
+        }
+    }
+
+    /**
+     * 全てのヒストリーを半分にする
+     */
+    private void ageHistory() {
+        for (int[] values : history) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * 最善手が見つかった局面の数を取得する
+     * @return 最善手が見つかった局面の数
+     */
+    public long getBestFoundCount() {
+        return bestFoundCount;
+    }
+
+    /**
+     * 最初に評価した手が最善手だった局面の数を取得する
+     * @return 最初に評価した手が最善手だった局面の数
+     */
+    public long getFirstBestCount() {
+        return firstBestCount;
+    }
+
+    /**
+     * 最善手が見つかった局面のうち、最初に評価した手が最善手だった割合を取得する
+     * @return 割合（{@code 0.0} ～ {@code 1.0}）。最善手が見つかった局面がない場合は {@code 0.0}
+     */
+    public double getFirstBestRate() {
+        return (bestFoundCount == 0) ? 0.0 : (double) firstBestCount / bestFoundCount;
+    }
+
+    /**
+     * 各回数を {@code 0} に戻す
+     */
+    public void resetCounters() {
+        bestFoundCount = 0;
+        firstBestCount = 0;
+    }
+
+    /**
+     * 各回数を文字列で返す
+     */
+    @Override
+    public String toString() {
+        return String.format("MoveOrdering[heuristics=%s] best=%,d first=%,d (%.1f%%)", isHeuristicsEnabled,
+                bestFoundCount, firstBestCount, 100.0 * getFirstBestRate());
+    }
+}
@@ -0,0 +1,237 @@
+package algorithm;
+
+import common.Global;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+
+/**
+ * MTD(f) 法のアルゴリズムで石を置く位置を決める<br>
+ * 評価値の予想値から始めて、幅のない探索範囲（Null Window）の Alpha-Beta 探索を繰り返し、
+ * 評価値の上限・下限を狭めながら最善手の評価値に収束させる。
+ * 探索した局面は上限・下限を両方とも保持する置換表（{@link BoundTable}）に記録し、
+ * 同じ局面を繰り返し探索する場合は記録した範囲で探索範囲を狭める、または探索を省略する。
+ * 評価関数・探索の深さの数え方は {@link AlphaBeta01} と同じであり、乱数を加算しない場合は同じ評価値に収束する
+ * （評価値が同じ手が複数ある場合は、{@link AlphaBeta01} と異なる手を選ぶことがある）。<br>
+ * 深さ {@code 0} から1ずつ深くしながら探索し（反復深化）、各深さでは2つ浅い深さの評価値を予想値とする
+ * （石数による評価値は、自分・相手のどちらの手番で評価するかにより大きく変わるため）。
+ * 思考時間の上限（{@link #setTimeLimit(long)}）が設定されている場合は、時間の許す限り深く探索し、
+ * 最後に探索を完了した深さでの最善手を選ぶ。<br>
+ * 手の並び替え・評価関数・時間切れの判定・終局までの読み切りは {@link NegaMaxSearch} の処理を使用し、
+ * 置換表の参照・記録のみ {@link BoundTable} を使用するよう上書きする。
+ * @author komoto
+ */
+public class MtdF01 extends NegaMaxSearch {
+
+    /** 探索する深さのデフォルト値 */
+    public static final int DEFAULT_DEPTH = 6;
+
+    /** 探索した局面の評価値の上限・下限を記録する置換表（評価値は手番のプレイヤーから見た値で記録する） */
+    private final BoundTable table;
+
+    /** Null Window の探索を繰り返した回数（全ての深さの合計） */
+    private int iterationCount;
+
+    /** 最後に探索を完了した深さで、Null Window の探索を繰り返した回数 */
+    private int lastIterationCount;
+
+    /** 最後に探索を完了した深さでの最善手の評価値 */
+    private int score;
+
+    /**
+     * 初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     */
+    public MtdF01(Board board, Disc playerDisc) {
+        this(board, playerDisc, DEFAULT_DEPTH);
+    }
+
+    /**
+     * 探索する深さを指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param depth 探索する深さ（{@code 0} 以上）
+     */
+    public MtdF01(Board board, Disc playerDisc, int depth) {
+        this(board, playerDisc, depth, null);
+    }
+
+    /**
+     * 探索する深さと評価関数を指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param depth 探索する深さ（{@code 0} 以上）
+     * @param evaluator 探索の末端の局面を評価する評価関数。{@code null} の場合は石の個数で評価する
+     */
+    public MtdF01(Board board, Disc playerDisc, int depth, Evaluator evaluator) {
+        super(board, playerDisc, depth, null, evaluator, true);
+        this.table = new BoundTable(Global.TRANSPOSITION_TABLE_SIZE_MB);
+    }
+
+    /**
+     * 使用している置換表を取得する
+     * @return 置換表
+     */
+    public BoundTable getBoundTable() {
+        return table;
+    }
+
+    /**
+     * 直前の {@link #run()} で、最後に探索を完了した深さでの最善手の評価値を取得する
+     * @return プレイヤー自身に対する評価値
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * 直前の {@link #run()} で、Null Window の探索を繰り返した回数（全ての深さの合計）を取得する
+     * @return 探索を繰り返した回数
+     */
+    public int getIterationCount() {
+        return iterationCount;
+    }
+
+    /**
+     * 直前の {@link #run()} で、最後に探索を完了した深さで Null Window の探索を繰り返した回数を取得する
+     * @return 探索を繰り返した回数
+     */
+    public int getLastIterationCount() {
+        return lastIterationCount;
+    }
+
+    /**
+     * 新しい対局を開始する。前の対局で置換表に記録した局面と、手の並び替えのキラー手・ヒストリーを消去する。
+     */
+    @Override
+    public void newGame() {
+        table.clear();
+        super.newGame();
+    }
+
+    /**
+     * 探索を繰り返した回数を初期化し、石を置ける全てのマスに対して評価を行い、評価値が最大となる座標を算出する
+     */
+    @Override
+    public Dimension run() {
+        table.newSearch();
+        iterationCount = 0;
+        return super.run();
+    }
+
+    /**
+     * 2つ浅い深さの評価値（求めていない場合は直前に探索した深さの評価値）を予想値として、MTD(f) 法で探索する
+     */
+    @Override
+    protected int searchDepth(Board searchBoard, int searchDepth, int previousScore) {
+        final int guess = (previousScore < MAX_POINT) ? previousScore : getRootScore();
+        return searchMtdF(searchBoard, searchDepth, guess);
+    }
+
+    /**
+     * 評価値の予想値から Null Window の探索を繰り返し、最善手の評価値に収束させる<br>
+     * 比較する値は直前の探索で求めた上限・下限とするが、同じ方向に外れ続けた場合は比較する値の間隔を2倍ずつ広げ、
+     * 上限・下限が両方とも求まった場合はその中央の値とする（評価値が近い手が多い場合に、1ずつしか範囲が狭まらないため）。
+     * 収束した評価値は {@link #score} に格納する。
+     * @param searchBoard 探索用のリバーシ盤。探索後は探索前の状態に戻る。
+     * @param searchDepth 探索する深さ
+     * @param guess 評価値の予想値
+     * @return 評価値が最大となるマスのビット位置。石を置けるマスがない場合は {@code -1}
+     */
+    private int searchMtdF(Board searchBoard, int searchDepth, int guess) {
+        int lower = -MAX_POINT;
+        int upper = MAX_POINT;
+        int bestIndex = -1;
+        int iterations = 0;
+        long step = 1;
+        int direction = 0;
+        long next = guess;
+
+        while (lower < upper) {
+            // 比較する値は、下限より大きく上限以下とする
+            if (lower > -MAX_POINT && upper < MAX_POINT && direction != 0 && step > 1) {
+                next = lower + ((long) upper - lower + 1) / 2;
+            }
+            final int beta = (int) Math.max(Math.min(next, upper), (long) lower + 1);
+            final int index = searchRoot(searchBoard, searchDepth, beta - 1, beta);
+            iterations++;
+            if (isAborted()) {
+                break;
+            }
+
+            final int g = getRootScore();
+            if (g < beta) {
+                upper = g;
+                step = (direction < 0) ? step * 2 : 1;
+                direction = -1;
+                next = (long) upper - step + 1;
+            } else {
+                // 下限を更新した手が最善手となる
+                lower = g;
+                bestIndex = index;
+                step = (direction > 0) ? step * 2 : 1;
+                direction = 1;
+                next = (long) lower + step;
+            }
+            if (bestIndex < 0) {
+                bestIndex = index;
+            }
+        }
+
+        iterationCount += iterations;
+        if (!isAborted()) {
+            lastIterationCount = iterations;
+            score = lower;
+        }
+        return bestIndex;
+    }
+
+    /**
+     * {@link BoundTable} から局面を探す
+     */
+    @Override
+    protected int findEntry(long key) {
+        return table.find(key);
+    }
+
+    /**
+     * {@link BoundTable} の格納位置に記録された最善手を取得する
+     */
+    @Override
+    protected int getEntryBestMove(int slot) {
+        return table.getBestMove(slot);
+    }
+
+    /**
+     * {@link BoundTable} の格納位置に記録された探索の深さを取得する
+     */
+    @Override
+    protected int getEntryDepth(int slot) {
+        return table.getDepth(slot);
+    }
+
+    /**
+     * {@link BoundTable} の格納位置に記録された評価値の下限を取得する
+     */
+    @Override
+    protected int getEntryLower(int slot) {
+        return table.getLower(slot);
+    }
+
+    /**
+     * {@link BoundTable} の格納位置に記録された評価値の上限を取得する
+     */
+    @Override
+    protected int getEntryUpper(int slot) {
+        return table.getUpper(slot);
+    }
+
+    /**
+     * 探索結果を {@link BoundTable} に記録し、同じ探索・同じ深さで記録済みの上限・下限と合わせて範囲を狭める
+     */
+    @Override
+    protected void storeEntry(long key, int depth, int alpha, int beta, int score, int bestMove) {
+        table.store(key, depth, alpha, beta, score, bestMove);
+    }
+}
@@ -0,0 +1,565 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import common.Global;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+
+/**
+ * ネガマックス法の Alpha-Beta 探索で石を置く位置を決めるアルゴリズムの共通処理を定義する抽象クラス<br>
+ * 探索の末端の局面は評価関数（{@link Evaluator}）で評価し、指定していない場合は石の個数で評価する。
+ * 探索した局面は置換表に記録し、同じ局面の再探索を省略する。
+ * 各局面で評価する手の順番は {@link MoveOrdering} で決め、置換表に記録した最善手・キラー手・ヒストリーの順に探索する。
+ * 置換表は同じインスタンスで思考する間（対局中）は保持するため、前の手の探索で求めた最善手の手順（読み筋）も次の手の探索で使用する。<br>
+ * 反復深化を行う場合、または思考時間の上限（{@link #setTimeLimit(long)}）が設定されている場合は、深さ {@code 0} から
+ * 1ずつ深くしながら探索し、最後に探索を完了した深さでの最善手を選ぶ。それ以外の場合は、指定された深さを1回だけ探索する。<br>
+ * 残りの空きマスが少ない場合は、{@link EndgameSolver} で終局まで読み切る。
+ * <p>
+ * 継承先では、石を置いた後の局面を探索する処理（{@link #searchMove(Board, Disc, int, int, int, int, int)}）と、
+ * 1つの深さを探索する処理（{@link #searchDepth(Board, int, int)}）を上書きして探索の方法を変更する。
+ * 別の置換表を使用する場合は、置換表を参照・記録する処理（{@link #findEntry(long)} などと
+ * {@link #storeEntry(long, int, int, int, int, int)}）を全て上書きする。
+ * @author komoto
+ */
+public abstract class NegaMaxSearch extends Algorithm {
+
+    /** 時間切れを判定する間隔（探索したノード数）を表すマスク */
+    private static final int TIME_CHECK_MASK = 0x3ff;
+
+    /** 探索する深さ（石を置く座標を決める手の後に、何手先まで読むか） */
+    private final int depth;
+
+    /** 探索した局面を記録する置換表（評価値は手番のプレイヤーから見た値で記録する）。継承先で別の置換表を使用する場合は {@code null} */
+    private final TranspositionTable table;
+
+    /** 評価する手の順番を決める手の並び替え */
+    private final MoveOrdering ordering;
+
+    /** 探索の末端の局面を評価する評価関数。{@code null} の場合は石の個数で評価する */
+    private final Evaluator evaluator;
+
+    /** 時間制限がない場合も反復深化で探索するかを表すフラグ */
+    private boolean isIterativeDeepening;
+
+    /** 探索したノード数 */
+    private long nodeCount;
+
+    /** 時間切れで探索を打ち切るかを表すフラグ */
+    private boolean isAbortEnabled;
+
+    /** 時間切れにより探索を打ち切ったことを表すフラグ */
+    private boolean isAborted;
+
+    /** 最後に探索を完了した深さ。探索を完了していない場合は {@code -1} */
+    private int completedDepth;
+
+    /** {@link #searchRoot(Board, int, int, int)} で求めた最善手の評価値 */
+    private int rootScore;
+
+    /** 評価値に加算する乱数を局面ごとに決めるシード（探索ごとに変更する） */
+    private long noiseSeed;
+
+    /**
+     * 初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param depth 探索する深さ（{@code 0} 以上）
+     * @param table 探索した局面を記録する置換表。継承先で置換表の処理を全て上書きする場合は {@code null}
+     * @param evaluator 探索の末端の局面を評価する評価関数。{@code null} の場合は石の個数で評価する
+     * @param isIterativeDeepening 時間制限がない場合も反復深化で探索する場合は真 {@code true}
+     */
+    protected NegaMaxSearch(Board board, Disc playerDisc, int depth, TranspositionTable table, Evaluator evaluator,
+            boolean isIterativeDeepening) {
+        super(board, playerDisc);
+        this.depth = Math.max(depth, 0);
+        this.table = table;
+        this.evaluator = evaluator;
+        this.isIterativeDeepening = isIterativeDeepening;
+        this.ordering = new MoveOrdering();
+        this.completedDepth = -1;
+    }
+
+    /**
+     * 使用している置換表を取得する
+     * @return 置換表。継承先で別の置換表を使用する場合は {@code null}
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * 使用している手の並び替えを取得する
+     * @return 手の並び替え
+     */
+    public MoveOrdering getMoveOrdering() {
+        return ordering;
+    }
+
+    /**
+     * 時間制限がない場合に、反復深化で探索するかを設定する<br>
+     * 偽の場合は、指定された深さを1回だけ探索する。時間制限がある場合は、設定に関わらず反復深化で探索する。
+     * @param isIterativeDeepening 反復深化で探索する場合は真 {@code true}
+     */
+    public void setIterativeDeepening(boolean isIterativeDeepening) {
+        this.isIterativeDeepening = isIterativeDeepening;
+    }
+
+    /**
+     * 直前の {@link #run()} で最後に探索を完了した深さを取得する
+     * @return 探索を完了した深さ。探索を完了していない場合は {@code -1}
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * 直前の {@link #run()} で探索したノード数を取得する（反復深化の全ての深さ・再探索を含む）
+     * @return 探索したノード数
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 新しい対局を開始する。前の対局で置換表に記録した局面と、手の並び替えのキラー手・ヒストリーを消去する。
+     */
+    @Override
+    public void newGame() {
+        if (table != null) {
+            table.clear();
+        }
+        ordering.clear();
+        completedDepth = -1;
+    }
+
+    /**
+     * 前回の探索で求めた最善手の手順（読み筋）を取得する<br>
+     * 置換表に記録された最善手を、現在のリバーシ盤の状態から順にたどって求める。
+     * @return 石を置くマスのビット位置の配列（自分の手・相手の手の順）。探索していない場合は空の配列
+     */
+    public int[] getPrincipalVariation() {
+        Board pvBoard;
+        try {
+            pvBoard = board.clone();
+        } catch (CloneNotSupportedException e) {
+            e.printStackTrace();
+            return new int[0];
+        }
+
+        int[] moves = new int[BitBoard.CELL_NUM];
+        int moveNum = 0;
+        Disc turnDisc = playerDisc;
+        while (moveNum < moves.length && moveNum <= Math.max(completedDepth, 0)) {
+            final int slot = findEntry(TranspositionTable.calcKey(pvBoard, turnDisc));
+            if (slot == TranspositionTable.NOT_FOUND) {
+                break;
+            }
+            final int move = getEntryBestMove(slot);
+            if (move == TranspositionTable.NO_MOVE || pvBoard.doMove(move, turnDisc) == 0) {
+                break;
+            }
+            moves[moveNum++] = move;
+            turnDisc = turnDisc.next();
+        }
+        return Arrays.copyOf(moves, moveNum);
+    }
+
+    /**
+     * 石を置ける全てのマスに対して評価を行い、評価値が最大となる座標を算出する
+     */
+    @Override
+    public Dimension run() {
+        // 残りの空きマスが少ない場合は、評価関数を使用せず終局まで読み切る（思考時間は読み切りを含めて計測する）
+        startTimer();
+        Dimension endgameMove = solveEndgame();
+        if (endgameMove != null) {
+            completedDepth = board.getEmptyDiscNum();
+            return endgameMove;
+        }
+
+        // 探索用のリバーシ盤を複製する。探索中はこの盤面に石を置き・取り消しながら使い回す。
+        Board searchBoard;
+        try {
+            searchBoard = board.clone();
+        } catch (CloneNotSupportedException e) {
+            e.printStackTrace();
+            System.err.println("探索用のリバーシ盤の複製に失敗したため、評価を行いません");
+            return null;
+        }
+        if (evaluator != null) {
+            evaluator.prepare(searchBoard);
+        }
+
+        if (table != null) {
+            table.newSearch();
+        }
+        ordering.newSearch();
+        noiseSeed = random.nextLong();
+        nodeCount = 0;
+        isAborted = false;
+
+        // 時間制限がなく反復深化も行わない場合は、指定された深さを1回だけ探索する
+        if (timeLimit <= 0 && !isIterativeDeepening) {
+            isAbortEnabled = false;
+            int bestIndex = searchDepth(searchBoard, depth, MAX_POINT);
+            completedDepth = depth;
+            return (bestIndex < 0) ? null : BitBoard.toDimension(bestIndex);
+        }
+
+        // 深さ0は時間切れに関わらず最後まで探索し、必ず1つは石を置く座標を決める
+        isAbortEnabled = false;
+        int bestIndex = searchRoot(searchBoard, 0, -MAX_POINT, MAX_POINT);
+        int previousScore = MAX_POINT;
+        int lastScore = rootScore;
+        completedDepth = 0;
+
+        // 時間制限がない場合は指定された深さまで、ある場合は残りの空きマスを全て埋める深さまで、時間の許す限り探索する
+        final int maxDepth = (timeLimit <= 0) ? depth : searchBoard.getEmptyDiscNum() - 1;
+        isAbortEnabled = (timeLimit > 0);
+        for (int d = 1; d <= maxDepth && !isTimeOver(); d++) {
+            // 石数による評価値は自分・相手のどちらの手番で評価するかにより大きく変わるため、2つ浅い深さの評価値を渡す
+            int index = searchDepth(searchBoard, d, previousScore);
+            if (isAborted) {
+                // 途中で打ち切った深さの結果は使用しない
+                break;
+            }
+            bestIndex = index;
+            previousScore = lastScore;
+            lastScore = rootScore;
+            completedDepth = d;
+        }
+
+        return (bestIndex < 0) ? null : BitBoard.toDimension(bestIndex);
+    }
+
+    /**
+     * 反復深化で1つの深さを探索する<br>
+     * デフォルトでは、探索範囲を狭めずに {@link #searchRoot(Board, int, int, int)} で探索する。
+     * @param searchBoard 探索用のリバーシ盤。探索後は探索前の状態に戻る。
+     * @param searchDepth 探索する深さ
+     * @param previousScore 2つ浅い深さでの最善手の評価値。求めていない場合は {@link #MAX_POINT}
+     * @return 評価値が最大となるマスのビット位置。石を置けるマスがない場合は {@code -1}
+     */
+    protected int searchDepth(Board searchBoard, int searchDepth, int previousScore) {
+        return searchRoot(searchBoard, searchDepth, -MAX_POINT, MAX_POINT);
+    }
+
+    /**
+     * 石を置ける全てのマスに対して指定した深さ・探索範囲で探索を行い、評価値が最大となるマスを求める<br>
+     * 最善手の評価値は {@link #getRootScore()} で取得できる。探索範囲外の場合は上限・下限の値となる。
+     * @param searchBoard 探索用のリバーシ盤。探索後は探索前の状態に戻る。
+     * @param searchDepth 探索する深さ
+     * @param alpha 評価値の下限（これ以下の評価値は区別しない）
+     * @param beta 評価値の上限（これ以上の評価値は区別しない）
+     * @return 評価値が最大となるマスのビット位置。石を置けるマスがない場合は {@code -1}
+     */
+    protected final int searchRoot(Board searchBoard, int searchDepth, int alpha, int beta) {
+        final int originalAlpha = alpha;
+        int bestIndex = -1;
+        int bestOrder = 0;
+        int bestScore = -MAX_POINT;
+        final long movable = searchBoard.getMovableBits(playerDisc);
+
+        // 浅い深さや前の手の探索で最善だった手を最初に評価し、残りは手の並び替えの順に評価する
+        final long key = TranspositionTable.calcKey(searchBoard, playerDisc);
+        final int slot = findEntry(key);
+        final int hashMove = (slot == TranspositionTable.NOT_FOUND) ? TranspositionTable.NO_MOVE
+                : getEntryBestMove(slot);
+        final int[] moves = ordering.orderMoves(movable, playerDisc, 0, hashMove);
+        final int moveNum = Long.bitCount(movable);
+
+        for (int order = 0; order < moveNum; order++) {
+            final int index = moves[order];
+            // 評価値が同じ場合は行・列の昇順で先のマスを優先するため、最善のマスより前のマスは同じ評価値も区別する
+            final int bound = (bestIndex >= 0 && index < bestIndex && alpha > -MAX_POINT) ? alpha - 1 : alpha;
+            if (bestIndex >= 0 && bound >= beta) {
+                continue;
+            }
+
+            long flip = searchBoard.doMove(index, playerDisc);
+            int point = searchMove(searchBoard, playerDisc, searchDepth + 1, 0, order, bound, beta);
+            searchBoard.undoMove(index, playerDisc, flip);
+
+            if (isAborted) {
+                break;
+            }
+            if (bestIndex < 0 || point > bound) {
+                bestIndex = index;
+                bestOrder = order;
+                bestScore = point;
+                alpha = Math.max(alpha, point);
+
+                // 評価値が探索範囲の上限以上の場合は、範囲を広げて再探索するため残りの手は評価しない
+                if (point >= beta && beta < MAX_POINT) {
+                    break;
+                }
+            }
+        }
+        rootScore = bestScore;
+
+        // 次の深さ・次の手の探索で最初に評価するため、最善手を記録する
+        if (bestIndex >= 0 && !isAborted) {
+            ordering.update(playerDisc, 0, bestIndex, bestOrder, searchDepth + 1, false);
+            storeEntry(key, searchDepth + 1, originalAlpha, beta, bestScore, bestIndex);
+        }
+        return bestIndex;
+    }
+
+    /**
+     * 石を置いた後の局面を探索し、石を置いたプレイヤーから見た評価値を求める<br>
+     * デフォルトでは、通常の探索範囲で {@link #search(Board, Disc, int, int, int, int)} を呼び出す。
+     * @param currentBoard 石を置いた後のリバーシ盤の状態。探索後は探索前の状態に戻る。
+     * @param turnDisc 石を置いたプレイヤーの石
+     * @param remainDepth 石を置く前の局面での残りの探索の深さ
+     * @param ply 探索の開始局面から、石を置く前の局面までの手数
+     * @param order 石を置いた手を評価した順番（{@code 0} が最初）
+     * @param alpha 評価値の下限（これ以下の評価値は区別しない）
+     * @param beta 評価値の上限（これ以上の評価値は区別しない）
+     * @return {@code turnDisc} のプレイヤーから見た評価値
+     */
+    protected int searchMove(Board currentBoard, Disc turnDisc, int remainDepth, int ply, int order, int alpha,
+            int beta) {
+        return -search(currentBoard, turnDisc.next(), remainDepth - 1, ply + 1, -beta, -alpha);
+    }
+
+    /**
+     * ネガマックス法による Alpha-Beta 探索を行う
+     * @param currentBoard 現在のリバーシ盤の状態。探索後は探索前の状態に戻る。
+     * @param turnDisc この盤面で石を置くプレイヤーの石
+     * @param remainDepth 残りの探索の深さ
+     * @param ply 探索の開始局面からの手数
+     * @param alpha 評価値の下限（これ以下の評価値は区別しない）
+     * @param beta 評価値の上限（これ以上の評価値は区別しない）
+     * @return {@code turnDisc} のプレイヤーから見た盤面の評価値
+     */
+    protected final int search(Board currentBoard, Disc turnDisc, int remainDepth, int ply, int alpha, int beta) {
+        // 一定のノード数ごとに時間切れを判定する。時間切れの場合は評価値を使用しないため、0 を返す。
+        nodeCount++;
+        if (isAbortEnabled && (nodeCount & TIME_CHECK_MASK) == 0 && isTimeOver()) {
+            isAborted = true;
+        }
+        if (isAborted) {
+            return 0;
+        }
+
+        // 深さ0の場合、探索を終えて評価する
+        if (remainDepth == 0) {
+            int point = calcPoint(currentBoard);
+            return (turnDisc == playerDisc) ? point : -point;
+        }
+
+        // 石を置ける場所がない場合はパスして相手の手番を探索する（パスは探索の深さに数えない）。
+        // 相手も石を置けない場合は終局のため、石の個数の差で評価する。
+        final long movable = currentBoard.getMovableBits(turnDisc);
+        if (movable == 0) {
+            if (!currentBoard.canPutAll(turnDisc.next())) {
+                int point = calcFinalPoint(currentBoard);
+                return (turnDisc == playerDisc) ? point : -point;
+            }
+            return -search(currentBoard, turnDisc.next(), remainDepth, ply + 1, -beta, -alpha);
+        }
+
+        // 同じ深さ以上で探索済みの局面であれば、記録した評価値の上限・下限で探索範囲を狭める
+        final long key = TranspositionTable.calcKey(currentBoard, turnDisc);
+        final int slot = findEntry(key);
+        int hashMove = TranspositionTable.NO_MOVE;
+        if (slot != TranspositionTable.NOT_FOUND) {
+            hashMove = getEntryBestMove(slot);
+            if (getEntryDepth(slot) >= remainDepth) {
+                final int lower = getEntryLower(slot);
+                final int upper = getEntryUpper(slot);
+                if (lower >= beta || lower == upper) {
+                    return lower;
+                }
+                if (upper <= alpha) {
+                    return upper;
+                }
+                alpha = Math.max(alpha, lower);
+                beta = Math.min(beta, upper);
+            }
+        }
+
+        final int originalAlpha = alpha;
+        int maxPoint = -MAX_POINT;
+        int bestIndex = TranspositionTable.NO_MOVE;
+        int bestOrder = 0;
+
+        // 置換表に記録された最善手を最初に評価し、残りは手の並び替えの順に評価する
+        final int[] moves = ordering.orderMoves(movable, turnDisc, ply, hashMove);
+        final int moveNum = Long.bitCount(movable);
+        for (int order = 0; order < moveNum; order++) {
+            final int index = moves[order];
+
+            long flip = currentBoard.doMove(index, turnDisc);
+            int point = searchMove(currentBoard, turnDisc, remainDepth, ply, order, alpha, beta);
+            currentBoard.undoMove(index, turnDisc, flip);
+
+            if (isAborted) {
+                return 0;
+            }
+            if (point > maxPoint) {
+                maxPoint = point;
+                bestIndex = index;
+                bestOrder = order;
+                if (point > alpha) {
+                    alpha = point;
+                }
+                // 相手がこの局面を選ばないことが確定したため、残りの手は評価しない
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        // 探索範囲内の評価値となった手・枝刈りを起こした手を、手の並び替えに反映する
+        if (bestIndex != TranspositionTable.NO_MOVE && maxPoint > originalAlpha) {
+            ordering.update(turnDisc, ply, bestIndex, bestOrder, remainDepth, maxPoint >= beta);
+        }
+
+        // 探索範囲外の評価値は上限・下限として記録する
+        storeEntry(key, remainDepth, originalAlpha, beta, maxPoint, bestIndex);
+
+        return maxPoint;
+    }
+
+    /**
+     * 置換表から局面を探す<br>
+     * デフォルトでは、{@link #getTranspositionTable()} の置換表から探す。
+     * @param key 置換表のキー（{@link TranspositionTable#calcKey(Board, Disc)} で算出する）
+     * @return 格納位置。見つからなかった場合は {@link TranspositionTable#NOT_FOUND}
+     */
+    protected int findEntry(long key) {
+        return table.find(key);
+    }
+
+    /**
+     * 置換表の格納位置に記録された最善手を取得する
+     * @param slot {@link #findEntry(long)} で取得した格納位置
+     * @return 最善手のビット位置。ない場合は {@link TranspositionTable#NO_MOVE}
+     */
+    protected int getEntryBestMove(int slot) {
+        return table.getBestMove(slot);
+    }
+
+    /**
+     * 置換表の格納位置に記録された探索の深さを取得する
+     * @param slot {@link #findEntry(long)} で取得した格納位置
+     * @return 探索の深さ
+     */
+    protected int getEntryDepth(int slot) {
+        return table.getDepth(slot);
+    }
+
+    /**
+     * 置換表の格納位置に記録された評価値の下限を取得する
+     * @param slot {@link #findEntry(long)} で取得した格納位置
+     * @return 評価値の下限。不明の場合は {@code -}{@link #MAX_POINT}
+     */
+    protected int getEntryLower(int slot) {
+        return (table.getBound(slot) == TranspositionTable.BOUND_UPPER) ? -MAX_POINT : table.getScore(slot);
+    }
+
+    /**
+     * 置換表の格納位置に記録された評価値の上限を取得する
+     * @param slot {@link #findEntry(long)} で取得した格納位置
+     * @return 評価値の上限。不明の場合は {@link #MAX_POINT}
+     */
+    protected int getEntryUpper(int slot) {
+        return (table.getBound(slot) == TranspositionTable.BOUND_LOWER) ? MAX_POINT : table.getScore(slot);
+    }
+
+    /**
+     * 局面の探索結果を置換表に記録する<br>
+     * デフォルトでは、探索範囲外の評価値を上限・下限として {@link #getTranspositionTable()} の置換表に記録する。
+     * @param key 置換表のキー
+     * @param depth 探索した深さ
+     * @param alpha 探索範囲の下限
+     * @param beta 探索範囲の上限
+     * @param score 探索で求めた評価値（{@code alpha} 以下の場合は上限、{@code beta} 以上の場合は下限となる）
+     * @param bestMove 最善手のビット位置。ない場合は {@link TranspositionTable#NO_MOVE}
+     */
+    protected void storeEntry(long key, int depth, int alpha, int beta, int score, int bestMove) {
+        table.store(key, depth, calcBound(score, alpha, beta), score, bestMove);
+    }
+
+    /**
+     * 時間切れにより探索を打ち切ったかを取得する
+     * @return 打ち切った場合は真 {@code true}
+     */
+    protected final boolean isAborted() {
+        return isAborted;
+    }
+
+    /**
+     * 直前の {@link #searchRoot(Board, int, int, int)} で求めた最善手の評価値を取得する
+     * @return プレイヤー自身に対する評価値。探索範囲外の場合は上限・下限の値
+     */
+    protected final int getRootScore() {
+        return rootScore;
+    }
+
+    /**
+     * 評価値と探索範囲から、置換表に記録する評価値の種類を求める
+     * @param score 評価値
+     * @param alpha 探索範囲の下限
+     * @param beta 探索範囲の上限
+     * @return 評価値の種類（{@link TranspositionTable#BOUND_EXACT} など）
+     */
+    private static int calcBound(int score, int alpha, int beta) {
+        if (score <= alpha) {
+            return TranspositionTable.BOUND_UPPER;
+        } else if (score >= beta) {
+            return TranspositionTable.BOUND_LOWER;
+        } else {
+            return TranspositionTable.BOUND_EXACT;
+        }
+    }
+
+    /**
+     * 終局した盤面の自分と相手の石の個数から、プレイヤー自身に対する評価値を算出する<br>
+     * 評価値は石数の差 {@code 1} を {@code 100} とし、乱数は加算しない（空きマスはどちらの石にも数えない）。
+     * @param currnetBoard 終局したリバーシ盤の状態
+     * @return プレイヤー自身に対する盤面の評価値
+     */
+    private int calcFinalPoint(Board currnetBoard) {
+        return (currnetBoard.getDiscNum(playerDisc) - currnetBoard.getDiscNum(playerDisc.next())) * 100;
+    }
+
+    /**
+     * 評価関数（指定していない場合は自分と相手の石の個数）から、プレイヤー自身に対する盤面の評価値を算出する<br>
+     * 加算する乱数は1回の探索の間は局面ごとに固定し、置換表の評価値や再探索の結果が同じ局面で食い違わないようにする。
+     * @param currnetBoard 現在のリバーシ盤の状態
+     * @return プレイヤー自身に対する盤面の評価値
+     */
+    private int calcPoint(Board currnetBoard) {
+        int point;
+        if (evaluator != null) {
+            point = evaluator.evaluate(currnetBoard, playerDisc);
+        } else {
+            // 現在の盤面での、自分の石と相手の石の個数で評価する
+            int playerDiscNum = currnetBoard.getDiscNum(playerDisc);
+            int enemyDiscNum = currnetBoard.getDiscNum(playerDisc.next());
+            point = (playerDiscNum - enemyDiscNum) * 100;
+        }
+        if (Global.IS_ADD_RANDOM) {
+            // 同じ局面は探索中に何度評価しても同じ評価値となるよう、局面のハッシュ値から乱数を決める
+            point += (int) Long.remainderUnsigned(mix(currnetBoard.getHashKey() ^ noiseSeed), 100);
+        }
+
+        return point;
+    }
+
+    /**
+     * ハッシュ値の各ビットを混ぜ合わせ、偏りのない値に変換する（SplitMix64 の最終処理）
+     * @param value 変換する値
+     * @return 変換した値
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,142 @@
+package algorithm;
+
+import common.Global;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+
+/**
+ * NegaScout 法（Principal Variation Search）のアルゴリズムで石を置く位置を決める<br>
+ * 評価関数・探索の深さの数え方は {@link AlphaBeta01} と同じであり、乱数を加算しない場合は同じ深さで同じ座標を選ぶ。
+ * 各局面で最初に評価する手（最善手の候補）のみ通常の探索範囲で探索し、残りの手は最善手の候補より良いかだけを
+ * 幅のない探索範囲（Null Window）で確認する。良い手だった場合のみ、通常の探索範囲で再探索する。
+ * 手の並び替え（{@link MoveOrdering}）で最善手を最初に評価できるほど、再探索が減り探索するノードが少なくなる。<br>
+ * デフォルトでは時間制限がない場合も深さ {@code 0} から1ずつ深くしながら探索し（反復深化）、各深さでは2つ浅い深さの評価値を
+ * 中心とした狭い探索範囲（Aspiration Window）から探索する。評価値が探索範囲外となった場合は、範囲を広げて再探索する。<br>
+ * 置換表・手の並び替え・評価関数・終局までの読み切りは {@link NegaMaxSearch} の処理を使用する。
+ * @author komoto
+ */
+public class NegaScout01 extends NegaMaxSearch {
+
+    /** 探索する深さのデフォルト値 */
+    public static final int DEFAULT_DEPTH = 6;
+
+    /** Aspiration Window の幅の初期値（石3個分の評価値） */
+    private static final int ASPIRATION_WINDOW = 300;
+
+    /** Null Window の探索で良い手が見つかり、再探索した回数 */
+    private long reSearchCount;
+
+    /** 評価値が Aspiration Window の範囲外となり、再探索した回数 */
+    private long aspirationFailCount;
+
+    /**
+     * 初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     */
+    public NegaScout01(Board board, Disc playerDisc) {
+        this(board, playerDisc, DEFAULT_DEPTH);
+    }
+
+    /**
+     * 探索する深さを指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param depth 探索する深さ（{@code 0} 以上）
+     */
+    public NegaScout01(Board board, Disc playerDisc, int depth) {
+        this(board, playerDisc, depth, null);
+    }
+
+    /**
+     * 探索する深さと評価関数を指定して初期化を行う
+     * @param board 現在のリバーシ盤の状態
+     * @param playerDisc プレイヤーが使用する石
+     * @param depth 探索する深さ（{@code 0} 以上）
+     * @param evaluator 探索の末端の局面を評価する評価関数。{@code null} の場合は石の個数で評価する
+     */
+    public NegaScout01(Board board, Disc playerDisc, int depth, Evaluator evaluator) {
+        super(board, playerDisc, depth, new TranspositionTable(Global.TRANSPOSITION_TABLE_SIZE_MB), evaluator, true);
+    }
+
+    /**
+     * 直前の {@link #run()} で、Null Window の探索で良い手が見つかり再探索した回数を取得する
+     * @return 再探索した回数
+     */
+    public long getReSearchCount() {
+        return reSearchCount;
+    }
+
+    /**
+     * 直前の {@link #run()} で、評価値が Aspiration Window の範囲外となり再探索した回数を取得する
+     * @return 再探索した回数
+     */
+    public long getAspirationFailCount() {
+        return aspirationFailCount;
+    }
+
+    /**
+     * 再探索した回数を初期化し、石を置ける全てのマスに対して評価を行い、評価値が最大となる座標を算出する
+     */
+    @Override
+    public Dimension run() {
+        reSearchCount = 0;
+        aspirationFailCount = 0;
+        return super.run();
+    }
+
+    /**
+     * 浅い深さの評価値を中心とした探索範囲から探索し、評価値が範囲外となった場合は範囲を広げて再探索する
+     */
+    @Override
+    protected int searchDepth(Board searchBoard, int searchDepth, int previousScore) {
+        // 2つ浅い深さの評価値を求めていない場合は、範囲を狭めない
+        if (previousScore <= -MAX_POINT || previousScore >= MAX_POINT) {
+            return searchRoot(searchBoard, searchDepth, -MAX_POINT, MAX_POINT);
+        }
+
+        long delta = ASPIRATION_WINDOW;
+        int alpha = (int) Math.max((long) previousScore - delta, -MAX_POINT);
+        int beta = (int) Math.min((long) previousScore + delta, MAX_POINT);
+        while (true) {
+            int bestIndex = searchRoot(searchBoard, searchDepth, alpha, beta);
+            if (isAborted()) {
+                return bestIndex;
+            }
+
+            // 範囲外となった側の範囲を広げる
+            final int rootScore = getRootScore();
+            if (rootScore <= alpha && alpha > -MAX_POINT) {
+                delta *= 4;
+                alpha = (int) Math.max((long) previousScore - delta, -MAX_POINT);
+            } else if (rootScore >= beta && beta < MAX_POINT) {
+                delta *= 4;
+                beta = (int) Math.min((long) previousScore + delta, MAX_POINT);
+            } else {
+                return bestIndex;
+            }
+            aspirationFailCount++;
+        }
+    }
+
+    /**
+     * 最初に評価する手は通常の探索範囲で探索し、残りの手は最善手の候補より良いかを Null Window で確認する。
+     * 良い場合のみ、通常の探索範囲で再探索する。
+     */
+    @Override
+    protected int searchMove(Board currentBoard, Disc turnDisc, int remainDepth, int ply, int order, int alpha,
+            int beta) {
+        final Disc nextDisc = turnDisc.next();
+        if (order == 0) {
+            return -search(currentBoard, nextDisc, remainDepth - 1, ply + 1, -beta, -alpha);
+        }
+
+        int point = -search(currentBoard, nextDisc, remainDepth - 1, ply + 1, -alpha - 1, -alpha);
+        if (point > alpha && point < beta && !isAborted()) {
+            reSearchCount++;
+            point = -search(currentBoard, nextDisc, remainDepth - 1, ply + 1, -beta, -alpha);
+        }
+        return point;
+    }
+}
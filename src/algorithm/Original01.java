@@ -1,6 +1,7 @@
 package algorithm;
 
 import common.Global;
+import reversi.BitBoard;
 import reversi.Board;
 import reversi.Dimension;
 import reversi.Disc;
@@ -45,12 +46,14 @@ public class Original01 extends Algorithm {
         final Dimension boardSize = board.getSize();
         Evaluate evaluate = new Evaluate(boardSize);
 
-        for (int i = 0; i < boardSize.getRow(); i++) {
-            for (int j = 0; j < boardSize.getColumn(); j++) {
-                Dimension target = new Dimension(i, j);
-                int point = calcEvaluatePoint(board, target);
-                evaluate.add(target, point);
-            }
+        // 石を置けるマスのみ評価する（石を置けないマスは評価の対象外とする）
+        long movable = board.getMovableBits(playerDisc);
+        while (movable != 0) {
+            Dimension target = BitBoard.toDimension(Long.numberOfTrailingZeros(movable));
+            movable &= movable - 1;
+
+            int point = calcEvaluatePoint(board, target);
+            evaluate.add(target, point);
         }
         return evaluate.getMaxPointDimension();
     }
@@ -0,0 +1,370 @@
+package algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import common.Global;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+import reversi.PatternLayout;
+import reversi.PatternLayout.Pattern;
+
+/**
+ * 盤面の部分的な形（パターン）ごとの重みの合計で盤面を評価する評価関数<br>
+ * 以下のパターンについて、マスの状態（空き・手番のプレイヤー・相手）を3進数の各桁とする値（パターンの番号）を求め、
+ * パターンの種類ごとの重みの表（{@code short[]}）を参照する。対称な位置のパターンは同じ表を使用する。
+ * <ul>
+ * <li>{@link Pattern#EDGE_X}: 辺の8マスと、その両端の隅に隣接する斜めのマス（X打ち）2マス（4か所）</li>
+ * <li>{@link Pattern#CORNER_3X3}: 隅の3×3のマス（4か所）</li>
+ * <li>{@link Pattern#CORNER_2X5}: 隅の2×5のマス（縦・横それぞれ4か所）</li>
+ * <li>{@link Pattern#DIAGONAL}: 隅と隅を結ぶ対角線の8マス（2か所）</li>
+ * </ul>
+ * パターンの配置と番号の求め方は {@link PatternLayout} で定義し、リバーシ盤と共有する。
+ * 1回の評価で配列を参照する回数は54回であり、インスタンスは生成しない。
+ * 探索用のリバーシ盤がパターンの番号を保持している場合（{@link #prepare(Board)}）は、石を置く度に差分で更新された番号を使用し、
+ * 重みの表を18回参照するのみで評価する。
+ * <p>
+ * 重みを指定せずに生成した場合は、マスの位置の評価値（{@link MoveOrdering#getSquareValue(int)}）を各パターンに配分した値を重みとする。
+ * 配分する際は、隅が空いている場合のみ隅に隣接するマスを不利とし、隅が埋まっている場合は隣接するマスの不利を打ち消す。
+ * 共有のインスタンス（{@link #getDefault()}）は、重みのファイル（{@link Global#PATTERN_WEIGHTS_FILE}）が存在する場合はその重みを使用する。
+ * 8×8 のリバーシ盤のみ対応する。
+ * @author komoto
+ */
+public class PatternEvaluator implements Evaluator {
+
+    /** マスの位置の評価値を重みに配分する際の倍率 */
+    private static final int WEIGHT_SCALE = 3;
+
+    /** 重みのファイルの先頭に書き込む識別子（"RVPT"） */
+    private static final int FILE_MAGIC = 0x52565054;
+
+    /** 隅が自分の石で埋まっている場合の、隣接する自分の石の評価値（確定石として扱う） */
+    private static final int STABLE_VALUE = 10;
+
+    /** 各隅と、その隅に隣接する3マスのビット位置 */
+    private static final int[][] CORNER_NEIGHBORS = { { 0, 1, 8, 9 }, { 7, 6, 15, 14 }, { 56, 57, 48, 49 },
+            { 63, 62, 55, 54 } };
+
+    /** パターンの種類ごとの重みの表（{@link Pattern#ordinal()} を要素番号とする） */
+    private final short[][] weights;
+
+    /** 盤面上のパターンごとの重みの表（{@link #weights} の要素を、パターンの順番に並べた配列） */
+    private final short[][] instanceWeights;
+
+    /**
+     * マスの位置の評価値から求めた重みで初期化を行う
+     */
+    public PatternEvaluator() {
+        this.weights = createInitialWeights();
+        this.instanceWeights = createInstanceWeights(weights);
+    }
+
+    /**
+     * 重みを指定して初期化を行う<br>
+     * 指定した配列は複製して保持する。
+     * @param weights パターンの種類ごとの重みの表（{@link Pattern#ordinal()} を要素番号とし、大きさは {@link Pattern#getSize()} とする）
+     * @throws IllegalArgumentException 重みの表の数、または大きさが異なる
+     */
+    public PatternEvaluator(short[][] weights) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (weights == null || weights.length != Pattern.values().length) {
+            throw new IllegalArgumentException("重みの表の数が異なります。");
+        }
+        for (Pattern pattern : Pattern.values()) {
+            if (weights[pattern.ordinal()] == null || weights[pattern.ordinal()].length != pattern.getSize()) {
+                throw new IllegalArgumentException("重みの表の大きさが異なります: " + pattern);
+            }
+        }
+
+        this.weights = new short[weights.length][];
+        for (int i = 0; i < weights.length; i++) {
+            this.weights[i] = weights[i].clone();
+        }
+        this.instanceWeights = createInstanceWeights(this.weights);
+    }
+
+    /**
+     * 盤面上のパターンの順番に、重みの表を並べる
+     * @param weights パターンの種類ごとの重みの表
+     * @return 盤面上のパターンごとの重みの表
+     */
+    private static short[][] createInstanceWeights(short[][] weights) {
+        short[][] instanceWeights = new short[PatternLayout.INSTANCE_NUM][];
+        for (int instance = 0; instance < PatternLayout.INSTANCE_NUM; instance++) {
+            instanceWeights[instance] = weights[PatternLayout.getInstancePattern(instance).ordinal()];
+        }
+        return instanceWeights;
+    }
+
+    /**
+     * 共有のインスタンスを取得する<br>
+     * 重みのファイル（{@link Global#PATTERN_WEIGHTS_FILE}）が存在する場合はその重み、存在しない場合はマスの位置の評価値から求めた重みとする。
+     * @return 共有のインスタンス
+     */
+    public static PatternEvaluator getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 共有のインスタンスを、最初に使用する時に生成するためのクラス
+     */
+    private static class DefaultHolder {
+        /** 共有のインスタンス */
+        private static final PatternEvaluator INSTANCE = loadDefault();
+
+        /**
+         * 重みのファイルが存在する場合は読み込み、存在しない・読み込めない場合は初期の重みで生成する
+         * @return 生成したインスタンス
+         */
+        private static PatternEvaluator loadDefault() {
+            final Path path = Paths.get(Global.PATTERN_WEIGHTS_FILE);
+            if (Files.exists(path)) {
+                try {
+                    return load(path);
+                } catch (IOException | IllegalArgumentException e) {
+                    e.printStackTrace();
+                    System.err.println("重みのファイルを読み込めなかったため、初期の重みを使用します: " + path);
+                }
+            }
+            return new PatternEvaluator();
+        }
+    }
+
+    /**
+     * 重みをファイルに保存する<br>
+     * 識別子・パターンの種類の数に続き、パターンの種類ごとに重みの表の大きさと重みを書き込む（ビッグエンディアン）。
+     * @param path 出力先のファイル
+     * @throws IOException ファイルに書き込めなかった
+     */
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(weights.length);
+            for (short[] table : weights) {
+                out.writeInt(table.length);
+                for (short weight : table) {
+                    out.writeShort(weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * ファイルに保存した重み（{@link #save(Path)}）を読み込んで生成する
+     * @param path 読み込むファイル
+     * @return 読み込んだ重みのインスタンス
+     * @throws IOException ファイルを読み込めなかった
+     * @throws IllegalArgumentException ファイルの形式、または重みの表の数・大きさが異なる
+     */
+    public static PatternEvaluator load(Path path) throws IOException, IllegalArgumentException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IllegalArgumentException("パターンの重みのファイルではありません: " + path);
+            }
+            final int tableNum = in.readInt();
+            if (tableNum != Pattern.values().length) {
+                throw new IllegalArgumentException("重みの表の数が異なります: " + tableNum);
+            }
+            short[][] weights = new short[tableNum][];
+            for (Pattern pattern : Pattern.values()) {
+                final int size = in.readInt();
+                if (size != pattern.getSize()) {
+                    throw new IllegalArgumentException("重みの表の大きさが異なります: " + pattern);
+                }
+                weights[pattern.ordinal()] = new short[size];
+                for (int i = 0; i < size; i++) {
+                    weights[pattern.ordinal()][i] = in.readShort();
+                }
+            }
+            return new PatternEvaluator(weights);
+        }
+    }
+
+    /**
+     * 重みを取得する
+     * @param pattern パターンの種類
+     * @param index パターンの番号
+     * @return 重み
+     */
+    public short getWeight(Pattern pattern, int index) {
+        return weights[pattern.ordinal()][index];
+    }
+
+    /**
+     * 全ての重みの表の複製を取得する
+     * @return パターンの種類ごとの重みの表（{@link Pattern#ordinal()} を要素番号とする）
+     */
+    public short[][] getWeights() {
+        short[][] copy = new short[weights.length][];
+        for (int i = 0; i < weights.length; i++) {
+            copy[i] = weights[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * 手番のプレイヤーから見た盤面の評価値を、全てのパターンの重みの合計で算出する<br>
+     * 複数の探索（スレッド）で共有しても番号の格納先を生成せずに済むよう、{@link PatternLayout#calcIndexes(long, long, int[])}
+     * と同じ変換をここで展開して番号を求める。パターンの変換を変更する場合は、両方を合わせて変更すること。
+     */
+    @Override
+    public int evaluate(long player, long opponent) {
+        // 各パターンを左上の隅・上の辺に移した盤面を求める（v: 上下反転、h: 左右反転、t: 行と列の入れ替え）
+        final long pv = BitBoard.flipVertical(player);
+        final long ov = BitBoard.flipVertical(opponent);
+        final long ph = BitBoard.flipHorizontal(player);
+        final long oh = BitBoard.flipHorizontal(opponent);
+        final long pvh = BitBoard.flipVertical(ph);
+        final long ovh = BitBoard.flipVertical(oh);
+        final long pt = BitBoard.transpose(player);
+        final long ot = BitBoard.transpose(opponent);
+        final long ptv = BitBoard.flipVertical(pt);
+        final long otv = BitBoard.flipVertical(ot);
+        final long pth = BitBoard.flipHorizontal(pt);
+        final long oth = BitBoard.flipHorizontal(ot);
+        final long ptvh = BitBoard.flipVertical(pth);
+        final long otvh = BitBoard.flipVertical(oth);
+
+        final short[] edge = weights[Pattern.EDGE_X.ordinal()];
+        final short[] corner3x3 = weights[Pattern.CORNER_3X3.ordinal()];
+        final short[] corner2x5 = weights[Pattern.CORNER_2X5.ordinal()];
+        final short[] diagonal = weights[Pattern.DIAGONAL.ordinal()];
+
+        return edge[PatternLayout.edgeIndex(player, opponent)] + edge[PatternLayout.edgeIndex(pv, ov)]
+                + edge[PatternLayout.edgeIndex(pt, ot)] + edge[PatternLayout.edgeIndex(ptv, otv)]
+                + corner3x3[PatternLayout.corner3x3Index(player, opponent)]
+                + corner3x3[PatternLayout.corner3x3Index(pv, ov)]
+                + corner3x3[PatternLayout.corner3x3Index(ph, oh)]
+                + corner3x3[PatternLayout.corner3x3Index(pvh, ovh)]
+                + corner2x5[PatternLayout.corner2x5Index(player, opponent)]
+                + corner2x5[PatternLayout.corner2x5Index(pv, ov)]
+                + corner2x5[PatternLayout.corner2x5Index(ph, oh)]
+                + corner2x5[PatternLayout.corner2x5Index(pvh, ovh)]
+                + corner2x5[PatternLayout.corner2x5Index(pt, ot)]
+                + corner2x5[PatternLayout.corner2x5Index(ptv, otv)]
+                + corner2x5[PatternLayout.corner2x5Index(pth, oth)]
+                + corner2x5[PatternLayout.corner2x5Index(ptvh, otvh)]
+                + diagonal[PatternLayout.diagonalIndex(player, opponent)]
+                + diagonal[PatternLayout.diagonalIndex(ph, oh)];
+    }
+
+    /**
+     * 探索用のリバーシ盤で、パターンの番号の保持（{@link Board#enablePatternIndexes()}）を有効にする
+     */
+    @Override
+    public void prepare(Board searchBoard) {
+        searchBoard.enablePatternIndexes();
+    }
+
+    /**
+     * 手番のプレイヤーから見たリバーシ盤の評価値を算出する<br>
+     * リバーシ盤がパターンの番号を保持している場合は、その番号で重みの表を参照する。
+     * 保持していない場合は、石の配置からパターンの番号を求めて評価する。
+     */
+    @Override
+    public int evaluate(Board currentBoard, Disc playerDisc) {
+        if (!currentBoard.isPatternIndexesEnabled()) {
+            return evaluate(currentBoard.getDiscBits(playerDisc), currentBoard.getDiscBits(playerDisc.next()));
+        }
+
+        int point = 0;
+        for (int instance = 0; instance < PatternLayout.INSTANCE_NUM; instance++) {
+            point += instanceWeights[instance][currentBoard.getPatternIndex(instance, playerDisc)];
+        }
+        return point;
+    }
+
+    /**
+     * マスの位置の評価値を各パターンに配分し、初期の重みの表を作成する<br>
+     * 複数のパターンに含まれるマスは、含まれるパターンの数で評価値を等分する。
+     * @return パターンの種類ごとの重みの表
+     */
+    private static short[][] createInitialWeights() {
+        // マスごとに、含まれるパターンの数を求める
+        final int[] coverage = new int[BitBoard.CELL_NUM];
+        final int[] indexes = new int[PatternLayout.INSTANCE_NUM];
+        for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+            PatternLayout.calcIndexes(1L << index, 0L, indexes);
+            for (int instance = 0; instance < PatternLayout.INSTANCE_NUM; instance++) {
+                if (indexes[instance] != 0) {
+                    coverage[index]++;
+                }
+            }
+        }
+
+        final short[][] weights = new short[Pattern.values().length][];
+        final int[] states = new int[BitBoard.CELL_NUM];
+        for (Pattern pattern : Pattern.values()) {
+            final short[] table = new short[pattern.getSize()];
+            for (int code = 0; code < pattern.getSize(); code++) {
+                // パターンの番号から各マスの状態（0: 空き, 1: 手番のプレイヤー, 2: 相手）を求める
+                int rest = code;
+                for (int i = 0; i < pattern.getCellNum(); i++) {
+                    states[pattern.getCell(i)] = rest % 3;
+                    rest /= 3;
+                }
+
+                // 対称なパターン・手番を入れ替えたパターンで重みが一致するよう、マスごとに整数に丸めてから合計する
+                int value = 0;
+                for (int i = 0; i < pattern.getCellNum(); i++) {
+                    final int cell = pattern.getCell(i);
+                    final int state = states[cell];
+                    if (state == 0) {
+                        continue;
+                    }
+                    final int sign = (state == 1) ? 1 : -1;
+                    final int cellValue = calcCellValue(pattern, cell, states) * WEIGHT_SCALE;
+                    value += sign * Math.round((float) cellValue / coverage[cell]);
+                }
+                table[code] = (short) value;
+            }
+            weights[pattern.ordinal()] = table;
+        }
+        return weights;
+    }
+
+    /**
+     * パターン内のマスの評価値を、隣接する隅の状態に応じて求める
+     * @param pattern パターンの種類
+     * @param cell マスのビット位置
+     * @param states パターン内の各マスの状態（ビット位置を要素番号とする）
+     * @return マスの評価値
+     */
+    private static int calcCellValue(Pattern pattern, int cell, int[] states) {
+        for (int[] neighbors : CORNER_NEIGHBORS) {
+            final int corner = neighbors[0];
+            if (!contains(pattern, corner)) {
+                continue;
+            }
+            for (int i = 1; i < neighbors.length; i++) {
+                if (neighbors[i] == cell && states[corner] != 0) {
+                    // 隅が埋まっている場合は不利にならない（隅と同じ石であれば確定石として扱う）
+                    return (states[corner] == states[cell]) ? STABLE_VALUE : 0;
+                }
+            }
+        }
+        return MoveOrdering.getSquareValue(cell);
+    }
+
+    /**
+     * パターンにマスが含まれるか判定する
+     * @param pattern パターンの種類
+     * @param cell マスのビット位置
+     * @return 含まれる場合は {@code true}
+     */
+    private static boolean contains(Pattern pattern, int cell) {
+        for (int i = 0; i < pattern.getCellNum(); i++) {
+            if (pattern.getCell(i) == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
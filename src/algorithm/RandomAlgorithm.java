@@ -1,5 +1,6 @@
 package algorithm;
 
+import reversi.BitBoard;
 import reversi.Board;
 import reversi.Dimension;
 import reversi.Disc;
@@ -26,15 +27,14 @@ public class RandomAlgorithm extends Algorithm {
         final Dimension boardSize = board.getSize();
         Evaluate evaluate = new Evaluate(boardSize);
 
-        for (int i = 0; i < boardSize.getRow(); i++) {
-            for (int j = 0; j < boardSize.getColumn(); j++) {
-                // 石を置けるますの場合は、1～99のランダム値を加える。
-                Dimension target = new Dimension(i, j);
-                if (board.countReversibleDisc(target, playerDisc) > 0) {
-                    int point = random.nextInt(1000);
-                    evaluate.add(target, point);
-                }
-            }
+        // 石を置けるマスに対して、1～99のランダム値を加える。
+        long movable = board.getMovableBits(playerDisc);
+        while (movable != 0) {
+            Dimension target = BitBoard.toDimension(Long.numberOfTrailingZeros(movable));
+            movable &= movable - 1;
+
+            int point = random.nextInt(1000);
+            evaluate.add(target, point);
         }
         return evaluate.getMaxPointDimension();
     }
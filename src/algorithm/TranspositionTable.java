@@ -0,0 +1,269 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 探索済みの局面の評価値を保持する置換表<br>
+ * 局面のハッシュ値（{@link Board#getHashKey()}）をキーとし、探索の深さ・評価値の種類・評価値・最善手を記録する。
+ * 生成時に指定した容量の配列を確保し、探索中はインスタンスを生成しない。
+ * 同じ位置に別の局面を記録する場合は、古い探索の結果、または探索の深さが同じ以上の場合に上書きする。
+ * <p>
+ * 評価値はどのプレイヤーから見た値かを区別しないため、呼び出し元で統一すること。
+ * スレッドセーフではないため、1つの探索（スレッド）でのみ使用すること。
+ * @author komoto
+ */
+public class TranspositionTable {
+
+    /** 評価値の種類: 正確な評価値 */
+    public static final int BOUND_EXACT = 0;
+
+    /** 評価値の種類: 評価値の下限（実際の評価値はこの値以上） */
+    public static final int BOUND_LOWER = 1;
+
+    /** 評価値の種類: 評価値の上限（実際の評価値はこの値以下） */
+    public static final int BOUND_UPPER = 2;
+
+    /** 最善手がないことを表す値 */
+    public static final int NO_MOVE = -1;
+
+    /** 見つからなかったことを表す値 */
+    public static final int NOT_FOUND = -1;
+
+    /** 1エントリあたりのサイズ（バイト）。キーとデータの {@code long} 2つ分 */
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    /** 手番が白であることを表す乱数（局面のハッシュ値に排他的論理和をとり、手番を区別する） */
+    private static final long WHITE_TURN_KEY = 0x9e3779b97f4a7c15L;
+
+    /* データの各値のビット位置・マスク */
+    private static final int DEPTH_SHIFT = 32;
+    private static final long DEPTH_MASK = 0xffL;
+    private static final int BOUND_SHIFT = 40;
+    private static final long BOUND_MASK = 0x3L;
+    private static final int MOVE_SHIFT = 42;
+    private static final long MOVE_MASK = 0x7fL;
+    private static final int AGE_SHIFT = 49;
+    private static final long AGE_MASK = 0xffL;
+    private static final long VALID_BIT = 1L << 63;
+
+    /** 局面のハッシュ値を格納する配列 */
+    private final long[] keys;
+
+    /** 評価値・深さ・種類・最善手をまとめて格納する配列 */
+    private final long[] data;
+
+    /** ハッシュ値から格納位置を求めるマスク */
+    private final int indexMask;
+
+    /** 現在の探索の世代。探索を開始する度に更新する */
+    private int age;
+
+    /** 局面が見つかった回数 */
+    private long hitCount;
+
+    /** 局面が見つからなかった回数 */
+    private long missCount;
+
+    /** 局面を記録した回数 */
+    private long storeCount;
+
+    /** 別の局面を上書きして記録した回数 */
+    private long overwriteCount;
+
+    /**
+     * 置換表の初期化を行う<br>
+     * エントリ数は指定した容量に収まる最大の2の累乗とする。
+     * @param sizeMegaBytes 置換表の容量（MB）
+     * @throws IllegalArgumentException 容量が {@code 0} 以下、または配列として確保できない大きさである
+     */
+    public TranspositionTable(int sizeMegaBytes) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (sizeMegaBytes <= 0) {
+            throw new IllegalArgumentException("置換表の容量は0より大きい値を指定してください: " + sizeMegaBytes);
+        }
+        final long entryNum = Long.highestOneBit((long) sizeMegaBytes * 1024 * 1024 / ENTRY_BYTES);
+        if (entryNum > (1 << 30)) {
+            throw new IllegalArgumentException("置換表の容量が大きすぎます: " + sizeMegaBytes + "MB");
+        }
+
+        // フィールドの初期化
+        this.keys = new long[(int) entryNum];
+        this.data = new long[(int) entryNum];
+        this.indexMask = (int) entryNum - 1;
+        this.age = 0;
+    }
+
+    /**
+     * 局面と手番から、置換表のキーを算出する
+     * @param board リバーシ盤の状態
+     * @param turnDisc 次に石を置くプレイヤーの石
+     * @return 置換表のキー
+     */
+    public static long calcKey(Board board, Disc turnDisc) {
+        return (turnDisc == Disc.WHITE) ? board.getHashKey() ^ WHITE_TURN_KEY : board.getHashKey();
+    }
+
+    /**
+     * 新しい探索を開始する。これより前に記録した局面は、深さに関わらず上書きの対象となる。
+     */
+    public void newSearch() {
+        age = (age + 1) & (int) AGE_MASK;
+    }
+
+    /**
+     * 全ての記録と回数を消去する
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        resetCounters();
+    }
+
+    /**
+     * 局面を探し、見つかった場合は格納位置を返す<br>
+     * 格納位置は {@link #getScore(int)} などで値を取得するために使用する。次に記録を行うまで有効である。
+     * @param key 置換表のキー
+     * @return 格納位置。見つからなかった場合は {@link #NOT_FOUND}
+     */
+    public int find(long key) {
+        final int slot = (int) key & indexMask;
+        if ((data[slot] & VALID_BIT) != 0 && keys[slot] == key) {
+            hitCount++;
+            return slot;
+        }
+        missCount++;
+        return NOT_FOUND;
+    }
+
+    /**
+     * 局面の探索結果を記録する
+     * @param key 置換表のキー
+     * @param depth 探索した深さ（{@code 0}～{@code 255}）
+     * @param bound 評価値の種類（{@link #BOUND_EXACT}, {@link #BOUND_LOWER}, {@link #BOUND_UPPER}）
+     * @param score 評価値
+     * @param bestMove 最善手のビット位置。ない場合は {@link #NO_MOVE}
+     */
+    public void store(long key, int depth, int bound, int score, int bestMove) {
+        final int slot = (int) key & indexMask;
+        final long old = data[slot];
+
+        if ((old & VALID_BIT) != 0 && keys[slot] != key) {
+            // 現在の探索で記録した、より深い探索の結果は残す
+            final int oldAge = (int) ((old >>> AGE_SHIFT) & AGE_MASK);
+            final int oldDepth = (int) ((old >>> DEPTH_SHIFT) & DEPTH_MASK);
+            if (oldAge == age && oldDepth > depth) {
+                return;
+            }
+            overwriteCount++;
+        }
+
+        keys[slot] = key;
+        data[slot] = VALID_BIT
+                | ((long) age << AGE_SHIFT)
+                | ((long) (bestMove + 1) & MOVE_MASK) << MOVE_SHIFT
+                | ((long) bound & BOUND_MASK) << BOUND_SHIFT
+                | ((long) depth & DEPTH_MASK) << DEPTH_SHIFT
+                | (score & 0xffffffffL);
+        storeCount++;
+    }
+
+    /**
+     * 格納位置の評価値を取得する
+     * @param slot {@link #find(long)} で取得した格納位置
+     * @return 評価値
+     */
+    public int getScore(int slot) {
+        return (int) data[slot];
+    }
+
+    /**
+     * 格納位置の探索の深さを取得する
+     * @param slot {@link #find(long)} で取得した格納位置
+     * @return 探索の深さ
+     */
+    public int getDepth(int slot) {
+        return (int) ((data[slot] >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+
+    /**
+     * 格納位置の評価値の種類を取得する
+     * @param slot {@link #find(long)} で取得した格納位置
+     * @return 評価値の種類（{@link #BOUND_EXACT}, {@link #BOUND_LOWER}, {@link #BOUND_UPPER}）
+     */
+    public int getBound(int slot) {
+        return (int) ((data[slot] >>> BOUND_SHIFT) & BOUND_MASK);
+    }
+
+    /**
+     * 格納位置の最善手を取得する
+     * @param slot {@link #find(long)} で取得した格納位置
+     * @return 最善手のビット位置。ない場合は {@link #NO_MOVE}
+     */
+    public int getBestMove(int slot) {
+        return (int) ((data[slot] >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+    }
+
+    /**
+     * 置換表のエントリ数を取得する
+     * @return エントリ数
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * 局面が見つかった回数を取得する
+     * @return 局面が見つかった回数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 局面が見つからなかった回数を取得する
+     * @return 局面が見つからなかった回数
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 局面を記録した回数を取得する
+     * @return 局面を記録した回数
+     */
+    public long getStoreCount() {
+        return storeCount;
+    }
+
+    /**
+     * 別の局面を上書きして記録した回数を取得する
+     * @return 別の局面を上書きした回数
+     */
+    public long getOverwriteCount() {
+        return overwriteCount;
+    }
+
+    /**
+     * 各回数を {@code 0} に戻す
+     */
+    public void resetCounters() {
+        hitCount = 0;
+        missCount = 0;
+        storeCount = 0;
+        overwriteCount = 0;
+    }
+
+    /**
+     * 置換表の容量と各回数を文字列で返す
+     */
+    @Override
+    public String toString() {
+        final long probeCount = hitCount + missCount;
+        final double hitRate = (probeCount == 0) ? 0.0 : 100.0 * hitCount / probeCount;
+        return String.format("TT[%,d entries] hit=%,d miss=%,d (%.1f%%) store=%,d overwrite=%,d",
+                keys.length, hitCount, missCount, hitRate, storeCount, overwriteCount);
+    }
+}
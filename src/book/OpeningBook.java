@@ -0,0 +1,333 @@
+package book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import common.Global;
+import reversi.BitBoard;
+
+/**
+ * 序盤の局面ごとに、候補となる手と重みを記録した定石（オープニングブック）のファイルを参照するクラス<br>
+ * ファイルは {@link FileChannel#map} でメモリに割り当て、ヒープ上に索引を作成せずに参照する。
+ * 局面は手番のプレイヤー・相手の石のビットボードを対称変換（回転・反転の8通り）した中で最小のものに正規化し、
+ * そのハッシュ値で昇順に並べた項目を二分探索する。候補の手も正規化した向きで記録し、参照時に元の向きに戻す。
+ * <p>
+ * ファイルの形式（ビッグエンディアン）は以下の通り。ファイルは {@link OpeningBookBuilder} で作成する。
+ * <ul>
+ * <li>ヘッダ（16バイト）: 識別子, 版数, 項目の数, 候補の手の数（各 {@code int}）</li>
+ * <li>項目（16バイト × 項目の数）: 局面のハッシュ値（{@code long}）, 最初の候補の手の番号, 候補の手の数（各 {@code int}）</li>
+ * <li>候補の手（4バイト × 候補の手の数）: 上位8ビットに正規化した向きのマスのビット位置、下位24ビットに重み</li>
+ * </ul>
+ * 参照は絶対位置の読み込みのみで行い、状態を変更しないため、1つのインスタンスを複数のスレッドで共有できる。
+ * 8×8 のリバーシ盤のみ対応する。
+ * @author komoto
+ */
+public class OpeningBook {
+
+    /** ファイルの先頭の識別子（"RVBK"） */
+    static final int FILE_MAGIC = 0x5256424b;
+
+    /** ファイルの形式の版数 */
+    static final int FILE_VERSION = 1;
+
+    /** ヘッダの大きさ（バイト） */
+    static final int HEADER_SIZE = 16;
+
+    /** 項目1つの大きさ（バイト） */
+    static final int ENTRY_SIZE = 16;
+
+    /** 候補の手1つの大きさ（バイト） */
+    static final int MOVE_SIZE = 4;
+
+    /** 候補の手の重みの最大値（24ビット） */
+    static final int MAX_WEIGHT = 0xffffff;
+
+    /** 対称変換の数 */
+    static final int TRANSFORM_NUM = 8;
+
+    /** 候補の手がない場合のビット位置 */
+    public static final int NO_MOVE = -1;
+
+    /** 対称変換ごとの、マスのビット位置の変換表 */
+    private static final int[][] SQUARE_TRANSFORMS = new int[TRANSFORM_NUM][BitBoard.CELL_NUM];
+
+    /** 対称変換ごとの、変換後のマスのビット位置から元のビット位置への変換表 */
+    private static final int[][] SQUARE_INVERSES = new int[TRANSFORM_NUM][BitBoard.CELL_NUM];
+
+    static {
+        for (int t = 0; t < TRANSFORM_NUM; t++) {
+            for (int square = 0; square < BitBoard.CELL_NUM; square++) {
+                final int transformed = Long.numberOfTrailingZeros(transform(t, 1L << square));
+                SQUARE_TRANSFORMS[t][square] = transformed;
+                SQUARE_INVERSES[t][transformed] = square;
+            }
+        }
+    }
+
+    /** ファイルを割り当てたバッファ */
+    private final ByteBuffer buffer;
+
+    /** 項目の数 */
+    private final int entryNum;
+
+    /** 候補の手の先頭の位置（バイト） */
+    private final int movesOffset;
+
+    /**
+     * 値を設定する
+     * @param buffer ファイルを割り当てたバッファ
+     * @param entryNum 項目の数
+     */
+    private OpeningBook(ByteBuffer buffer, int entryNum) {
+        this.buffer = buffer;
+        this.entryNum = entryNum;
+        this.movesOffset = HEADER_SIZE + entryNum * ENTRY_SIZE;
+    }
+
+    /**
+     * 定石のファイルをメモリに割り当てて開く<br>
+     * 割り当て後はファイルのチャネルを閉じるが、割り当てたバッファは参照できる。
+     * @param path 定石のファイル
+     * @return 定石のインスタンス
+     * @throws IOException ファイルを読み込めなかった
+     * @throws IllegalArgumentException ファイルの形式が異なる
+     */
+    public static OpeningBook open(Path path) throws IOException, IllegalArgumentException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("定石のファイルの大きさが不正です: " + path);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != FILE_MAGIC || buffer.getInt(4) != FILE_VERSION) {
+                throw new IllegalArgumentException("定石のファイルではありません: " + path);
+            }
+            final int entryNum = buffer.getInt(8);
+            final int moveNum = buffer.getInt(12);
+            if (entryNum < 0 || moveNum < 0
+                    || size != HEADER_SIZE + (long) entryNum * ENTRY_SIZE + (long) moveNum * MOVE_SIZE) {
+                throw new IllegalArgumentException("定石のファイルの大きさが項目の数と一致しません: " + path);
+            }
+            return new OpeningBook(buffer, entryNum);
+        }
+    }
+
+    /**
+     * 共有のインスタンスを取得する<br>
+     * 定石のファイル（{@link Global#OPENING_BOOK_FILE}）が存在しない、または読み込めない場合は {@code null} とする。
+     * @return 共有のインスタンス。定石を使用できない場合は {@code null}
+     */
+    public static OpeningBook getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 共有のインスタンスを、最初に使用する時に生成するためのクラス
+     */
+    private static class DefaultHolder {
+        /** 共有のインスタンス */
+        private static final OpeningBook INSTANCE = openDefault();
+
+        /**
+         * 定石のファイルが存在する場合は開く
+         * @return 開いたインスタンス。存在しない・読み込めない場合は {@code null}
+         */
+        private static OpeningBook openDefault() {
+            final Path path = Paths.get(Global.OPENING_BOOK_FILE);
+            if (Files.exists(path)) {
+                try {
+                    return open(path);
+                } catch (IOException | IllegalArgumentException e) {
+                    e.printStackTrace();
+                    System.err.println("定石のファイルを読み込めなかったため、定石を使用しません: " + path);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 項目（局面）の数を取得する
+     * @return 項目の数
+     */
+    public int size() {
+        return entryNum;
+    }
+
+    /**
+     * 局面の候補の手と重みを取得する
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param squares 候補の手のマスのビット位置を格納する配列（大きさは {@link BitBoard#CELL_NUM} 以上）
+     * @param weights 候補の手の重みを格納する配列（大きさは {@link BitBoard#CELL_NUM} 以上）
+     * @return 候補の手の数。局面が記録されていない場合は {@code 0}
+     */
+    public int lookup(long player, long opponent, int[] squares, int[] weights) {
+        final int t = findCanonicalTransform(player, opponent);
+        final int entry = findEntry(calcKey(transform(t, player), transform(t, opponent)));
+        if (entry < 0) {
+            return 0;
+        }
+
+        final int entryOffset = HEADER_SIZE + entry * ENTRY_SIZE;
+        final int first = buffer.getInt(entryOffset + 8);
+        final int count = Math.min(buffer.getInt(entryOffset + 12), BitBoard.CELL_NUM);
+        for (int i = 0; i < count; i++) {
+            final int move = buffer.getInt(movesOffset + (first + i) * MOVE_SIZE);
+            squares[i] = SQUARE_INVERSES[t][(move >>> 24) & (BitBoard.CELL_NUM - 1)];
+            weights[i] = move & MAX_WEIGHT;
+        }
+        return count;
+    }
+
+    /**
+     * 局面の候補の手から、重みに比例した確率で1つを選ぶ<br>
+     * ハッシュ値の衝突に備え、石を置けないマスの候補は除外する。インスタンスは生成しない。
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param random 候補を選ぶ乱数
+     * @return 選んだマスのビット位置。局面が記録されていない、または石を置ける候補がない場合は {@link #NO_MOVE}
+     */
+    public int chooseMove(long player, long opponent, SplittableRandom random) {
+        final int t = findCanonicalTransform(player, opponent);
+        final int entry = findEntry(calcKey(transform(t, player), transform(t, opponent)));
+        if (entry < 0) {
+            return NO_MOVE;
+        }
+
+        final long mobility = BitBoard.calcMobility(player, opponent);
+        final int entryOffset = HEADER_SIZE + entry * ENTRY_SIZE;
+        final int first = buffer.getInt(entryOffset + 8);
+        final int count = buffer.getInt(entryOffset + 12);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            final int move = buffer.getInt(movesOffset + (first + i) * MOVE_SIZE);
+            if ((mobility & (1L << SQUARE_INVERSES[t][(move >>> 24) & (BitBoard.CELL_NUM - 1)])) != 0) {
+                total += move & MAX_WEIGHT;
+            }
+        }
+        if (total <= 0) {
+            return NO_MOVE;
+        }
+
+        long target = random.nextLong(total);
+        for (int i = 0; i < count; i++) {
+            final int move = buffer.getInt(movesOffset + (first + i) * MOVE_SIZE);
+            final int square = SQUARE_INVERSES[t][(move >>> 24) & (BitBoard.CELL_NUM - 1)];
+            if ((mobility & (1L << square)) == 0) {
+                continue;
+            }
+            target -= move & MAX_WEIGHT;
+            if (target < 0) {
+                return square;
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * ハッシュ値が一致する項目を二分探索する
+     * @param key 正規化した局面のハッシュ値
+     * @return 項目の番号。見つからない場合は {@code -1}
+     */
+    private int findEntry(long key) {
+        int low = 0;
+        int high = entryNum - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final long midKey = buffer.getLong(HEADER_SIZE + mid * ENTRY_SIZE);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 局面を正規化する対称変換を求める<br>
+     * 8通りの対称変換のうち、変換後の（手番のプレイヤー, 相手）のビットボードが符号なしの辞書順で最小となるものを選ぶ。
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return 対称変換の番号（{@code 0}～{@code 7}）
+     */
+    static int findCanonicalTransform(long player, long opponent) {
+        int best = 0;
+        long bestPlayer = player;
+        long bestOpponent = opponent;
+        for (int t = 1; t < TRANSFORM_NUM; t++) {
+            final long p = transform(t, player);
+            final long o = transform(t, opponent);
+            final int compare = Long.compareUnsigned(p, bestPlayer);
+            if (compare < 0 || (compare == 0 && Long.compareUnsigned(o, bestOpponent) < 0)) {
+                best = t;
+                bestPlayer = p;
+                bestOpponent = o;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * ビットボードを対称変換する<br>
+     * 変換の番号のビット2で行と列の入れ替え、ビット0で上下反転、ビット1で左右反転をこの順に行う。
+     * @param t 対称変換の番号（{@code 0}～{@code 7}）
+     * @param bits ビットボード
+     * @return 変換したビットボード
+     */
+    static long transform(int t, long bits) {
+        if ((t & 4) != 0) {
+            bits = BitBoard.transpose(bits);
+        }
+        if ((t & 1) != 0) {
+            bits = BitBoard.flipVertical(bits);
+        }
+        if ((t & 2) != 0) {
+            bits = BitBoard.flipHorizontal(bits);
+        }
+        return bits;
+    }
+
+    /**
+     * マスのビット位置を対称変換する
+     * @param t 対称変換の番号（{@code 0}～{@code 7}）
+     * @param square マスのビット位置
+     * @return 変換したビット位置
+     */
+    static int transformSquare(int t, int square) {
+        return SQUARE_TRANSFORMS[t][square];
+    }
+
+    /**
+     * 正規化した局面のハッシュ値を求める
+     * @param player 手番のプレイヤーの石のビットボード（正規化済み）
+     * @param opponent 相手の石のビットボード（正規化済み）
+     * @return ハッシュ値
+     */
+    static long calcKey(long player, long opponent) {
+        return mix(player ^ Long.rotateLeft(mix(opponent), 32));
+    }
+
+    /**
+     * 64ビットの値のビットを撹拌する（MurmurHash3 の最終処理）
+     * @param value 値
+     * @return 撹拌した値
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
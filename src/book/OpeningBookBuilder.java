@@ -0,0 +1,275 @@
+package book;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import common.Global;
+import gamerecord.GameRecordFile;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 棋譜から定石のファイル（{@link OpeningBook}）を作成するクラス<br>
+ * 棋譜を初期配置から再生し、序盤（{@link #getMaxPly()} 手目まで）の局面ごとに、打たれた手とその対局の結果を集計する。
+ * 候補の手の重みは、手を打った側から見て勝ちを {@value #WIN_SCORE}、引き分けを {@value #DRAW_SCORE}、負けを {@code 0}
+ * とした合計とし、重みが {@code 0}（負けのみ）の手と、出現回数が {@link #getMinCount()} 未満の局面は記録しない。
+ * 局面は対称変換で正規化して集計するため、回転・反転した局面は同じ局面として扱う。
+ * @author komoto
+ */
+public class OpeningBookBuilder {
+
+    /** 記録する手数の上限のデフォルト値 */
+    public static final int DEFAULT_MAX_PLY = 20;
+
+    /** 局面を記録する出現回数の下限のデフォルト値 */
+    public static final int DEFAULT_MIN_COUNT = 2;
+
+    /** 勝った対局の手に加える重み */
+    public static final int WIN_SCORE = 2;
+
+    /** 引き分けの対局の手に加える重み */
+    public static final int DRAW_SCORE = 1;
+
+    /** 記録する手数の上限 */
+    private final int maxPly;
+
+    /** 局面を記録する出現回数の下限 */
+    private final int minCount;
+
+    /** 正規化した局面のハッシュ値ごとの集計 */
+    private final Map<Long, Position> positions;
+
+    /**
+     * 1つの局面の集計
+     */
+    private static class Position {
+        /** 局面の出現回数 */
+        int count = 0;
+
+        /** 正規化した向きのマスのビット位置ごとの重み */
+        final long[] weights = new long[BitBoard.CELL_NUM];
+    }
+
+    /**
+     * デフォルト値で初期化を行う
+     */
+    public OpeningBookBuilder() {
+        this(DEFAULT_MAX_PLY, DEFAULT_MIN_COUNT);
+    }
+
+    /**
+     * 初期化を行う
+     * @param maxPly 記録する手数の上限（スキップを含む）
+     * @param minCount 局面を記録する出現回数の下限
+     * @throws IllegalArgumentException 手数の上限または出現回数の下限が {@code 1} 未満
+     */
+    public OpeningBookBuilder(int maxPly, int minCount) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (maxPly < 1) {
+            throw new IllegalArgumentException("記録する手数の上限は 1 以上にしてください: " + maxPly);
+        }
+        if (minCount < 1) {
+            throw new IllegalArgumentException("出現回数の下限は 1 以上にしてください: " + minCount);
+        }
+
+        this.maxPly = maxPly;
+        this.minCount = minCount;
+        this.positions = new HashMap<>();
+    }
+
+    /**
+     * 記録する手数の上限を取得する
+     * @return 記録する手数の上限
+     */
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    /**
+     * 局面を記録する出現回数の下限を取得する
+     * @return 局面を記録する出現回数の下限
+     */
+    public int getMinCount() {
+        return minCount;
+    }
+
+    /**
+     * 棋譜を集計に加える
+     * @param games 1局ごとの、石を置いたマスのビット位置の配列（スキップは {@link GameRecordFile#SKIP}）
+     * @throws IllegalArgumentException 棋譜に石を置けないマスが含まれる
+     */
+    public void addGames(List<int[]> games) throws IllegalArgumentException {
+        for (int[] moves : games) {
+            addGame(moves);
+        }
+    }
+
+    /**
+     * 1局の棋譜を集計に加える<br>
+     * 対局の結果を求めるため、棋譜は終局まで再生する。
+     * @param moves 石を置いたマスのビット位置の配列（スキップは {@link GameRecordFile#SKIP}）
+     * @throws IllegalArgumentException 棋譜に石を置けないマスが含まれる
+     */
+    public void addGame(int[] moves) throws IllegalArgumentException {
+        final int plyNum = Math.min(moves.length, maxPly);
+        long[] players = new long[plyNum];
+        long[] opponents = new long[plyNum];
+
+        Board board = new Board(BitBoard.MAX_SIZE, BitBoard.MAX_SIZE);
+        Disc disc = Disc.BLACK;
+        for (int ply = 0; ply < moves.length; ply++) {
+            final int move = moves[ply];
+            if (ply < plyNum) {
+                players[ply] = board.getDiscBits(disc);
+                opponents[ply] = board.getDiscBits(disc.next());
+            }
+            if (move != GameRecordFile.SKIP) {
+                if ((board.getMovableBits(disc) & (1L << move)) == 0) {
+                    throw new IllegalArgumentException(
+                            (ply + 1) + " 手目に石を置けないマスがあります: " + BitBoard.toDimension(move).getString());
+                }
+                board.doMove(move, disc);
+            }
+            disc = disc.next();
+        }
+
+        final int margin = board.getDiscNum(Disc.BLACK) - board.getDiscNum(Disc.WHITE);
+        for (int ply = 0; ply < plyNum; ply++) {
+            if (moves[ply] == GameRecordFile.SKIP) {
+                continue;
+            }
+            // 手を打った側から見た結果
+            final int moverMargin = (ply % 2 == 0) ? margin : -margin;
+            final int score = (moverMargin > 0) ? WIN_SCORE : (moverMargin == 0) ? DRAW_SCORE : 0;
+
+            final int t = OpeningBook.findCanonicalTransform(players[ply], opponents[ply]);
+            final long key = OpeningBook.calcKey(OpeningBook.transform(t, players[ply]),
+                    OpeningBook.transform(t, opponents[ply]));
+            Position position = positions.computeIfAbsent(key, k -> new Position());
+            position.count++;
+            position.weights[OpeningBook.transformSquare(t, moves[ply])] += score;
+        }
+    }
+
+    /**
+     * 集計した局面の数を取得する（出現回数の下限による除外前）
+     * @return 局面の数
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * 集計した結果を定石のファイルに書き込む
+     * @param path 出力先のファイル
+     * @return 記録した項目（局面）の数
+     * @throws IOException ファイルに書き込めなかった
+     */
+    public int write(Path path) throws IOException {
+        List<Long> keys = new ArrayList<>();
+        int moveNum = 0;
+        for (Map.Entry<Long, Position> entry : positions.entrySet()) {
+            final int count = countMoves(entry.getValue());
+            if (count > 0) {
+                keys.add(entry.getKey());
+                moveNum += count;
+            }
+        }
+        long[] sortedKeys = new long[keys.size()];
+        for (int i = 0; i < sortedKeys.length; i++) {
+            sortedKeys[i] = keys.get(i);
+        }
+        Arrays.sort(sortedKeys);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(OpeningBook.FILE_MAGIC);
+            out.writeInt(OpeningBook.FILE_VERSION);
+            out.writeInt(sortedKeys.length);
+            out.writeInt(moveNum);
+
+            int first = 0;
+            for (long key : sortedKeys) {
+                final int count = countMoves(positions.get(key));
+                out.writeLong(key);
+                out.writeInt(first);
+                out.writeInt(count);
+                first += count;
+            }
+            for (long key : sortedKeys) {
+                final long[] weights = positions.get(key).weights;
+                for (int square = 0; square < BitBoard.CELL_NUM; square++) {
+                    if (weights[square] > 0) {
+                        out.writeInt((square << 24) | (int) Math.min(weights[square], OpeningBook.MAX_WEIGHT));
+                    }
+                }
+            }
+        }
+        return sortedKeys.length;
+    }
+
+    /**
+     * 局面に記録する候補の手の数を求める
+     * @param position 局面の集計
+     * @return 候補の手の数。出現回数が下限未満の場合は {@code 0}
+     */
+    private int countMoves(Position position) {
+        if (position.count < minCount) {
+            return 0;
+        }
+        int count = 0;
+        for (long weight : position.weights) {
+            if (weight > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 棋譜ファイルを読み込み、定石のファイルを作成する
+     * @param args 棋譜ファイル（1つ以上）
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("使用方法: book.OpeningBookBuilder <棋譜ファイル>...");
+            System.exit(Global.EXIT_FAILURE);
+        }
+
+        final int maxPly = Integer.getInteger("book.maxPly", DEFAULT_MAX_PLY);
+        final int minCount = Integer.getInteger("book.minCount", DEFAULT_MIN_COUNT);
+
+        try {
+            OpeningBookBuilder builder = new OpeningBookBuilder(maxPly, minCount);
+            int gameNum = 0;
+            for (String file : args) {
+                List<int[]> games = GameRecordFile.readMoves(Paths.get(file));
+                builder.addGames(games);
+                gameNum += games.size();
+            }
+
+            Path path = Paths.get(Global.OPENING_BOOK_FILE);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            final int entryNum = builder.write(path);
+            System.out.println(String.format("games: %,d, positions: %,d, entries: %,d (maxPly: %d, minCount: %d)",
+                    gameNum, builder.size(), entryNum, maxPly, minCount));
+            System.out.println("saved: " + Global.OPENING_BOOK_FILE);
+        } catch (IOException | IllegalArgumentException e) {
+            int exitCode = Global.EXIT_FAILURE;
+            e.printStackTrace();
+            System.err.println("定石を作成できないため、プログラムを異常終了します: 終了コード = " + exitCode);
+            System.exit(exitCode);
+        }
+    }
+}
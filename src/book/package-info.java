@@ -0,0 +1,5 @@
+/**
+ * 序盤の定石（オープニングブック）を棋譜から作成し、COM の着手に使用するパッケージ
+ * @author komoto
+ */
+package book;
@@ -28,6 +28,27 @@ public class Global {
     /** デフォルトで使用するアルゴリズムの要素番号 */
     public static final int DEFAULT_ALGORITHM = 0;
 
+    /** COM が1手あたりに思考する時間の上限のデフォルト値（ミリ秒）。{@code 0} の場合は時間制限なしで、決められた深さまで探索する。 */
+    public static final int DEFAULT_TIME_LIMIT_MILLISEC = 0;
+
+    /** COM が探索に使用する置換表の容量（MB） */
+    public static final int TRANSPOSITION_TABLE_SIZE_MB = 16;
+
+    /** COM が複数のスレッドで並列に探索するかのデフォルト値（対応しているアルゴリズムのみ） */
+    public static final Boolean IS_PARALLEL_SEARCH = false;
+
+    /** COM が終局まで読み切る空きマスの数の上限。{@code 0} の場合は読み切りを行わない */
+    public static final int ENDGAME_SOLVE_EMPTIES = 14;
+
+    /** パターンによる評価関数の重みのファイル。存在する場合は起動時に読み込み、存在しない場合は初期の重みを使用する */
+    public static final String PATTERN_WEIGHTS_FILE = "weights/pattern.bin";
+
+    /** 着手可能数・確定石による評価関数の重みのファイル。存在する場合は起動時に読み込み、存在しない場合は初期の重みを使用する */
+    public static final String MOBILITY_WEIGHTS_FILE = "weights/mobility.bin";
+
+    /** 定石のファイル。存在する場合は COM が序盤に定石の手を優先し、存在しない場合は定石を使用しない */
+    public static final String OPENING_BOOK_FILE = "book/opening.bin";
+
     /** 先手・黒の名前のデフォルト値 */
     public static final String DEFAULT_PLAYER_NAME_BLACK = "プレイヤー1";
 
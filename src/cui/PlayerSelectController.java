@@ -29,9 +29,14 @@ class PlayerSelectController {
      * @return 次のゲーム処理に渡すデータ
      */
     public ReversiData run() {
-        // アルゴリズム種別を決める
-        playerSelectModel.setPlayerAlgorithm(Disc.BLACK, selectAlgorithm(Disc.BLACK));
-        playerSelectModel.setPlayerAlgorithm(Disc.WHITE, selectAlgorithm(Disc.WHITE));
+        // アルゴリズム種別と思考時間の上限を決める（手動で操作する場合は思考時間の上限を使用しない）
+        for (Disc playerDisc : new Disc[] { Disc.BLACK, Disc.WHITE }) {
+            AlgorithmType type = selectAlgorithm(playerDisc);
+            playerSelectModel.setPlayerAlgorithm(playerDisc, type);
+            if (type != AlgorithmType.MANUAL) {
+                playerSelectModel.setPlayerTimeLimit(playerDisc, selectTimeLimit(playerDisc));
+            }
+        }
 
         // プレイヤーとリバーシのインスタンスを作成する
         ReversiData data = playerSelectModel.exportForReversi();
@@ -84,4 +89,44 @@ class PlayerSelectController {
 
         return type;
     }
+
+    /**
+     * プレイヤーの1手あたりの思考時間の上限を入力する
+     * @param playerDisc プレイヤーの石の色
+     * @return 入力した思考時間の上限（ミリ秒）。{@code 0} の場合は時間制限なし
+     */
+    private int selectTimeLimit(Disc playerDisc) {
+        int timeLimit = -1;
+
+        do {
+            System.out.printf("%sの1手あたりの思考時間の上限をミリ秒で入力してください。時間制限なしの場合は「0」を入力してください。\n",
+                    playerDisc.getPrefixForPlayerName());
+            System.out.printf("\n思考時間の上限？（現在値: %d）: ", playerSelectModel.getTimeLimit(playerDisc == Disc.BLACK));
+
+            // 入力した文字列が想定されたものか確認する。想定されていない場合は再入力させる。
+            try {
+                timeLimit = scanner.nextInt();
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.err.println("数字以外の文字は想定されていません。");
+                System.err.flush();
+                scanner.next();
+                continue;
+            }
+
+            if (timeLimit >= 0) {
+                // 0以上の数値が入力された場合は、次の処理に進む
+                break;
+            } else {
+                // 負の数値が入力された場合は、再入力を促す
+                System.err.println("想定されていない値です: " + timeLimit);
+                System.err.flush();
+                continue;
+            }
+        } while (true);
+
+        System.out.printf("思考時間の上限「%dミリ秒」が設定されました。\n\n", timeLimit);
+
+        return timeLimit;
+    }
 }
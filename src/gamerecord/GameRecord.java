@@ -92,6 +92,21 @@ public class GameRecord {
         return recordDataList.size();
     }
 
+    /**
+     * 石を置いた座標を、棋譜の順番に空白区切りで並べた文字列を取得する（スキップは "Skip" とする）
+     * @return 座標を並べた文字列（例: {@code "f5 d6 c3 Skip ..."}）
+     */
+    public String getMoveString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < recordDataList.size(); i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(getDimString(i));
+        }
+        return builder.toString();
+    }
+
     /**
      * ターン数を取得する
      * @param index 要素の番号
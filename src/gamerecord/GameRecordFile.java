@@ -0,0 +1,113 @@
+package gamerecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import common.Convert;
+import reversi.BitBoard;
+
+/**
+ * 棋譜をテキストファイルに保存・読み込みするクラス<br>
+ * 1行を1局とし、石を置いた座標を棋譜の順番に空白区切りで並べる（{@link GameRecord#getMoveString()}）。
+ * スキップは {@value #SKIP_STRING} とする。空行と {@code #} で始まる行は読み込み時に無視する。
+ * 読み込んだ棋譜は、8×8 のリバーシ盤のビット位置の配列（スキップは {@link #SKIP}）として扱う。
+ * @author komoto
+ */
+public class GameRecordFile {
+
+    /** スキップを表す座標の文字列 */
+    public static final String SKIP_STRING = "Skip";
+
+    /** 読み込んだ棋譜で、スキップを表すビット位置 */
+    public static final int SKIP = -1;
+
+    /**
+     * インスタンス化は想定しない
+     */
+    private GameRecordFile() {
+    }
+
+    /**
+     * 棋譜をファイルの末尾に追記する（ファイルが存在しない場合は作成する）
+     * @param path 出力先のファイル
+     * @param records 追記する棋譜
+     * @throws IOException ファイルに書き込めなかった
+     */
+    public static void append(Path path, List<GameRecord> records) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            for (GameRecord record : records) {
+                writer.write(record.getMoveString());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * ファイルから全ての棋譜を読み込む
+     * @param path 読み込むファイル
+     * @return 1局ごとの、石を置いたマスのビット位置の配列（スキップは {@link #SKIP}）
+     * @throws IOException ファイルを読み込めなかった
+     * @throws IllegalArgumentException 座標として解釈できない文字列がある
+     */
+    public static List<int[]> readMoves(Path path) throws IOException, IllegalArgumentException {
+        List<int[]> games = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                games.add(parseMoves(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(path + " の " + lineNumber + " 行目: " + e.getMessage(), e);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * 1局分の座標の文字列を、ビット位置の配列に変換する
+     * @param line 座標を空白区切りで並べた文字列
+     * @return 石を置いたマスのビット位置の配列（スキップは {@link #SKIP}）
+     * @throws IllegalArgumentException 座標として解釈できない文字列がある
+     */
+    public static int[] parseMoves(String line) throws IllegalArgumentException {
+        String[] tokens = line.trim().split("\\s+");
+        int[] moves = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            moves[i] = parseMove(tokens[i]);
+        }
+        return moves;
+    }
+
+    /**
+     * 座標の文字列（例: {@code "f5"}）を、ビット位置に変換する
+     * @param move 座標の文字列、またはスキップを表す文字列
+     * @return ビット位置（スキップは {@link #SKIP}）
+     * @throws IllegalArgumentException 座標として解釈できない
+     */
+    public static int parseMove(String move) throws IllegalArgumentException {
+        if (SKIP_STRING.equals(move)) {
+            return SKIP;
+        }
+        if (move.length() != 2) {
+            throw new IllegalArgumentException("座標の文字列が不正です: " + move);
+        }
+
+        final int column = Convert.convertCharToInt(move.charAt(0));
+        final int row = move.charAt(1) - '1';
+        if (column >= BitBoard.MAX_SIZE || row < 0 || row >= BitBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("座標が盤の範囲外です: " + move);
+        }
+        return BitBoard.toIndex(row, column);
+    }
+}
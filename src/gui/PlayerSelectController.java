@@ -59,6 +59,12 @@ public class PlayerSelectController implements Initializable {
     @FXML
     private VBox whitePane;
 
+    /** 先手・黒の1手あたりの思考時間の上限（ミリ秒）を設定・表示するテキストフィールド */
+    private TextField blackTimeLimitField;
+
+    /** 後手・白の1手あたりの思考時間の上限（ミリ秒）を設定・表示するテキストフィールド */
+    private TextField whiteTimeLimitField;
+
     /** デバッグ表示の有効・無効を切り替えるチェックボタン */
     @FXML
     private CheckBox debugModeChekBox;
@@ -84,6 +90,8 @@ public class PlayerSelectController implements Initializable {
 
         setGridPane(blackPane, true);
         setGridPane(whitePane, false);
+        blackTimeLimitField = createTimeLimitField(blackPane, true);
+        whiteTimeLimitField = createTimeLimitField(whitePane, false);
     }
 
     /**
@@ -133,6 +141,36 @@ public class PlayerSelectController implements Initializable {
         group.selectedToggleProperty().addListener(new ToggleButtonEvent(isPlayerBlack));
     }
 
+    /**
+     * 指定されたプレイヤー側の1手あたりの思考時間の上限を入力するテキストフィールドを、アルゴリズムの選択肢の下に生成する
+     * @param vbox 生成したテキストフィールドの描画先のペイン
+     * @param isPlayerBlack プレイヤーの石の色が黒かどうか
+     * @return 生成したテキストフィールド
+     */
+    private TextField createTimeLimitField(VBox vbox, Boolean isPlayerBlack) {
+        Label label = new Label("思考時間の上限（ミリ秒、0 は制限なし）");
+        TextField field = new TextField(String.valueOf(playerSelectModel.getTimeLimit(isPlayerBlack)));
+        field.setPrefWidth(Global.RADIO_BUTTON_WIDTH);
+
+        vbox.getChildren().addAll(label, field);
+        return field;
+    }
+
+    /**
+     * テキストフィールドに入力された思考時間の上限を、プレイヤーの設定に反映する<br>
+     * 数値でない場合は設定変更せず、前の値かデフォルト値のままにする。
+     * @param playerDisc 対象のプレイヤーの石の色
+     * @param field 思考時間の上限を入力したテキストフィールド
+     */
+    private void applyTimeLimit(Disc playerDisc, TextField field) {
+        try {
+            playerSelectModel.setPlayerTimeLimit(playerDisc, Integer.parseInt(field.getText().trim()));
+        } catch (NumberFormatException e) {
+            e.printStackTrace();
+            System.err.println("思考時間の上限が数値ではないため、値は変更されませんでした: " + field.getText());
+        }
+    }
+
     /**
      * ラジオボタンが選択された時のアクションを定義・処理する内部クラス
      */
@@ -179,6 +217,8 @@ public class PlayerSelectController implements Initializable {
     void onStartButtonAction(ActionEvent event) {
         playerSelectModel.setPlayerName(true, blackNameFeild.getText());
         playerSelectModel.setPlayerName(false, whiteNameFeild.getText());
+        applyTimeLimit(Disc.BLACK, blackTimeLimitField);
+        applyTimeLimit(Disc.WHITE, whiteTimeLimitField);
         playerSelectModel.setIsDebug(debugModeChekBox.isSelected());
 
         ReversiData data = playerSelectModel.exportForReversi();
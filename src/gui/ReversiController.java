@@ -128,6 +128,9 @@ public class ReversiController {
 
         model = new ReversiModel(reversiData, true);
 
+        // COM の思考中も画面描画・FPS を維持するため、COM の思考は別のスレッドで実行する
+        model.setAsync(true);
+
         // 初期画面の描画
         blackNameLabel.setText(model.getPlayerName(true));
         blackAlgorithmLabel.setText("( " + model.getPlayerAlgorithmName(true) + " )");
@@ -0,0 +1,70 @@
+package match;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import algorithm.AlgorithmType;
+import common.Global;
+
+/**
+ * 画面を表示せずに、2つのアルゴリズムの対戦を繰り返し実行し、結果を表示する
+ * <p>
+ * 使用方法: {@code java -cp <クラスパス> match.MatchMain <A> <B> [対戦数] [スレッド数] [結果の出力先ファイル]}<br>
+ * アルゴリズムは {@link AlgorithmType} の定数名（例: {@code ALPHA_BETA_01}）で指定する。
+ * 対戦数を省略した場合は {@code 1000}、スレッド数を省略した場合は CPU のコア数とする。
+ * 1手あたりの思考時間の上限（ミリ秒）はシステムプロパティ {@code match.timeLimit}、
+ * 各対戦のシードを生成するシードは {@code match.seed} で指定できる（省略した場合は現在時刻）。
+ * 結果の出力先ファイルを指定した場合は、ファイルの末尾に集計結果を追記する。
+ * システムプロパティ {@code match.record} でファイルを指定した場合は、全ての対戦の棋譜をそのファイルに追記する
+ * （評価関数の重みの調整 {@code tuner.WeightTuner} の入力に使用できる）。
+ * @author komoto
+ */
+public class MatchMain {
+
+    /** 対戦数を省略した場合の対戦数 */
+    private static final int DEFAULT_GAME_NUM = 1000;
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("使用方法: match.MatchMain <A> <B> [対戦数] [スレッド数] [結果の出力先ファイル]");
+            System.exit(Global.EXIT_FAILURE);
+        }
+
+        MatchResult result = null;
+        try {
+            AlgorithmType typeA = AlgorithmType.valueOf(args[0]);
+            AlgorithmType typeB = AlgorithmType.valueOf(args[1]);
+            int gameNum = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_GAME_NUM;
+            int threadNum = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+            MatchRunner runner = new MatchRunner(typeA, typeB, gameNum, threadNum);
+            runner.setTimeLimit(Integer.getInteger("match.timeLimit", Global.DEFAULT_TIME_LIMIT_MILLISEC));
+            runner.setSeed(Long.getLong("match.seed", runner.getSeed()));
+            String recordFile = System.getProperty("match.record");
+            if (recordFile != null) {
+                runner.setRecordPath(Paths.get(recordFile));
+            }
+            result = runner.run();
+        } catch (IllegalArgumentException | InterruptedException e) {
+            int exitCode = Global.EXIT_FAILURE;
+            e.printStackTrace();
+            System.err.println("対戦を実行できないため、プログラムを異常終了します: 終了コード = " + exitCode);
+            System.exit(exitCode);
+        }
+
+        System.out.println(result.getSummary());
+
+        if (args.length > 4) {
+            try {
+                Files.write(Paths.get(args[4]), (result.getSummary() + System.lineSeparator() + System.lineSeparator())
+                        .getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.err.println("結果をファイルに出力できませんでした: " + args[4]);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package match;
+
+import algorithm.AlgorithmType;
+
+/**
+ * COM 同士の対戦を繰り返した結果を集計したクラス<br>
+ * 勝敗・石数の差は、全て1つ目のアルゴリズム（A）から見た値とする。
+ * @author komoto
+ */
+public class MatchResult {
+
+    /** 1つ目のアルゴリズム（A） */
+    private final AlgorithmType typeA;
+
+    /** 2つ目のアルゴリズム（B） */
+    private final AlgorithmType typeB;
+
+    /** 各対戦のシードを生成したシード */
+    private final long seed;
+
+    /** A の勝ち数 */
+    private final int wins;
+
+    /** 引き分けの数 */
+    private final int draws;
+
+    /** A の負け数 */
+    private final int losses;
+
+    /** 終局時の石数の差（A の石数 - B の石数）の合計 */
+    private final long totalDiscMargin;
+
+    /** 全ての対戦にかかった時間（ナノ秒） */
+    private final long elapsedNanos;
+
+    /**
+     * 値を設定する
+     * @param typeA 1つ目のアルゴリズム（A）
+     * @param typeB 2つ目のアルゴリズム（B）
+     * @param seed 各対戦のシードを生成したシード
+     * @param wins A の勝ち数
+     * @param draws 引き分けの数
+     * @param losses A の負け数
+     * @param totalDiscMargin 終局時の石数の差（A の石数 - B の石数）の合計
+     * @param elapsedNanos 全ての対戦にかかった時間（ナノ秒）
+     */
+    public MatchResult(AlgorithmType typeA, AlgorithmType typeB, long seed, int wins, int draws, int losses,
+            long totalDiscMargin, long elapsedNanos) {
+        this.typeA = typeA;
+        this.typeB = typeB;
+        this.seed = seed;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.totalDiscMargin = totalDiscMargin;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * 1つ目のアルゴリズム（A）を取得する
+     * @return 1つ目のアルゴリズム
+     */
+    public AlgorithmType getTypeA() {
+        return typeA;
+    }
+
+    /**
+     * 2つ目のアルゴリズム（B）を取得する
+     * @return 2つ目のアルゴリズム
+     */
+    public AlgorithmType getTypeB() {
+        return typeB;
+    }
+
+    /**
+     * 各対戦のシードを生成したシードを取得する
+     * @return シード
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 対戦数を取得する
+     * @return 対戦数
+     */
+    public int getGameNum() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * A の勝ち数を取得する
+     * @return 勝ち数
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * 引き分けの数を取得する
+     * @return 引き分けの数
+     */
+    public int getDraws() {
+        return draws;
+    }
+
+    /**
+     * A の負け数を取得する
+     * @return 負け数
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * A の勝率を取得する（引き分けは0.5勝として数える）
+     * @return 勝率（{@code 0.0} ～ {@code 1.0}）。対戦数が {@code 0} の場合は {@code 0.0}
+     */
+    public double getScoreRate() {
+        if (getGameNum() == 0) {
+            return 0.0;
+        }
+        return (wins + draws * 0.5) / getGameNum();
+    }
+
+    /**
+     * 終局時の石数の差（A の石数 - B の石数）の平均を取得する
+     * @return 石数の差の平均。対戦数が {@code 0} の場合は {@code 0.0}
+     */
+    public double getAverageDiscMargin() {
+        if (getGameNum() == 0) {
+            return 0.0;
+        }
+        return (double) totalDiscMargin / getGameNum();
+    }
+
+    /**
+     * 全ての対戦にかかった時間を取得する
+     * @return 時間（ナノ秒）
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 1秒あたりの対戦数を取得する
+     * @return 1秒あたりの対戦数
+     */
+    public double getGamesPerSecond() {
+        return getGameNum() * 1e9 / Math.max(elapsedNanos, 1);
+    }
+
+    /**
+     * 集計結果を表示用の文字列に変換する
+     * @return 集計結果の文字列（複数行）
+     */
+    public String getSummary() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("A: %s, B: %s, seed: %d%n", typeA, typeB, seed));
+        builder.append(String.format("games: %d, A wins: %d, draws: %d, A losses: %d%n", getGameNum(), wins, draws,
+                losses));
+        builder.append(String.format("A score rate: %.4f, average disc margin (A - B): %+.3f%n", getScoreRate(),
+                getAverageDiscMargin()));
+        builder.append(String.format("elapsed: %.3f sec, games/sec: %.3f", elapsedNanos / 1e9, getGamesPerSecond()));
+        return builder.toString();
+    }
+}
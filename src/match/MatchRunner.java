@@ -0,0 +1,281 @@
+package match;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import algorithm.AlgorithmType;
+import common.Global;
+import gamerecord.GameRecord;
+import gamerecord.GameRecordFile;
+import model.ReversiData;
+import model.ReversiModel;
+import reversi.Disc;
+import reversi.Player;
+import reversi.Reversi;
+
+/**
+ * 画面の表示・入力や待ち時間なしで、2つのアルゴリズムの対戦を繰り返し実行するクラス<br>
+ * 対戦はスレッドプールの各スレッドに振り分けて並列に実行する。
+ * 先手・後手による有利不利をなくすため、偶数番目の対戦は A が先手・黒、奇数番目の対戦は B が先手・黒となる。<br>
+ * 各対戦のシードは全体のシードから順番に生成し、対戦ごと・プレイヤーごとの乱数はそのシードから分割する。
+ * そのため、スレッド数や実行順に関わらず、同じシードの対戦は同じ結果となる（時間制限なしの場合）。<br>
+ * プレイヤー（探索の置換表を含む）はスレッドごと・先手後手の組み合わせごとに1組だけ生成し、
+ * 対戦の開始時に前の対戦の情報を初期化（{@link Player#newGame()}）して使い回す。<br>
+ * 棋譜の出力先を指定した場合は、全ての対戦の棋譜を対戦の順番にファイルへ追記する（{@link GameRecordFile}）。
+ * @author komoto
+ */
+public class MatchRunner {
+
+    /** 1つ目のアルゴリズム（A） */
+    private final AlgorithmType typeA;
+
+    /** 2つ目のアルゴリズム（B） */
+    private final AlgorithmType typeB;
+
+    /** 対戦数 */
+    private final int gameNum;
+
+    /** 対戦を実行するスレッド数 */
+    private final int threadNum;
+
+    /** COM が1手あたりに思考する時間の上限（ミリ秒）。{@code 0} の場合は時間制限なし */
+    private int timeLimit;
+
+    /** 各対戦のシードを生成するためのシード */
+    private long seed;
+
+    /** 棋譜の出力先のファイル。{@code NULL} の場合は出力しない */
+    private Path recordPath;
+
+    /**
+     * 初期化を行う
+     * @param typeA 1つ目のアルゴリズム（A）
+     * @param typeB 2つ目のアルゴリズム（B）
+     * @param gameNum 対戦数
+     * @param threadNum 対戦を実行するスレッド数
+     * @throws IllegalArgumentException アルゴリズムが {@code NULL} または手動、対戦数が負の値、スレッド数が {@code 0} 以下の場合はエラーとする。
+     */
+    public MatchRunner(AlgorithmType typeA, AlgorithmType typeB, int gameNum, int threadNum)
+            throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (typeA == null || typeA == AlgorithmType.MANUAL) {
+            throw new IllegalArgumentException("1つ目のアルゴリズムには COM を指定してください: " + typeA);
+        }
+        if (typeB == null || typeB == AlgorithmType.MANUAL) {
+            throw new IllegalArgumentException("2つ目のアルゴリズムには COM を指定してください: " + typeB);
+        }
+        if (gameNum < 0) {
+            throw new IllegalArgumentException("対戦数は0以上の値を指定してください: " + gameNum);
+        }
+        if (threadNum <= 0) {
+            throw new IllegalArgumentException("スレッド数は0より大きい値を指定してください: " + threadNum);
+        }
+
+        this.typeA = typeA;
+        this.typeB = typeB;
+        this.gameNum = gameNum;
+        this.threadNum = threadNum;
+        this.timeLimit = Global.DEFAULT_TIME_LIMIT_MILLISEC;
+        this.seed = System.currentTimeMillis();
+        this.recordPath = null;
+    }
+
+    /**
+     * COM が1手あたりに思考する時間の上限を設定する
+     * @param timeLimit 思考時間の上限（ミリ秒）。{@code 0} 以下の場合は時間制限なしとする。
+     */
+    public void setTimeLimit(int timeLimit) {
+        this.timeLimit = Math.max(timeLimit, 0);
+    }
+
+    /**
+     * 各対戦のシードを生成するためのシードを設定する
+     * @param seed シード
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 全ての対戦の棋譜を追記するファイルを設定する
+     * @param recordPath 棋譜の出力先のファイル。{@code NULL} の場合は出力しない
+     */
+    public void setRecordPath(Path recordPath) {
+        this.recordPath = recordPath;
+    }
+
+    /**
+     * 各対戦のシードを生成するためのシードを取得する
+     * @return シード
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 指定した番号の対戦のシードを取得する（{@link #playGame(AlgorithmType, AlgorithmType, int, long)} で対戦を再現する場合に使用する）
+     * @param gameIndex 対戦の番号（{@code 0} から始まる）
+     * @return 対戦のシード
+     */
+    public long getGameSeed(int gameIndex) {
+        SplittableRandom seedRandom = new SplittableRandom(seed);
+        long gameSeed = seedRandom.nextLong();
+        for (int i = 0; i < gameIndex; i++) {
+            gameSeed = seedRandom.nextLong();
+        }
+        return gameSeed;
+    }
+
+    /**
+     * 全ての対戦を実行し、結果を集計する
+     * @return 集計結果
+     * @throws InterruptedException 対戦の終了を待つ間に割り込まれた
+     * @throws RuntimeException 対戦中に例外が発生した
+     */
+    public MatchResult run() throws InterruptedException, RuntimeException {
+        final long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+        List<Future<GameRecord>> futures = new ArrayList<>(gameNum);
+        SplittableRandom seedRandom = new SplittableRandom(seed);
+
+        // スレッドごとのプレイヤー（[0] A が先手・黒の組, [1] B が先手・黒の組。それぞれ黒・白の順）
+        final ThreadLocal<Player[][]> threadPlayers = ThreadLocal.withInitial(() -> new Player[][] {
+                { createPlayer(typeA, Disc.BLACK), createPlayer(typeB, Disc.WHITE) },
+                { createPlayer(typeB, Disc.BLACK), createPlayer(typeA, Disc.WHITE) } });
+        try {
+            for (int i = 0; i < gameNum; i++) {
+                final int pairIndex = i % 2;
+                final long gameSeed = seedRandom.nextLong();
+                futures.add(executor.submit(() -> {
+                    Player[] players = threadPlayers.get()[pairIndex];
+                    return playRecordedGame(players[0], players[1], gameSeed);
+                }));
+            }
+
+            int wins = 0;
+            int draws = 0;
+            int losses = 0;
+            long totalDiscMargin = 0;
+            List<GameRecord> records = new ArrayList<>();
+            for (int i = 0; i < gameNum; i++) {
+                GameRecord record;
+                try {
+                    record = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("対戦中に例外が発生しました", e.getCause());
+                }
+
+                // 石数の差は A から見た値に変換する
+                int margin = calcDiscMargin(record);
+                if (i % 2 != 0) {
+                    margin = -margin;
+                }
+                if (margin > 0) {
+                    wins++;
+                } else if (margin < 0) {
+                    losses++;
+                } else {
+                    draws++;
+                }
+                totalDiscMargin += margin;
+                if (recordPath != null) {
+                    records.add(record);
+                }
+            }
+
+            if (recordPath != null) {
+                try {
+                    GameRecordFile.append(recordPath, records);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    System.err.println("棋譜をファイルに出力できませんでした: " + recordPath);
+                }
+            }
+
+            return new MatchResult(typeA, typeB, seed, wins, draws, losses, totalDiscMargin,
+                    System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 1回の対戦を終局まで実行する<br>
+     * ゲームの進行は画面と同じ {@link ReversiModel} で行うため、スキップ・勝敗判定は通常の対戦と同じになる。
+     * @param typeBlack 先手・黒のアルゴリズム
+     * @param typeWhite 後手・白のアルゴリズム
+     * @param timeLimit COM が1手あたりに思考する時間の上限（ミリ秒）。{@code 0} の場合は時間制限なし
+     * @param gameSeed 対戦のシード
+     * @return 終局時の石数の差（黒の石数 - 白の石数）
+     */
+    public static int playGame(AlgorithmType typeBlack, AlgorithmType typeWhite, int timeLimit, long gameSeed) {
+        return calcDiscMargin(playRecordedGame(typeBlack, typeWhite, timeLimit, gameSeed));
+    }
+
+    /**
+     * 1回の対戦を終局まで実行し、棋譜を取得する<br>
+     * 終局時のリバーシ・プレイヤー（探索の置換表を含む）は保持しないため、多数の対戦の棋譜を同時に保持できる。
+     * @param typeBlack 先手・黒のアルゴリズム
+     * @param typeWhite 後手・白のアルゴリズム
+     * @param timeLimit COM が1手あたりに思考する時間の上限（ミリ秒）。{@code 0} の場合は時間制限なし
+     * @param gameSeed 対戦のシード
+     * @return 対戦の棋譜
+     */
+    public static GameRecord playRecordedGame(AlgorithmType typeBlack, AlgorithmType typeWhite, int timeLimit,
+            long gameSeed) {
+        Player playerBlack = new Player(typeBlack.getName(), Disc.BLACK, typeBlack, timeLimit);
+        Player playerWhite = new Player(typeWhite.getName(), Disc.WHITE, typeWhite, timeLimit);
+        return playRecordedGame(playerBlack, playerWhite, gameSeed);
+    }
+
+    /**
+     * 指定したプレイヤーで1回の対戦を終局まで実行し、棋譜を取得する<br>
+     * 前の対戦で使用したプレイヤーの場合も、対戦の開始時に前の対戦の情報を初期化するため、新しく生成した場合と同じ結果となる。
+     * @param playerBlack 先手・黒のプレイヤー
+     * @param playerWhite 後手・白のプレイヤー
+     * @param gameSeed 対戦のシード
+     * @return 対戦の棋譜
+     */
+    private static GameRecord playRecordedGame(Player playerBlack, Player playerWhite, long gameSeed) {
+        // 対戦のシードから、プレイヤーごとの乱数を分割する
+        SplittableRandom gameRandom = new SplittableRandom(gameSeed);
+        playerBlack.setRandom(gameRandom.split());
+        playerWhite.setRandom(gameRandom.split());
+
+        Reversi reversi = new Reversi(playerBlack, playerWhite);
+        ReversiModel model = new ReversiModel(new ReversiData(reversi, playerBlack, playerWhite, false), false);
+
+        while (!model.isGameFinish()) {
+            model.run();
+        }
+        return model.exportForResult().getGameRecord();
+    }
+
+    /**
+     * 対戦に使用するプレイヤーを生成する
+     * @param type プレイヤーのアルゴリズム
+     * @param disc プレイヤーが使用する石
+     * @return 生成したプレイヤー
+     */
+    private Player createPlayer(AlgorithmType type, Disc disc) {
+        return new Player(type.getName(), disc, type, timeLimit);
+    }
+
+    /**
+     * 棋譜の最後の記録から、終局時の石数の差を求める
+     * @param record 対戦の棋譜
+     * @return 石数の差（黒の石数 - 白の石数）
+     */
+    private static int calcDiscMargin(GameRecord record) {
+        final int last = record.size() - 1;
+        return record.getBlackDiscNum(last) - record.getWhiteDiscNum(last);
+    }
+}
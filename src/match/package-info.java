@@ -0,0 +1,5 @@
+/**
+ * 画面の表示・入力を行わずに、COM 同士の対戦を繰り返し実行するパッケージ
+ * @author komoto
+ */
+package match;
@@ -23,6 +23,12 @@ public class PlayerSelectModel {
     /** 後手・白側の使用アルゴリズム */
     private AlgorithmType algorithmTypeWhite;
 
+    /** 先手・黒側の1手あたりの思考時間の上限（ミリ秒） */
+    private int timeLimitBlack;
+
+    /** 後手・白側の1手あたりの思考時間の上限（ミリ秒） */
+    private int timeLimitWhite;
+
     /** デバッグ情報を表示するか */
     private Boolean isDebug;
 
@@ -37,6 +43,8 @@ public class PlayerSelectModel {
         AlgorithmType[] algorithmTypes = AlgorithmType.values();
         algorithmTypeBlack = algorithmTypes[Global.DEFAULT_ALGORITHM];
         algorithmTypeWhite = algorithmTypes[Global.DEFAULT_ALGORITHM];
+        timeLimitBlack = Global.DEFAULT_TIME_LIMIT_MILLISEC;
+        timeLimitWhite = Global.DEFAULT_TIME_LIMIT_MILLISEC;
 
         isDebug = true;
     }
@@ -67,6 +75,19 @@ public class PlayerSelectModel {
         }
     }
 
+    /**
+     * プレイヤーの1手あたりの思考時間の上限を取得する
+     * @param isPlayerBlack 対象のプレイヤー (黒の場合は真 {@code true}, 白の場合は偽 {@code false})
+     * @return 思考時間の上限（ミリ秒）。{@code 0} の場合は時間制限なし
+     */
+    public int getTimeLimit(Boolean isPlayerBlack) {
+        if (isPlayerBlack) {
+            return timeLimitBlack;
+        } else {
+            return timeLimitWhite;
+        }
+    }
+
     /**
      * デバッグ情報の表示・非表示の値を取得する
      * @return デバッグ情報を表示する場合は真 {@code true}, 表示しない場合は偽 {@code false}
@@ -123,6 +144,31 @@ public class PlayerSelectModel {
         return true;
     }
 
+    /**
+     * プレイヤーの1手あたりの思考時間の上限を設定する。
+     * 引数 {@code timeLimit} が負の値の場合は設定変更せず、前の値かデフォルト値のままにする。
+     * @param playerDisc 対象のプレイヤーの石の色
+     * @param timeLimit 設定する思考時間の上限（ミリ秒）。{@code 0} の場合は時間制限なし
+     * @return 設定変更に成功した場合は真 {@code true}, 失敗した場合は偽 {@code false}
+     */
+    public Boolean setPlayerTimeLimit(Disc playerDisc, int timeLimit) {
+        if (timeLimit < 0) {
+            System.err.println("思考時間の上限が負の値のため、値は変更されませんでした: " + timeLimit);
+            System.err.printf("現在値: (%s) %d, (%s) %d\n",
+                    Disc.BLACK.getPrefixForPlayerName(), timeLimitBlack,
+                    Disc.WHITE.getPrefixForPlayerName(), timeLimitWhite);
+            return false;
+        }
+
+        if (playerDisc == Disc.BLACK) {
+            timeLimitBlack = timeLimit;
+        } else {
+            timeLimitWhite = timeLimit;
+        }
+
+        return true;
+    }
+
     /**
      * デバッグ情報の表示・非表示の値を設定する。
      * @param isDebug デバッグ情報の表示・非表示 (表示する場合は真 {@code true}, 表示しない場合は偽 {@code false})
@@ -136,8 +182,8 @@ public class PlayerSelectModel {
      * @return ゲーム画面処理の実行に必要なデータ
      */
     public ReversiData exportForReversi() {
-        Player playerBlack = new Player(nameBlack, Disc.BLACK, algorithmTypeBlack);
-        Player playerWhite = new Player(nameWhite, Disc.WHITE, algorithmTypeWhite);
+        Player playerBlack = new Player(nameBlack, Disc.BLACK, algorithmTypeBlack, timeLimitBlack);
+        Player playerWhite = new Player(nameWhite, Disc.WHITE, algorithmTypeWhite, timeLimitWhite);
         Reversi reversi = new Reversi(playerBlack, playerWhite);
 
         ReversiData data = new ReversiData(reversi, playerBlack, playerWhite, isDebug);
@@ -1,8 +1,14 @@
 package model;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import common.Convert;
 import common.Global;
 import gamerecord.GameRecord;
+import reversi.Board;
 import reversi.Dimension;
 import reversi.Disc;
 import reversi.Player;
@@ -14,6 +20,13 @@ import reversi.ResultType;
  */
 public class ReversiModel extends BaseModel {
 
+    /** COM の思考を画面処理と別のスレッドで実行するスレッドプール（アプリケーションの終了を妨げないようデーモンスレッドとする） */
+    private static final ExecutorService COM_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reversi-com");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /** ゲームのイベント状態を表す */
     private EventStatus eventStatus;
 
@@ -44,6 +57,12 @@ public class ReversiModel extends BaseModel {
     /** 棋譜の記録を行うインスタンス */
     private GameRecord gameRecord;
 
+    /** COM の思考を別のスレッドで実行するかを表すフラグ */
+    private Boolean isAsync;
+
+    /** 別のスレッドで実行中の COM の思考結果。思考中でない場合は {@code null} */
+    private Future<Dimension> comFuture;
+
     /**
      * リバーシゲーム実行のデータ処理を行うモデル
      * @param data ゲーム実行に必要なデータ
@@ -61,6 +80,12 @@ public class ReversiModel extends BaseModel {
         this.statusString = null;
         this.debugString = "デバッグ情報は特にありません";
         this.gameRecord = new GameRecord();
+        this.isAsync = false;
+        this.comFuture = null;
+
+        // COM のアルゴリズムに対局の開始を通知する
+        playerBlack.newGame();
+        playerWhite.newGame();
 
         if (isGui) {
             setWaitTime(Global.WAIT_MILLISEC_START);
@@ -72,6 +97,24 @@ public class ReversiModel extends BaseModel {
         }
     }
 
+    /**
+     * COM の思考を別のスレッドで実行するかを設定する<br>
+     * 有効な場合、{@link #run()} は COM の思考の完了を待たずに戻り、思考の完了後の {@code run()} で石を置く。
+     * 画面描画と同じスレッドで {@code run()} を呼ぶ GUI で、思考中も画面描画・操作を止めないために使用する。
+     * @param isAsync 別のスレッドで実行する場合は真 {@code true}, {@code run()} 内で思考を完了させる場合は偽 {@code false}
+     */
+    public void setAsync(Boolean isAsync) {
+        this.isAsync = isAsync;
+    }
+
+    /**
+     * COM が別のスレッドで思考中かを表す
+     * @return 思考中の場合は真 {@code true}, 思考中でない場合は偽 {@code false} を返す
+     */
+    public Boolean isComThinking() {
+        return comFuture != null;
+    }
+
     /**
      * デバッグ情報を表示するかを表す
      * @return 表示する場合は真 {@code true}, 表示しない場合は偽 {@code false} を返す
@@ -187,8 +230,12 @@ public class ReversiModel extends BaseModel {
         }
         case PLAY_COM: {
             // アルゴリズムに従い処理を行う
-            Dimension target = currentPlayer.run(board);
-            put(target);
+            if (isAsync) {
+                runComAsync(currentPlayer);
+            } else {
+                Dimension target = currentPlayer.run(board);
+                put(target);
+            }
             break;
         }
         case SKIP: {
@@ -198,6 +245,7 @@ public class ReversiModel extends BaseModel {
             statusString = currentPlayer.getUseDisc().getPrefixForPlayerName() + " はスキップします。";
 
             reversi.increaseSkipCount();
+            reversi.getNextPlayer().notifyOpponentMove(null);
             eventStatus.set(EventStatusValue.JUDGE);
             break;
         }
@@ -217,6 +265,46 @@ public class ReversiModel extends BaseModel {
         }
     }
 
+    /**
+     * COM の思考を別のスレッドで実行し、思考が完了していれば石を置く<br>
+     * 思考中は何もせずに戻るため、思考の完了まで毎フレーム呼び出す。
+     * @param currentPlayer 現在のプレイヤー
+     */
+    private void runComAsync(Player currentPlayer) {
+        // 思考を開始する
+        if (comFuture == null) {
+            // 思考中も画面描画でリバーシ盤を参照するため、複製したリバーシ盤で思考する
+            final Board snapshot;
+            try {
+                snapshot = board.clone();
+            } catch (CloneNotSupportedException e) {
+                e.printStackTrace();
+                System.err.println("リバーシ盤の複製に失敗したため、COM の思考を画面処理と同じスレッドで実行します");
+                put(currentPlayer.run(board));
+                return;
+            }
+
+            comFuture = COM_EXECUTOR.submit(() -> currentPlayer.run(snapshot));
+            debugString = currentPlayer.getUseDisc().getPrefixForPlayerName() + " が思考中です";
+            return;
+        }
+
+        // 思考中の場合は、次のフレームで再度確認する
+        if (!comFuture.isDone()) {
+            return;
+        }
+
+        Dimension target = null;
+        try {
+            target = comFuture.get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            System.err.println("COM の思考に失敗したため、石を置く座標を NULL とします");
+        }
+        comFuture = null;
+        put(target);
+    }
+
     /**
      * 石の設置を行う
      * @param target プレイヤーが石を置く座標
@@ -246,6 +334,9 @@ public class ReversiModel extends BaseModel {
             gameRecord.add(reversi.getTurnCount(), currentPlayer, board.getDiscNum(Disc.BLACK),
                     board.getDiscNum(Disc.WHITE), target.getString());
 
+            // 相手の COM のアルゴリズムに石を置いた座標を通知する
+            reversi.getNextPlayer().notifyOpponentMove(target);
+
             // 表示文字列、イベントステータスなど値の更新
             latestTarget = target;
             statusString = String.format("%s は %s に石を置きました。", currentPlayer.getUseDisc().getPrefixForPlayerName(),
@@ -271,6 +362,10 @@ public class ReversiModel extends BaseModel {
             eventStatus.set(EventStatusValue.PLAY);
         } else {
             eventStatus.set(EventStatusValue.FINISH);
+
+            // COM のアルゴリズムに対局の終了を通知する
+            playerBlack.gameOver();
+            playerWhite.gameOver();
         }
         setWaitTime(waitInterval);
     }
@@ -0,0 +1,282 @@
+package reversi;
+
+/**
+ * ビットボード（64bit の {@code long}）によるリバーシ盤の演算を定義するクラス<br>
+ * マス {@code (行, 列)} はビット位置 {@code 行 * 8 + 列} に対応する。（a1 が最下位ビット、h8 が最上位ビット）
+ * @author komoto
+ */
+public class BitBoard {
+
+    /** ビットボードで扱えるリバーシ盤の幅・高さの最大値（マス） */
+    public static final int MAX_SIZE = 8;
+
+    /** ビットボードの全マスの数 */
+    public static final int CELL_NUM = MAX_SIZE * MAX_SIZE;
+
+    /** a列（左端の列）を除いたマスを表すマスク */
+    private static final long NOT_A_FILE = 0xfefefefefefefefeL;
+
+    /** h列（右端の列）を除いたマスを表すマスク */
+    private static final long NOT_H_FILE = 0x7f7f7f7f7f7f7f7fL;
+
+    /** 方向の数 */
+    public static final int DIRECTION_NUM = 8;
+
+    /** 各方向に1マス進む時のシフト量 (上, 下, 左, 右, 左上, 右上, 左下, 右下) */
+    private static final int[] SHIFTS = { -8, 8, -1, 1, -9, -7, 7, 9 };
+
+    /** 各方向の反対の方向の番号 */
+    private static final int[] OPPOSITES = { 1, 0, 3, 2, 7, 6, 5, 4 };
+
+    /** 各方向にシフトした後に適用するマスク（盤の端で反対側の列に回り込むビットを除外する） */
+    private static final long[] SHIFT_MASKS = { -1L, -1L, NOT_H_FILE, NOT_A_FILE, NOT_H_FILE, NOT_A_FILE, NOT_H_FILE,
+            NOT_A_FILE };
+
+    /**
+     * インスタンス化は想定しない
+     */
+    private BitBoard() {
+    }
+
+    /**
+     * 行・列の値からビット位置を求める
+     * @param row 行の値
+     * @param column 列の値
+     * @return ビット位置 ({@code 0}～{@code 63})
+     */
+    public static int toIndex(int row, int column) {
+        return row * MAX_SIZE + column;
+    }
+
+    /**
+     * ビット位置から行の値を求める
+     * @param index ビット位置
+     * @return 行の値
+     */
+    public static int toRow(int index) {
+        return index / MAX_SIZE;
+    }
+
+    /**
+     * ビット位置から列の値を求める
+     * @param index ビット位置
+     * @return 列の値
+     */
+    public static int toColumn(int index) {
+        return index % MAX_SIZE;
+    }
+
+    /**
+     * ビット位置から座標を求める
+     * @param index ビット位置
+     * @return 座標
+     */
+    public static Dimension toDimension(int index) {
+        return new Dimension(toRow(index), toColumn(index));
+    }
+
+    /**
+     * 指定したサイズのリバーシ盤の範囲内にあるマスを表すマスクを求める
+     * @param boardWidth リバーシ盤の幅（マス）
+     * @param boardHeight リバーシ盤の高さ（マス）
+     * @return リバーシ盤の範囲内のマスのビットが立ったマスク
+     */
+    public static long calcBoardMask(int boardWidth, int boardHeight) {
+        long mask = 0L;
+        for (int i = 0; i < boardHeight; i++) {
+            for (int j = 0; j < boardWidth; j++) {
+                mask |= 1L << toIndex(i, j);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 指定したマスのいずれかに隣接する（8方向）マスを求める
+     * @param bits 対象のビットボード
+     * @return 隣接するマスのビットが立ったビットボード（対象のマス自身を含む場合がある）
+     */
+    public static long calcNeighbors(long bits) {
+        final long horizontal = bits | ((bits << 1) & NOT_A_FILE) | ((bits >>> 1) & NOT_H_FILE);
+        return ((bits << 1) & NOT_A_FILE) | ((bits >>> 1) & NOT_H_FILE) | (horizontal << 8) | (horizontal >>> 8);
+    }
+
+    /**
+     * プレイヤーの確定石（以降どのように石を置いても反転しない石）を求める<br>
+     * 縦・横・斜めの4つの軸の全てで、次のいずれかを満たす石を確定石とする。
+     * <ul>
+     * <li>軸上の列（盤の端から端まで）が全て埋まっている</li>
+     * <li>軸上の両隣のいずれかが、盤の外または確定石である</li>
+     * </ul>
+     * 確定石が増えなくなるまで判定を繰り返す。判定は軸ごとのビット演算で行い、マスごとの走査は行わない。
+     * 実際の確定石の一部を見落とす場合はあるが、確定石でない石を含むことはない。
+     * @param player 対象のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param mask 盤の範囲内のマスを表すビットボード
+     * @return 確定石のビットが立ったビットボード
+     */
+    public static long calcStable(long player, long opponent, long mask) {
+        // 盤の外のマスは埋まっているものとして、軸（縦・横・斜め2方向）ごとに列が全て埋まっているマスを求める
+        final long filled = player | opponent | ~mask;
+        final long verticalFull = calcFilledRay(filled, 0) & calcFilledRay(filled, 1);
+        final long horizontalFull = calcFilledRay(filled, 2) & calcFilledRay(filled, 3);
+        final long diagonalFull = calcFilledRay(filled, 4) & calcFilledRay(filled, 7);
+        final long antiDiagonalFull = calcFilledRay(filled, 5) & calcFilledRay(filled, 6);
+
+        long stable = 0L;
+        long prev;
+        do {
+            prev = stable;
+            // 軸上の両隣が、どちらも盤の範囲内の確定石でないマスである石を除く
+            final long open = mask & ~stable;
+            stable = player
+                    & (verticalFull | ~shift(open, 0) | ~shift(open, 1))
+                    & (horizontalFull | ~shift(open, 2) | ~shift(open, 3))
+                    & (diagonalFull | ~shift(open, 4) | ~shift(open, 7))
+                    & (antiDiagonalFull | ~shift(open, 5) | ~shift(open, 6));
+        } while (stable != prev);
+        return stable;
+    }
+
+    /**
+     * 指定した方向の盤の端まで、埋まっているマスが連続しているマスを求める
+     * @param filled 埋まっているマスのビットボード
+     * @param direction 方向の番号 ({@code 0}～{@code 7})
+     * @return 自身と指定した方向の全てのマスが埋まっているマスのビットボード
+     */
+    private static long calcFilledRay(long filled, int direction) {
+        // 1, 2, 4 マス先までの連続を倍々に確認する（盤の外に出るマスは埋まっているものとする）
+        final int opposite = OPPOSITES[direction];
+        long ray = filled & ~shift(~filled, opposite);
+        ray &= ~shift(shift(~ray, opposite), opposite);
+        long gap = ~ray;
+        for (int i = 0; i < 4; i++) {
+            gap = shift(gap, opposite);
+        }
+        return ray & ~gap;
+    }
+
+    /**
+     * ビットボードを指定した方向に1マス分シフトする
+     * @param bits 対象のビットボード
+     * @param direction 方向の番号 ({@code 0}～{@code 7})
+     * @return シフトしたビットボード
+     */
+    static long shift(long bits, int direction) {
+        final int shift = SHIFTS[direction];
+        if (shift > 0) {
+            return (bits << shift) & SHIFT_MASKS[direction];
+        } else {
+            return (bits >>> -shift) & SHIFT_MASKS[direction];
+        }
+    }
+
+    /**
+     * ビットボードを指定したビット数だけシフトする（正の値は上位方向、負の値は下位方向）
+     * @param bits 対象のビットボード
+     * @param shift シフト量
+     * @return シフトしたビットボード
+     */
+    private static long shiftRaw(long bits, int shift) {
+        if (shift > 0) {
+            return bits << shift;
+        } else {
+            return bits >>> -shift;
+        }
+    }
+
+    /**
+     * プレイヤーが石を置けるマス（合法手）を全て求める<br>
+     * 方向ごとに Kogge-Stone 法（並列プレフィックス）で自分の石から相手の石が連続する範囲を求め、
+     * その先の空きマスを合法手とする。盤面の状態に関わらず一定回数のビット演算で求まる。
+     * @param player 石を置くプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return 石を置けるマスのビットが立ったビットボード（盤の範囲外のマスを含む場合があるため、呼び出し元でマスクすること）
+     */
+    public static long calcMobility(long player, long opponent) {
+        final long empty = ~(player | opponent);
+        long mobility = 0L;
+
+        for (int d = 0; d < DIRECTION_NUM; d++) {
+            final int s = SHIFTS[d];
+
+            // 自分の石から、相手の石が連続する範囲まで伸ばす（1, 2, 4 マスずつ倍々に伸ばす）
+            long pro = opponent & SHIFT_MASKS[d];
+            long gen = player;
+            gen |= pro & shiftRaw(gen, s);
+            pro &= shiftRaw(pro, s);
+            gen |= pro & shiftRaw(gen, 2 * s);
+            pro &= shiftRaw(pro, 2 * s);
+            gen |= pro & shiftRaw(gen, 4 * s);
+
+            // 相手の石の連続の1マス先が空きマスであれば石を置ける
+            mobility |= shift(gen & opponent, d) & empty;
+        }
+
+        return mobility;
+    }
+
+    /**
+     * 対象のマスに石を置いた時に反転する石を求める<br>
+     * 対象のマスが空であるかは判定しないため、呼び出し元で確認すること。
+     * @param player 石を置くプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param index 石を置くマスのビット位置
+     * @return 反転する石のビットが立ったビットボード。反転できる石がない場合は {@code 0}
+     */
+    public static long calcFlip(long player, long opponent, int index) {
+        final long move = 1L << index;
+        long flip = 0L;
+
+        for (int d = 0; d < DIRECTION_NUM; d++) {
+            // 相手の石が続く間は反転候補とし、その先に自分の石があれば反転対象として確定する
+            long line = 0L;
+            long x = shift(move, d);
+            while ((x & opponent) != 0) {
+                line |= x;
+                x = shift(x, d);
+            }
+            if ((x & player) != 0) {
+                flip |= line;
+            }
+        }
+
+        return flip;
+    }
+
+    /**
+     * リバーシ盤を上下に反転する（行 {@code r} を行 {@code 7 - r} に移す）
+     * @param bits ビットボード
+     * @return 上下に反転したビットボード
+     */
+    public static long flipVertical(long bits) {
+        return Long.reverseBytes(bits);
+    }
+
+    /**
+     * リバーシ盤を左右に反転する（列 {@code c} を列 {@code 7 - c} に移す）
+     * @param bits ビットボード
+     * @return 左右に反転したビットボード
+     */
+    public static long flipHorizontal(long bits) {
+        bits = ((bits >>> 1) & 0x5555555555555555L) | ((bits & 0x5555555555555555L) << 1);
+        bits = ((bits >>> 2) & 0x3333333333333333L) | ((bits & 0x3333333333333333L) << 2);
+        bits = ((bits >>> 4) & 0x0f0f0f0f0f0f0f0fL) | ((bits & 0x0f0f0f0f0f0f0f0fL) << 4);
+        return bits;
+    }
+
+    /**
+     * リバーシ盤を a1-h8 の対角線で反転する（マス {@code (行, 列)} をマス {@code (列, 行)} に移す）
+     * @param bits ビットボード
+     * @return 行と列を入れ替えたビットボード
+     */
+    public static long transpose(long bits) {
+        long t = 0x0f0f0f0f00000000L & (bits ^ (bits << 28));
+        bits ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (bits ^ (bits << 14));
+        bits ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (bits ^ (bits << 7));
+        bits ^= t ^ (t >>> 7);
+        return bits;
+    }
+}
@@ -1,28 +1,97 @@
 package reversi;
 
+import java.util.Arrays;
+import java.util.Random;
+
 /**
- * リバーシ盤の定義・処理をするクラス
+ * リバーシ盤の定義・処理をするクラス<br>
+ * 盤面の状態は黒石・白石それぞれの配置をビットボード（{@link BitBoard}）で保持する。
+ * そのため、リバーシ盤の幅・高さは {@link BitBoard#MAX_SIZE} マス以下である必要がある。<br>
+ * また、石の配置を識別する64bitのハッシュ値（Zobrist ハッシュ）を保持し、石を置く・取り消す度に差分で更新する。<br>
+ * パターンの番号の保持（{@link #enablePatternIndexes()}）を有効にした場合は、評価関数が参照する
+ * 全てのパターン（{@link PatternLayout}）の番号も同様に差分で更新する。評価の度に盤面全体からパターンの番号を求める必要がなくなる。
  * @author komoto
  */
 public class Board implements Cloneable {
 
-    /** リバーシ盤の状態を表す。マスに石が置かれていない時は {@code NULL} で表す。 */
-    private Disc[][] board;
+    /** Zobrist ハッシュの乱数表を生成する際のシード（実行ごとに同じハッシュ値となるよう固定する） */
+    private static final long ZOBRIST_SEED = 0x2545f4914f6cdd1dL;
+
+    /** 各マスに黒石があることを表す乱数 */
+    private static final long[] ZOBRIST_BLACK = new long[BitBoard.CELL_NUM];
+
+    /** 各マスに白石があることを表す乱数 */
+    private static final long[] ZOBRIST_WHITE = new long[BitBoard.CELL_NUM];
+
+    /** 各マスの石を反転させた時にハッシュ値に排他的論理和をとる値（黒石と白石の乱数の排他的論理和） */
+    private static final long[] ZOBRIST_FLIP = new long[BitBoard.CELL_NUM];
+
+    static {
+        Random random = new Random(ZOBRIST_SEED);
+        for (int i = 0; i < BitBoard.CELL_NUM; i++) {
+            ZOBRIST_BLACK[i] = random.nextLong();
+            ZOBRIST_WHITE[i] = random.nextLong();
+            ZOBRIST_FLIP[i] = ZOBRIST_BLACK[i] ^ ZOBRIST_WHITE[i];
+        }
+    }
+
+    /** 各マスが含まれるパターンの、{@link #PATTERN_INSTANCES}・{@link #PATTERN_POWERS} での開始位置（マスのビット位置を要素番号とする） */
+    private static final int[] PATTERN_OFFSETS = new int[BitBoard.CELL_NUM + 1];
+
+    /** マスが含まれるパターンの番号（{@link PatternLayout#calcIndexes(long, long, int[])} の順番） */
+    private static final int[] PATTERN_INSTANCES;
+
+    /** パターン内でのマスの桁の値（{@code 3^パターン内のマスの番号}） */
+    private static final int[] PATTERN_POWERS;
+
+    static {
+        // 1つのマスのみに石がある盤面のパターンの番号から、マスが含まれるパターンと桁を求める
+        final int[] indexes = new int[PatternLayout.INSTANCE_NUM];
+        final int[] instances = new int[BitBoard.CELL_NUM * PatternLayout.INSTANCE_NUM];
+        final int[] powers = new int[instances.length];
+        int count = 0;
+        for (int i = 0; i < BitBoard.CELL_NUM; i++) {
+            PATTERN_OFFSETS[i] = count;
+            PatternLayout.calcIndexes(1L << i, 0L, indexes);
+            for (int instance = 0; instance < PatternLayout.INSTANCE_NUM; instance++) {
+                if (indexes[instance] != 0) {
+                    instances[count] = instance;
+                    powers[count] = indexes[instance];
+                    count++;
+                }
+            }
+        }
+        PATTERN_OFFSETS[BitBoard.CELL_NUM] = count;
+        PATTERN_INSTANCES = Arrays.copyOf(instances, count);
+        PATTERN_POWERS = Arrays.copyOf(powers, count);
+    }
+
+    /** 黒石の配置を表すビットボード */
+    private long blackBits;
+
+    /** 白石の配置を表すビットボード */
+    private long whiteBits;
+
+    /** リバーシ盤の範囲内にあるマスを表すビットマスク */
+    private long boardMask;
 
     /** リバーシ盤のサイズ（マス） */
     private Dimension boardSize;
 
-    /** 現在の黒石の数 */
-    private int blackDiscNum;
+    /** 石の配置を表すハッシュ値（Zobrist ハッシュ） */
+    private long hashKey;
 
-    /** 現在の白石の数 */
-    private int whiteDiscNum;
+    /**
+     * 全てのパターンの番号。{@code [0, INSTANCE_NUM)} は黒石、{@code [INSTANCE_NUM, 2 * INSTANCE_NUM)} は白石を
+     * 手番のプレイヤーとした番号とする。パターンの番号の保持が無効の場合は {@code null}
+     */
+    private int[] patternIndexes;
 
     /**
      * リバーシ盤の初期化を行う
      * @param boardWidth リバーシ盤の幅（マス）
      * @param boardHeight リバーシ盤の高さ（マス）
-     * @throws IllegalArgumentException いずれかの引数が {@code 0} 以下の場合、エラーとする。
+     * @throws IllegalArgumentException いずれかの引数が {@code 0} 以下、または {@link BitBoard#MAX_SIZE} より大きい場合、エラーとする。
      */
     public Board(int boardWidth, int boardHeight) throws IllegalArgumentException {
         // 引数の正常性確認
@@ -32,12 +101,20 @@ public class Board implements Cloneable {
         if (boardHeight <= 0) {
             throw new IllegalArgumentException("リバーシ盤の高さの値は0より大きい値を指定してください: " + boardHeight);
         }
+        if (boardWidth > BitBoard.MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("リバーシ盤の幅の値は%d以下の値を指定してください: %d", BitBoard.MAX_SIZE, boardWidth));
+        }
+        if (boardHeight > BitBoard.MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("リバーシ盤の高さの値は%d以下の値を指定してください: %d", BitBoard.MAX_SIZE, boardHeight));
+        }
 
         // フィールドの初期化
-        this.board = new Disc[boardHeight][boardWidth];
         this.boardSize = new Dimension(boardHeight, boardWidth);
-        this.blackDiscNum = 0;
-        this.whiteDiscNum = 0;
+        this.boardMask = BitBoard.calcBoardMask(boardWidth, boardHeight);
+        this.blackBits = 0L;
+        this.whiteBits = 0L;
 
         // リバーシ盤の生成・初期化
         for (int i = 0; i < boardHeight; i++) {
@@ -45,17 +122,14 @@ public class Board implements Cloneable {
                 // 盤の中心に初期の石を設置する
                 if ((i == boardHeight / 2 - 1 && j == boardHeight / 2 - 1)
                         || (i == boardWidth / 2 && j == boardWidth / 2)) {
-                    board[i][j] = Disc.WHITE;
-                    whiteDiscNum++;
+                    whiteBits |= 1L << BitBoard.toIndex(i, j);
                 } else if ((i == boardHeight / 2 - 1 && j == boardWidth / 2)
                         || (i == boardHeight / 2 && j == boardWidth / 2 - 1)) {
-                    board[i][j] = Disc.BLACK;
-                    blackDiscNum++;
-                } else {
-                    board[i][j] = null;
+                    blackBits |= 1L << BitBoard.toIndex(i, j);
                 }
             }
         }
+        this.hashKey = calcHashKey(blackBits, whiteBits);
     }
 
     /**
@@ -63,18 +137,48 @@ public class Board implements Cloneable {
      */
     @Override
     public Board clone() throws CloneNotSupportedException {
+        // ビットボード・ハッシュ値はプリミティブ値のため、フィールドのコピーのみで複製できる
         Board cloneBoard = (Board) super.clone();
         cloneBoard.boardSize = boardSize.clone();
-
-        // 二次元配列 board[][] の複製
-        cloneBoard.board = board.clone();
-        for (int i = 0; i < boardSize.getRow(); i++) {
-            cloneBoard.board[i] = board[i].clone();
+        if (patternIndexes != null) {
+            cloneBoard.patternIndexes = patternIndexes.clone();
         }
 
         return cloneBoard;
     }
 
+    /**
+     * 石の配置が同じであるかを判定する
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Board)) {
+            return false;
+        }
+        Board other = (Board) obj;
+        return blackBits == other.blackBits && whiteBits == other.whiteBits && boardMask == other.boardMask;
+    }
+
+    /**
+     * 石の配置から算出したハッシュ値を返す
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hashKey);
+    }
+
+    /**
+     * 石の配置を表す64bitのハッシュ値（Zobrist ハッシュ）を取得する<br>
+     * 石の配置が同じであれば、石を置いた順序に関わらず同じ値となる。手番は含まないため、必要な場合は呼び出し元で区別すること。
+     * @return ハッシュ値
+     */
+    public long getHashKey() {
+        return hashKey;
+    }
+
     /**
      * リバーシ盤のサイズを取得する
      * @return リバーシ盤のサイズ
@@ -99,11 +203,7 @@ public class Board implements Cloneable {
             return 0;
         }
 
-        if (playerDisc == Disc.BLACK) {
-            return blackDiscNum;
-        } else {
-            return whiteDiscNum;
-        }
+        return Long.bitCount(getBits(playerDisc));
     }
 
     /**
@@ -111,7 +211,7 @@ public class Board implements Cloneable {
      * @return 石が置かれていない場所の数
      */
     public int getEmptyDiscNum() {
-        return boardSize.getRow() * boardSize.getColumn() - blackDiscNum - whiteDiscNum;
+        return Long.bitCount(boardMask & ~(blackBits | whiteBits));
     }
 
     /**
@@ -120,11 +220,7 @@ public class Board implements Cloneable {
      * @return 黒であれば真 {@code true}、それ以外（白、空）であれば偽 {@code false}
      */
     public Boolean isDiscBlack(Dimension target) {
-        if (board[target.getRow()][target.getColumn()] == Disc.BLACK) {
-            return true;
-        } else {
-            return false;
-        }
+        return (blackBits & (1L << toIndex(target))) != 0;
     }
 
     /**
@@ -133,11 +229,7 @@ public class Board implements Cloneable {
      * @return 白であれば真 {@code true}、それ以外（黒、空）であれば偽 {@code false}
      */
     public Boolean isDiscWhite(Dimension target) {
-        if (board[target.getRow()][target.getColumn()] == Disc.WHITE) {
-            return true;
-        } else {
-            return false;
-        }
+        return (whiteBits & (1L << toIndex(target))) != 0;
     }
 
     /**
@@ -146,53 +238,17 @@ public class Board implements Cloneable {
      * @return 空である場合は真 {@code true}、空でない場合は偽 {@code false}
      */
     public Boolean isDiscEmpty(Dimension target) {
-        if (board[target.getRow()][target.getColumn()] == null) {
-            return true;
-        } else {
-            return false;
-        }
+        return ((blackBits | whiteBits) & (1L << toIndex(target))) == 0;
     }
 
     /**
-     * 対象の座標に石を置けるか判定する<br>
-     * 対称座標を中心として全方向に対して順次探索を行いますが、１方向でも設置可能と判明した場合は即座に {@code true} を返します。
-     * 未探索の方向は探索しません。
+     * 対象の座標に石を置けるか判定する
      * @param target 石を置く座標
      * @param playerDisc プレイヤーが使用する石
      * @return 設置できる場合は真 {@code true}、石を設置できない場合は偽 {@code false}
      */
     public Boolean canPut(Dimension target, Disc playerDisc) {
-        // マスに石が既に置かれていない確認する
-        if (isDiscEmpty(target) == false) {
-            return false;
-        }
-
-        // 反転できる石があるか
-        if (countReversibleDiscUp(target, playerDisc) > 0) {
-            return true;
-        }
-        if (countReversibleDiscDown(target, playerDisc) > 0) {
-            return true;
-        }
-        if (countReversibleDiscLeft(target, playerDisc) > 0) {
-            return true;
-        }
-        if (countReversibleDiscRight(target, playerDisc) > 0) {
-            return true;
-        }
-        if (countReversibleDiscLeftUp(target, playerDisc) > 0) {
-            return true;
-        }
-        if (countReversibleDiscRightUp(target, playerDisc) > 0) {
-            return true;
-        }
-        if (countReversibleDiscLeftDown(target, playerDisc) > 0) {
-            return true;
-        }
-        if (countReversibleDiscRightDown(target, playerDisc) > 0) {
-            return true;
-        }
-        return false;
+        return calcFlip(toIndex(target), playerDisc) != 0;
     }
 
     /**
@@ -201,503 +257,298 @@ public class Board implements Cloneable {
      * @return 反転可能な石が存在する場合は {@code true}, 存在しない場合は {@code false}
      */
     public Boolean canPutAll(Disc playerDisc) {
-        for (int i = 0; i < boardSize.getRow(); i++) {
-            for (int j = 0; j < boardSize.getColumn(); j++) {
-                if (canPut(new Dimension(i, j), playerDisc)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return getMovableBits(playerDisc) != 0;
     }
 
     /**
-     * 対象の座標に石を置いた時、反転する石の個数を返す<br>
-     * 対称座標を中心として全方向に対して順次探索を行い、全ての方向の探索が完了するまで処理を続けます。
-     * 個数に関わらず１個以上の石を反転できるかの判定については、処理時間の観点で {@code canPut()} を使用してください。
-     * @param target 石を置く座標
+     * プレイヤーが石を置ける全てのマスを、ビットボードとして一度に取得する<br>
+     * ビット位置は {@link BitBoard#toIndex(int, int)} に従う。
+     * 下位ビットから順に取り出すと、行・列の昇順（{@code i} → {@code j} の二重ループと同じ順序）になる。
      * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の数
+     * @return 石を置けるマスのビットが立ったビットボード。置けるマスがない場合は {@code 0}
      */
-    public int countReversibleDisc(Dimension target, Disc playerDisc) {
-        // マスに石が既に置かれていない確認する
-        if (isDiscEmpty(target) == false) {
-            return 0;
-        }
-
-        // 反転できる石があるか
-        int reuslt = 0;
-        reuslt += countReversibleDiscUp(target, playerDisc);
-        reuslt += countReversibleDiscDown(target, playerDisc);
-        reuslt += countReversibleDiscLeft(target, playerDisc);
-        reuslt += countReversibleDiscRight(target, playerDisc);
-        reuslt += countReversibleDiscLeftUp(target, playerDisc);
-        reuslt += countReversibleDiscRightUp(target, playerDisc);
-        reuslt += countReversibleDiscLeftDown(target, playerDisc);
-        reuslt += countReversibleDiscRightDown(target, playerDisc);
-
-        return reuslt;
+    public long getMovableBits(Disc playerDisc) {
+        return BitBoard.calcMobility(getBits(playerDisc), getBits(playerDisc.next())) & boardMask;
     }
 
     /**
-     * 置いた石の上方向に対して、反転可能な石が何個あるか調べる
-     * @param target プレイヤーが置く石の座標
+     * 対象の座標に石を置いた時、反転する石の個数を返す
+     * @param target 石を置く座標
      * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の個数
+     * @return 反転可能な石の数
      */
-    private int countReversibleDiscUp(Dimension target, Disc playerDisc) {
-        int reversibleDisc = 0;
-        int column = target.getColumn();
-
-        for (int i = target.getRow() - 1; i >= 0 && i < boardSize.getRow(); i--) {
-            if (board[i][column] == null) {
-                // 空きマスの場合は自分の石で挟めておらず反転できないので、0を返す。
-                return 0;
-            }
-
-            if (board[i][column] != playerDisc) {
-                // 色違いで反転可能な石である場合は、反転対象としてカウントする
-                reversibleDisc++;
-            } else {
-                // 自分の石があった場合、これまでにカウントした反転対象の石の個数を返す。
-                return reversibleDisc;
-            }
-        }
-        // リバーシ盤の端に到達した場合は自分の石で挟めておらず反転できないので、0を返す。
-        return 0;
+    public int countReversibleDisc(Dimension target, Disc playerDisc) {
+        return Long.bitCount(calcFlip(toIndex(target), playerDisc));
     }
 
     /**
-     * 置いた石の下方向に対して、反転可能な石が何個あるか調べる
-     * @param target プレイヤーが置く石の座標
+     * 石を置き、状態を更新する
+     * @param target 石を置く座標
      * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の個数
+     * @return 石を設置できる場合は真 {@code true}、設置できない場合は偽 {@code false} を返す。
+     * @throws IllegalArgumentException 引数 {@code target, isBlack} のいずれかが {@code NULL} の場合、エラーを返す。
      */
-    private int countReversibleDiscDown(Dimension target, Disc playerDisc) {
-        int reversibleDisc = 0;
-        int column = target.getColumn();
-
-        for (int i = target.getRow() + 1; i >= 0 && i < boardSize.getRow(); i++) {
-            if (board[i][column] == null) {
-                return 0;
-            }
-
-            if (board[i][column] != playerDisc) {
-                reversibleDisc++;
-            } else {
-                return reversibleDisc;
-            }
+    public Boolean put(Dimension target, Disc playerDisc) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (target == null) {
+            throw new IllegalArgumentException("引数 \"target\" が NULL です。");
+        }
+        if (playerDisc == null) {
+            throw new IllegalArgumentException("引数 \"playerDisc\" が NULL です。");
         }
-        return 0;
-    }
-
-    /**
-     * 置いた石の左方向に対して、反転可能な石が何個あるか調べる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の個数
-     */
-    private int countReversibleDiscLeft(Dimension target, Disc playerDisc) {
-        int reversibleDisc = 0;
-        int row = target.getRow();
-
-        for (int j = target.getColumn() - 1; j >= 0 && j < boardSize.getColumn(); j--) {
-            if (board[row][j] == null) {
-                return 0;
-            }
 
-            if (board[row][j] != playerDisc) {
-                reversibleDisc++;
-            } else {
-                return reversibleDisc;
-            }
+        // 反転できる石が1つもないのはルール上石を置くことができないため、石を置く処理を行わず終了する。
+        if (doMove(toIndex(target), playerDisc) == 0) {
+            return false;
         }
-        return 0;
+
+        return true;
     }
 
     /**
-     * 置いた石の右方向に対して、反転可能な石が何個あるか調べる
-     * @param target プレイヤーが置く石の座標
+     * 石を置き、状態を更新する（探索向けの処理）<br>
+     * 戻り値を取り消し用のトークンとして {@link #undoMove(int, Disc, long)} に渡すと、石を置く前の状態に戻せる。
+     * インスタンスの生成を行わないため、探索中に盤面を複製せずに1つのリバーシ盤を使い回すことができる。
+     * @param index 石を置くマスのビット位置 ({@link BitBoard#toIndex(int, int)})
      * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の個数
+     * @return 反転させた石のビットボード（取り消し用のトークン）。石を置けない場合は {@code 0} で、状態は更新しない。
      */
-    private int countReversibleDiscRight(Dimension target, Disc playerDisc) {
-        int reversibleDisc = 0;
-        int row = target.getRow();
+    public long doMove(int index, Disc playerDisc) {
+        final long move = 1L << index;
+        if ((boardMask & move) == 0) {
+            return 0L;
+        }
 
-        for (int j = target.getColumn() + 1; j >= 0 && j < boardSize.getColumn(); j++) {
-            if (board[row][j] == null) {
-                return 0;
-            }
+        final long flip = calcFlip(index, playerDisc);
+        if (flip == 0) {
+            return 0L;
+        }
 
-            if (board[row][j] != playerDisc) {
-                reversibleDisc++;
-            } else {
-                return reversibleDisc;
-            }
+        // 指定された座標にプレイヤーの石を設定し、挟んだ石を反転させる
+        if (playerDisc == Disc.BLACK) {
+            blackBits |= move | flip;
+            whiteBits &= ~flip;
+            hashKey ^= ZOBRIST_BLACK[index];
+        } else {
+            whiteBits |= move | flip;
+            blackBits &= ~flip;
+            hashKey ^= ZOBRIST_WHITE[index];
+        }
+        hashKey ^= calcFlipHashKey(flip);
+        if (patternIndexes != null) {
+            updatePatternIndexes(index, playerDisc, flip, 1);
         }
-        return 0;
+
+        return flip;
     }
 
     /**
-     * 置いた石の左上方向に対して、反転可能な石が何個あるか調べる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の個数
+     * {@link #doMove(int, Disc)} で置いた石を取り除き、石を置く前の状態に戻す
+     * @param index {@code doMove()} で石を置いたマスのビット位置
+     * @param playerDisc {@code doMove()} で石を置いたプレイヤーの石
+     * @param flip {@code doMove()} の戻り値（取り消し用のトークン）
      */
-    private int countReversibleDiscLeftUp(Dimension target, Disc playerDisc) {
-        int reversibleDisc = 0;
-
-        for (int i = target.getRow() - 1, j = target.getColumn() - 1; i >= 0 && j >= 0 && i < boardSize.getRow()
-                && j < boardSize.getColumn(); i--, j--) {
-            if (board[i][j] == null) {
-                return 0;
-            }
+    public void undoMove(int index, Disc playerDisc, long flip) {
+        final long move = 1L << index;
 
-            if (board[i][j] != playerDisc) {
-                reversibleDisc++;
-            } else {
-                return reversibleDisc;
-            }
+        if (playerDisc == Disc.BLACK) {
+            blackBits &= ~(move | flip);
+            whiteBits |= flip;
+            hashKey ^= ZOBRIST_BLACK[index];
+        } else {
+            whiteBits &= ~(move | flip);
+            blackBits |= flip;
+            hashKey ^= ZOBRIST_WHITE[index];
+        }
+        hashKey ^= calcFlipHashKey(flip);
+        if (patternIndexes != null) {
+            updatePatternIndexes(index, playerDisc, flip, -1);
         }
-        return 0;
     }
 
     /**
-     * 置いた石の右上方向に対して、反転可能な石が何個あるか調べる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の個数
+     * 黒石・白石の配置をビットボードで指定して設定する（局面を文字列等から復元する場合に使用する）
+     * @param black 黒石のビットボード
+     * @param white 白石のビットボード
+     * @throws IllegalArgumentException 黒石と白石が同じマスにある、またはリバーシ盤の範囲外に石がある場合はエラーとする。
      */
-    private int countReversibleDiscRightUp(Dimension target, Disc playerDisc) {
-        int reversibleDisc = 0;
-
-        for (int i = target.getRow() - 1, j = target.getColumn() + 1; i >= 0 && j >= 0 && i < boardSize.getRow()
-                && j < boardSize.getColumn(); i--, j++) {
-            if (board[i][j] == null) {
-                return 0;
-            }
+    void setDiscBits(long black, long white) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if ((black & white) != 0) {
+            throw new IllegalArgumentException("黒石と白石が同じマスに指定されています: " + Long.toHexString(black & white));
+        }
+        if (((black | white) & ~boardMask) != 0) {
+            throw new IllegalArgumentException(
+                    "リバーシ盤の範囲外に石が指定されています: " + Long.toHexString((black | white) & ~boardMask));
+        }
 
-            if (board[i][j] != playerDisc) {
-                reversibleDisc++;
-            } else {
-                return reversibleDisc;
-            }
+        this.blackBits = black;
+        this.whiteBits = white;
+        this.hashKey = calcHashKey(black, white);
+        if (patternIndexes != null) {
+            calcPatternIndexes();
         }
-        return 0;
     }
 
     /**
-     * 置いた石の左下方向に対して、反転可能な石が何個あるか調べる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の個数
+     * パターンの番号の保持を有効にし、現在の石の配置から全てのパターンの番号を求める<br>
+     * 以降は石を置く・取り消す度に差分で更新する。複製したリバーシ盤にも引き継ぐ。
      */
-    private int countReversibleDiscLeftDown(Dimension target, Disc playerDisc) {
-        int reversibleDisc = 0;
-
-        for (int i = target.getRow() + 1, j = target.getColumn() - 1; i >= 0 && j >= 0 && i < boardSize.getRow()
-                && j < boardSize.getColumn(); i++, j--) {
-            if (board[i][j] == null) {
-                return 0;
-            }
-
-            if (board[i][j] != playerDisc) {
-                reversibleDisc++;
-            } else {
-                return reversibleDisc;
-            }
+    public void enablePatternIndexes() {
+        if (patternIndexes == null) {
+            patternIndexes = new int[2 * PatternLayout.INSTANCE_NUM];
+            calcPatternIndexes();
         }
-        return 0;
     }
 
     /**
-     * 置いた石の右下方向に対して、反転可能な石が何個あるか調べる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転可能な石の個数
+     * パターンの番号の保持が有効かを判定する
+     * @return 有効な場合は {@code true}
      */
-    private int countReversibleDiscRightDown(Dimension target, Disc playerDisc) {
-        int reversibleDisc = 0;
-
-        for (int i = target.getRow() + 1, j = target.getColumn() + 1; i >= 0 && j >= 0 && i < boardSize.getRow()
-                && j < boardSize.getColumn(); i++, j++) {
-            if (board[i][j] == null) {
-                return 0;
-            }
-
-            if (board[i][j] != playerDisc) {
-                reversibleDisc++;
-            } else {
-                return reversibleDisc;
-            }
-        }
-        return 0;
+    public boolean isPatternIndexesEnabled() {
+        return patternIndexes != null;
     }
 
     /**
-     * 石を置き、状態を更新する
-     * @param target 石を置く座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 石を設置できる場合は真 {@code true}、設置できない場合は偽 {@code false} を返す。
-     * @throws IllegalArgumentException 引数 {@code target, isBlack} のいずれかが {@code NULL} の場合、エラーを返す。
+     * 保持しているパターンの番号を取得する<br>
+     * {@link #enablePatternIndexes()} で有効にしていない場合は使用できない。
+     * @param instance パターンの番号の順番（{@link PatternLayout#calcIndexes(long, long, int[])} の順番）
+     * @param playerDisc 手番のプレイヤーの石（この石を {@code 1}、相手の石を {@code 2} とした番号を返す）
+     * @return パターンの番号
      */
-    public Boolean put(Dimension target, Disc playerDisc) throws IllegalArgumentException {
-        // 引数の正常性確認
-        if (target == null) {
-            throw new IllegalArgumentException("引数 \"target\" が NULL です。");
-        }
-        if (playerDisc == null) {
-            throw new IllegalArgumentException("引数 \"playerDisc\" が NULL です。");
-        }
-
-        // 対象の位置に石を置けるか判定する
-        if (canPut(target, playerDisc) == false) {
-            return false;
-        }
-
-        // 全方向に対して操作し、反転可能な石を反転させる
-        int reverseCount = 0;
-
-        if (countReversibleDiscUp(target, playerDisc) > 0) {
-            reverseCount += reverseDiscUp(target, playerDisc);
-        }
-        if (countReversibleDiscDown(target, playerDisc) > 0) {
-            reverseCount += reverseDiscDown(target, playerDisc);
-        }
-        if (countReversibleDiscLeft(target, playerDisc) > 0) {
-            reverseCount += reverseDiscLeft(target, playerDisc);
-        }
-        if (countReversibleDiscRight(target, playerDisc) > 0) {
-            reverseCount += reverseDiscRight(target, playerDisc);
-        }
-        if (countReversibleDiscLeftUp(target, playerDisc) > 0) {
-            reverseCount += reverseDiscLeftUp(target, playerDisc);
-        }
-        if (countReversibleDiscRightUp(target, playerDisc) > 0) {
-            reverseCount += reverseDiscRightUp(target, playerDisc);
-        }
-        if (countReversibleDiscLeftDown(target, playerDisc) > 0) {
-            reverseCount += reverseDiscLeftDown(target, playerDisc);
-        }
-        if (countReversibleDiscRightDown(target, playerDisc) > 0) {
-            reverseCount += reverseDiscRightDown(target, playerDisc);
-        }
-
-        // 反転できる石が1つもないのはルール上石を置くことができないため、石を置く処理を行わず終了する。
-        if (reverseCount == 0) {
-            return false;
-        }
-
-        // 指定された座標にプレイヤーの石を設定する
-        int row = target.getRow();
-        int column = target.getColumn();
-
-        if (playerDisc == Disc.BLACK) {
-            board[row][column] = playerDisc;
-            blackDiscNum++;
-        }
-
-        if (playerDisc == Disc.WHITE) {
-            board[row][column] = playerDisc;
-            whiteDiscNum++;
-        }
-
-        return true;
+    public int getPatternIndex(int instance, Disc playerDisc) {
+        return patternIndexes[(playerDisc == Disc.BLACK) ? instance : PatternLayout.INSTANCE_NUM + instance];
     }
 
     /**
-     * 石の白黒を反転させる
-     * @param target 反転させる石の座標
+     * 現在の石の配置から、黒石・白石それぞれを手番のプレイヤーとした全てのパターンの番号を求める
      */
-    private void reverse(Dimension target) {
-        int row = target.getRow();
-        int column = target.getColumn();
-
-        if (board[row][column] == Disc.BLACK) {
-            board[row][column] = Disc.WHITE;
-            blackDiscNum--;
-            whiteDiscNum++;
-        } else if (board[row][column] == Disc.WHITE) {
-            board[row][column] = Disc.BLACK;
-            blackDiscNum++;
-            whiteDiscNum--;
-        }
+    private void calcPatternIndexes() {
+        final int[] indexes = new int[PatternLayout.INSTANCE_NUM];
+        PatternLayout.calcIndexes(blackBits, whiteBits, indexes);
+        System.arraycopy(indexes, 0, patternIndexes, 0, indexes.length);
+        PatternLayout.calcIndexes(whiteBits, blackBits, indexes);
+        System.arraycopy(indexes, 0, patternIndexes, indexes.length, indexes.length);
     }
 
     /**
-     * 置いた石の上方向にある石を反転させる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転させた石の個数
-     */
-    private int reverseDiscUp(Dimension target, Disc playerDisc) {
-        int reverseDisc = 0;
-        int column = target.getColumn();
-
-        for (int i = target.getRow() - 1; i >= 0 && i < boardSize.getRow(); i--) {
-            // プレイヤーの石の色とマスに置かれた石の色が異なる場合、マスに置かれた石を反転させる。
-            if (board[i][column] != null && board[i][column] != playerDisc) {
-                reverse(new Dimension(i, column));
-                reverseDisc++;
-            } else {
-                break;
+     * 石を置いた（取り消した）マスと反転した石を含むパターンの番号のみ、差分で更新する<br>
+     * 置いたマスは空き {@code 0} から、石を置いたプレイヤーを手番とした番号では {@code 1}、相手を手番とした番号では {@code 2} となる。
+     * 反転した石は、石を置いたプレイヤーを手番とした番号では {@code 2} から {@code 1}、相手を手番とした番号では {@code 1} から {@code 2} となる。
+     * @param index 石を置いたマスのビット位置
+     * @param playerDisc 石を置いたプレイヤーの石
+     * @param flip 反転した石のビットボード
+     * @param sign 石を置いた場合は {@code 1}、取り消した場合は {@code -1}
+     */
+    private void updatePatternIndexes(int index, Disc playerDisc, long flip, int sign) {
+        final int[] indexes = patternIndexes;
+        final int own = (playerDisc == Disc.BLACK) ? 0 : PatternLayout.INSTANCE_NUM;
+        final int other = PatternLayout.INSTANCE_NUM - own;
+
+        for (int i = PATTERN_OFFSETS[index]; i < PATTERN_OFFSETS[index + 1]; i++) {
+            final int power = sign * PATTERN_POWERS[i];
+            indexes[own + PATTERN_INSTANCES[i]] += power;
+            indexes[other + PATTERN_INSTANCES[i]] += 2 * power;
+        }
+        for (long f = flip; f != 0; f &= f - 1) {
+            final int flipIndex = Long.numberOfTrailingZeros(f);
+            for (int i = PATTERN_OFFSETS[flipIndex]; i < PATTERN_OFFSETS[flipIndex + 1]; i++) {
+                final int power = sign * PATTERN_POWERS[i];
+                indexes[own + PATTERN_INSTANCES[i]] -= power;
+                indexes[other + PATTERN_INSTANCES[i]] += power;
             }
         }
-        return reverseDisc;
     }
 
     /**
-     * 置いた石の下方向にある石を反転させる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転させた石の個数
-     */
-    private int reverseDiscDown(Dimension target, Disc playerDisc) {
-        int reverseDisc = 0;
-        int column = target.getColumn();
-
-        for (int i = target.getRow() + 1; i >= 0 && i < boardSize.getRow(); i++) {
-            // プレイヤーの石の色とマスに置かれた石の色が異なる場合、マスに置かれた石を反転させる。
-            if (board[i][column] != null && board[i][column] != playerDisc) {
-                reverse(new Dimension(i, column));
-                reverseDisc++;
-            } else {
-                break;
-            }
+     * 石の配置からハッシュ値を全てのマスについて算出する
+     * @param black 黒石のビットボード
+     * @param white 白石のビットボード
+     * @return ハッシュ値
+     */
+    static long calcHashKey(long black, long white) {
+        long key = 0L;
+        for (long b = black; b != 0; b &= b - 1) {
+            key ^= ZOBRIST_BLACK[Long.numberOfTrailingZeros(b)];
+        }
+        for (long w = white; w != 0; w &= w - 1) {
+            key ^= ZOBRIST_WHITE[Long.numberOfTrailingZeros(w)];
         }
-        return reverseDisc;
+        return key;
     }
 
     /**
-     * 置いた石の左方向にある石を反転させる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転させた石の個数
-     */
-    private int reverseDiscLeft(Dimension target, Disc playerDisc) {
-        int reverseDisc = 0;
-        int row = target.getRow();
-
-        for (int j = target.getColumn() - 1; j >= 0 && j < boardSize.getColumn(); j--) {
-            // プレイヤーの石の色とマスに置かれた石の色が異なる場合、マスに置かれた石を反転させる。
-            if (board[row][j] != null && board[row][j] != playerDisc) {
-                reverse(new Dimension(row, j));
-                reverseDisc++;
-            } else {
-                break;
-            }
+     * 石を反転させた時のハッシュ値の差分を算出する（反転の向きに関わらず同じ値となる）
+     * @param flip 反転させる石のビットボード
+     * @return ハッシュ値に排他的論理和をとる値
+     */
+    private static long calcFlipHashKey(long flip) {
+        long key = 0L;
+        for (long f = flip; f != 0; f &= f - 1) {
+            key ^= ZOBRIST_FLIP[Long.numberOfTrailingZeros(f)];
         }
-        return reverseDisc;
+        return key;
     }
 
     /**
-     * 置いた石の右方向にある石を反転させる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転させた石の個数
-     */
-    private int reverseDiscRight(Dimension target, Disc playerDisc) {
-        int reverseDisc = 0;
-        int row = target.getRow();
-
-        for (int j = target.getColumn() + 1; j >= 0 && j < boardSize.getColumn(); j++) {
-            // プレイヤーの石の色とマスに置かれた石の色が異なる場合、マスに置かれた石を反転させる。
-            if (board[row][j] != null && board[row][j] != playerDisc) {
-                reverse(new Dimension(row, j));
-                reverseDisc++;
-            } else {
-                break;
-            }
-        }
-        return reverseDisc;
+     * プレイヤーの石の配置を表すビットボードを取得する<br>
+     * ビット位置は {@link BitBoard#toIndex(int, int)} に従う。
+     * @param playerDisc プレイヤーの石の色
+     * @return 指定したプレイヤーの石のビットボード
+     */
+    public long getDiscBits(Disc playerDisc) {
+        return getBits(playerDisc);
     }
 
     /**
-     * 置いた石の左上方向にある石を反転させる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転させた石の個数
-     */
-    private int reverseDiscLeftUp(Dimension target, Disc playerDisc) {
-        int reverseDisc = 0;
-
-        for (int i = target.getRow() - 1, j = target.getColumn() - 1; i >= 0 && i < boardSize.getRow() && j >= 0
-                && j < boardSize.getColumn(); i--, j--) {
-            // プレイヤーの石の色とマスに置かれた石の色が異なる場合、マスに置かれた石を反転させる。
-            if (board[i][j] != null && board[i][j] != playerDisc) {
-                reverse(new Dimension(i, j));
-                reverseDisc++;
-            } else {
-                break;
-            }
-        }
-        return reverseDisc;
+     * リバーシ盤の範囲内にあるマスを表すビットマスクを取得する
+     * @return リバーシ盤の範囲内のマスのビットが立ったマスク
+     */
+    public long getBoardMask() {
+        return boardMask;
     }
 
     /**
-     * 置いた石の右上方向にある石を反転させる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転させた石の個数
-     */
-    private int reverseDiscRightUp(Dimension target, Disc playerDisc) {
-        int reverseDisc = 0;
-
-        for (int i = target.getRow() - 1, j = target.getColumn() + 1; i >= 0 && i < boardSize.getRow() && j >= 0
-                && j < boardSize.getColumn(); i--, j++) {
-            // プレイヤーの石の色とマスに置かれた石の色が異なる場合、マスに置かれた石を反転させる。
-            if (board[i][j] != null && board[i][j] != playerDisc) {
-                reverse(new Dimension(i, j));
-                reverseDisc++;
-            } else {
-                break;
-            }
+     * プレイヤーの石の配置を表すビットボードを取得する
+     * @param playerDisc プレイヤーの石の色
+     * @return 指定したプレイヤーの石のビットボード
+     */
+    private long getBits(Disc playerDisc) {
+        if (playerDisc == Disc.BLACK) {
+            return blackBits;
+        } else {
+            return whiteBits;
         }
-        return reverseDisc;
     }
 
     /**
-     * 置いた石の左下方向にある石を反転させる
-     * @param target プレイヤーが置く石の座標
+     * 対象のマスに石を置いた時に反転する石を求める
+     * @param index 石を置くマスのビット位置
      * @param playerDisc プレイヤーが使用する石
-     * @return 反転させた石の個数
-     */
-    private int reverseDiscLeftDown(Dimension target, Disc playerDisc) {
-        int reverseDisc = 0;
-
-        for (int i = target.getRow() + 1, j = target.getColumn() - 1; i >= 0 && i < boardSize.getRow() && j >= 0
-                && j < boardSize.getColumn(); i++, j--) {
-            // プレイヤーの石の色とマスに置かれた石の色が異なる場合、マスに置かれた石を反転させる。
-            if (board[i][j] != null && board[i][j] != playerDisc) {
-                reverse(new Dimension(i, j));
-                reverseDisc++;
-            } else {
-                break;
-            }
+     * @return 反転する石のビットボード。マスが空でない場合や反転できる石がない場合は {@code 0}
+     */
+    private long calcFlip(int index, Disc playerDisc) {
+        // マスに石が既に置かれていない確認する
+        if (((blackBits | whiteBits) & (1L << index)) != 0) {
+            return 0L;
         }
-        return reverseDisc;
+        return BitBoard.calcFlip(getBits(playerDisc), getBits(playerDisc.next()), index);
     }
 
     /**
-     * 置いた石の右下方向にある石を反転させる
-     * @param target プレイヤーが置く石の座標
-     * @param playerDisc プレイヤーが使用する石
-     * @return 反転させた石の個数
-     */
-    private int reverseDiscRightDown(Dimension target, Disc playerDisc) {
-        int reverseDisc = 0;
-
-        for (int i = target.getRow() + 1, j = target.getColumn() + 1; i >= 0 && i < boardSize.getRow() && j >= 0
-                && j < boardSize.getColumn(); i++, j++) {
-            // プレイヤーの石の色とマスに置かれた石の色が異なる場合、マスに置かれた石を反転させる。
-            if (board[i][j] != null && board[i][j] != playerDisc) {
-                reverse(new Dimension(i, j));
-                reverseDisc++;
-            } else {
-                break;
-            }
+     * 座標をビットボードのビット位置に変換する
+     * @param target 対象の座標
+     * @return ビット位置
+     * @throws ArrayIndexOutOfBoundsException 座標がリバーシ盤の範囲外である
+     */
+    private int toIndex(Dimension target) throws ArrayIndexOutOfBoundsException {
+        final int row = target.getRow();
+        final int column = target.getColumn();
+
+        if (row < 0 || row >= boardSize.getRow() || column < 0 || column >= boardSize.getColumn()) {
+            throw new ArrayIndexOutOfBoundsException(
+                    String.format("リバーシ盤の範囲外の座標が指定されました: (%d, %d)", row, column));
         }
-        return reverseDisc;
+        return BitBoard.toIndex(row, column);
     }
 }
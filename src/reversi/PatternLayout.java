@@ -0,0 +1,249 @@
+package reversi;
+
+/**
+ * 8×8 のリバーシ盤での、盤面の部分的な形（パターン）の配置と、パターンの番号の求め方を定義するクラス<br>
+ * パターンの番号は、パターンのマスの状態（空き・手番のプレイヤー・相手）を3進数の各桁とする値であり、
+ * 盤面を反転したビットボードからパターンのマスのビットを取り出し、ビットの並びから3進数の値への変換表を参照して求める。<br>
+ * 評価関数（{@code algorithm.PatternEvaluator}）はパターンの番号で重みの表を参照し、
+ * リバーシ盤（{@link Board#enablePatternIndexes()}）は石を置く度にパターンの番号を差分で更新する。
+ * @author komoto
+ */
+public class PatternLayout {
+
+    /**
+     * パターンの種類を定義する<br>
+     * マスの位置は、左上（a1）の隅のパターンとしたときのビット位置で表す。パターンの番号は、{@code i} 番目のマスの状態を
+     * {@code 3^i} の桁とする（空き {@code 0}、手番のプレイヤー {@code 1}、相手 {@code 2}）。
+     */
+    public enum Pattern {
+        EDGE_X (new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 9, 14 }, 4),
+        CORNER_3X3 (new int[] { 0, 1, 2, 8, 9, 10, 16, 17, 18 }, 4),
+        CORNER_2X5 (new int[] { 0, 1, 2, 3, 4, 8, 9, 10, 11, 12 }, 8),
+        DIAGONAL (new int[] { 0, 9, 18, 27, 36, 45, 54, 63 }, 2),
+        ;
+
+        /** パターンのマスのビット位置 */
+        private final int[] cells;
+
+        /** 盤面上のパターンの数 */
+        private final int instanceNum;
+
+        /** パターンの番号の数（{@code 3^マスの数}） */
+        private final int size;
+
+        /**
+         * 値を設定する
+         * @param cells パターンのマスのビット位置
+         * @param instanceNum 盤面上のパターンの数
+         */
+        private Pattern(int[] cells, int instanceNum) {
+            this.cells = cells;
+            this.instanceNum = instanceNum;
+            int size = 1;
+            for (int i = 0; i < cells.length; i++) {
+                size *= 3;
+            }
+            this.size = size;
+        }
+
+        /**
+         * パターンのマスの数を取得する
+         * @return マスの数
+         */
+        public int getCellNum() {
+            return cells.length;
+        }
+
+        /**
+         * パターンの {@code i} 番目のマスのビット位置を取得する
+         * @param i パターン内のマスの番号
+         * @return 左上の隅のパターンとしたときのビット位置
+         */
+        public int getCell(int i) {
+            return cells[i];
+        }
+
+        /**
+         * 盤面上のパターンの数を取得する
+         * @return パターンの数
+         */
+        public int getInstanceNum() {
+            return instanceNum;
+        }
+
+        /**
+         * パターンの番号の数（重みの表の大きさ）を取得する
+         * @return パターンの番号の数
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+
+    /** 盤面上の全てのパターンの数 */
+    public static final int INSTANCE_NUM;
+
+    /** 盤面上のパターンごとの種類（{@link #calcIndexes(long, long, int[])} で求めるパターンの順番） */
+    private static final Pattern[] INSTANCE_PATTERNS;
+
+    /** パターンのマスのビットの並び（最大10ビット）から、3進数の値への変換表 */
+    private static final int[] BASE3 = new int[1 << 10];
+
+    static {
+        for (int bits = 0; bits < BASE3.length; bits++) {
+            int value = 0;
+            for (int i = 9; i >= 0; i--) {
+                value = value * 3 + ((bits >>> i) & 1);
+            }
+            BASE3[bits] = value;
+        }
+
+        int instanceNum = 0;
+        for (Pattern pattern : Pattern.values()) {
+            instanceNum += pattern.getInstanceNum();
+        }
+        INSTANCE_NUM = instanceNum;
+        INSTANCE_PATTERNS = new Pattern[INSTANCE_NUM];
+        int instance = 0;
+        for (Pattern pattern : Pattern.values()) {
+            for (int i = 0; i < pattern.getInstanceNum(); i++) {
+                INSTANCE_PATTERNS[instance++] = pattern;
+            }
+        }
+    }
+
+    /**
+     * インスタンス化は想定しない
+     */
+    private PatternLayout() {
+    }
+
+    /**
+     * 盤面上のパターンの種類を取得する
+     * @param instance 盤面上のパターンの番号（{@link #calcIndexes(long, long, int[])} で求める順番）
+     * @return パターンの種類
+     */
+    public static Pattern getInstancePattern(int instance) {
+        return INSTANCE_PATTERNS[instance];
+    }
+
+    /**
+     * 盤面上の全てのパターンの番号を求める<br>
+     * パターンの順番は {@link Pattern} の定義順（同じ種類の中では、上下反転・行と列の入れ替え・左右反転を組み合わせて左上の隅に移す順）とする。
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @param indexes パターンの番号を格納する配列（大きさは {@link #INSTANCE_NUM} 以上）
+     */
+    public static void calcIndexes(long player, long opponent, int[] indexes) {
+        final long pv = BitBoard.flipVertical(player);
+        final long ov = BitBoard.flipVertical(opponent);
+        final long ph = BitBoard.flipHorizontal(player);
+        final long oh = BitBoard.flipHorizontal(opponent);
+        final long pvh = BitBoard.flipVertical(ph);
+        final long ovh = BitBoard.flipVertical(oh);
+        final long pt = BitBoard.transpose(player);
+        final long ot = BitBoard.transpose(opponent);
+        final long ptv = BitBoard.flipVertical(pt);
+        final long otv = BitBoard.flipVertical(ot);
+        final long pth = BitBoard.flipHorizontal(pt);
+        final long oth = BitBoard.flipHorizontal(ot);
+        final long ptvh = BitBoard.flipVertical(pth);
+        final long otvh = BitBoard.flipVertical(oth);
+
+        int i = 0;
+        indexes[i++] = edgeIndex(player, opponent);
+        indexes[i++] = edgeIndex(pv, ov);
+        indexes[i++] = edgeIndex(pt, ot);
+        indexes[i++] = edgeIndex(ptv, otv);
+        indexes[i++] = corner3x3Index(player, opponent);
+        indexes[i++] = corner3x3Index(pv, ov);
+        indexes[i++] = corner3x3Index(ph, oh);
+        indexes[i++] = corner3x3Index(pvh, ovh);
+        indexes[i++] = corner2x5Index(player, opponent);
+        indexes[i++] = corner2x5Index(pv, ov);
+        indexes[i++] = corner2x5Index(ph, oh);
+        indexes[i++] = corner2x5Index(pvh, ovh);
+        indexes[i++] = corner2x5Index(pt, ot);
+        indexes[i++] = corner2x5Index(ptv, otv);
+        indexes[i++] = corner2x5Index(pth, oth);
+        indexes[i++] = corner2x5Index(ptvh, otvh);
+        indexes[i++] = diagonalIndex(player, opponent);
+        indexes[i++] = diagonalIndex(ph, oh);
+    }
+
+    /**
+     * 上の辺と X 打ちのマスのパターンの番号を求める（他の位置のパターンは、盤面を反転して上の辺に移してから求める）
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return パターンの番号
+     */
+    public static int edgeIndex(long player, long opponent) {
+        return BASE3[edgeBits(player)] + 2 * BASE3[edgeBits(opponent)];
+    }
+
+    /**
+     * 上の辺の8マス（ビット0～7）と、b2（ビット9）・g2（ビット14）を10ビットに並べる
+     * @param bits ビットボード
+     * @return 並べたビット
+     */
+    private static int edgeBits(long bits) {
+        return (int) ((bits & 0xffL) | ((bits >>> 1) & 0x100L) | ((bits >>> 5) & 0x200L));
+    }
+
+    /**
+     * 左上の隅の3×3のマスのパターンの番号を求める（他の位置のパターンは、盤面を反転して左上の隅に移してから求める）
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return パターンの番号
+     */
+    public static int corner3x3Index(long player, long opponent) {
+        return BASE3[corner3x3Bits(player)] + 2 * BASE3[corner3x3Bits(opponent)];
+    }
+
+    /**
+     * 左上の隅の3×3のマスを9ビットに並べる
+     * @param bits ビットボード
+     * @return 並べたビット
+     */
+    private static int corner3x3Bits(long bits) {
+        return (int) ((bits & 0x7L) | ((bits >>> 5) & 0x38L) | ((bits >>> 10) & 0x1c0L));
+    }
+
+    /**
+     * 左上の隅の2×5（2行・5列）のマスのパターンの番号を求める（他の位置のパターンは、盤面を反転して左上の隅に移してから求める）
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return パターンの番号
+     */
+    public static int corner2x5Index(long player, long opponent) {
+        return BASE3[corner2x5Bits(player)] + 2 * BASE3[corner2x5Bits(opponent)];
+    }
+
+    /**
+     * 左上の隅の2×5のマスを10ビットに並べる
+     * @param bits ビットボード
+     * @return 並べたビット
+     */
+    private static int corner2x5Bits(long bits) {
+        return (int) ((bits & 0x1fL) | ((bits >>> 3) & 0x3e0L));
+    }
+
+    /**
+     * a1-h8 の対角線のパターンの番号を求める（a8-h1 の対角線は、盤面を左右反転してから求める）
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return パターンの番号
+     */
+    public static int diagonalIndex(long player, long opponent) {
+        return BASE3[diagonalBits(player)] + 2 * BASE3[diagonalBits(opponent)];
+    }
+
+    /**
+     * a1-h8 の対角線の8マスを8ビットに並べる（対角線のビットを掛け算で最上位の行に集める）
+     * @param bits ビットボード
+     * @return 並べたビット
+     */
+    private static int diagonalBits(long bits) {
+        return (int) (((bits & 0x8040201008040201L) * 0x0101010101010101L) >>> 56);
+    }
+}
@@ -0,0 +1,304 @@
+package reversi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 指定した局面から、指定した手数先までの全ての局面（末端の局面）の数を数える（perft）<br>
+ * 数えた結果を既知の値と比較することで、石を置ける位置の算出・石を置く処理が正しいか確認できる。
+ * また、1秒あたりに数えた局面数は石を置ける位置の算出・石を置く処理の速さの指標となる。<br>
+ * パスはゲームと同様に1手として数え（{@link Reversi#isSkip()}, {@link Reversi#increaseSkipCount()}）、
+ * 両方のプレイヤーが続けてパスした局面は終局として1つの末端の局面と数える。
+ * @author komoto
+ */
+public class Perft {
+
+    /** 初期局面から各手数先までの局面数の既知の値（添字が手数） */
+    private static final long[] REFERENCE_COUNTS = { 1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L, 390216L,
+            3005288L, 24571284L, 212258800L, 1939886636L, 18429641748L, 184042084512L };
+
+    /** 既知の値がないことを表す値 */
+    public static final long UNKNOWN_COUNT = -1L;
+
+    /** 局面を表す文字列での黒石 */
+    public static final char BLACK_CHAR = 'X';
+
+    /** 局面を表す文字列での白石 */
+    public static final char WHITE_CHAR = 'O';
+
+    /** 局面を表す文字列での空きマス */
+    public static final char EMPTY_CHAR = '-';
+
+    /** 初期局面を表す文字列（{@link #parse(String)}） */
+    public static final String START_POSITION = "---------------------------OX------XO--------------------------- X";
+
+    /** 並列で数える場合に、次の手をさらにタスクに分割する残りの手数の下限（これより浅い部分は1つのタスク内で逐次数える） */
+    private static final int PARALLEL_SPLIT_DEPTH = 5;
+
+    /** 数え始める局面のリバーシ盤 */
+    private final Board board;
+
+    /** 数え始める局面で次に石を置くプレイヤーの石 */
+    private final Disc turnDisc;
+
+    /**
+     * 初期化を行う
+     * @param board 数え始める局面のリバーシ盤（数えた後は数える前の状態に戻る）
+     * @param turnDisc 数え始める局面で次に石を置くプレイヤーの石
+     * @throws IllegalArgumentException いずれかの引数が {@code NULL} の場合はエラーとする。
+     */
+    public Perft(Board board, Disc turnDisc) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (board == null) {
+            throw new IllegalArgumentException("変数 \"board\" が NULL です。");
+        }
+        if (turnDisc == null) {
+            throw new IllegalArgumentException("変数 \"turnDisc\" が NULL です。");
+        }
+
+        this.board = board;
+        this.turnDisc = turnDisc;
+    }
+
+    /**
+     * 文字列で表した局面から初期化を行う<br>
+     * 文字列は 8x8 のリバーシ盤の左上から行ごとに、黒石を {@code X}、白石を {@code O}、空きマスを {@code -} で並べた64文字と、
+     * 次に石を置くプレイヤーの石（{@code X} または {@code O}）の1文字とする。空白・改行は無視する。<br>
+     * 例: 初期局面は {@link #START_POSITION}
+     * @param position 局面を表す文字列
+     * @return 初期化したインスタンス
+     * @throws IllegalArgumentException 局面を表す文字列として不正な場合はエラーとする。
+     */
+    public static Perft parse(String position) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (position == null) {
+            throw new IllegalArgumentException("変数 \"position\" が NULL です。");
+        }
+        String text = position.replaceAll("\\s", "");
+        if (text.length() != BitBoard.CELL_NUM + 1) {
+            throw new IllegalArgumentException(
+                    String.format("局面は%d文字で指定してください: %s", BitBoard.CELL_NUM + 1, position));
+        }
+
+        long black = 0L;
+        long white = 0L;
+        for (int i = 0; i < BitBoard.CELL_NUM; i++) {
+            switch (text.charAt(i)) {
+            case BLACK_CHAR:
+                black |= 1L << i;
+                break;
+            case WHITE_CHAR:
+                white |= 1L << i;
+                break;
+            case EMPTY_CHAR:
+                break;
+            default:
+                throw new IllegalArgumentException("局面に使用できない文字が含まれています: " + text.charAt(i));
+            }
+        }
+
+        Disc turnDisc;
+        switch (text.charAt(BitBoard.CELL_NUM)) {
+        case BLACK_CHAR:
+            turnDisc = Disc.BLACK;
+            break;
+        case WHITE_CHAR:
+            turnDisc = Disc.WHITE;
+            break;
+        default:
+            throw new IllegalArgumentException("次に石を置くプレイヤーの石が不正です: " + text.charAt(BitBoard.CELL_NUM));
+        }
+
+        Board board = new Board(BitBoard.MAX_SIZE, BitBoard.MAX_SIZE);
+        board.setDiscBits(black, white);
+        return new Perft(board, turnDisc);
+    }
+
+    /**
+     * 数え始める局面のリバーシ盤を取得する
+     * @return リバーシ盤
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * 数え始める局面で次に石を置くプレイヤーの石を取得する
+     * @return 次に石を置くプレイヤーの石
+     */
+    public Disc getTurnDisc() {
+        return turnDisc;
+    }
+
+    /**
+     * 初期局面から数えた場合の、局面数の既知の値を取得する
+     * @param depth 手数
+     * @return 局面数の既知の値。既知の値がない場合は {@link #UNKNOWN_COUNT}
+     */
+    public static long getReferenceCount(int depth) {
+        if (depth < 0 || depth >= REFERENCE_COUNTS.length) {
+            return UNKNOWN_COUNT;
+        }
+        return REFERENCE_COUNTS[depth];
+    }
+
+    /**
+     * 1つのスレッドで、指定した手数先までの局面数を数える
+     * @param depth 手数
+     * @return 局面数
+     * @throws IllegalArgumentException 手数が負の値の場合はエラーとする。
+     */
+    public long count(int depth) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (depth < 0) {
+            throw new IllegalArgumentException("手数は0以上の値を指定してください: " + depth);
+        }
+
+        return count(board, turnDisc, depth, false);
+    }
+
+    /**
+     * 手をタスクに分割し、並列に指定した手数先までの局面数を数える
+     * @param depth 手数
+     * @param pool 使用するスレッドプール
+     * @return 局面数
+     * @throws IllegalArgumentException 手数が負の値、またはスレッドプールが {@code NULL} の場合はエラーとする。
+     */
+    public long countParallel(int depth, ForkJoinPool pool) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (depth < 0) {
+            throw new IllegalArgumentException("手数は0以上の値を指定してください: " + depth);
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("変数 \"pool\" が NULL です。");
+        }
+
+        return pool.invoke(CountTask.create(board, turnDisc, depth, false));
+    }
+
+    /**
+     * 指定した手数先までの局面数を数える<br>
+     * リバーシ盤を複製せず、石を置いて数えた後に取り消すことで元の状態に戻す。
+     * @param currentBoard 現在のリバーシ盤の状態。数えた後は数える前の状態に戻る。
+     * @param disc 次に石を置くプレイヤーの石
+     * @param depth 残りの手数
+     * @param isPassed 直前の手がパスであるか
+     * @return 局面数
+     */
+    private static long count(Board currentBoard, Disc disc, int depth, boolean isPassed) {
+        if (depth == 0) {
+            return 1L;
+        }
+
+        long movable = currentBoard.getMovableBits(disc);
+        if (movable == 0) {
+            // 両方のプレイヤーが続けてパスした場合は終局
+            if (isPassed) {
+                return 1L;
+            }
+            return count(currentBoard, disc.next(), depth - 1, true);
+        }
+
+        long nodes = 0L;
+        while (movable != 0) {
+            int index = Long.numberOfTrailingZeros(movable);
+            movable &= movable - 1;
+
+            long flip = currentBoard.doMove(index, disc);
+            nodes += count(currentBoard, disc.next(), depth - 1, false);
+            currentBoard.undoMove(index, disc, flip);
+        }
+        return nodes;
+    }
+
+    /**
+     * 1つの局面から局面数を数える並列処理のタスク<br>
+     * タスクごとにリバーシ盤の複製を持ち、残りの手数が {@link #PARALLEL_SPLIT_DEPTH} 以上の場合は次の手をさらにタスクに分割する。
+     */
+    private static class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        /** このタスク専用のリバーシ盤 */
+        private final Board taskBoard;
+
+        /** 次に石を置くプレイヤーの石 */
+        private final Disc disc;
+
+        /** 残りの手数 */
+        private final int depth;
+
+        /** 直前の手がパスであるか */
+        private final boolean isPassed;
+
+        /**
+         * タスクの初期化を行う
+         * @param taskBoard このタスク専用のリバーシ盤
+         * @param disc 次に石を置くプレイヤーの石
+         * @param depth 残りの手数
+         * @param isPassed 直前の手がパスであるか
+         */
+        private CountTask(Board taskBoard, Disc disc, int depth, boolean isPassed) {
+            this.taskBoard = taskBoard;
+            this.disc = disc;
+            this.depth = depth;
+            this.isPassed = isPassed;
+        }
+
+        /**
+         * リバーシ盤を複製してタスクを生成する
+         * @param currentBoard 現在のリバーシ盤の状態
+         * @param disc 次に石を置くプレイヤーの石
+         * @param depth 残りの手数
+         * @param isPassed 直前の手がパスであるか
+         * @return 生成したタスク
+         * @throws RuntimeException リバーシ盤の複製に失敗した
+         */
+        private static CountTask create(Board currentBoard, Disc disc, int depth, boolean isPassed)
+                throws RuntimeException {
+            try {
+                return new CountTask(currentBoard.clone(), disc, depth, isPassed);
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException("リバーシ盤の複製に失敗しました", e);
+            }
+        }
+
+        /**
+         * 局面数を数える
+         */
+        @Override
+        protected Long compute() {
+            // 浅い部分はタスクを分割せず、このタスク内で逐次数える
+            if (depth < PARALLEL_SPLIT_DEPTH) {
+                return count(taskBoard, disc, depth, isPassed);
+            }
+
+            long movable = taskBoard.getMovableBits(disc);
+            if (movable == 0) {
+                if (isPassed) {
+                    return 1L;
+                }
+                return new CountTask(taskBoard, disc.next(), depth - 1, true).compute();
+            }
+
+            // 次の手を全てタスクに分割して数える
+            List<CountTask> subTasks = new ArrayList<>();
+            while (movable != 0) {
+                int index = Long.numberOfTrailingZeros(movable);
+                movable &= movable - 1;
+
+                long flip = taskBoard.doMove(index, disc);
+                subTasks.add(create(taskBoard, disc.next(), depth - 1, false));
+                taskBoard.undoMove(index, disc, flip);
+            }
+            invokeAll(subTasks);
+
+            long nodes = 0L;
+            for (CountTask subTask : subTasks) {
+                nodes += subTask.join();
+            }
+            return nodes;
+        }
+    }
+}
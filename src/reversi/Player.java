@@ -1,12 +1,20 @@
 package reversi;
 
 import java.rmi.UnexpectedException;
+import java.util.SplittableRandom;
 
 import algorithm.Algorithm;
 import algorithm.AlgorithmType;
+import algorithm.AlphaBeta01;
+import algorithm.Mcts01;
 import algorithm.MiniMax01;
+import algorithm.MobilityEvaluator;
+import algorithm.MtdF01;
+import algorithm.NegaScout01;
 import algorithm.Original01;
+import algorithm.PatternEvaluator;
 import algorithm.RandomAlgorithm;
+import book.OpeningBook;
 import common.Global;
 
 /**
@@ -24,6 +32,21 @@ public class Player {
     /** プレイヤーが使用するアルゴリズムの種類 */
     private AlgorithmType algorithmType;
 
+    /** COM が1手あたりに思考する時間の上限（ミリ秒）。{@code 0} の場合は時間制限なし */
+    private int timeLimit;
+
+    /** COM が使用する乱数。{@code null} の場合は、アルゴリズムが実行中のスレッドの乱数列を使用する */
+    private SplittableRandom random;
+
+    /** COM が使用するアルゴリズムのインスタンス（対局中は使い回す）。最初に思考するまでは {@code null} */
+    private Algorithm algorithm;
+
+    /** COM がアルゴリズムより優先して参照する定石。{@code null} の場合は定石を使用しない */
+    private OpeningBook openingBook;
+
+    /** 乱数が設定されていない場合に、定石の手を選ぶ乱数。最初に定石の手を選ぶまでは {@code null} */
+    private SplittableRandom bookRandom;
+
     /**
      * プレイヤーの初期設定を行う。
      * 使用するアルゴリズムを決定する。
@@ -31,8 +54,19 @@ public class Player {
      * @param disc プレイヤーが使用する石
      * @param type 使用するアルゴリズムの種類
      */
-
     public Player(String name, Disc disc, AlgorithmType type) {
+        this(name, disc, type, Global.DEFAULT_TIME_LIMIT_MILLISEC);
+    }
+
+    /**
+     * プレイヤーの初期設定を行う。
+     * 使用するアルゴリズムと、1手あたりの思考時間の上限を決定する。
+     * @param name プレイヤーの名前
+     * @param disc プレイヤーが使用する石
+     * @param type 使用するアルゴリズムの種類
+     * @param timeLimit 1手あたりの思考時間の上限（ミリ秒）。{@code 0} 以下の場合は時間制限なしとする。
+     */
+    public Player(String name, Disc disc, AlgorithmType type, int timeLimit) {
         // 引数の正常性確認
         try {
             if (disc == null) {
@@ -52,6 +86,12 @@ public class Player {
         this.name = name;
         this.disc = disc;
         this.algorithmType = type;
+        this.timeLimit = Math.max(timeLimit, 0);
+        this.random = null;
+        this.algorithm = null;
+        this.openingBook = (type == AlgorithmType.MANUAL || type == AlgorithmType.RANDOM) ? null
+                : OpeningBook.getDefault();
+        this.bookRandom = null;
     }
 
     /**
@@ -78,6 +118,33 @@ public class Player {
         return algorithmType;
     }
 
+    /**
+     * COM が1手あたりに思考する時間の上限を取得する
+     * @return 思考時間の上限（ミリ秒）。{@code 0} の場合は時間制限なし
+     */
+    public int getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * COM が使用する乱数を設定する<br>
+     * シードを固定した乱数を設定すると、同じシードでの対戦を再現できる（時間制限なしの場合）。
+     * 乱数は対戦ごと・プレイヤーごとに用意し、他のプレイヤーと共有しないこと。
+     * @param random 使用する乱数。{@code null} の場合は、アルゴリズムが実行中のスレッドの乱数列を使用する
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * COM がアルゴリズムより優先して参照する定石を設定する<br>
+     * 初期値は、手動・ランダム以外の COM では共有の定石（{@link OpeningBook#getDefault()}）とする。
+     * @param openingBook 参照する定石。{@code null} の場合は定石を使用しない
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
     /**
      * プレイヤーの使用するアルゴリズムが手動かの真偽値を取得する
      * @return 使用アルゴリズムがマニュアルの場合は真 {@code true}, それ以外の場合は偽 {@code false}
@@ -91,24 +158,94 @@ public class Player {
     }
 
     /**
-     * 石を置く座標を決定する
+     * 新しい対局を開始する。COM の場合は、前の対局でアルゴリズムが記録した情報を初期化する。
+     */
+    public void newGame() {
+        if (algorithm != null) {
+            algorithm.newGame();
+        }
+    }
+
+    /**
+     * 相手が石を置いた（またはパスした）ことを COM のアルゴリズムに通知する
+     * @param target 相手が石を置いた座標。パスの場合は {@code null}
+     */
+    public void notifyOpponentMove(Dimension target) {
+        if (algorithm != null) {
+            algorithm.opponentMoved(target);
+        }
+    }
+
+    /**
+     * 対局が終了したことを COM のアルゴリズムに通知する
+     */
+    public void gameOver() {
+        if (algorithm != null) {
+            algorithm.gameOver();
+        }
+    }
+
+    /**
+     * COM が使用しているアルゴリズムのインスタンスを取得する
+     * @return アルゴリズムのインスタンス。まだ思考していない場合は {@code null}
+     */
+    Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 石を置く座標を決定する<br>
+     * 8×8 のリバーシ盤で定石に現在の局面が記録されている場合は、アルゴリズムで思考せずに定石の手を選ぶ。
+     * アルゴリズムのインスタンスは最初に思考する時に生成し、以降の手番では使い回す。
      * @param board リバーシ盤の状態
      * @return 決定した石を置く座標を返す。例外などにより決定できなかった場合は {@code NULL}
      */
     public Dimension run(Board board) {
-        Algorithm algorithm = null;
+        // 定石に記録されている局面の場合は、定石の手を選ぶ
+        if (openingBook != null && board.getBoardMask() == -1L) {
+            final int square = openingBook.chooseMove(board.getDiscBits(disc), board.getDiscBits(disc.next()),
+                    getBookRandom());
+            if (square != OpeningBook.NO_MOVE) {
+                return BitBoard.toDimension(square);
+            }
+        }
+
+        Algorithm current = algorithm;
 
         // アルゴリズム種別でアルゴリズムを生成する
-        try {
-            algorithm = generateAlgorithm(board);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("例外発生のため、「ランダムアルゴリズム」を使用します");
-            algorithm = new RandomAlgorithm(board, disc);
+        if (current == null) {
+            try {
+                current = generateAlgorithm(board);
+                current.newGame();
+                algorithm = current;
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.err.println("例外発生のため、「ランダムアルゴリズム」を使用します");
+                current = new RandomAlgorithm(board, disc);
+            }
         }
 
         // アルゴリズムに基づいて石を置く座標を求める
-        return algorithm.run();
+        current.setBoard(board);
+        current.setTimeLimit(timeLimit);
+        if (random != null) {
+            current.setRandom(random);
+        }
+        return current.run();
+    }
+
+    /**
+     * 定石の手を選ぶ乱数を取得する
+     * @return 設定された乱数。設定されていない場合は、このプレイヤー用に生成した乱数
+     */
+    private SplittableRandom getBookRandom() {
+        if (random != null) {
+            return random;
+        }
+        if (bookRandom == null) {
+            bookRandom = new SplittableRandom();
+        }
+        return bookRandom;
     }
 
     /**
@@ -133,6 +270,30 @@ public class Player {
             algorithm = new MiniMax01(board, disc);
             break;
         }
+        case ALPHA_BETA_01: {
+            algorithm = new AlphaBeta01(board, disc);
+            break;
+        }
+        case NEGA_SCOUT_01: {
+            algorithm = new NegaScout01(board, disc);
+            break;
+        }
+        case MTD_F_01: {
+            algorithm = new MtdF01(board, disc);
+            break;
+        }
+        case MCTS_01: {
+            algorithm = new Mcts01(board, disc);
+            break;
+        }
+        case PATTERN_01: {
+            algorithm = new NegaScout01(board, disc, NegaScout01.DEFAULT_DEPTH, PatternEvaluator.getDefault());
+            break;
+        }
+        case MOBILITY_01: {
+            algorithm = new NegaScout01(board, disc, NegaScout01.DEFAULT_DEPTH, MobilityEvaluator.getDefault());
+            break;
+        }
         case MANUAL: {
             throw new UnexpectedException("このメソッドは手動アルゴリズム時の実行は想定されていません: " + algorithmType);
         }
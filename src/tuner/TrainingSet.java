@@ -0,0 +1,122 @@
+package tuner;
+
+import java.util.List;
+
+import gamerecord.GameRecordFile;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 評価関数の重みの調整に使用する、終局時の石数の差を付けた局面の集合<br>
+ * 棋譜（{@link GameRecordFile#readMoves(java.nio.file.Path)}）を初期配置から再生し、石を置いた後の全ての局面を
+ * 黒石・白石のビットボードとして保持する。局面ごとの正解は、その局面を含む対局の終局時の石数の差（黒 - 白）とする。
+ * 大量の局面を扱うため、局面はオブジェクトを生成せずにプリミティブ型の配列で保持する。
+ * @author komoto
+ */
+public class TrainingSet {
+
+    /** 局面ごとの黒石のビットボード */
+    private final long[] blacks;
+
+    /** 局面ごとの白石のビットボード */
+    private final long[] whites;
+
+    /** 局面ごとの終局時の石数の差（黒の石数 - 白の石数） */
+    private final int[] margins;
+
+    /**
+     * 値を設定する
+     * @param blacks 局面ごとの黒石のビットボード
+     * @param whites 局面ごとの白石のビットボード
+     * @param margins 局面ごとの終局時の石数の差（黒の石数 - 白の石数）
+     * @throws IllegalArgumentException 配列の大きさが異なる
+     */
+    public TrainingSet(long[] blacks, long[] whites, int[] margins) throws IllegalArgumentException {
+        // 引数の正常性確認
+        if (blacks.length != whites.length || blacks.length != margins.length) {
+            throw new IllegalArgumentException("局面の配列の大きさが異なります。");
+        }
+
+        this.blacks = blacks;
+        this.whites = whites;
+        this.margins = margins;
+    }
+
+    /**
+     * 棋譜を再生し、全ての局面を取り出す
+     * @param games 1局ごとの、石を置いたマスのビット位置の配列（スキップは {@link GameRecordFile#SKIP}）
+     * @return 局面の集合
+     * @throws IllegalArgumentException 棋譜に石を置けないマスが含まれる
+     */
+    public static TrainingSet fromGames(List<int[]> games) throws IllegalArgumentException {
+        int positionNum = 0;
+        for (int[] moves : games) {
+            positionNum += moves.length;
+        }
+        long[] blacks = new long[positionNum];
+        long[] whites = new long[positionNum];
+        int[] margins = new int[positionNum];
+
+        int count = 0;
+        for (int game = 0; game < games.size(); game++) {
+            final int start = count;
+            Board board = new Board(BitBoard.MAX_SIZE, BitBoard.MAX_SIZE);
+            Disc disc = Disc.BLACK;
+            for (int move : games.get(game)) {
+                if (move != GameRecordFile.SKIP) {
+                    if ((board.getMovableBits(disc) & (1L << move)) == 0) {
+                        throw new IllegalArgumentException(
+                                (game + 1) + " 局目の棋譜に石を置けないマスがあります: " + BitBoard.toDimension(move).getString());
+                    }
+                    board.doMove(move, disc);
+                }
+                blacks[count] = board.getDiscBits(Disc.BLACK);
+                whites[count] = board.getDiscBits(Disc.WHITE);
+                count++;
+                disc = disc.next();
+            }
+
+            final int margin = board.getDiscNum(Disc.BLACK) - board.getDiscNum(Disc.WHITE);
+            for (int i = start; i < count; i++) {
+                margins[i] = margin;
+            }
+        }
+        return new TrainingSet(blacks, whites, margins);
+    }
+
+    /**
+     * 局面の数を取得する
+     * @return 局面の数
+     */
+    public int size() {
+        return margins.length;
+    }
+
+    /**
+     * 黒石のビットボードを取得する
+     * @param index 局面の番号
+     * @return 黒石のビットボード
+     */
+    public long getBlack(int index) {
+        return blacks[index];
+    }
+
+    /**
+     * 白石のビットボードを取得する
+     * @param index 局面の番号
+     * @return 白石のビットボード
+     */
+    public long getWhite(int index) {
+        return whites[index];
+    }
+
+    /**
+     * 終局時の石数の差を取得する
+     * @param index 局面の番号
+     * @return 終局時の石数の差（黒の石数 - 白の石数）
+     */
+    public int getMargin(int index) {
+        return margins[index];
+    }
+}
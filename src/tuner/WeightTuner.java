@@ -0,0 +1,388 @@
+package tuner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import algorithm.Evaluator;
+import algorithm.MobilityEvaluator;
+import algorithm.PatternEvaluator;
+import common.Global;
+import gamerecord.GameRecordFile;
+import reversi.PatternLayout;
+import reversi.PatternLayout.Pattern;
+
+/**
+ * COM 同士の対戦の棋譜から、評価関数の重みを調整するツール<br>
+ * 棋譜の全ての局面（{@link TrainingSet}）について、評価値が終局時の石数の差（1石を {@value #POINT_PER_DISC} とする）に
+ * 近づくよう重みを求め、評価関数が起動時に読み込むファイル（{@link Global#MOBILITY_WEIGHTS_FILE},
+ * {@link Global#PATTERN_WEIGHTS_FILE}）に保存する。
+ * <ul>
+ * <li>{@link MobilityEvaluator}: 特徴の行列から正規方程式を作成し、最小二乗法で求める</li>
+ * <li>{@link PatternEvaluator}: パターンの番号の行列に対して確率的勾配降下法を行う。
+ * 局面をスレッド数に分割し、全てのスレッドが1つの重みの表を同期せずに更新する（Hogwild! 方式）</li>
+ * </ul>
+ * 特徴の行列・正規方程式の作成、勾配降下法はいずれもスレッドプールの全てのスレッドで並列に実行する。
+ * <p>
+ * 使用方法: {@code java -cp <クラスパス> tuner.WeightTuner <棋譜ファイル>...}<br>
+ * 棋譜ファイルは {@code match.MatchMain} のシステムプロパティ {@code match.record} で出力する。
+ * 勾配降下法の反復回数はシステムプロパティ {@code tuner.epochs}、学習率は {@code tuner.learningRate}、
+ * スレッド数は {@code tuner.threads}（省略した場合は CPU のコア数）、乱数のシードは {@code tuner.seed} で指定できる。
+ * @author komoto
+ */
+public class WeightTuner {
+
+    /** 評価値で石数の差 {@code 1} を表す値 */
+    public static final int POINT_PER_DISC = 100;
+
+    /** 勾配降下法の反復回数を省略した場合の回数 */
+    private static final int DEFAULT_EPOCHS = 20;
+
+    /** 学習率を省略した場合の値 */
+    private static final double DEFAULT_LEARNING_RATE = 0.002;
+
+    /** 正規方程式を解く際に対角成分に加える値（特徴が常に0の場合などに解を一意にする） */
+    private static final double RIDGE = 1e-6;
+
+    /** 重みを調整する局面の集合 */
+    private final TrainingSet trainingSet;
+
+    /** 並列に処理するスレッドプール */
+    private final ForkJoinPool pool;
+
+    /**
+     * 初期化を行う
+     * @param trainingSet 重みを調整する局面の集合
+     * @param pool 並列に処理するスレッドプール
+     */
+    public WeightTuner(TrainingSet trainingSet, ForkJoinPool pool) {
+        this.trainingSet = trainingSet;
+        this.pool = pool;
+    }
+
+    /**
+     * 棋譜ファイルを読み込み、重みを調整してファイルに保存する
+     * @param args 棋譜ファイル（1つ以上）
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("使用方法: tuner.WeightTuner <棋譜ファイル>...");
+            System.exit(Global.EXIT_FAILURE);
+        }
+
+        final int epochs = Integer.getInteger("tuner.epochs", DEFAULT_EPOCHS);
+        final double learningRate = Double.parseDouble(
+                System.getProperty("tuner.learningRate", String.valueOf(DEFAULT_LEARNING_RATE)));
+        final int threadNum = Integer.getInteger("tuner.threads", Runtime.getRuntime().availableProcessors());
+        final long seed = Long.getLong("tuner.seed", System.currentTimeMillis());
+
+        ForkJoinPool pool = new ForkJoinPool(threadNum);
+        try {
+            List<int[]> games = new ArrayList<>();
+            for (String file : args) {
+                games.addAll(GameRecordFile.readMoves(Paths.get(file)));
+            }
+            TrainingSet trainingSet = TrainingSet.fromGames(games);
+            System.out.println(String.format("games: %,d, positions: %,d, threads: %d", games.size(),
+                    trainingSet.size(), threadNum));
+            WeightTuner tuner = new WeightTuner(trainingSet, pool);
+
+            MobilityEvaluator mobility = new MobilityEvaluator(tuner.fitMobility());
+            System.out.println(String.format("MobilityEvaluator RMSE: %.1f -> %.1f",
+                    tuner.calcRootMeanSquaredError(new MobilityEvaluator()),
+                    tuner.calcRootMeanSquaredError(mobility)));
+            mobility.save(prepareOutput(Paths.get(Global.MOBILITY_WEIGHTS_FILE)));
+            System.out.println("saved: " + Global.MOBILITY_WEIGHTS_FILE);
+
+            PatternEvaluator initialPattern = new PatternEvaluator();
+            PatternEvaluator pattern = new PatternEvaluator(
+                    tuner.fitPattern(initialPattern.getWeights(), epochs, learningRate, seed));
+            System.out.println(String.format("PatternEvaluator RMSE: %.1f -> %.1f",
+                    tuner.calcRootMeanSquaredError(initialPattern), tuner.calcRootMeanSquaredError(pattern)));
+            pattern.save(prepareOutput(Paths.get(Global.PATTERN_WEIGHTS_FILE)));
+            System.out.println("saved: " + Global.PATTERN_WEIGHTS_FILE);
+        } catch (IOException | IllegalArgumentException | InterruptedException e) {
+            int exitCode = Global.EXIT_FAILURE;
+            e.printStackTrace();
+            System.err.println("重みを調整できないため、プログラムを異常終了します: 終了コード = " + exitCode);
+            System.exit(exitCode);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 出力先のファイルのディレクトリが存在しない場合は作成する
+     * @param path 出力先のファイル
+     * @return 出力先のファイル
+     * @throws IOException ディレクトリを作成できなかった
+     */
+    private static Path prepareOutput(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        return path;
+    }
+
+    /**
+     * {@link MobilityEvaluator} の重みを最小二乗法で求める<br>
+     * 局面ごとの特徴の値を行列に並べ、正規方程式 {@code (X^T X) w = X^T y} をスレッドごとに部分的に作成して合計し、解く。
+     * @return 特徴ごとの重み（{@link MobilityEvaluator.Feature#ordinal()} を要素番号とする）
+     * @throws InterruptedException 処理の終了を待つ間に割り込まれた
+     */
+    public int[] fitMobility() throws InterruptedException {
+        final int n = trainingSet.size();
+        final int f = MobilityEvaluator.FEATURE_NUM;
+
+        // 特徴の行列（局面ごとに特徴の値を並べた配列）を作成する
+        final int[] matrix = new int[n * f];
+        invokeChunks(n, (from, to) -> {
+            final int[] features = new int[f];
+            for (int i = from; i < to; i++) {
+                MobilityEvaluator.calcFeatures(trainingSet.getBlack(i), trainingSet.getWhite(i), -1L, features);
+                System.arraycopy(features, 0, matrix, i * f, f);
+            }
+            return null;
+        });
+
+        // 正規方程式の係数（X^T X と X^T y を並べた配列）を、スレッドごとに作成して合計する
+        final double[] normal = new double[f * f + f];
+        for (double[] partial : invokeChunks(n, (from, to) -> {
+            final double[] sum = new double[f * f + f];
+            for (int i = from; i < to; i++) {
+                final int row = i * f;
+                final double target = (double) trainingSet.getMargin(i) * POINT_PER_DISC;
+                for (int a = 0; a < f; a++) {
+                    for (int b = 0; b < f; b++) {
+                        sum[a * f + b] += (double) matrix[row + a] * matrix[row + b];
+                    }
+                    sum[f * f + a] += matrix[row + a] * target;
+                }
+            }
+            return sum;
+        })) {
+            for (int i = 0; i < normal.length; i++) {
+                normal[i] += partial[i];
+            }
+        }
+
+        final double[][] a = new double[f][f];
+        final double[] b = new double[f];
+        for (int row = 0; row < f; row++) {
+            for (int column = 0; column < f; column++) {
+                a[row][column] = normal[row * f + column];
+            }
+            a[row][row] += RIDGE * Math.max(n, 1);
+            b[row] = normal[f * f + row];
+        }
+        final double[] solution = solve(a, b);
+
+        final int[] weights = new int[f];
+        for (int i = 0; i < f; i++) {
+            weights[i] = (int) Math.round(solution[i]);
+        }
+        return weights;
+    }
+
+    /**
+     * {@link PatternEvaluator} の重みを確率的勾配降下法で求める<br>
+     * 局面ごとに、黒・白それぞれを手番のプレイヤーとしたパターンの番号を行列に並べる（白から見た正解は符号を反転する）。
+     * 反復ごとに局面の順番を並べ替えてスレッド数に分割し、各スレッドが1局面ずつ誤差を求めて重みを更新する。
+     * 重みの表はスレッド間で共有し、同期せずに更新する（更新が稀に失われても収束への影響は小さい）。
+     * @param initialWeights 初期の重み（{@link Pattern#ordinal()} を要素番号とする）
+     * @param epochs 反復回数
+     * @param learningRate 学習率
+     * @param seed 局面の順番を並べ替える乱数のシード
+     * @return パターンの種類ごとの重みの表
+     * @throws InterruptedException 処理の終了を待つ間に割り込まれた
+     */
+    public short[][] fitPattern(short[][] initialWeights, int epochs, double learningRate, long seed)
+            throws InterruptedException {
+        final int n = trainingSet.size() * 2;
+        final int instanceNum = PatternLayout.INSTANCE_NUM;
+
+        // パターンの番号の行列と正解を作成する（偶数行は黒、奇数行は白を手番のプレイヤーとする）
+        final int[] matrix = new int[n * instanceNum];
+        final float[] targets = new float[n];
+        invokeChunks(trainingSet.size(), (from, to) -> {
+            final int[] indexes = new int[instanceNum];
+            for (int i = from; i < to; i++) {
+                final long black = trainingSet.getBlack(i);
+                final long white = trainingSet.getWhite(i);
+                PatternLayout.calcIndexes(black, white, indexes);
+                System.arraycopy(indexes, 0, matrix, (2 * i) * instanceNum, instanceNum);
+                PatternLayout.calcIndexes(white, black, indexes);
+                System.arraycopy(indexes, 0, matrix, (2 * i + 1) * instanceNum, instanceNum);
+                targets[2 * i] = trainingSet.getMargin(i) * POINT_PER_DISC;
+                targets[2 * i + 1] = -targets[2 * i];
+            }
+            return null;
+        });
+
+        // 盤面上のパターンごとに、共有する重みの表を参照する
+        final float[][] weights = new float[Pattern.values().length][];
+        for (Pattern pattern : Pattern.values()) {
+            weights[pattern.ordinal()] = new float[pattern.getSize()];
+            for (int i = 0; i < pattern.getSize(); i++) {
+                weights[pattern.ordinal()][i] = initialWeights[pattern.ordinal()][i];
+            }
+        }
+        final float[][] instanceWeights = new float[instanceNum][];
+        for (int instance = 0; instance < instanceNum; instance++) {
+            instanceWeights[instance] = weights[PatternLayout.getInstancePattern(instance).ordinal()];
+        }
+
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        final SplittableRandom random = new SplittableRandom(seed);
+        final float rate = (float) learningRate;
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+
+            invokeChunks(n, (from, to) -> {
+                for (int k = from; k < to; k++) {
+                    final int row = order[k] * instanceNum;
+                    float point = 0.0f;
+                    for (int instance = 0; instance < instanceNum; instance++) {
+                        point += instanceWeights[instance][matrix[row + instance]];
+                    }
+                    final float delta = rate * (targets[order[k]] - point);
+                    for (int instance = 0; instance < instanceNum; instance++) {
+                        instanceWeights[instance][matrix[row + instance]] += delta;
+                    }
+                }
+                return null;
+            });
+        }
+
+        final short[][] result = new short[weights.length][];
+        for (int p = 0; p < weights.length; p++) {
+            result[p] = new short[weights[p].length];
+            for (int i = 0; i < weights[p].length; i++) {
+                result[p][i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(weights[p][i])));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 評価関数の評価値（黒を手番のプレイヤーとする）と、終局時の石数の差との二乗平均平方根誤差を求める
+     * @param evaluator 評価関数
+     * @return 二乗平均平方根誤差（局面がない場合は {@code 0}）
+     * @throws InterruptedException 処理の終了を待つ間に割り込まれた
+     */
+    public double calcRootMeanSquaredError(Evaluator evaluator) throws InterruptedException {
+        final int n = trainingSet.size();
+        if (n == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (double partial : invokeChunks(n, (from, to) -> {
+            double partialSum = 0.0;
+            for (int i = from; i < to; i++) {
+                double error = evaluator.evaluate(trainingSet.getBlack(i), trainingSet.getWhite(i))
+                        - (double) trainingSet.getMargin(i) * POINT_PER_DISC;
+                partialSum += error * error;
+            }
+            return partialSum;
+        })) {
+            sum += partial;
+        }
+        return Math.sqrt(sum / n);
+    }
+
+    /**
+     * 範囲 {@code [from, to)} の処理を定義する
+     * @param <T> 処理の結果の型
+     */
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T run(int from, int to);
+    }
+
+    /**
+     * {@code [0, n)} の範囲をスレッドプールのスレッド数に分割し、並列に処理して全ての結果を取得する
+     * @param <T> 処理の結果の型
+     * @param n 範囲の大きさ
+     * @param task 分割した範囲ごとの処理
+     * @return 分割した範囲の順番に並べた処理の結果
+     * @throws InterruptedException 処理の終了を待つ間に割り込まれた
+     * @throws RuntimeException 処理中に例外が発生した
+     */
+    private <T> List<T> invokeChunks(int n, ChunkTask<T> task) throws InterruptedException, RuntimeException {
+        final int chunkNum = Math.max(1, Math.min(pool.getParallelism(), n));
+        List<Callable<T>> tasks = new ArrayList<>(chunkNum);
+        for (int chunk = 0; chunk < chunkNum; chunk++) {
+            final int from = (int) ((long) n * chunk / chunkNum);
+            final int to = (int) ((long) n * (chunk + 1) / chunkNum);
+            tasks.add(() -> task.run(from, to));
+        }
+
+        List<T> results = new ArrayList<>(chunkNum);
+        for (Future<T> future : pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new RuntimeException("重みの調整中に例外が発生しました", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 連立一次方程式 {@code a x = b} を部分ピボット選択付きのガウスの消去法で解く
+     * @param a 係数行列（処理中に変更する）
+     * @param b 右辺（処理中に変更する）
+     * @return 解
+     */
+    static double[] solve(double[][] a, double[] b) {
+        final int size = b.length;
+        for (int column = 0; column < size; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < size; row++) {
+                if (Math.abs(a[row][column]) > Math.abs(a[pivot][column])) {
+                    pivot = row;
+                }
+            }
+            double[] tmpRow = a[column];
+            a[column] = a[pivot];
+            a[pivot] = tmpRow;
+            double tmp = b[column];
+            b[column] = b[pivot];
+            b[pivot] = tmp;
+
+            for (int row = column + 1; row < size; row++) {
+                final double factor = a[row][column] / a[column][column];
+                for (int k = column; k < size; k++) {
+                    a[row][k] -= factor * a[column][k];
+                }
+                b[row] -= factor * b[column];
+            }
+        }
+
+        final double[] x = new double[size];
+        for (int row = size - 1; row >= 0; row--) {
+            double sum = b[row];
+            for (int k = row + 1; k < size; k++) {
+                sum -= a[row][k] * x[k];
+            }
+            x[row] = sum / a[row][row];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * COM 同士の対戦の棋譜から、評価関数の重みを調整するパッケージ
+ * @author komoto
+ */
+package tuner;
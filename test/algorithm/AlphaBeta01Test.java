@@ -0,0 +1,189 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import common.Global;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+import test.RandomGame;
+
+class AlphaBeta01Test {
+
+    // テスト対象クラスのインスタンス
+    AlphaBeta01 alphaBeta01;
+    Board board;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        board = new Board(8, 8);
+        alphaBeta01 = new AlphaBeta01(board, Disc.BLACK);
+    }
+
+    @Test
+    void testRun() {
+        assertNotNull(alphaBeta01.run());
+    }
+
+    @Test
+    void testRunEvaluator() {
+        // 評価関数を指定した場合は、探索の末端の局面をその評価関数で評価すること
+        final long[] evaluateCount = new long[1];
+        AlphaBeta01 custom = new AlphaBeta01(board, Disc.BLACK, 4, new TranspositionTable(1),
+                (player, opponent) -> {
+                    evaluateCount[0]++;
+                    return MobilityEvaluator.getDefault().evaluate(player, opponent);
+                });
+        Dimension result = custom.run();
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+        assertTrue(evaluateCount[0] > 0);
+    }
+
+    @Test
+    void testRunEndgameTimeLimit() {
+        // 時間内に読み切れない空きマスの数を指定した場合は、読み切りを打ち切って評価関数で探索すること
+        alphaBeta01.setEndgameEmpties(board.getEmptyDiscNum());
+        alphaBeta01.setTimeLimit(100);
+
+        Dimension result = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> alphaBeta01.run());
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+        assertTrue(alphaBeta01.getCompletedDepth() >= 0);
+        assertTrue(alphaBeta01.getCompletedDepth() < board.getEmptyDiscNum());
+    }
+
+    @Test
+    void testRunTimeLimit() {
+        // 時間制限内に終えられない深さを指定し、時間制限で探索を打ち切ること
+        final int depth = 60;
+        AlphaBeta01 algorithm = new AlphaBeta01(board, Disc.BLACK, depth);
+        algorithm.setTimeLimit(200);
+
+        // 打ち切った深さの結果は使用せず、完了した深さの結果から石を置けるマスを選ぶこと
+        Dimension result = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> algorithm.run());
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+        assertTrue(algorithm.getCompletedDepth() >= 0);
+        assertTrue(algorithm.getCompletedDepth() < depth);
+    }
+
+    @Test
+    void testRunForcedPass() {
+        // 相手がパスする局面・終局する局面を探索しても、最大・最小の評価値としないこと
+        final int maxScore = (BitBoard.CELL_NUM + 1) * 100;
+        int passNum = 0;
+        for (long seed = 0; seed < 10; seed++) {
+            board = new Board(8, 8);
+            RandomGame game = new RandomGame(board, seed);
+            while (game.next()) {
+                Disc disc = game.getTurnDisc();
+                if (!hasPassMove(board, disc)) {
+                    continue;
+                }
+                passNum++;
+
+                AlphaBeta01 algorithm = new AlphaBeta01(board, disc, 2);
+                algorithm.setEndgameEmpties(0);
+                assertNotNull(algorithm.run());
+                assertTrue(Math.abs(algorithm.getRootScore()) < maxScore,
+                        "パスした局面の評価値が範囲外です: " + algorithm.getRootScore());
+            }
+        }
+        assertTrue(passNum > 0);
+    }
+
+    @Test
+    void testGetPrincipalVariation() {
+        // 読み筋の最初の手が選んだ座標と一致し、全ての手を順に置けること
+        assertEquals(0, alphaBeta01.getPrincipalVariation().length);
+        Dimension result = alphaBeta01.run();
+        int[] pv = alphaBeta01.getPrincipalVariation();
+
+        assertTrue(pv.length >= 1);
+        assertEquals(result.getString(), BitBoard.toDimension(pv[0]).getString());
+        Disc disc = Disc.BLACK;
+        for (int move : pv) {
+            assertNotEquals(0L, board.doMove(move, disc));
+            disc = disc.next();
+        }
+    }
+
+    @Test
+    void testRunReuse() {
+        // 1つのインスタンスを使い回して、対局の終わりまで石を置ける座標を選べること
+        AlphaBeta01 black = new AlphaBeta01(board, Disc.BLACK, 2);
+        AlphaBeta01 white = new AlphaBeta01(board, Disc.WHITE, 2);
+        black.newGame();
+        white.newGame();
+
+        Disc disc = Disc.BLACK;
+        while (board.canPutAll(Disc.BLACK) || board.canPutAll(Disc.WHITE)) {
+            if (!board.canPutAll(disc)) {
+                disc = disc.next();
+                continue;
+            }
+
+            AlphaBeta01 algorithm = (disc == Disc.BLACK) ? black : white;
+            algorithm.setBoard(board);
+            Dimension target = algorithm.run();
+            assertTrue(board.put(target, disc), "石を置けない座標が選ばれました: " + target.getString());
+            ((disc == Disc.BLACK) ? white : black).opponentMoved(target);
+            disc = disc.next();
+        }
+        black.gameOver();
+        white.gameOver();
+
+        // 新しい対局の開始時に、置換表が初期化されること
+        black.newGame();
+        assertEquals(TranspositionTable.NOT_FOUND,
+                black.getTranspositionTable().find(TranspositionTable.calcKey(new Board(8, 8), Disc.BLACK)));
+    }
+
+    /**
+     * 相手がパスする（石を置けなくなる）手があるかを判定する
+     * @param board リバーシ盤
+     * @param disc 石を置くプレイヤーの石
+     * @return 相手がパスする手がある場合は真 {@code true}
+     */
+    private static boolean hasPassMove(Board board, Disc disc) {
+        for (long movable = board.getMovableBits(disc); movable != 0; movable &= movable - 1) {
+            int index = Long.numberOfTrailingZeros(movable);
+            long flip = board.doMove(index, disc);
+            boolean isPass = !board.canPutAll(disc.next());
+            board.undoMove(index, disc, flip);
+            if (isPass) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * 評価点への乱数加算がない状態で、Mini-Max法と同じ座標を選ぶことをテストする<br>
+     * デフォルトは加算がある
+     */
+    @Test
+    void testRunSameAsMiniMax() {
+        assertFalse(Global.IS_ADD_RANDOM);
+
+        // 固定のシードでランダムに石を置きながら、各局面で両アルゴリズムの結果を比較する
+        RandomGame game = new RandomGame(board, 0);
+
+        while (game.next()) {
+            Disc disc = game.getTurnDisc();
+
+            Dimension expected = new MiniMax01(board, disc).run();
+            Dimension actual = new AlphaBeta01(board, disc, 4).run();
+            if (expected != null) {
+                assertEquals(expected.getString(), actual.getString());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BoundTableTest {
+
+    // テスト対象クラスのインスタンス
+    BoundTable table;
+
+    final long key = 0x123456789abcdefL;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        table = new BoundTable(1);
+    }
+
+    @Test
+    void testBoundTable() {
+        // 1MB に収まる2の累乗のエントリ数
+        assertEquals(1 << 15, table.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new BoundTable(0));
+    }
+
+    @Test
+    void testStoreFind() {
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(key));
+
+        // 探索範囲の上限以上は下限、探索範囲の下限以下は上限、範囲内は正確な値として記録すること
+        table.store(key, 4, 99, 100, 150, 63);
+        int slot = table.find(key);
+        assertNotEquals(TranspositionTable.NOT_FOUND, slot);
+        assertEquals(4, table.getDepth(slot));
+        assertEquals(150, table.getLower(slot));
+        assertEquals(Integer.MAX_VALUE, table.getUpper(slot));
+        assertEquals(63, table.getBestMove(slot));
+
+        table.store(key, 5, 99, 100, 50, TranspositionTable.NO_MOVE);
+        slot = table.find(key);
+        assertEquals(-Integer.MAX_VALUE, table.getLower(slot));
+        assertEquals(50, table.getUpper(slot));
+        assertEquals(TranspositionTable.NO_MOVE, table.getBestMove(slot));
+
+        table.store(key, 5, -1000, 1000, -20, 0);
+        slot = table.find(key);
+        assertEquals(-20, table.getLower(slot));
+        assertEquals(-20, table.getUpper(slot));
+    }
+
+    @Test
+    void testStoreMerge() {
+        // 同じ探索・同じ深さの結果は、上限・下限を合わせて記録すること
+        table.store(key, 6, 199, 200, 300, 10);
+        table.store(key, 6, 499, 500, 400, 11);
+        int slot = table.find(key);
+        assertEquals(300, table.getLower(slot));
+        assertEquals(400, table.getUpper(slot));
+        assertEquals(11, table.getBestMove(slot));
+
+        // 矛盾する場合は今回の結果のみ記録すること
+        table.store(key, 6, 599, 600, 700, 12);
+        slot = table.find(key);
+        assertEquals(700, table.getLower(slot));
+        assertEquals(Integer.MAX_VALUE, table.getUpper(slot));
+
+        // 深さが異なる場合は合わせないこと
+        table.store(key, 7, 99, 100, 50, 13);
+        slot = table.find(key);
+        assertEquals(-Integer.MAX_VALUE, table.getLower(slot));
+        assertEquals(50, table.getUpper(slot));
+
+        // 新しい探索では合わせないこと
+        table.newSearch();
+        table.store(key, 7, 9, 10, 20, 14);
+        slot = table.find(key);
+        assertEquals(20, table.getLower(slot));
+        assertEquals(Integer.MAX_VALUE, table.getUpper(slot));
+    }
+
+    @Test
+    void testStoreOverwrite() {
+        // 同じ格納位置になる別の局面
+        final long key1 = 1L;
+        final long key2 = 1L + table.getCapacity();
+
+        // 同じ探索中は、より深い探索の結果を残す
+        table.store(key1, 6, 0, 1, 100, 0);
+        table.store(key2, 3, 0, 1, 200, 0);
+        assertNotEquals(TranspositionTable.NOT_FOUND, table.find(key1));
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(key2));
+
+        // 新しい探索では、深さに関わらず上書きする
+        table.newSearch();
+        table.store(key2, 3, 0, 1, 200, 0);
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(key1));
+        assertNotEquals(TranspositionTable.NOT_FOUND, table.find(key2));
+
+        table.clear();
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(key2));
+        assertEquals(0, table.getHitCount());
+        assertEquals(0, table.getStoreCount());
+    }
+}
@@ -0,0 +1,131 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+
+class EndgameSolverTest {
+
+    // テスト対象クラスのインスタンス
+    EndgameSolver solver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        solver = new EndgameSolver();
+    }
+
+    @Test
+    void testSolveExact() {
+        // 全ての手を探索した結果と一致すること
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            Board board = new Board(8, 8);
+            Disc turnDisc = playRandom(board, random, 1 + i % 8);
+
+            int expected = solveByMiniMax(board, turnDisc);
+            assertEquals(expected, solver.solveExact(board, turnDisc));
+            assertEquals(Integer.signum(expected), solver.solveWinLossDraw(board, turnDisc));
+        }
+    }
+
+    @Test
+    void testGetBestMove() {
+        // 最善手に石を置いた局面の結果が、読み切った石数の差と一致すること
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            Board board = new Board(8, 8);
+            Disc turnDisc = playRandom(board, random, 2 + i % 7);
+
+            int expected = solver.solveExact(board, turnDisc);
+            int bestMove = solver.getBestMove();
+            if (bestMove == TranspositionTable.NO_MOVE) {
+                assertEquals(0L, board.getMovableBits(turnDisc));
+                continue;
+            }
+            assertNotEquals(0L, board.doMove(bestMove, turnDisc));
+            assertEquals(expected, -solveByMiniMax(board, turnDisc.next()));
+        }
+    }
+
+    @Test
+    void testSolveSmallBoard() {
+        // 4x4 のリバーシ盤を初期状態から読み切れること
+        Board board = new Board(4, 4);
+        assertEquals(solveByMiniMax(board, Disc.BLACK), solver.solveExact(board, Disc.BLACK));
+        assertTrue(board.canPut(BitBoard.toDimension(solver.getBestMove()), Disc.BLACK));
+    }
+
+    @Test
+    void testSolveDeadline() {
+        // 打ち切る時刻を過ぎている場合は、読み切らずに打ち切ること
+        Board board = new Board(8, 8);
+        Disc turnDisc = playRandom(board, new Random(2), 20);
+        solver.setDeadline(System.nanoTime() - 1);
+        solver.solveExact(board, turnDisc);
+        assertTrue(solver.isAborted());
+
+        // 打ち切らない設定に戻した場合は、最後まで読み切ること
+        board = new Board(8, 8);
+        turnDisc = playRandom(board, new Random(3), 8);
+        solver.setDeadline(Long.MAX_VALUE);
+        assertEquals(solveByMiniMax(board, turnDisc), solver.solveExact(board, turnDisc));
+        assertFalse(solver.isAborted());
+    }
+
+    /**
+     * 空きマスが指定した数になるまで、ランダムに石を置く
+     * @param board リバーシ盤
+     * @param random 乱数
+     * @param empties 残す空きマスの数
+     * @return 次に石を置くプレイヤーの石
+     */
+    private Disc playRandom(Board board, Random random, int empties) {
+        Disc disc = Disc.BLACK;
+        while (board.getEmptyDiscNum() > empties && (board.canPutAll(Disc.BLACK) || board.canPutAll(Disc.WHITE))) {
+            long movable = board.getMovableBits(disc);
+            if (movable != 0) {
+                int skip = random.nextInt(Long.bitCount(movable));
+                for (int i = 0; i < skip; i++) {
+                    movable &= movable - 1;
+                }
+                board.doMove(Long.numberOfTrailingZeros(movable), disc);
+            }
+            disc = disc.next();
+        }
+        return disc;
+    }
+
+    /**
+     * 枝刈りを行わずに全ての手を探索し、終局時の石数の差を求める
+     * @param board リバーシ盤
+     * @param turnDisc 次に石を置くプレイヤーの石
+     * @return {@code turnDisc} のプレイヤーから見た石数の差
+     */
+    private int solveByMiniMax(Board board, Disc turnDisc) {
+        long movable = board.getMovableBits(turnDisc);
+        if (movable == 0) {
+            if (board.getMovableBits(turnDisc.next()) == 0) {
+                return board.getDiscNum(turnDisc) - board.getDiscNum(turnDisc.next());
+            }
+            return -solveByMiniMax(board, turnDisc.next());
+        }
+
+        int maxPoint = Integer.MIN_VALUE;
+        while (movable != 0) {
+            int index = Long.numberOfTrailingZeros(movable);
+            movable &= movable - 1;
+
+            long flip = board.doMove(index, turnDisc);
+            maxPoint = Math.max(maxPoint, -solveByMiniMax(board, turnDisc.next()));
+            board.undoMove(index, turnDisc, flip);
+        }
+        return maxPoint;
+    }
+}
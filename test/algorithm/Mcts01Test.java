@@ -0,0 +1,180 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+
+class Mcts01Test {
+
+    // テスト対象クラスのインスタンス
+    Mcts01 mcts01;
+    Board board;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        board = new Board(8, 8);
+        mcts01 = new Mcts01(board, Disc.BLACK, 2000);
+    }
+
+    @Test
+    void testRun() {
+        Dimension result = mcts01.run();
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+
+        // 指定した回数のプレイアウトを行い、全て木の根の子のいずれかを通ること
+        assertEquals(2000, mcts01.getPlayoutCount());
+        assertTrue(mcts01.getNodeCount() > 1);
+        int visitSum = 0;
+        long movable = board.getMovableBits(Disc.BLACK);
+        while (movable != 0) {
+            int index = Long.numberOfTrailingZeros(movable);
+            movable &= movable - 1;
+            visitSum += mcts01.getRootVisits(index);
+        }
+        assertEquals(2000, visitSum);
+
+        // 選んだ手が最も多く選ばれていること
+        int resultVisits = mcts01.getRootVisits(BitBoard.toIndex(result.getRow(), result.getColumn()));
+        for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+            assertTrue(mcts01.getRootVisits(index) <= resultVisits);
+        }
+    }
+
+    @Test
+    void testRunParallel() {
+        // 複数のスレッドで1つの木を共有しても、指定した回数のプレイアウトを行い、バーチャルロスが全て取り消されること
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            mcts01.setParallel(true);
+            mcts01.setPool(pool);
+            for (int i = 0; i < 3; i++) {
+                Dimension result = mcts01.run();
+                assertNotNull(result);
+                assertTrue(board.canPut(result, Disc.BLACK));
+                assertEquals(2000, mcts01.getPlayoutCount());
+
+                int visitSum = 0;
+                for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+                    visitSum += mcts01.getRootVisits(index);
+                }
+                assertEquals(2000, visitSum);
+                assertTrue(mcts01.getCasRetryCount() >= 0);
+                assertTrue(mcts01.getExpansionCollisionCount() >= 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRunParallelTimeLimit() {
+        final long timeLimit = 200;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            mcts01.setParallel(true);
+            mcts01.setPool(pool);
+            mcts01.setTimeLimit(timeLimit);
+
+            // 時間制限で打ち切った場合も、開始したプレイアウトは全て木の根の子に反映されること
+            Dimension result = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> mcts01.run());
+            assertNotNull(result);
+            assertTrue(board.canPut(result, Disc.BLACK));
+            assertTrue(mcts01.getPlayoutCount() > 0);
+            assertEquals(mcts01.getPlayoutCount(), sumRootVisits());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRunTimeLimit() {
+        final long timeLimit = 200;
+        mcts01.setTimeLimit(timeLimit);
+
+        // 時間制限までプレイアウトを続け、行った全てのプレイアウトが木の根の子に反映されること
+        Dimension result = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> mcts01.run());
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+        assertTrue(mcts01.getPlayoutCount() > 0);
+        assertEquals(mcts01.getPlayoutCount(), sumRootVisits());
+    }
+
+    @Test
+    void testRunNodeCapacity() {
+        // ノードの数が上限に達しても、プレイアウトを続けて手を選ぶこと
+        final int capacity = BitBoard.CELL_NUM + 1;
+        Mcts01 small = new Mcts01(board, Disc.BLACK, 2000, capacity);
+        assertNotNull(small.run());
+        assertEquals(2000, small.getPlayoutCount());
+        assertTrue(small.getNodeCount() <= capacity);
+
+        assertThrows(IllegalArgumentException.class, () -> new Mcts01(board, Disc.BLACK, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Mcts01(board, Disc.BLACK, 1, BitBoard.CELL_NUM));
+    }
+
+    @Test
+    void testPlayout() {
+        // 石を置けない局面からのプレイアウトは、石数の差をそのまま返すこと
+        final long mask = board.getBoardMask();
+        SplittableRandom random = new SplittableRandom(0);
+        assertEquals(3, Mcts01.playout(0b111L, 0L, mask, random));
+        assertEquals(-3, Mcts01.playout(0L, 0b111L, mask, random));
+
+        // 初期配置からのプレイアウトは、終局まで石を置くこと（空きマスが残る場合もある）
+        for (int i = 0; i < 100; i++) {
+            int diff = Mcts01.playout(board.getDiscBits(Disc.BLACK), board.getDiscBits(Disc.WHITE), mask, random);
+            assertTrue(Math.abs(diff) <= BitBoard.CELL_NUM);
+        }
+    }
+
+    @Test
+    void testStrongerThanRandom() {
+        // 固定のシードで、ランダムに石を置くアルゴリズムと先手・後手を入れ替えて対局し、大きく勝ち越すこと
+        int winCount = 0;
+        final int gameNum = 10;
+        for (int game = 0; game < gameNum; game++) {
+            Disc mctsDisc = (game % 2 == 0) ? Disc.BLACK : Disc.WHITE;
+            Board gameBoard = new Board(8, 8);
+            Mcts01 mcts = new Mcts01(gameBoard, mctsDisc, 1000, 1 << 16);
+            mcts.setRandom(new SplittableRandom(game));
+            RandomAlgorithm randomAlgorithm = new RandomAlgorithm(gameBoard, mctsDisc.next());
+            randomAlgorithm.setRandom(new SplittableRandom(game + gameNum));
+
+            Disc disc = Disc.BLACK;
+            while (gameBoard.canPutAll(Disc.BLACK) || gameBoard.canPutAll(Disc.WHITE)) {
+                if (gameBoard.canPutAll(disc)) {
+                    Dimension target = (disc == mctsDisc) ? mcts.run() : randomAlgorithm.run();
+                    assertTrue(gameBoard.put(target, disc));
+                }
+                disc = disc.next();
+            }
+            if (gameBoard.getDiscNum(mctsDisc) > gameBoard.getDiscNum(mctsDisc.next())) {
+                winCount++;
+            }
+        }
+        assertTrue(winCount >= 8, "勝ち数: " + winCount);
+    }
+
+    /**
+     * 木の根の子が選ばれた回数の合計を求める
+     * @return 選ばれた回数の合計
+     */
+    private long sumRootVisits() {
+        long visitSum = 0;
+        for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+            visitSum += mcts01.getRootVisits(index);
+        }
+        return visitSum;
+    }
+}
@@ -13,6 +13,7 @@ import common.Global;
 import reversi.Board;
 import reversi.Dimension;
 import reversi.Disc;
+import test.RandomGame;
 import test.ReflectMember;
 
 class MiniMax01Test {
@@ -119,4 +120,39 @@ class MiniMax01Test {
     void testRun() {
         assertNotNull(miniMax01.run());
     }
+
+    @Test
+    void testRunParallel() {
+        miniMax01.setParallel(true);
+        assertNotNull(miniMax01.run());
+    }
+
+    /*
+     * 評価点への乱数加算がない状態で、並列探索が逐次探索と同じ座標を選ぶことをテストする<br>
+     * デフォルトは加算がある
+     */
+    @Test
+    void testRunParallelSameAsSequential() {
+        assertFalse(Global.IS_ADD_RANDOM);
+
+        // 固定のシードでランダムに石を置きながら、各局面で逐次探索と並列探索の結果を比較する
+        RandomGame game = new RandomGame(board, 0);
+
+        while (game.next()) {
+            Disc disc = game.getTurnDisc();
+
+            MiniMax01 sequential = new MiniMax01(board, disc);
+            Dimension expected = sequential.run();
+
+            MiniMax01 parallel = new MiniMax01(board, disc);
+            parallel.setParallel(true);
+            Dimension actual = parallel.run();
+
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertEquals(expected.getString(), actual.getString());
+            }
+        }
+    }
 }
@@ -0,0 +1,280 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import algorithm.MobilityEvaluator.Feature;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+
+class MobilityEvaluatorTest {
+
+    // テスト対象クラスのインスタンス
+    MobilityEvaluator evaluator;
+
+    /** 8方向の行・列の移動量 */
+    static final int[][] DIRECTIONS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, { -1, -1 }, { -1, 1 }, { 1, -1 },
+            { 1, 1 } };
+
+    /** 4つの軸（縦・横・斜め2方向）の片方の向きの行・列の移動量 */
+    static final int[][] AXES = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
+
+    @BeforeEach
+    void setUp() throws Exception {
+        evaluator = new MobilityEvaluator();
+    }
+
+    @Test
+    void testCalcNeighbors() {
+        // 隣接するマスが、マスごとに8方向を調べた結果と一致すること
+        Random random = new Random(0);
+        for (int n = 0; n < 100; n++) {
+            long bits = random.nextLong() & random.nextLong() & random.nextLong();
+            long expected = 0L;
+            for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+                for (int[] direction : DIRECTIONS) {
+                    int row = BitBoard.toRow(index) + direction[0];
+                    int column = BitBoard.toColumn(index) + direction[1];
+                    if (isInside(row, column) && (bits & (1L << BitBoard.toIndex(row, column))) != 0) {
+                        expected |= 1L << index;
+                    }
+                }
+            }
+            assertEquals(expected, BitBoard.calcNeighbors(bits));
+        }
+    }
+
+    @Test
+    void testCalcStable() {
+        final long a1 = 1L << BitBoard.toIndex(0, 0);
+        final long b1 = 1L << BitBoard.toIndex(0, 1);
+        final long b2 = 1L << BitBoard.toIndex(1, 1);
+
+        // 隅とそれに連なる辺の石は確定石、隅が空いている場合の石は確定石でないこと
+        assertEquals(a1 | b1, BitBoard.calcStable(a1 | b1, 0L, -1L));
+        assertEquals(0L, BitBoard.calcStable(b1 | b2, 0L, -1L));
+        assertEquals(a1, BitBoard.calcStable(a1 | b2, 0L, -1L));
+
+        // 全て埋まった盤面では全ての石が確定石であること
+        Random random = new Random(1);
+        long player = random.nextLong();
+        assertEquals(player, BitBoard.calcStable(player, ~player, -1L));
+
+        // 盤の範囲外は盤の端として扱うこと（4×4 の盤の右下の隅）
+        Board small = new Board(4, 4);
+        long corner = 1L << BitBoard.toIndex(3, 3);
+        assertEquals(corner, BitBoard.calcStable(corner, 0L, small.getBoardMask()));
+        assertEquals(0L, BitBoard.calcStable(corner, 0L, -1L));
+    }
+
+    @Test
+    void testCalcStableNeverFlipped() {
+        // ランダムな対局で、確定石と判定した石は終局まで反転しないこと
+        Random random = new Random(2);
+        for (int game = 0; game < 50; game++) {
+            Board board = new Board(8, 8);
+            long[] stables = new long[Disc.values().length];
+            Disc disc = Disc.BLACK;
+            while (board.canPutAll(Disc.BLACK) || board.canPutAll(Disc.WHITE)) {
+                for (Disc player : Disc.values()) {
+                    long stable = BitBoard.calcStable(board.getDiscBits(player), board.getDiscBits(player.next()),
+                            board.getBoardMask());
+                    assertEquals(stables[player.ordinal()], stable & stables[player.ordinal()], "確定石が反転しました");
+                    assertEquals(stable, stable & board.getDiscBits(player));
+                    assertEquals(naiveStable(board.getDiscBits(player), board.getDiscBits(player.next())), stable);
+                    stables[player.ordinal()] = stable;
+                }
+
+                long movable = board.getMovableBits(disc);
+                if (movable != 0) {
+                    int skip = random.nextInt(Long.bitCount(movable));
+                    for (int i = 0; i < skip; i++) {
+                        movable &= movable - 1;
+                    }
+                    board.doMove(Long.numberOfTrailingZeros(movable), disc);
+                }
+                disc = disc.next();
+            }
+        }
+    }
+
+    @Test
+    void testCalcStableSameAsNaive() {
+        // 確定石が、マスごとに軸を調べて繰り返し判定した結果と一致すること
+        Random random = new Random(3);
+        for (int n = 0; n < 200; n++) {
+            long filled = random.nextLong() | random.nextLong() | random.nextLong();
+            long player = filled & random.nextLong();
+            long opponent = filled & ~player;
+            assertEquals(naiveStable(player, opponent), BitBoard.calcStable(player, opponent, -1L));
+        }
+    }
+
+    @Test
+    void testCalcFeatures() {
+        // 特徴の値が、マスごとに数えた値と一致し、評価値は特徴の値と重みの積の合計であること
+        Random random = new Random(4);
+        int[] features = new int[MobilityEvaluator.FEATURE_NUM];
+        for (int n = 0; n < 100; n++) {
+            long player = random.nextLong() & random.nextLong();
+            long opponent = random.nextLong() & ~player;
+            MobilityEvaluator.calcFeatures(player, opponent, -1L, features);
+
+            assertEquals(Long.bitCount(BitBoard.calcMobility(player, opponent))
+                    - Long.bitCount(BitBoard.calcMobility(opponent, player)), features[Feature.MOBILITY.ordinal()]);
+            assertEquals(countAdjacentEmpty(opponent, player) - countAdjacentEmpty(player, opponent),
+                    features[Feature.POTENTIAL_MOBILITY.ordinal()]);
+            assertEquals(countFrontier(player, opponent) - countFrontier(opponent, player),
+                    features[Feature.FRONTIER.ordinal()]);
+            assertEquals(Long.bitCount(naiveStable(player, opponent)) - Long.bitCount(naiveStable(opponent, player)),
+                    features[Feature.STABLE.ordinal()]);
+
+            int point = 0;
+            for (Feature feature : Feature.values()) {
+                point += evaluator.getWeight(feature) * features[feature.ordinal()];
+            }
+            assertEquals(point, evaluator.evaluate(player, opponent));
+            assertEquals(-point, evaluator.evaluate(opponent, player));
+        }
+    }
+
+    @Test
+    void testEvaluateBoard() {
+        // 8×8 のリバーシ盤では石の配置からの評価と一致し、小さいリバーシ盤では盤の範囲外の空きマスを数えないこと
+        Board board = new Board(8, 8);
+        assertEquals(evaluator.evaluate(board.getDiscBits(Disc.BLACK), board.getDiscBits(Disc.WHITE)),
+                evaluator.evaluate(board, Disc.BLACK));
+        assertEquals(0, evaluator.evaluate(board, Disc.BLACK));
+
+        Board small = new Board(4, 4);
+        int[] features = new int[MobilityEvaluator.FEATURE_NUM];
+        MobilityEvaluator.calcFeatures(small.getDiscBits(Disc.BLACK), small.getDiscBits(Disc.WHITE),
+                small.getBoardMask(), features);
+        assertEquals(0, features[Feature.POTENTIAL_MOBILITY.ordinal()]);
+        assertEquals(0, evaluator.evaluate(small, Disc.BLACK));
+    }
+
+    @Test
+    void testMobilityEvaluatorWeights() {
+        // 指定した重みは複製して保持すること
+        int[] weights = evaluator.getWeights();
+        weights[Feature.STABLE.ordinal()] = 1234;
+        MobilityEvaluator custom = new MobilityEvaluator(weights);
+        weights[Feature.STABLE.ordinal()] = 0;
+        assertEquals(1234, custom.getWeight(Feature.STABLE));
+        assertEquals(Feature.STABLE.getDefaultWeight(), evaluator.getWeight(Feature.STABLE));
+
+        assertThrows(IllegalArgumentException.class, () -> new MobilityEvaluator(null));
+        assertThrows(IllegalArgumentException.class, () -> new MobilityEvaluator(new int[1]));
+    }
+
+    /**
+     * 行・列が 8×8 の盤の範囲内であるかを判定する
+     * @param row 行
+     * @param column 列
+     * @return 範囲内であれば {@code true}
+     */
+    private static boolean isInside(int row, int column) {
+        return row >= 0 && row < BitBoard.MAX_SIZE && column >= 0 && column < BitBoard.MAX_SIZE;
+    }
+
+    /**
+     * 指定した石に隣接する空きマスの数を、マスごとに数える
+     */
+    private static int countAdjacentEmpty(long discs, long others) {
+        final long empty = ~(discs | others);
+        int count = 0;
+        for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+            if ((empty & (1L << index)) != 0 && hasNeighbor(index, discs)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 空きマスに隣接する石の数を、マスごとに数える
+     */
+    private static int countFrontier(long discs, long others) {
+        final long empty = ~(discs | others);
+        int count = 0;
+        for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+            if ((discs & (1L << index)) != 0 && hasNeighbor(index, empty)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * マスに隣接するマスのいずれかが、指定したビットボードに含まれるかを判定する
+     */
+    private static boolean hasNeighbor(int index, long bits) {
+        for (int[] direction : DIRECTIONS) {
+            int row = BitBoard.toRow(index) + direction[0];
+            int column = BitBoard.toColumn(index) + direction[1];
+            if (isInside(row, column) && (bits & (1L << BitBoard.toIndex(row, column))) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 確定石を、マスごとに4つの軸を調べて、確定石が増えなくなるまで判定する（8×8 のリバーシ盤）
+     */
+    private static long naiveStable(long player, long opponent) {
+        final long filled = player | opponent;
+        long stable = 0L;
+        boolean isChanged = true;
+        while (isChanged) {
+            isChanged = false;
+            for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+                long bit = 1L << index;
+                if ((player & bit) == 0 || (stable & bit) != 0) {
+                    continue;
+                }
+                boolean isStable = true;
+                for (int[] axis : AXES) {
+                    if (!isAxisStable(index, axis, filled, stable)) {
+                        isStable = false;
+                        break;
+                    }
+                }
+                if (isStable) {
+                    stable |= bit;
+                    isChanged = true;
+                }
+            }
+        }
+        return stable;
+    }
+
+    /**
+     * 1つの軸について、列が全て埋まっているか、両隣のいずれかが盤の外・確定石であるかを判定する
+     */
+    private static boolean isAxisStable(int index, int[] axis, long filled, long stable) {
+        boolean isFull = true;
+        boolean isSideStable = false;
+        for (int sign = -1; sign <= 1; sign += 2) {
+            int row = BitBoard.toRow(index) + sign * axis[0];
+            int column = BitBoard.toColumn(index) + sign * axis[1];
+            if (!isInside(row, column) || (stable & (1L << BitBoard.toIndex(row, column))) != 0) {
+                isSideStable = true;
+            }
+            while (isInside(row, column)) {
+                if ((filled & (1L << BitBoard.toIndex(row, column))) == 0) {
+                    isFull = false;
+                }
+                row += sign * axis[0];
+                column += sign * axis[1];
+            }
+        }
+        return isFull || isSideStable;
+    }
+}
@@ -0,0 +1,110 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reversi.BitBoard;
+import reversi.Disc;
+
+class MoveOrderingTest {
+
+    // テスト対象クラスのインスタンス
+    MoveOrdering ordering;
+
+    // 角（0）・角に斜めに隣接するマス（9）・端（2）・内側（19）・内側（20）
+    final long movable = (1L << 0) | (1L << 9) | (1L << 2) | (1L << 19) | (1L << 20);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ordering = new MoveOrdering();
+    }
+
+    @Test
+    void testOrderMoves() {
+        // マスの位置の評価値の順に並ぶこと（同じ評価値の場合は行・列の昇順）
+        int[] moves = ordering.orderMoves(movable, Disc.BLACK, 0, TranspositionTable.NO_MOVE);
+        assertArrayEquals(new int[] { 0, 2, 19, 20, 9 }, Arrays.copyOf(moves, Long.bitCount(movable)));
+
+        // ハッシュ手が最初に並ぶこと
+        moves = ordering.orderMoves(movable, Disc.BLACK, 0, 9);
+        assertEquals(9, moves[0]);
+        assertEquals(0, moves[1]);
+
+        // 石を置けないマスのハッシュ手は無視すること
+        moves = ordering.orderMoves(movable, Disc.BLACK, 0, 63);
+        assertEquals(0, moves[0]);
+    }
+
+    @Test
+    void testUpdateKiller() {
+        // 枝刈りを起こした手は、同じ手数でハッシュ手の次に並ぶこと
+        ordering.update(Disc.BLACK, 3, 20, 2, 1, true);
+        assertEquals(20, ordering.orderMoves(movable, Disc.BLACK, 3, TranspositionTable.NO_MOVE)[0]);
+        assertEquals(20, ordering.orderMoves(movable, Disc.BLACK, 3, 9)[1]);
+
+        // 最後に記録したキラー手が先に並ぶこと
+        ordering.update(Disc.BLACK, 3, 9, 1, 1, true);
+        int[] moves = ordering.orderMoves(movable, Disc.BLACK, 3, TranspositionTable.NO_MOVE);
+        assertEquals(9, moves[0]);
+        assertEquals(20, moves[1]);
+
+        // 別の手数では使用しないこと
+        assertEquals(0, ordering.orderMoves(movable, Disc.BLACK, 4, TranspositionTable.NO_MOVE)[0]);
+
+        // 新しい探索ではキラー手を消去すること
+        ordering.newSearch();
+        assertEquals(0, ordering.orderMoves(movable, Disc.BLACK, 3, TranspositionTable.NO_MOVE)[0]);
+    }
+
+    @Test
+    void testUpdateHistory() {
+        // 最善手となった実績が大きい手が先に並ぶこと（石の種類ごとに区別する）
+        ordering.update(Disc.WHITE, 0, 20, 1, 12, false);
+        assertEquals(20, ordering.orderMoves(movable, Disc.WHITE, 5, TranspositionTable.NO_MOVE)[0]);
+        assertEquals(0, ordering.orderMoves(movable, Disc.BLACK, 5, TranspositionTable.NO_MOVE)[0]);
+
+        // キラー手・ヒストリーを使用しない場合は行・列の昇順に並ぶこと
+        ordering.setHeuristicsEnabled(false);
+        int[] moves = ordering.orderMoves(movable, Disc.WHITE, 5, 19);
+        assertArrayEquals(new int[] { 19, 0, 2, 9, 20 }, Arrays.copyOf(moves, Long.bitCount(movable)));
+
+        // 消去した後は使用しないこと
+        ordering.setHeuristicsEnabled(true);
+        ordering.clear();
+        assertEquals(0, ordering.orderMoves(movable, Disc.WHITE, 5, TranspositionTable.NO_MOVE)[0]);
+    }
+
+    @Test
+    void testFirstBestRate() {
+        assertEquals(0.0, ordering.getFirstBestRate());
+        ordering.update(Disc.BLACK, 1, 0, 0, 1, true);
+        ordering.update(Disc.BLACK, 1, 2, 0, 1, false);
+        ordering.update(Disc.BLACK, 1, 9, 3, 1, true);
+        ordering.update(Disc.WHITE, 2, 19, 0, 1, true);
+
+        assertEquals(4, ordering.getBestFoundCount());
+        assertEquals(3, ordering.getFirstBestCount());
+        assertEquals(0.75, ordering.getFirstBestRate());
+
+        ordering.resetCounters();
+        assertEquals(0, ordering.getBestFoundCount());
+        assertEquals(0, ordering.getFirstBestCount());
+    }
+
+    @Test
+    void testGetSquareValue() {
+        // 角が最も高く、角に斜めに隣接するマスが最も低いこと
+        int max = Integer.MIN_VALUE;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < BitBoard.CELL_NUM; i++) {
+            max = Math.max(max, MoveOrdering.getSquareValue(i));
+            min = Math.min(min, MoveOrdering.getSquareValue(i));
+        }
+        assertEquals(max, MoveOrdering.getSquareValue(BitBoard.toIndex(7, 7)));
+        assertEquals(min, MoveOrdering.getSquareValue(BitBoard.toIndex(1, 6)));
+    }
+}
@@ -0,0 +1,141 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import common.Global;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+import test.RandomGame;
+
+class MtdF01Test {
+
+    // テスト対象クラスのインスタンス
+    MtdF01 mtdF01;
+    Board board;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        board = new Board(8, 8);
+        mtdF01 = new MtdF01(board, Disc.BLACK);
+    }
+
+    @Test
+    void testRun() {
+        assertNotNull(mtdF01.run());
+        assertEquals(MtdF01.DEFAULT_DEPTH, mtdF01.getCompletedDepth());
+        assertTrue(mtdF01.getNodeCount() > 0);
+
+        // 深さごとに少なくとも1回は探索すること
+        assertTrue(mtdF01.getIterationCount() >= MtdF01.DEFAULT_DEPTH + 1);
+        assertTrue(mtdF01.getLastIterationCount() >= 1);
+    }
+
+    @Test
+    void testRunEvaluator() {
+        // 評価関数を指定した場合は、探索の末端の局面をその評価関数で評価すること
+        final long[] evaluateCount = new long[1];
+        MtdF01 custom = new MtdF01(board, Disc.BLACK, 4, (player, opponent) -> {
+            evaluateCount[0]++;
+            return PatternEvaluator.getDefault().evaluate(player, opponent);
+        });
+        Dimension result = custom.run();
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+        assertTrue(evaluateCount[0] > 0);
+    }
+
+    @Test
+    void testRunTimeLimit() {
+        // 時間制限内に終えられない深さを指定し、時間制限で探索を打ち切ること
+        final int depth = 60;
+        MtdF01 algorithm = new MtdF01(board, Disc.BLACK, depth);
+        algorithm.setTimeLimit(200);
+
+        // 打ち切った深さの結果は使用せず、完了した深さの結果から石を置けるマスを選ぶこと
+        Dimension result = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> algorithm.run());
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+        assertTrue(algorithm.getCompletedDepth() >= 0);
+        assertTrue(algorithm.getCompletedDepth() < depth);
+    }
+
+    @Test
+    void testNewGame() {
+        // 新しい対局の開始時に、置換表が初期化されること
+        mtdF01.run();
+        assertTrue(mtdF01.getBoundTable().getStoreCount() > 0);
+
+        mtdF01.newGame();
+        assertEquals(0, mtdF01.getBoundTable().getStoreCount());
+        assertEquals(-1, mtdF01.getCompletedDepth());
+    }
+
+    /*
+     * 評価点への乱数加算がない状態で、全ての手を探索した評価値と同じ評価値に収束することをテストする<br>
+     * デフォルトは加算がある
+     */
+    @Test
+    void testRunSameScore() {
+        assertFalse(Global.IS_ADD_RANDOM);
+
+        // 固定のシードでランダムに石を置きながら、各局面で評価値を比較する
+        final int depth = 3;
+        RandomGame game = new RandomGame(board, 0);
+
+        while (game.next()) {
+            Disc disc = game.getTurnDisc();
+
+            MtdF01 algorithm = new MtdF01(board, disc, depth);
+            algorithm.setEndgameEmpties(0);
+            Dimension result = algorithm.run();
+            assertEquals(negaMax(board, disc, disc, depth + 1), algorithm.getScore());
+
+            // 選んだ手の評価値が、最善手の評価値と一致すること
+            long flip = board.doMove(BitBoard.toIndex(result.getRow(), result.getColumn()), disc);
+            assertEquals(algorithm.getScore(), -negaMax(board, disc, disc.next(), depth));
+            board.undoMove(BitBoard.toIndex(result.getRow(), result.getColumn()), disc, flip);
+        }
+    }
+
+    /**
+     * 全ての手を探索し、評価値を求める<br>
+     * 石を置けない場合はパスし（探索の深さに数えない）、両者とも置けない場合は終局時の石数の差で評価する。
+     * @param currentBoard リバーシ盤の状態
+     * @param playerDisc 評価するプレイヤーの石
+     * @param turnDisc 石を置くプレイヤーの石
+     * @param remainDepth 残りの探索の深さ
+     * @return {@code turnDisc} のプレイヤーから見た評価値
+     */
+    private int negaMax(Board currentBoard, Disc playerDisc, Disc turnDisc, int remainDepth) {
+        if (remainDepth == 0) {
+            int point = (currentBoard.getDiscNum(playerDisc) - currentBoard.getDiscNum(playerDisc.next())) * 100;
+            return (turnDisc == playerDisc) ? point : -point;
+        }
+
+        long movable = currentBoard.getMovableBits(turnDisc);
+        if (movable == 0) {
+            if (!currentBoard.canPutAll(turnDisc.next())) {
+                int point = (currentBoard.getDiscNum(playerDisc) - currentBoard.getDiscNum(playerDisc.next())) * 100;
+                return (turnDisc == playerDisc) ? point : -point;
+            }
+            return -negaMax(currentBoard, playerDisc, turnDisc.next(), remainDepth);
+        }
+
+        int maxPoint = -Integer.MAX_VALUE;
+        while (movable != 0) {
+            final int index = Long.numberOfTrailingZeros(movable);
+            movable &= movable - 1;
+            long flip = currentBoard.doMove(index, turnDisc);
+            maxPoint = Math.max(maxPoint, -negaMax(currentBoard, playerDisc, turnDisc.next(), remainDepth - 1));
+            currentBoard.undoMove(index, turnDisc, flip);
+        }
+        return maxPoint;
+    }
+}
@@ -0,0 +1,124 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import common.Global;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+import test.RandomGame;
+
+class NegaScout01Test {
+
+    // テスト対象クラスのインスタンス
+    NegaScout01 negaScout01;
+    Board board;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        board = new Board(8, 8);
+        negaScout01 = new NegaScout01(board, Disc.BLACK);
+    }
+
+    @Test
+    void testRun() {
+        assertNotNull(negaScout01.run());
+        assertEquals(NegaScout01.DEFAULT_DEPTH, negaScout01.getCompletedDepth());
+        assertTrue(negaScout01.getNodeCount() > 0);
+    }
+
+    @Test
+    void testRunEvaluator() {
+        // 評価関数を指定した場合は、探索の末端の局面をその評価関数で評価すること
+        final long[] evaluateCount = new long[1];
+        NegaScout01 custom = new NegaScout01(board, Disc.BLACK, 4, (player, opponent) -> {
+            evaluateCount[0]++;
+            return PatternEvaluator.getDefault().evaluate(player, opponent);
+        });
+        Dimension result = custom.run();
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+        assertTrue(evaluateCount[0] > 0);
+    }
+
+    @Test
+    void testRunTimeLimit() {
+        // 時間制限内に終えられない深さを指定し、時間制限で探索を打ち切ること
+        final int depth = 60;
+        NegaScout01 algorithm = new NegaScout01(board, Disc.BLACK, depth);
+        algorithm.setTimeLimit(200);
+
+        // 打ち切った深さの結果は使用せず、完了した深さの結果から石を置けるマスを選ぶこと
+        Dimension result = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> algorithm.run());
+        assertNotNull(result);
+        assertTrue(board.canPut(result, Disc.BLACK));
+        assertTrue(algorithm.getCompletedDepth() >= 0);
+        assertTrue(algorithm.getCompletedDepth() < depth);
+    }
+
+    @Test
+    void testNewGame() {
+        // 新しい対局の開始時に、置換表が初期化されること
+        negaScout01.run();
+        final long key = TranspositionTable.calcKey(board, Disc.BLACK);
+        assertNotEquals(TranspositionTable.NOT_FOUND, negaScout01.getTranspositionTable().find(key));
+
+        negaScout01.newGame();
+        assertEquals(TranspositionTable.NOT_FOUND, negaScout01.getTranspositionTable().find(key));
+        assertEquals(-1, negaScout01.getCompletedDepth());
+    }
+
+    @Test
+    void testRunSameNoiseAsAlphaBeta() {
+        // 同じシードの乱数を使用した場合は、評価値に乱数を加算しても Alpha-Beta法と同じ座標・評価値となること
+        // （乱数は局面ごとに決まるため、探索の順序や再探索の回数に影響されない）
+        final int maxScore = (BitBoard.CELL_NUM + 1) * 100;
+        RandomGame game = new RandomGame(board, 1);
+
+        while (game.next()) {
+            Disc disc = game.getTurnDisc();
+
+            AlphaBeta01 alphaBeta = new AlphaBeta01(board, disc, 4);
+            alphaBeta.setRandom(new SplittableRandom(board.getHashKey()));
+            alphaBeta.setEndgameEmpties(0);
+            Dimension expected = alphaBeta.run();
+
+            NegaScout01 negaScout = new NegaScout01(board, disc, 4);
+            negaScout.setRandom(new SplittableRandom(board.getHashKey()));
+            negaScout.setEndgameEmpties(0);
+            Dimension actual = negaScout.run();
+
+            assertEquals(expected.getString(), actual.getString());
+            assertEquals(alphaBeta.getRootScore(), negaScout.getRootScore());
+            // パスする局面・終局する局面を探索しても、Aspiration Window が最大・最小の評価値に広がらないこと
+            assertTrue(Math.abs(negaScout.getRootScore()) < maxScore);
+        }
+    }
+
+    /*
+     * 評価点への乱数加算がない状態で、Alpha-Beta法と同じ座標を選ぶことをテストする<br>
+     * デフォルトは加算がある
+     */
+    @Test
+    void testRunSameAsAlphaBeta() {
+        assertFalse(Global.IS_ADD_RANDOM);
+
+        // 固定のシードでランダムに石を置きながら、各局面で両アルゴリズムの結果を比較する
+        RandomGame game = new RandomGame(board, 0);
+
+        while (game.next()) {
+            Disc disc = game.getTurnDisc();
+
+            Dimension expected = new AlphaBeta01(board, disc, 4).run();
+            Dimension actual = new NegaScout01(board, disc, 4).run();
+            assertEquals(expected.getString(), actual.getString());
+        }
+    }
+}
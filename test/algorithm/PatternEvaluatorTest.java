@@ -0,0 +1,215 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+import reversi.PatternLayout;
+import reversi.PatternLayout.Pattern;
+import test.RandomGame;
+
+class PatternEvaluatorTest {
+
+    // テスト対象クラスのインスタンス
+    PatternEvaluator evaluator;
+
+    /** 左上の隅のパターンのマス (行, 列) を、盤面上のマスに移す変換（パターンの順番に対応する） */
+    interface Transform {
+        int apply(int row, int column);
+    }
+
+    static final Transform ID = (r, c) -> BitBoard.toIndex(r, c);
+    static final Transform V = (r, c) -> BitBoard.toIndex(7 - r, c);
+    static final Transform H = (r, c) -> BitBoard.toIndex(r, 7 - c);
+    static final Transform VH = (r, c) -> BitBoard.toIndex(7 - r, 7 - c);
+    static final Transform T = (r, c) -> BitBoard.toIndex(c, r);
+    static final Transform TV = (r, c) -> BitBoard.toIndex(c, 7 - r);
+    static final Transform TH = (r, c) -> BitBoard.toIndex(7 - c, r);
+    static final Transform TVH = (r, c) -> BitBoard.toIndex(7 - c, 7 - r);
+
+    static final Transform[] INSTANCE_TRANSFORMS = { ID, V, T, TV, ID, V, H, VH, ID, V, H, VH, T, TV, TH, TVH, ID, H };
+
+    @BeforeEach
+    void setUp() throws Exception {
+        evaluator = new PatternEvaluator();
+    }
+
+    @Test
+    void testTransform() {
+        // ビットボードの反転が、マスごとに移した結果と一致すること
+        Random random = new Random(0);
+        for (int n = 0; n < 100; n++) {
+            long bits = random.nextLong();
+            long vertical = 0L;
+            long horizontal = 0L;
+            long transposed = 0L;
+            for (int index = 0; index < BitBoard.CELL_NUM; index++) {
+                if ((bits & (1L << index)) == 0) {
+                    continue;
+                }
+                int row = BitBoard.toRow(index);
+                int column = BitBoard.toColumn(index);
+                vertical |= 1L << BitBoard.toIndex(7 - row, column);
+                horizontal |= 1L << BitBoard.toIndex(row, 7 - column);
+                transposed |= 1L << BitBoard.toIndex(column, row);
+            }
+            assertEquals(vertical, BitBoard.flipVertical(bits));
+            assertEquals(horizontal, BitBoard.flipHorizontal(bits));
+            assertEquals(transposed, BitBoard.transpose(bits));
+        }
+    }
+
+    @Test
+    void testCalcIndexes() {
+        assertEquals(INSTANCE_TRANSFORMS.length, PatternLayout.INSTANCE_NUM);
+
+        // パターンの番号が、パターンのマスの状態を3進数で並べた値と一致すること
+        Random random = new Random(0);
+        int[] indexes = new int[PatternLayout.INSTANCE_NUM];
+        for (int n = 0; n < 100; n++) {
+            long player = random.nextLong();
+            long opponent = random.nextLong() & ~player;
+            PatternLayout.calcIndexes(player, opponent, indexes);
+
+            int sum = 0;
+            for (int instance = 0; instance < PatternLayout.INSTANCE_NUM; instance++) {
+                Pattern pattern = PatternLayout.getInstancePattern(instance);
+                int expected = 0;
+                int digit = 1;
+                for (int i = 0; i < pattern.getCellNum(); i++) {
+                    int cell = pattern.getCell(i);
+                    int index = INSTANCE_TRANSFORMS[instance].apply(BitBoard.toRow(cell), BitBoard.toColumn(cell));
+                    if ((player & (1L << index)) != 0) {
+                        expected += digit;
+                    } else if ((opponent & (1L << index)) != 0) {
+                        expected += 2 * digit;
+                    }
+                    digit *= 3;
+                }
+                assertEquals(expected, indexes[instance], "instance " + instance);
+                sum += evaluator.getWeight(pattern, indexes[instance]);
+            }
+
+            // 評価値は全てのパターンの重みの合計であること
+            assertEquals(sum, evaluator.evaluate(player, opponent));
+        }
+    }
+
+    @Test
+    void testEvaluateSameAsCalcIndexes() {
+        // 対称でない重みでも、石の配置からの評価値が PatternLayout.calcIndexes() で求めた番号の重みの合計と一致すること
+        // （初期の重みは対称なため、パターンを移す向きの誤りを検出できない）
+        Random random = new Random(3);
+        short[][] weights = new short[Pattern.values().length][];
+        for (Pattern pattern : Pattern.values()) {
+            weights[pattern.ordinal()] = new short[pattern.getSize()];
+            for (int i = 0; i < pattern.getSize(); i++) {
+                weights[pattern.ordinal()][i] = (short) (random.nextInt(2001) - 1000);
+            }
+        }
+        PatternEvaluator custom = new PatternEvaluator(weights);
+
+        int[] indexes = new int[PatternLayout.INSTANCE_NUM];
+        for (int n = 0; n < 1000; n++) {
+            long player = random.nextLong();
+            long opponent = random.nextLong() & ~player;
+            PatternLayout.calcIndexes(player, opponent, indexes);
+
+            int expected = 0;
+            for (int instance = 0; instance < PatternLayout.INSTANCE_NUM; instance++) {
+                expected += custom.getWeight(PatternLayout.getInstancePattern(instance), indexes[instance]);
+            }
+            assertEquals(expected, custom.evaluate(player, opponent));
+        }
+
+        // リバーシ盤が差分で更新したパターンの番号で評価した値とも一致すること
+        Board board = new Board(8, 8);
+        custom.prepare(board);
+        RandomGame game = new RandomGame(board, 3);
+        while (game.next()) {
+            for (Disc player : Disc.values()) {
+                assertEquals(custom.evaluate(board.getDiscBits(player), board.getDiscBits(player.next())),
+                        custom.evaluate(board, player));
+            }
+        }
+    }
+
+    @Test
+    void testEvaluateSymmetry() {
+        // 初期の重みでは、盤面を反転しても評価値は変わらず、手番を入れ替えると符号が反転すること
+        Random random = new Random(1);
+        for (int n = 0; n < 100; n++) {
+            long player = random.nextLong();
+            long opponent = random.nextLong() & ~player;
+            int point = evaluator.evaluate(player, opponent);
+
+            assertEquals(-point, evaluator.evaluate(opponent, player));
+            assertEquals(point, evaluator.evaluate(BitBoard.flipVertical(player), BitBoard.flipVertical(opponent)));
+            assertEquals(point,
+                    evaluator.evaluate(BitBoard.flipHorizontal(player), BitBoard.flipHorizontal(opponent)));
+            assertEquals(point, evaluator.evaluate(BitBoard.transpose(player), BitBoard.transpose(opponent)));
+        }
+    }
+
+    @Test
+    void testEvaluateBoard() {
+        // リバーシ盤が保持するパターンの番号で評価した値が、石の配置から評価した値と一致すること
+        Board board = new Board(8, 8);
+        evaluator.prepare(board);
+        assertTrue(board.isPatternIndexesEnabled());
+
+        Random random = new Random(2);
+        Disc disc = Disc.BLACK;
+        while (board.canPutAll(Disc.BLACK) || board.canPutAll(Disc.WHITE)) {
+            for (Disc player : Disc.values()) {
+                assertEquals(evaluator.evaluate(board.getDiscBits(player), board.getDiscBits(player.next())),
+                        evaluator.evaluate(board, player));
+            }
+
+            long movable = board.getMovableBits(disc);
+            if (movable != 0) {
+                int skip = random.nextInt(Long.bitCount(movable));
+                for (int i = 0; i < skip; i++) {
+                    movable &= movable - 1;
+                }
+                board.doMove(Long.numberOfTrailingZeros(movable), disc);
+            }
+            disc = disc.next();
+        }
+    }
+
+    @Test
+    void testEvaluateCorner() {
+        final long a1 = 1L << BitBoard.toIndex(0, 0);
+        final long b2 = 1L << BitBoard.toIndex(1, 1);
+
+        // 隅は有利、隅が空いている場合の X 打ちは不利、隅が埋まっている場合の X 打ちは不利にならないこと
+        assertTrue(evaluator.evaluate(a1, 0L) > 0);
+        assertTrue(evaluator.evaluate(b2, 0L) < 0);
+        assertTrue(evaluator.evaluate(a1 | b2, 0L) > evaluator.evaluate(a1, 0L));
+        assertEquals(evaluator.evaluate(0L, a1), evaluator.evaluate(b2, a1));
+        assertEquals(0, evaluator.evaluate(0L, 0L));
+    }
+
+    @Test
+    void testPatternEvaluatorWeights() {
+        // 指定した重みは複製して保持すること
+        short[][] weights = evaluator.getWeights();
+        weights[Pattern.DIAGONAL.ordinal()][1] = 1234;
+        PatternEvaluator custom = new PatternEvaluator(weights);
+        weights[Pattern.DIAGONAL.ordinal()][1] = 0;
+        assertEquals(1234, custom.getWeight(Pattern.DIAGONAL, 1));
+        assertNotEquals(1234, evaluator.getWeight(Pattern.DIAGONAL, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> new PatternEvaluator(new short[1][]));
+        short[][] illegal = evaluator.getWeights();
+        illegal[Pattern.EDGE_X.ordinal()] = new short[10];
+        assertThrows(IllegalArgumentException.class, () -> new PatternEvaluator(illegal));
+    }
+}
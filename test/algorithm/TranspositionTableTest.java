@@ -0,0 +1,97 @@
+package algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reversi.Board;
+import reversi.Dimension;
+import reversi.Disc;
+
+class TranspositionTableTest {
+
+    // テスト対象クラスのインスタンス
+    TranspositionTable table;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        table = new TranspositionTable(1);
+    }
+
+    @Test
+    void testTranspositionTable() {
+        // 1MB に収まる2の累乗のエントリ数
+        assertEquals(1 << 16, table.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void testCalcKey() {
+        Board board = new Board(8, 8);
+        assertNotEquals(TranspositionTable.calcKey(board, Disc.BLACK), TranspositionTable.calcKey(board, Disc.WHITE));
+        assertEquals(board.getHashKey(), TranspositionTable.calcKey(board, Disc.BLACK));
+    }
+
+    @Test
+    void testStoreFind() {
+        final long key = 0x123456789abcdefL;
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(key));
+
+        table.store(key, 5, TranspositionTable.BOUND_LOWER, -1200, 63);
+        int slot = table.find(key);
+        assertNotEquals(TranspositionTable.NOT_FOUND, slot);
+        assertAll("記録した値を取得できること",
+                () -> assertEquals(5, table.getDepth(slot)),
+                () -> assertEquals(TranspositionTable.BOUND_LOWER, table.getBound(slot)),
+                () -> assertEquals(-1200, table.getScore(slot)),
+                () -> assertEquals(63, table.getBestMove(slot)));
+
+        // 評価値の最大値・最小値、最善手なしも記録できること
+        table.store(key, 0, TranspositionTable.BOUND_EXACT, -Integer.MAX_VALUE, TranspositionTable.NO_MOVE);
+        int slot2 = table.find(key);
+        assertEquals(-Integer.MAX_VALUE, table.getScore(slot2));
+        assertEquals(TranspositionTable.NO_MOVE, table.getBestMove(slot2));
+
+        assertEquals(2, table.getHitCount());
+        assertEquals(1, table.getMissCount());
+        assertEquals(2, table.getStoreCount());
+        assertEquals(0, table.getOverwriteCount());
+    }
+
+    @Test
+    void testStoreOverwrite() {
+        // 同じ格納位置になる別の局面
+        final long key1 = 1L;
+        final long key2 = 1L + table.getCapacity();
+
+        // 同じ探索中は、より深い探索の結果を残す
+        table.store(key1, 6, TranspositionTable.BOUND_EXACT, 100, 0);
+        table.store(key2, 3, TranspositionTable.BOUND_EXACT, 200, 0);
+        assertNotEquals(TranspositionTable.NOT_FOUND, table.find(key1));
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(key2));
+        assertEquals(0, table.getOverwriteCount());
+
+        // 新しい探索では、深さに関わらず上書きする
+        table.newSearch();
+        table.store(key2, 3, TranspositionTable.BOUND_EXACT, 200, 0);
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(key1));
+        assertNotEquals(TranspositionTable.NOT_FOUND, table.find(key2));
+        assertEquals(1, table.getOverwriteCount());
+
+        table.clear();
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(key2));
+        assertEquals(0, table.getHitCount());
+    }
+
+    @Test
+    void testUseInSearch() {
+        // 探索で局面が再利用されること
+        Board board = new Board(8, 8);
+        board.put(new Dimension(3, 2), Disc.BLACK);
+        AlphaBeta01 alphaBeta01 = new AlphaBeta01(board, Disc.WHITE, 5, table);
+        assertNotNull(alphaBeta01.run());
+        assertTrue(table.getStoreCount() > 0);
+        assertTrue(table.getHitCount() > 0);
+    }
+}
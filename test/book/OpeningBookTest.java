@@ -0,0 +1,181 @@
+package book;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gamerecord.GameRecordFile;
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.Disc;
+
+class OpeningBookTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLookup() throws Exception {
+        // 初期配置の局面で、棋譜の最初の手が勝ちの数に応じた重みで記録されること
+        List<int[]> games = new ArrayList<>();
+        games.add(GameRecordFile.parseMoves("f5"));
+        games.add(GameRecordFile.parseMoves("d3"));
+        games.add(GameRecordFile.parseMoves("d3"));
+        OpeningBook book = build(games, OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+        assertEquals(1, book.size());
+
+        Board board = new Board(8, 8);
+        Map<Integer, Integer> moves = lookup(book, board.getDiscBits(Disc.BLACK), board.getDiscBits(Disc.WHITE));
+        Map<Integer, Integer> expected = new HashMap<>();
+        expected.put(BitBoard.toIndex(4, 5), OpeningBookBuilder.WIN_SCORE);
+        expected.put(BitBoard.toIndex(2, 3), OpeningBookBuilder.WIN_SCORE * 2);
+        assertEquals(expected, moves);
+
+        // 記録されていない局面は候補がないこと
+        board.doMove(BitBoard.toIndex(4, 5), Disc.BLACK);
+        assertTrue(lookup(book, board.getDiscBits(Disc.WHITE), board.getDiscBits(Disc.BLACK)).isEmpty());
+        assertEquals(OpeningBook.NO_MOVE,
+                book.chooseMove(board.getDiscBits(Disc.WHITE), board.getDiscBits(Disc.BLACK), new SplittableRandom(0)));
+
+        // 出現回数が下限未満の局面は記録しないこと
+        assertEquals(1, build(games, OpeningBookBuilder.DEFAULT_MAX_PLY, 3).size());
+        assertEquals(0, build(games, OpeningBookBuilder.DEFAULT_MAX_PLY, 4).size());
+    }
+
+    @Test
+    void testLookupSymmetry() throws Exception {
+        // 回転・反転した局面では、候補の手も同じように回転・反転したマスとなること
+        final int[] moves = GameRecordFile.parseMoves("f5 d6 c3 d3 c4 f4 f6 f3 e6 e7");
+        List<int[]> games = new ArrayList<>();
+        games.add(moves);
+        OpeningBook book = build(games, OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+        assertTrue(book.size() > 0);
+
+        Board board = new Board(8, 8);
+        Disc disc = Disc.BLACK;
+        int checked = 0;
+        for (int move : moves) {
+            final long player = board.getDiscBits(disc);
+            final long opponent = board.getDiscBits(disc.next());
+            Map<Integer, Integer> original = lookup(book, player, opponent);
+            for (int t = 0; t < OpeningBook.TRANSFORM_NUM && !original.isEmpty(); t++) {
+                Map<Integer, Integer> expected = new HashMap<>();
+                for (Map.Entry<Integer, Integer> entry : original.entrySet()) {
+                    expected.put(OpeningBook.transformSquare(t, entry.getKey()), entry.getValue());
+                }
+                assertEquals(expected,
+                        lookup(book, OpeningBook.transform(t, player), OpeningBook.transform(t, opponent)));
+                checked++;
+            }
+            board.doMove(move, disc);
+            disc = disc.next();
+        }
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    void testChooseMove() throws Exception {
+        // 重みに比例した確率で、石を置ける候補の手を選ぶこと
+        List<int[]> games = new ArrayList<>();
+        games.add(GameRecordFile.parseMoves("f5"));
+        for (int i = 0; i < 3; i++) {
+            games.add(GameRecordFile.parseMoves("d3"));
+        }
+        OpeningBook book = build(games, OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+
+        Board board = new Board(8, 8);
+        final long player = board.getDiscBits(Disc.BLACK);
+        final long opponent = board.getDiscBits(Disc.WHITE);
+        SplittableRandom random = new SplittableRandom(0);
+        int[] counts = new int[BitBoard.CELL_NUM];
+        final int trialNum = 4000;
+        for (int i = 0; i < trialNum; i++) {
+            counts[book.chooseMove(player, opponent, random)]++;
+        }
+        assertEquals(trialNum, counts[BitBoard.toIndex(4, 5)] + counts[BitBoard.toIndex(2, 3)]);
+        assertEquals(trialNum / 4, counts[BitBoard.toIndex(4, 5)], trialNum / 20);
+
+        // 石を置けない候補は選ばないこと（ハッシュ値の衝突に備える）
+        assertEquals(OpeningBook.NO_MOVE, book.chooseMove(player, 0L, random));
+    }
+
+    @Test
+    void testBuilderIllegalMove() {
+        // 石を置けないマスを含む棋譜はエラーとすること
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        assertThrows(IllegalArgumentException.class, () -> builder.addGame(GameRecordFile.parseMoves("f5 a1")));
+        assertEquals(0, builder.size());
+        assertThrows(IllegalArgumentException.class, () -> new OpeningBookBuilder(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new OpeningBookBuilder(1, 0));
+    }
+
+    @Test
+    void testOpenInvalidFile() throws Exception {
+        // 形式の異なるファイル・大きさが一致しないファイルはエラーとすること
+        Path empty = tempDir.resolve("empty.bin");
+        Files.write(empty, new byte[0]);
+        assertThrows(IllegalArgumentException.class, () -> OpeningBook.open(empty));
+
+        Path other = tempDir.resolve("other.bin");
+        Files.write(other, new byte[OpeningBook.HEADER_SIZE]);
+        assertThrows(IllegalArgumentException.class, () -> OpeningBook.open(other));
+
+        List<int[]> games = new ArrayList<>();
+        games.add(GameRecordFile.parseMoves("f5"));
+        Path valid = tempDir.resolve("valid.bin");
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+        builder.addGames(games);
+        assertEquals(1, builder.write(valid));
+        assertEquals(1, OpeningBook.open(valid).size());
+        byte[] bytes = Files.readAllBytes(valid);
+        Path truncated = tempDir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> OpeningBook.open(truncated));
+
+        assertThrows(IOException.class, () -> OpeningBook.open(tempDir.resolve("missing.bin")));
+    }
+
+    /**
+     * 棋譜から定石のファイルを作成して開く
+     * @param games 棋譜
+     * @param maxPly 記録する手数の上限
+     * @param minCount 局面を記録する出現回数の下限
+     * @return 開いた定石
+     */
+    private OpeningBook build(List<int[]> games, int maxPly, int minCount) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPly, minCount);
+        builder.addGames(games);
+        Path path = Files.createTempFile(tempDir, "book", ".bin");
+        builder.write(path);
+        return OpeningBook.open(path);
+    }
+
+    /**
+     * 局面の候補の手と重みを取得する
+     * @param book 定石
+     * @param player 手番のプレイヤーの石のビットボード
+     * @param opponent 相手の石のビットボード
+     * @return マスのビット位置ごとの重み
+     */
+    private static Map<Integer, Integer> lookup(OpeningBook book, long player, long opponent) {
+        int[] squares = new int[BitBoard.CELL_NUM];
+        int[] weights = new int[BitBoard.CELL_NUM];
+        final int count = book.lookup(player, opponent, squares, weights);
+        Map<Integer, Integer> moves = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            moves.put(squares[i], weights[i]);
+        }
+        return moves;
+    }
+}
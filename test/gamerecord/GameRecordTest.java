@@ -116,6 +116,13 @@ class GameRecordTest {
                     () -> record.getDimString(-1));
         }
 
+        @Test
+        void testGetMoveString() {
+            // 座標を空白区切りで並べ、NULLの場合はSkipに変換される
+            assertEquals("a1 b2 Skip", record.getMoveString());
+            assertEquals("", new GameRecord().getMoveString());
+        }
+
         @Test
         void testGetBlackDiscNum() {
             assertEquals(3, record.getBlackDiscNum(0));
@@ -0,0 +1,98 @@
+package match;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import algorithm.AlgorithmType;
+
+class MatchRunnerTest {
+
+    @Test
+    void testRun() throws InterruptedException {
+        // 全ての対戦の結果が集計されること
+        MatchRunner runner = new MatchRunner(AlgorithmType.ORIGINAL_01, AlgorithmType.RANDOM, 20, 3);
+        MatchResult result = runner.run();
+
+        assertEquals(AlgorithmType.ORIGINAL_01, result.getTypeA());
+        assertEquals(AlgorithmType.RANDOM, result.getTypeB());
+        assertEquals(20, result.getGameNum());
+        assertEquals(20, result.getWins() + result.getDraws() + result.getLosses());
+        assertTrue(result.getScoreRate() >= 0.0 && result.getScoreRate() <= 1.0);
+        assertTrue(Math.abs(result.getAverageDiscMargin()) <= 64.0);
+        assertTrue(result.getGamesPerSecond() > 0.0);
+    }
+
+    @Test
+    void testRunNoGame() throws InterruptedException {
+        MatchResult result = new MatchRunner(AlgorithmType.RANDOM, AlgorithmType.RANDOM, 0, 1).run();
+        assertEquals(0, result.getGameNum());
+        assertEquals(0.0, result.getScoreRate());
+        assertEquals(0.0, result.getAverageDiscMargin());
+    }
+
+    @Test
+    void testMatchRunnerIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MatchRunner(AlgorithmType.MANUAL, AlgorithmType.RANDOM, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MatchRunner(AlgorithmType.RANDOM, null, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MatchRunner(AlgorithmType.RANDOM, AlgorithmType.RANDOM, -1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MatchRunner(AlgorithmType.RANDOM, AlgorithmType.RANDOM, 1, 0));
+    }
+
+    @Test
+    void testRunSameSeed() throws InterruptedException {
+        // 同じシードの場合は、スレッド数に関わらず同じ結果となること
+        MatchRunner runner1 = new MatchRunner(AlgorithmType.RANDOM, AlgorithmType.ORIGINAL_01, 30, 1);
+        MatchRunner runner2 = new MatchRunner(AlgorithmType.RANDOM, AlgorithmType.ORIGINAL_01, 30, 4);
+        runner1.setSeed(12345L);
+        runner2.setSeed(12345L);
+        MatchResult result1 = runner1.run();
+        MatchResult result2 = runner2.run();
+
+        assertEquals(12345L, result2.getSeed());
+        assertEquals(result1.getWins(), result2.getWins());
+        assertEquals(result1.getDraws(), result2.getDraws());
+        assertEquals(result1.getLosses(), result2.getLosses());
+        assertEquals(result1.getAverageDiscMargin(), result2.getAverageDiscMargin());
+    }
+
+    @Test
+    void testRunReusePlayers() throws InterruptedException {
+        // スレッドごとにプレイヤーを使い回しても、対戦ごとに新しく生成した場合と同じ結果となること
+        final int gameNum = 4;
+        MatchRunner runner = new MatchRunner(AlgorithmType.ALPHA_BETA_01, AlgorithmType.NEGA_SCOUT_01, gameNum, 1);
+        runner.setSeed(12345L);
+        MatchResult result = runner.run();
+
+        long totalDiscMargin = 0;
+        for (int i = 0; i < gameNum; i++) {
+            long gameSeed = runner.getGameSeed(i);
+            if (i % 2 == 0) {
+                totalDiscMargin += MatchRunner.playGame(AlgorithmType.ALPHA_BETA_01, AlgorithmType.NEGA_SCOUT_01, 0,
+                        gameSeed);
+            } else {
+                totalDiscMargin -= MatchRunner.playGame(AlgorithmType.NEGA_SCOUT_01, AlgorithmType.ALPHA_BETA_01, 0,
+                        gameSeed);
+            }
+        }
+        assertEquals((double) totalDiscMargin / gameNum, result.getAverageDiscMargin());
+    }
+
+    @Test
+    void testPlayGame() {
+        // 終局時の石数の差がリバーシ盤のマスの数以内であること
+        int margin = MatchRunner.playGame(AlgorithmType.RANDOM, AlgorithmType.ORIGINAL_01, 0, 1L);
+        assertTrue(Math.abs(margin) <= 64);
+
+        // 同じシードの対戦は再現できること
+        MatchRunner runner = new MatchRunner(AlgorithmType.RANDOM, AlgorithmType.RANDOM, 10, 1);
+        for (int i = 0; i < 10; i++) {
+            long gameSeed = runner.getGameSeed(i);
+            assertEquals(MatchRunner.playGame(AlgorithmType.RANDOM, AlgorithmType.RANDOM, 0, gameSeed),
+                    MatchRunner.playGame(AlgorithmType.RANDOM, AlgorithmType.RANDOM, 0, gameSeed));
+        }
+    }
+}
@@ -384,4 +384,45 @@ class ReversiModelTest {
             assertSame(ResultType.NONE, data.getResult());
         }
     }
+
+    @DisplayName("COM の思考を別スレッドで実行する場合のテスト")
+    @Nested
+    class TestAsyncCom {
+        Player player1, player2;
+        Reversi reversi;
+        ReversiModel model;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            player1 = new Player("COM1", Disc.BLACK, AlgorithmType.ALPHA_BETA_01);
+            player2 = new Player("COM2", Disc.WHITE, AlgorithmType.RANDOM);
+            reversi = new Reversi(player1, player2);
+            model = new ReversiModel(new ReversiData(reversi, player1, player2, false), false);
+            model.setAsync(true);
+        }
+
+        @Test
+        void testRun() throws InterruptedException {
+            assertAll("思考の開始時は石を置かずに戻り、リバーシ盤が変化しないこと",
+                    () -> assertDoesNotThrow(() -> model.run()),
+                    () -> assertTrue(model.isComThinking()),
+                    () -> assertEquals(60, reversi.getBoard().getEmptyDiscNum()));
+
+            // 思考が完了するまで待ち、石が置かれること
+            long deadline = System.currentTimeMillis() + 60000;
+            while (model.isComThinking() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+                model.run();
+            }
+            assertFalse(model.isComThinking());
+            assertEquals(59, reversi.getBoard().getEmptyDiscNum());
+            assertNotNull(model.getLatestTarget());
+
+            // 終局まで進められること
+            while (!model.isGameFinish() && System.currentTimeMillis() < deadline) {
+                model.run();
+            }
+            assertTrue(model.isGameFinish());
+        }
+    }
 }
@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import test.RandomGame;
+
 class BoardTest {
     Board board;
 
@@ -27,6 +29,32 @@ class BoardTest {
         assertTrue(board.isDiscBlack(new Dimension(3, 4)));
     }
 
+    @Test
+    void testBoardIllegalSize() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(0, 8));
+        assertThrows(IllegalArgumentException.class, () -> new Board(8, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Board(BitBoard.MAX_SIZE + 1, 8));
+        assertThrows(IllegalArgumentException.class, () -> new Board(8, BitBoard.MAX_SIZE + 1));
+    }
+
+    @Test
+    void testPutReverse() {
+        // 複数方向の石が同時に反転すること
+        assertTrue(board.put(new Dimension(2, 3), Disc.BLACK));
+        assertTrue(board.put(new Dimension(2, 2), Disc.WHITE));
+        assertTrue(board.put(new Dimension(3, 2), Disc.BLACK));
+        assertEquals(2, board.countReversibleDisc(new Dimension(2, 4), Disc.WHITE));
+        assertTrue(board.put(new Dimension(2, 4), Disc.WHITE));
+
+        assertAll("反転後の石の配置・個数",
+                () -> assertTrue(board.isDiscWhite(new Dimension(2, 3))),
+                () -> assertTrue(board.isDiscWhite(new Dimension(3, 4))),
+                () -> assertTrue(board.isDiscBlack(new Dimension(3, 3))),
+                () -> assertEquals(3, board.getDiscNum(Disc.BLACK)),
+                () -> assertEquals(5, board.getDiscNum(Disc.WHITE)),
+                () -> assertEquals(56, board.getEmptyDiscNum()));
+    }
+
     @Test
     void testCanPutAll() {
         assertTrue(board.canPutAll(Disc.BLACK));
@@ -51,6 +79,142 @@ class BoardTest {
         assertFalse(board.put(new Dimension(2, 4), Disc.BLACK));
     }
 
+    @Test
+    void testGetMovableBits() {
+        long expected = (1L << BitBoard.toIndex(2, 3)) | (1L << BitBoard.toIndex(3, 2))
+                | (1L << BitBoard.toIndex(4, 5)) | (1L << BitBoard.toIndex(5, 4));
+        assertEquals(expected, board.getMovableBits(Disc.BLACK));
+
+        // 全てのマスで canPut() の結果と一致すること
+        for (Disc disc : Disc.values()) {
+            long movable = board.getMovableBits(disc);
+            for (int i = 0; i < 8; i++) {
+                for (int j = 0; j < 8; j++) {
+                    Boolean isMovable = ((movable >>> BitBoard.toIndex(i, j)) & 1L) != 0;
+                    assertEquals(board.canPut(new Dimension(i, j), disc), isMovable);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDoMoveUndoMove() {
+        final int index = BitBoard.toIndex(3, 2);
+
+        // 石を置けない場合は状態を更新しない
+        assertEquals(0L, board.doMove(BitBoard.toIndex(0, 0), Disc.BLACK));
+        assertEquals(0L, board.doMove(BitBoard.toIndex(3, 3), Disc.BLACK));
+
+        long flip = board.doMove(index, Disc.BLACK);
+        assertAll("石を置いた後の状態",
+                () -> assertEquals(1L << BitBoard.toIndex(3, 3), flip),
+                () -> assertTrue(board.isDiscBlack(new Dimension(3, 2))),
+                () -> assertTrue(board.isDiscBlack(new Dimension(3, 3))),
+                () -> assertEquals(4, board.getDiscNum(Disc.BLACK)),
+                () -> assertEquals(1, board.getDiscNum(Disc.WHITE)));
+
+        board.undoMove(index, Disc.BLACK, flip);
+        assertAll("取り消し後に初期状態に戻ること",
+                () -> assertTrue(board.isDiscEmpty(new Dimension(3, 2))),
+                () -> assertTrue(board.isDiscWhite(new Dimension(3, 3))),
+                () -> assertEquals(2, board.getDiscNum(Disc.BLACK)),
+                () -> assertEquals(2, board.getDiscNum(Disc.WHITE)),
+                () -> assertEquals(60, board.getEmptyDiscNum()));
+    }
+
+    @Test
+    void testHashKey() {
+        final long initialKey = board.getHashKey();
+
+        // 石を置くと値が変わり、取り消すと元に戻ること
+        final int index = BitBoard.toIndex(3, 2);
+        long flip = board.doMove(index, Disc.BLACK);
+        assertNotEquals(initialKey, board.getHashKey());
+        board.undoMove(index, Disc.BLACK, flip);
+        assertEquals(initialKey, board.getHashKey());
+
+        // 石を置く順序が異なっても、同じ配置であれば同じ値になること
+        Board other = new Board(8, 8);
+        board.put(new Dimension(2, 3), Disc.BLACK);
+        board.put(new Dimension(2, 2), Disc.WHITE);
+        board.put(new Dimension(3, 2), Disc.BLACK);
+        other.put(new Dimension(3, 2), Disc.BLACK);
+        other.put(new Dimension(2, 2), Disc.WHITE);
+        other.put(new Dimension(2, 3), Disc.BLACK);
+        assertAll("同じ配置の比較",
+                () -> assertEquals(board, other),
+                () -> assertEquals(board.getHashKey(), other.getHashKey()),
+                () -> assertEquals(board.hashCode(), other.hashCode()));
+
+        // 差分で更新した値が、全てのマスから算出した値と一致すること
+        long black = 0L;
+        long white = 0L;
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                if (board.isDiscBlack(new Dimension(i, j))) {
+                    black |= 1L << BitBoard.toIndex(i, j);
+                } else if (board.isDiscWhite(new Dimension(i, j))) {
+                    white |= 1L << BitBoard.toIndex(i, j);
+                }
+            }
+        }
+        assertEquals(Board.calcHashKey(black, white), board.getHashKey());
+    }
+
+    @Test
+    void testPatternIndexes() throws CloneNotSupportedException {
+        assertFalse(board.isPatternIndexesEnabled());
+        board.enablePatternIndexes();
+        assertTrue(board.isPatternIndexesEnabled());
+        assertPatternIndexes(board);
+
+        // 固定のシードでランダムに石を置き、差分で更新した番号が全てのマスから求めた番号と一致すること
+        RandomGame game = new RandomGame(board, 0);
+        while (game.next()) {
+            Disc disc = game.getTurnDisc();
+            int index = game.getMove();
+
+            // 石を置いて取り消すと、元の番号に戻ること
+            Board before = board.clone();
+            long flip = board.doMove(index, disc);
+            assertPatternIndexes(board);
+            board.undoMove(index, disc, flip);
+            for (int instance = 0; instance < PatternLayout.INSTANCE_NUM; instance++) {
+                assertEquals(before.getPatternIndex(instance, Disc.BLACK), board.getPatternIndex(instance, Disc.BLACK));
+                assertEquals(before.getPatternIndex(instance, Disc.WHITE), board.getPatternIndex(instance, Disc.WHITE));
+            }
+        }
+
+        // 複製したリバーシ盤は番号を引き継ぎ、元のリバーシ盤と独立して更新すること
+        board = new Board(8, 8);
+        board.enablePatternIndexes();
+        Board cloneBoard = board.clone();
+        cloneBoard.put(new Dimension(2, 3), Disc.BLACK);
+        assertPatternIndexes(board);
+        assertPatternIndexes(cloneBoard);
+
+        // 石の配置を直接設定した場合は、全てのマスから求め直すこと
+        board.setDiscBits(0x0000000000000081L, 0x8100000000000000L);
+        assertPatternIndexes(board);
+    }
+
+    /**
+     * 保持しているパターンの番号が、現在の石の配置から求めた番号と一致することを確認する
+     * @param target 確認するリバーシ盤
+     */
+    private static void assertPatternIndexes(Board target) {
+        final long black = target.getDiscBits(Disc.BLACK);
+        final long white = target.getDiscBits(Disc.WHITE);
+        int[] blackIndexes = new int[PatternLayout.INSTANCE_NUM];
+        int[] whiteIndexes = new int[PatternLayout.INSTANCE_NUM];
+        PatternLayout.calcIndexes(black, white, blackIndexes);
+        PatternLayout.calcIndexes(white, black, whiteIndexes);
+        for (int instance = 0; instance < PatternLayout.INSTANCE_NUM; instance++) {
+            assertEquals(blackIndexes[instance], target.getPatternIndex(instance, Disc.BLACK));
+            assertEquals(whiteIndexes[instance], target.getPatternIndex(instance, Disc.WHITE));
+        }
+    }
+
     @Test
     void testCountReversibleDisc() {
 
@@ -97,6 +261,8 @@ class BoardTest {
             assertNotSame(boardClone, board);
             assertNotSame(boardClone.getSize(), board.getSize());
 
+            assertEquals(board.getHashKey(), boardClone.getHashKey());
+
             boardClone.put(target, Disc.BLACK);
             assertAll("コピー先の操作がコピー元に反映されないことを確認する",
                     () -> assertTrue(board.isDiscEmpty(target), "コピー元のマスに、置いていない石があります"),
@@ -0,0 +1,60 @@
+package reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class PerftTest {
+
+    @Test
+    void testCount() {
+        // 初期局面から数えた局面数が既知の値と一致すること
+        Perft perft = new Perft(new Board(8, 8), Disc.BLACK);
+        for (int depth = 0; depth <= 8; depth++) {
+            assertEquals(Perft.getReferenceCount(depth), perft.count(depth), "depth: " + depth);
+        }
+        assertThrows(IllegalArgumentException.class, () -> perft.count(-1));
+    }
+
+    @Test
+    void testCountParallel() {
+        // 並列で数えた局面数が1つのスレッドで数えた局面数と一致すること
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Perft perft = Perft.parse(Perft.START_POSITION);
+            for (int depth = 0; depth <= 8; depth++) {
+                assertEquals(Perft.getReferenceCount(depth), perft.countParallel(depth, pool), "depth: " + depth);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testCountWithPass() {
+        // 黒は石を置けずパスし、白が石を置くと黒石がなくなり終局すること
+        Perft perft = Perft.parse("OX------" + "--------------------------------------------------------" + "X");
+        assertEquals(1L, perft.count(1));
+        assertEquals(1L, perft.count(2));
+        assertEquals(1L, perft.count(3));
+        assertEquals(1L, perft.count(10));
+        assertEquals(1L, perft.countParallel(10, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    void testParse() {
+        // 初期局面の文字列から、初期状態のリバーシ盤と同じ局面になること
+        Perft perft = Perft.parse(Perft.START_POSITION);
+        assertEquals(new Board(8, 8), perft.getBoard());
+        assertEquals(new Board(8, 8).getHashKey(), perft.getBoard().getHashKey());
+        assertEquals(Disc.BLACK, perft.getTurnDisc());
+
+        assertThrows(IllegalArgumentException.class, () -> Perft.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Perft.parse("---- X"));
+        assertThrows(IllegalArgumentException.class, () -> Perft.parse(Perft.START_POSITION.replace('X', 'B')));
+        assertThrows(IllegalArgumentException.class, () -> Perft.parse(Perft.START_POSITION.replace(" X", " -")));
+        assertEquals(Perft.UNKNOWN_COUNT, Perft.getReferenceCount(-1));
+    }
+}
@@ -0,0 +1,79 @@
+package reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import algorithm.AlgorithmType;
+import book.OpeningBook;
+import book.OpeningBookBuilder;
+import gamerecord.GameRecordFile;
+
+class PlayerTest {
+
+    @Test
+    void testRunReuseAlgorithm() {
+        // 対局中は同じアルゴリズムのインスタンスを使い回すこと
+        Board board = new Board(8, 8);
+        Player player = new Player("COM", Disc.BLACK, AlgorithmType.ALPHA_BETA_01);
+        player.newGame();
+        assertNull(player.getAlgorithm());
+
+        Dimension target = player.run(board);
+        assertNotNull(player.getAlgorithm());
+        assertTrue(board.put(target, Disc.BLACK));
+
+        long movable = board.getMovableBits(Disc.WHITE);
+        Dimension reply = BitBoard.toDimension(Long.numberOfTrailingZeros(movable));
+        assertTrue(board.put(reply, Disc.WHITE));
+        player.notifyOpponentMove(reply);
+
+        Object algorithm = player.getAlgorithm();
+        assertTrue(board.put(player.run(board), Disc.BLACK));
+        assertSame(algorithm, player.getAlgorithm());
+
+        player.gameOver();
+        player.newGame();
+        assertSame(algorithm, player.getAlgorithm());
+    }
+
+    @Test
+    void testRunManual() {
+        // 手動のプレイヤーは、アルゴリズムを生成できないため例外時の代替のアルゴリズムで座標を決めること
+        Player player = new Player("Manual", Disc.BLACK, AlgorithmType.MANUAL);
+        assertNotNull(player.run(new Board(8, 8)));
+        assertNull(player.getAlgorithm());
+    }
+
+    @Test
+    void testRunOpeningBook(@TempDir Path tempDir) throws Exception {
+        // 定石に記録された局面では、アルゴリズムを生成せずに定石の手を選ぶこと
+        List<int[]> games = new ArrayList<>();
+        games.add(GameRecordFile.parseMoves("f5"));
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+        builder.addGames(games);
+        Path path = tempDir.resolve("book.bin");
+        builder.write(path);
+
+        Board board = new Board(8, 8);
+        Player player = new Player("COM", Disc.BLACK, AlgorithmType.ALPHA_BETA_01);
+        player.setOpeningBook(OpeningBook.open(path));
+        player.newGame();
+        Dimension target = player.run(board);
+        assertEquals(4, target.getRow());
+        assertEquals(5, target.getColumn());
+        assertNull(player.getAlgorithm());
+
+        // 定石に記録されていない局面では、アルゴリズムで思考すること
+        assertTrue(board.put(target, Disc.BLACK));
+        Player white = new Player("COM", Disc.WHITE, AlgorithmType.ALPHA_BETA_01);
+        white.setOpeningBook(OpeningBook.open(path));
+        assertTrue(board.put(white.run(board), Disc.WHITE));
+        assertNotNull(white.getAlgorithm());
+    }
+}
@@ -0,0 +1,90 @@
+package test;
+
+import java.util.Random;
+
+import reversi.Board;
+import reversi.Disc;
+
+/**
+ * 固定のシードでランダムに石を置きながら、終局までの各局面を順に提供するクラス<br>
+ * 黒石から開始し、石を置けないプレイヤーはパスする。同じシードでは常に同じ局面を同じ順序で提供する。
+ * <pre>
+ * RandomGame game = new RandomGame(board, 0);
+ * while (game.next()) {
+ *     // board, game.getTurnDisc(), game.getMove() を使用して検証する
+ * }
+ * </pre>
+ * @implNote この機能は JUnit などのテストでの使用のみを想定しており、運用での使用は非推奨です。
+ * @author komoto
+ */
+public class RandomGame {
+
+    /** 石を置くリバーシ盤 */
+    private final Board board;
+
+    /** 次に置く石を選ぶ乱数 */
+    private final Random random;
+
+    /** 現在の局面で石を置くプレイヤーの石 */
+    private Disc turnDisc;
+
+    /** 現在の局面で置く予定のマスのビット位置（局面を提供していない場合は {@code -1}） */
+    private int move;
+
+    /**
+     * 初期化を行う
+     * @param board 石を置くリバーシ盤。{@link #next()} の呼び出しごとに直接石を置く。
+     * @param seed 次に置く石を選ぶ乱数のシード
+     */
+    public RandomGame(Board board, long seed) {
+        this.board = board;
+        this.random = new Random(seed);
+        this.turnDisc = Disc.BLACK;
+        this.move = -1;
+    }
+
+    /**
+     * 現在の局面で選んだマスに石を置き、次に石を置くプレイヤーの局面に進める<br>
+     * 呼び出し元は、次に呼び出すまでにリバーシ盤を現在の局面の状態に戻すこと。
+     * @return 次の局面がある場合は真 {@code true}, 終局した場合は偽 {@code false}
+     */
+    public boolean next() {
+        if (move >= 0) {
+            board.doMove(move, turnDisc);
+            turnDisc = turnDisc.next();
+            move = -1;
+        }
+
+        while (board.canPutAll(Disc.BLACK) || board.canPutAll(Disc.WHITE)) {
+            long movable = board.getMovableBits(turnDisc);
+            if (movable == 0) {
+                turnDisc = turnDisc.next();
+                continue;
+            }
+
+            int skip = random.nextInt(Long.bitCount(movable));
+            for (int i = 0; i < skip; i++) {
+                movable &= movable - 1;
+            }
+            move = Long.numberOfTrailingZeros(movable);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 現在の局面で石を置くプレイヤーの石を取得する
+     * @return 石を置くプレイヤーの石
+     */
+    public Disc getTurnDisc() {
+        return turnDisc;
+    }
+
+    /**
+     * 現在の局面で次に置く予定のマスを取得する
+     * @return 置く予定のマスのビット位置（{@code 行 * 8 + 列}）
+     */
+    public int getMove() {
+        return move;
+    }
+}
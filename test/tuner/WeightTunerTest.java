@@ -0,0 +1,157 @@
+package tuner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import algorithm.AlgorithmType;
+import algorithm.MobilityEvaluator;
+import algorithm.PatternEvaluator;
+import gamerecord.GameRecord;
+import gamerecord.GameRecordFile;
+import match.MatchRunner;
+
+class WeightTunerTest {
+
+    // 並列処理に使用するスレッドプール
+    ForkJoinPool pool;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.shutdown();
+    }
+
+    @Test
+    void testFromGames() throws Exception {
+        // 対戦の棋譜をファイルに保存して読み込み、再生した終局時の石数の差が対戦結果と一致すること
+        List<GameRecord> records = new ArrayList<>();
+        List<Integer> margins = new ArrayList<>();
+        for (long seed = 0; seed < 5; seed++) {
+            records.add(MatchRunner.playRecordedGame(AlgorithmType.RANDOM, AlgorithmType.ORIGINAL_01, 0, seed));
+            margins.add(MatchRunner.playGame(AlgorithmType.RANDOM, AlgorithmType.ORIGINAL_01, 0, seed));
+        }
+        Path file = tempDir.resolve("games.txt");
+        GameRecordFile.append(file, records);
+        List<int[]> games = GameRecordFile.readMoves(file);
+        assertEquals(records.size(), games.size());
+
+        TrainingSet trainingSet = TrainingSet.fromGames(games);
+        int position = 0;
+        for (int game = 0; game < games.size(); game++) {
+            assertEquals(records.get(game).size(), games.get(game).length);
+            position += games.get(game).length;
+            int last = position - 1;
+            assertEquals((int) margins.get(game), trainingSet.getMargin(last));
+            assertEquals(records.get(game).getBlackDiscNum(records.get(game).size() - 1),
+                    Long.bitCount(trainingSet.getBlack(last)));
+        }
+        assertEquals(position, trainingSet.size());
+
+        // 石を置けないマスを含む棋譜はエラーとすること
+        List<int[]> illegal = new ArrayList<>();
+        illegal.add(GameRecordFile.parseMoves("a1"));
+        assertThrows(IllegalArgumentException.class, () -> TrainingSet.fromGames(illegal));
+        assertThrows(IllegalArgumentException.class, () -> GameRecordFile.parseMoves("f5 z9"));
+    }
+
+    @Test
+    void testFitMobility() throws Exception {
+        // 正解が特徴の値と重みの積の合計である場合、最小二乗法で同じ重みを求めること（正解が石数の差の整数となる重みとする）
+        final int[] expected = { 200, 100, -100, 300 };
+        final MobilityEvaluator evaluator = new MobilityEvaluator(expected);
+        TrainingSet trainingSet = createTrainingSet(2000, (black, white) -> evaluator.evaluate(black, white));
+
+        int[] weights = new WeightTuner(trainingSet, pool).fitMobility();
+        assertArrayEquals(expected, weights);
+        assertEquals(0.0, new WeightTuner(trainingSet, pool).calcRootMeanSquaredError(new MobilityEvaluator(weights)),
+                1e-9);
+    }
+
+    @Test
+    void testFitPattern() throws Exception {
+        // 確率的勾配降下法で、初期の重みより誤差が小さくなること
+        final MobilityEvaluator target = new MobilityEvaluator();
+        TrainingSet trainingSet = createTrainingSet(2000, (black, white) -> target.evaluate(black, white));
+        WeightTuner tuner = new WeightTuner(trainingSet, pool);
+
+        PatternEvaluator initial = new PatternEvaluator();
+        PatternEvaluator tuned = new PatternEvaluator(tuner.fitPattern(initial.getWeights(), 5, 0.002, 0L));
+        assertTrue(tuner.calcRootMeanSquaredError(tuned) < tuner.calcRootMeanSquaredError(initial));
+    }
+
+    @Test
+    void testSolve() {
+        // 部分ピボット選択が必要な連立一次方程式を解けること
+        double[][] a = { { 0.0, 2.0, 1.0 }, { 1.0, 1.0, 0.0 }, { 3.0, 0.0, 1.0 } };
+        double[] b = { 7.0, 3.0, 6.0 };
+        assertArrayEquals(new double[] { 1.0, 2.0, 3.0 }, WeightTuner.solve(a, b), 1e-9);
+    }
+
+    @Test
+    void testSaveAndLoad() throws Exception {
+        // 保存した重みを読み込むと、同じ重みとなること
+        Path mobilityFile = tempDir.resolve("mobility.bin");
+        MobilityEvaluator mobility = new MobilityEvaluator(new int[] { 1, -2, 3, -4 });
+        mobility.save(mobilityFile);
+        assertArrayEquals(mobility.getWeights(), MobilityEvaluator.load(mobilityFile).getWeights());
+
+        Path patternFile = tempDir.resolve("pattern.bin");
+        short[][] weights = new PatternEvaluator().getWeights();
+        weights[0][1] = -1234;
+        PatternEvaluator pattern = new PatternEvaluator(weights);
+        pattern.save(patternFile);
+        short[][] loaded = PatternEvaluator.load(patternFile).getWeights();
+        for (int i = 0; i < weights.length; i++) {
+            assertArrayEquals(weights[i], loaded[i]);
+        }
+
+        // 形式の異なるファイルはエラーとすること
+        assertThrows(IllegalArgumentException.class, () -> PatternEvaluator.load(mobilityFile));
+        assertThrows(IllegalArgumentException.class, () -> MobilityEvaluator.load(patternFile));
+        Files.write(tempDir.resolve("empty.bin"), new byte[0]);
+        assertThrows(IOException.class, () -> MobilityEvaluator.load(tempDir.resolve("empty.bin")));
+    }
+
+    /** 局面の正解を求める処理 */
+    interface Label {
+        int apply(long black, long white);
+    }
+
+    /**
+     * ランダムな局面と、指定した処理で求めた正解（評価値を石数の差に換算した値）の集合を作成する
+     * @param size 局面の数
+     * @param label 正解を求める処理（評価値）
+     * @return 局面の集合
+     */
+    private static TrainingSet createTrainingSet(int size, Label label) {
+        Random random = new Random(0);
+        long[] blacks = new long[size];
+        long[] whites = new long[size];
+        int[] margins = new int[size];
+        for (int i = 0; i < size; i++) {
+            blacks[i] = random.nextLong() & random.nextLong();
+            whites[i] = random.nextLong() & random.nextLong() & ~blacks[i];
+            margins[i] = label.apply(blacks[i], whites[i]) / WeightTuner.POINT_PER_DISC;
+        }
+        return new TrainingSet(blacks, whites, margins);
+    }
+}